@@ -0,0 +1,43 @@
+package com.selco.auth.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Executa os benchmarks uma vez para cada quantidade de threads e grava um JSON por execução
+ *
+ * -Dbench.include: regex dos benchmarks (padrão: todos)
+ * -Dbench.threads: quantidades de threads separadas por vírgula (padrão: 1,4)
+ * -Dbench.output: diretório dos resultados (padrão: target/jmh-results)
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = System.getProperty("bench.include", ".*");
+        String[] threads = System.getProperty("bench.threads", "1,4").split(",");
+        Path saida = Paths.get(System.getProperty("bench.output", "target/jmh-results"));
+        Files.createDirectories(saida);
+
+        for (String valor : threads) {
+            int quantidade = Integer.parseInt(valor.trim());
+            Options opcoes = new OptionsBuilder()
+                    .include(include)
+                    .threads(quantidade)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(saida.resolve("jmh-t" + quantidade + ".json").toString())
+                    .build();
+            new Runner(opcoes).run();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.selco.auth.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selco.auth.dto.LoginRequestDTO;
+import com.selco.auth.dto.LoginResponseDTO;
+import com.selco.auth.dto.TokenValidationDTO;
+import com.selco.auth.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das respostas HTTP de login e validação, com o ObjectMapper configurado como no Spring MVC
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoSerializacaoBenchmark {
+
+    private ObjectMapper objectMapper;
+    private LoginResponseDTO loginSucesso;
+    private LoginResponseDTO loginErro;
+    private TokenValidationDTO tokenValido;
+    private String loginJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Mesmo ajuste de datas que o Spring Boot aplica ao ObjectMapper do MVC
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        JwtService jwtService = new ServicosEmMemoria(4).getJwtService();
+        String accessToken = jwtService.generateAccessToken("funcionario@selco.com.br", "FUNCIONARIO", "65ee1f0c9d1e4a2b3c4d5e6f");
+        String refreshToken = jwtService.generateRefreshToken("funcionario@selco.com.br");
+
+        loginSucesso = LoginResponseDTO.sucesso("Login realizado com sucesso", accessToken, refreshToken, "FUNCIONARIO", 28_800);
+        loginErro = LoginResponseDTO.erro("Credenciais inválidas");
+        tokenValido = TokenValidationDTO.valido("65ee1f0c9d1e4a2b3c4d5e6f", "funcionario@selco.com.br",
+                "funcionario@selco.com.br", "FUNCIONARIO", LocalDateTime.of(2024, 3, 10, 17, 0));
+        loginJson = "{\"email\":\"funcionario@selco.com.br\",\"senha\":\"123456\"}";
+    }
+
+    @Benchmark
+    public byte[] serializarLoginSucesso() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loginSucesso);
+    }
+
+    @Benchmark
+    public byte[] serializarLoginErro() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loginErro);
+    }
+
+    @Benchmark
+    public byte[] serializarTokenValido() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tokenValido);
+    }
+
+    @Benchmark
+    public LoginRequestDTO desserializarLoginRequest() throws JsonProcessingException {
+        return objectMapper.readValue(loginJson, LoginRequestDTO.class);
+    }
+}
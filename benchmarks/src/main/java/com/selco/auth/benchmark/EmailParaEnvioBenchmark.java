@@ -0,0 +1,56 @@
+package com.selco.auth.benchmark;
+
+import com.selco.auth.events.EmailParaEnvio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem dos eventos EmailParaEnvio: corpo renderizado no serviço (modo full)
+ * comparado ao evento por template com parâmetros (modo compact)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailParaEnvioBenchmark {
+
+    private static final String DESTINATARIO = "funcionario@selco.com.br";
+    private static final List<String> IPS = List.of("177.10.20.30", "177.10.20.31", "2804:14c:1::1");
+    private final LocalDateTime primeira = LocalDateTime.of(2024, 3, 10, 9, 0);
+    private final LocalDateTime ultima = primeira.plusMinutes(4);
+
+    @Benchmark
+    public EmailParaEnvio renderizarCadastro() {
+        return EmailParaEnvio.cadastroFuncionario(DESTINATARIO, "Funcionário SELCO", "123456");
+    }
+
+    @Benchmark
+    public EmailParaEnvio renderizarLoginSucesso() {
+        return EmailParaEnvio.notificacaoLogin(DESTINATARIO, DESTINATARIO, true, "177.10.20.30");
+    }
+
+    @Benchmark
+    public EmailParaEnvio renderizarResumoLoginFalha() {
+        return EmailParaEnvio.resumoLoginFalha(DESTINATARIO, DESTINATARIO, 7, IPS, primeira, ultima);
+    }
+
+    @Benchmark
+    public EmailParaEnvio montarLoginSucessoPorTemplate() {
+        return EmailParaEnvio.porTemplate(DESTINATARIO, "LOGIN_SUCESSO", "login-sucesso", 1,
+                Map.of("nomeUsuario", DESTINATARIO, "dataHora", LocalDateTime.now(), "ip", "177.10.20.30"));
+    }
+}
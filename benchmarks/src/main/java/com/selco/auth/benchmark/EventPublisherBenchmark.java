@@ -0,0 +1,42 @@
+package com.selco.auth.benchmark;
+
+import com.selco.auth.events.EmailParaEnvio;
+import com.selco.auth.service.EventPublisherService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho de publicação no EventPublisherService (serialização, headers e envio) com o RabbitTemplate em memória
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPublisherBenchmark {
+
+    private EventPublisherService eventPublisherService;
+    private EmailParaEnvio email;
+
+    @Setup
+    public void setUp() {
+        eventPublisherService = new ServicosEmMemoria(4).getEventPublisherService();
+        email = EmailParaEnvio.notificacaoLogin("funcionario@selco.com.br", "funcionario@selco.com.br", true, "177.10.20.30");
+    }
+
+    @Benchmark
+    public void publicarEmailParaEnvio() {
+        eventPublisherService.publicarEmailParaEnvio(email);
+    }
+}
@@ -0,0 +1,92 @@
+package com.selco.auth.benchmark;
+
+import com.selco.auth.events.EmailParaEnvio;
+import com.selco.auth.events.LogAcessoRegistrado;
+import com.selco.auth.events.UsuarioCriado;
+import com.selco.auth.events.codec.CborEventCodec;
+import com.selco.auth.events.codec.EventCodec;
+import com.selco.auth.events.codec.EventCodecRegistry;
+import com.selco.auth.events.codec.JsonEventCodec;
+import com.selco.auth.events.codec.SmileEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização dos eventos publicados no RabbitMQ em cada codec disponível
+ * Ida e volta e tamanho no fio de cada codec são verificados no teste unitário EventCodecTest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventoSerializacaoBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String codecNome;
+
+    private EventCodec codec;
+    private UsuarioCriado usuarioCriado;
+    private EmailParaEnvio emailCompleto;
+    private EmailParaEnvio emailCompacto;
+    private LogAcessoRegistrado logAcesso;
+    private byte[] emailCompletoSerializado;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = new EventCodecRegistry(List.of(new JsonEventCodec(), new SmileEventCodec(), new CborEventCodec()))
+                .getCodec(codecNome);
+
+        LocalDateTime agora = LocalDateTime.of(2024, 3, 10, 9, 0);
+        usuarioCriado = new UsuarioCriado("65ee1f0c9d1e4a2b3c4d5e6f", "funcionario@selco.com.br", "Funcionário SELCO",
+                "Engenharia", "Analista", "FUNCIONARIO", "ATIVO", agora, "123456");
+        emailCompleto = EmailParaEnvio.cadastroFuncionario("funcionario@selco.com.br", "Funcionário SELCO", "123456");
+        emailCompacto = EmailParaEnvio.porTemplate("funcionario@selco.com.br", "LOGIN_SUCESSO", "login-sucesso", 1,
+                Map.of("nomeUsuario", "Funcionário SELCO", "dataHora", agora, "ip", "177.10.20.30"));
+        logAcesso = new LogAcessoRegistrado("65ee1f0c9d1e4a2b3c4d5e6f", "177.10.20.30",
+                "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0.0.0 Safari/537.36",
+                true, "Login realizado com sucesso", agora);
+        emailCompletoSerializado = codec.serializar(emailCompleto);
+    }
+
+    @Benchmark
+    public byte[] serializarUsuarioCriado() throws IOException {
+        return codec.serializar(usuarioCriado);
+    }
+
+    @Benchmark
+    public byte[] serializarEmailCompleto() throws IOException {
+        return codec.serializar(emailCompleto);
+    }
+
+    @Benchmark
+    public byte[] serializarEmailCompacto() throws IOException {
+        return codec.serializar(emailCompacto);
+    }
+
+    @Benchmark
+    public byte[] serializarLogAcesso() throws IOException {
+        return codec.serializar(logAcesso);
+    }
+
+    @Benchmark
+    public EmailParaEnvio desserializarEmailCompleto() throws IOException {
+        return codec.desserializar(emailCompletoSerializado, EmailParaEnvio.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.selco.auth.benchmark;
+
+import com.selco.auth.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assinatura e verificação de tokens JWT (HS256) com claims de tamanhos diferentes
+ * tamanhoClaim controla o tamanho do usuarioId gravado no token, simulando tokens com mais dados
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"24", "256", "2048"})
+    private int tamanhoClaim;
+
+    private JwtService jwtService;
+    private String usuarioId;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new ServicosEmMemoria(4).getJwtService();
+        usuarioId = "u".repeat(tamanhoClaim);
+        token = jwtService.generateAccessToken("funcionario@selco.com.br", "FUNCIONARIO", usuarioId);
+    }
+
+    @Benchmark
+    public String assinarAccessToken() {
+        return jwtService.generateAccessToken("funcionario@selco.com.br", "FUNCIONARIO", usuarioId);
+    }
+
+    @Benchmark
+    public String extrairEmail() {
+        return jwtService.extractEmail(token);
+    }
+
+    /**
+     * Mesma sequência de AuthService.validarToken: cada chamada faz o parse completo do token
+     */
+    @Benchmark
+    public boolean validarComoAuthService() {
+        return !jwtService.isTokenExpired(token)
+                && jwtService.extractEmail(token) != null
+                && jwtService.validateToken(token, "funcionario@selco.com.br");
+    }
+}
@@ -0,0 +1,71 @@
+package com.selco.auth.benchmark;
+
+import com.selco.auth.dto.LoginRequestDTO;
+import com.selco.auth.dto.LoginResponseDTO;
+import com.selco.auth.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login completo no AuthService com MongoDB, Redis e RabbitMQ em memória
+ * Com forcaBcrypt=10 (padrão do Spring Security) a verificação da senha domina o tempo;
+ * com 4 sobra o custo do restante do caminho (busca, tokens, log de acesso e notificação)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String EMAIL = "funcionario@selco.com.br";
+    private static final String SENHA = "123456";
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    private static final String IP = "177.10.20.30";
+
+    @Param({"4", "10"})
+    private int forcaBcrypt;
+
+    private AuthService authService;
+    private LoginRequestDTO loginValido;
+    private LoginRequestDTO loginSenhaIncorreta;
+    private LoginRequestDTO loginUsuarioInexistente;
+
+    @Setup
+    public void setUp() {
+        ServicosEmMemoria servicos = new ServicosEmMemoria(forcaBcrypt);
+        servicos.cadastrarUsuario(EMAIL, SENHA, forcaBcrypt);
+        authService = servicos.getAuthService();
+
+        loginValido = new LoginRequestDTO(EMAIL, SENHA);
+        loginSenhaIncorreta = new LoginRequestDTO(EMAIL, "senha-errada");
+        loginUsuarioInexistente = new LoginRequestDTO("inexistente@selco.com.br", SENHA);
+    }
+
+    @Benchmark
+    public LoginResponseDTO loginSucesso() {
+        return authService.realizarLogin(loginValido, USER_AGENT, IP);
+    }
+
+    @Benchmark
+    public LoginResponseDTO loginSenhaIncorreta() {
+        return authService.realizarLogin(loginSenhaIncorreta, USER_AGENT, IP);
+    }
+
+    @Benchmark
+    public LoginResponseDTO loginUsuarioInexistente() {
+        return authService.realizarLogin(loginUsuarioInexistente, USER_AGENT, IP);
+    }
+}
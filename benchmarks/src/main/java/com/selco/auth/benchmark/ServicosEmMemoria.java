@@ -0,0 +1,273 @@
+package com.selco.auth.benchmark;
+
+import com.selco.auth.audit.sink.AccessLogSink;
+import com.selco.auth.cache.CacheCoherenceService;
+import com.selco.auth.events.codec.CborEventCodec;
+import com.selco.auth.events.codec.EventCodecRegistry;
+import com.selco.auth.events.codec.JsonEventCodec;
+import com.selco.auth.events.codec.SmileEventCodec;
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.model.Usuario;
+import com.selco.auth.repository.UsuarioRepository;
+import com.selco.auth.service.AuthMetrics;
+import com.selco.auth.service.AuthService;
+import com.selco.auth.service.EmailEventFactory;
+import com.selco.auth.service.EventPublisherService;
+import com.selco.auth.service.EventSpillJournal;
+import com.selco.auth.service.JwtService;
+import com.selco.auth.service.LoginNotificationAggregator;
+import com.selco.auth.service.LoginStatsAggregator;
+import com.selco.auth.service.PublisherConfirmTracker;
+import com.selco.auth.service.RedisTokenBlacklistStore;
+import com.selco.auth.service.SessionRegistry;
+import com.selco.auth.service.TokenBlacklistService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monta os serviços de autenticação sem Spring, trocando MongoDB, Redis e RabbitMQ por substitutos em memória
+ * Os substitutos só guardam o mínimo para o caminho medido; o custo medido é o do serviço, não o da rede
+ */
+public final class ServicosEmMemoria {
+
+    public static final String SEGREDO_JWT = "benchmarkSecretKey12345678901234567890123456789012345678901234567890";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, Usuario> usuarios = new ConcurrentHashMap<>();
+    private final AtomicLong mensagensEnviadas = new AtomicLong();
+    private final AtomicLong logsRegistrados = new AtomicLong();
+
+    private final AuthMetrics authMetrics;
+    private final JwtService jwtService;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final EventPublisherService eventPublisherService;
+    private final EmailEventFactory emailEventFactory;
+    private final AuthService authService;
+
+    public ServicosEmMemoria(int forcaBcrypt) {
+        authMetrics = new AuthMetrics();
+        definir(authMetrics, "meterRegistry", meterRegistry);
+        definir(authMetrics, "histograma", true);
+        definir(authMetrics, "percentis", new double[0]);
+
+        jwtService = new JwtService();
+        definir(jwtService, "jwtSecret", SEGREDO_JWT);
+        definir(jwtService, "jwtExpirationTime", 28_800_000L);
+        definir(jwtService, "refreshExpirationTime", 604_800_000L);
+        definir(jwtService, "authMetrics", authMetrics);
+
+        RedisTokenBlacklistStore blacklistStore = new RedisTokenBlacklistStore();
+        definir(blacklistStore, "redisTemplate", new RedisEmMemoria());
+
+        // Sem transporte de coerência os caches locais ficam desligados e cada consulta vai à origem
+        CacheCoherenceService cacheCoherenceService = new CacheCoherenceService();
+        definir(cacheCoherenceService, "meterRegistry", meterRegistry);
+        cacheCoherenceService.init();
+
+        tokenBlacklistService = new TokenBlacklistService();
+        definir(tokenBlacklistService, "blacklistStore", blacklistStore);
+        definir(tokenBlacklistService, "jwtService", jwtService);
+        definir(tokenBlacklistService, "authMetrics", authMetrics);
+        definir(tokenBlacklistService, "cacheCoherenceService", cacheCoherenceService);
+
+        PublisherConfirmTracker publisherConfirmTracker = new PublisherConfirmTracker();
+        definir(publisherConfirmTracker, "habilitado", false);
+
+        EventSpillJournal eventSpillJournal = new EventSpillJournal();
+        definir(eventSpillJournal, "habilitado", false);
+
+        eventPublisherService = new EventPublisherService();
+        definir(eventPublisherService, "rabbitTemplate", new RabbitEmMemoria(mensagensEnviadas));
+        definir(eventPublisherService, "publisherConfirmTracker", publisherConfirmTracker);
+        definir(eventPublisherService, "eventCodecRegistry",
+                new EventCodecRegistry(List.of(new JsonEventCodec(), new SmileEventCodec(), new CborEventCodec())));
+        definir(eventPublisherService, "eventSpillJournal", eventSpillJournal);
+        definir(eventPublisherService, "authMetrics", authMetrics);
+        definir(eventPublisherService, "userExchange", "selco.user.exchange");
+        definir(eventPublisherService, "emailExchange", "selco.email.exchange");
+        definir(eventPublisherService, "auditExchange", "selco.audit.exchange");
+        definir(eventPublisherService, "userCreatedRoutingKey", "user.created");
+        definir(eventPublisherService, "emailSendRoutingKey", "email.send");
+        definir(eventPublisherService, "accessLogRoutingKey", "audit.access");
+        definir(eventPublisherService, "userCodecNome", "json");
+        definir(eventPublisherService, "emailCodecNome", "json");
+        definir(eventPublisherService, "auditCodecNome", "json");
+        eventPublisherService.init();
+
+        emailEventFactory = new EmailEventFactory();
+        definir(emailEventFactory, "modo", "full");
+
+        LoginNotificationAggregator loginNotificationAggregator = new LoginNotificationAggregator();
+        definir(loginNotificationAggregator, "eventPublisherService", eventPublisherService);
+        definir(loginNotificationAggregator, "emailEventFactory", emailEventFactory);
+        definir(loginNotificationAggregator, "habilitado", false);
+
+        LoginStatsAggregator loginStatsAggregator = new LoginStatsAggregator();
+        definir(loginStatsAggregator, "habilitado", false);
+
+        // Sem registro de sessões: os tokens saem sem sid e o login não grava na coleção tokens
+        SessionRegistry sessionRegistry = new SessionRegistry();
+        definir(sessionRegistry, "meterRegistry", meterRegistry);
+        definir(sessionRegistry, "habilitado", false);
+        sessionRegistry.init();
+
+        authService = new AuthService();
+        definir(authService, "usuarioRepository", usuarioRepository());
+        definir(authService, "accessLogSink", new AccessLogSink() {
+            @Override
+            public String getNome() {
+                return "memoria";
+            }
+
+            @Override
+            public void registrar(LogAcesso log) {
+                logsRegistrados.incrementAndGet();
+            }
+        });
+        definir(authService, "passwordEncoder", new BCryptPasswordEncoder(forcaBcrypt));
+        definir(authService, "jwtService", jwtService);
+        definir(authService, "tokenBlacklistService", tokenBlacklistService);
+        definir(authService, "eventPublisherService", eventPublisherService);
+        definir(authService, "emailEventFactory", emailEventFactory);
+        definir(authService, "loginNotificationAggregator", loginNotificationAggregator);
+        definir(authService, "loginStatsAggregator", loginStatsAggregator);
+        definir(authService, "authMetrics", authMetrics);
+        definir(authService, "cacheCoherenceService", cacheCoherenceService);
+        definir(authService, "sessionRegistry", sessionRegistry);
+    }
+
+    /**
+     * Cadastra um usuário ativo com a senha informada, já com hash BCrypt
+     */
+    public Usuario cadastrarUsuario(String email, String senha, int forcaBcrypt) {
+        Usuario usuario = new Usuario(email, new BCryptPasswordEncoder(forcaBcrypt).encode(senha), "FUNCIONARIO", "ATIVO");
+        usuario.setId(Integer.toHexString(email.hashCode()));
+        usuarios.put(email, usuario);
+        return usuario;
+    }
+
+    public JwtService getJwtService() {
+        return jwtService;
+    }
+
+    public TokenBlacklistService getTokenBlacklistService() {
+        return tokenBlacklistService;
+    }
+
+    public EventPublisherService getEventPublisherService() {
+        return eventPublisherService;
+    }
+
+    public EmailEventFactory getEmailEventFactory() {
+        return emailEventFactory;
+    }
+
+    public AuthService getAuthService() {
+        return authService;
+    }
+
+    public long getMensagensEnviadas() {
+        return mensagensEnviadas.get();
+    }
+
+    public long getLogsRegistrados() {
+        return logsRegistrados.get();
+    }
+
+    /**
+     * UsuarioRepository que responde apenas findByEmail, buscarParaValidacao e save a partir de um mapa
+     */
+    private UsuarioRepository usuarioRepository() {
+        return (UsuarioRepository) Proxy.newProxyInstance(UsuarioRepository.class.getClassLoader(),
+                new Class<?>[]{UsuarioRepository.class}, (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "findByEmail", "buscarParaValidacao" -> Optional.ofNullable(usuarios.get((String) argumentos[0]));
+                    case "save" -> {
+                        Usuario usuario = (Usuario) argumentos[0];
+                        usuarios.put(usuario.getEmail(), usuario);
+                        yield usuario;
+                    }
+                    case "toString" -> "UsuarioRepository em memória";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == argumentos[0];
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+
+    /**
+     * Atribui um campo privado, como a injeção por campo do Spring faria
+     */
+    static void definir(Object alvo, String campo, Object valor) {
+        for (Class<?> tipo = alvo.getClass(); tipo != null; tipo = tipo.getSuperclass()) {
+            try {
+                Field field = tipo.getDeclaredField(campo);
+                field.setAccessible(true);
+                field.set(alvo, valor);
+                return;
+            } catch (NoSuchFieldException e) {
+                // procura na superclasse
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("Campo " + campo + " não existe em " + alvo.getClass().getName());
+    }
+
+    /**
+     * RedisTemplate com as chaves em um mapa; expiração não é simulada
+     */
+    static final class RedisEmMemoria extends RedisTemplate<String, String> {
+
+        private final Map<String, String> valores = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private final ValueOperations<String, String> operacoes = (ValueOperations<String, String>) Proxy.newProxyInstance(
+                ValueOperations.class.getClassLoader(), new Class<?>[]{ValueOperations.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "set" -> {
+                        valores.put((String) argumentos[0], (String) argumentos[1]);
+                        yield null;
+                    }
+                    case "get" -> valores.get((String) argumentos[0]);
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+
+        @Override
+        public Boolean hasKey(String key) {
+            return valores.containsKey(key);
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return operacoes;
+        }
+    }
+
+    /**
+     * RabbitTemplate que apenas conta as mensagens já serializadas
+     */
+    static final class RabbitEmMemoria extends RabbitTemplate {
+
+        private final AtomicLong enviadas;
+
+        RabbitEmMemoria(AtomicLong enviadas) {
+            this.enviadas = enviadas;
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message) {
+            enviadas.incrementAndGet();
+        }
+    }
+}
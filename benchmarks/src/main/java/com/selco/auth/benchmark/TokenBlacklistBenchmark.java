@@ -0,0 +1,67 @@
+package com.selco.auth.benchmark;
+
+import com.selco.auth.service.JwtService;
+import com.selco.auth.service.TokenBlacklistService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta e gravação na blacklist sobre um Redis em memória: mede a montagem da chave
+ * (prefixo + token inteiro), a leitura da expiração do token e a instrumentação, sem a latência da rede
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBlacklistBenchmark {
+
+    @Param({"24", "256", "2048"})
+    private int tamanhoClaim;
+
+    private TokenBlacklistService tokenBlacklistService;
+    private String tokenValido;
+    private String tokenInvalidado;
+
+    @Setup
+    public void setUp() {
+        ServicosEmMemoria servicos = new ServicosEmMemoria(4);
+        JwtService jwtService = servicos.getJwtService();
+        tokenBlacklistService = servicos.getTokenBlacklistService();
+
+        String usuarioId = "u".repeat(tamanhoClaim);
+        tokenValido = jwtService.generateAccessToken("ativo@selco.com.br", "FUNCIONARIO", usuarioId);
+        tokenInvalidado = jwtService.generateAccessToken("saiu@selco.com.br", "FUNCIONARIO", usuarioId);
+        tokenBlacklistService.invalidateToken(tokenInvalidado);
+    }
+
+    @Benchmark
+    public boolean consultarTokenValido() {
+        return tokenBlacklistService.isTokenBlacklisted(tokenValido);
+    }
+
+    @Benchmark
+    public boolean consultarTokenInvalidado() {
+        return tokenBlacklistService.isTokenBlacklisted(tokenInvalidado);
+    }
+
+    /**
+     * Logout: leitura da expiração do token e gravação com TTL
+     */
+    @Benchmark
+    public void invalidarToken() {
+        tokenBlacklistService.invalidateToken(tokenValido);
+    }
+}
@@ -72,42 +72,29 @@ db.createCollection('tokens', {
   }
 });
 
+// Logs de acesso em coleção time-series: dataHora como campo de tempo e
+// origem (usuarioId/ip) como metaField, com expiração automática de 90 dias
 db.createCollection('logs_acesso', {
-  validator: {
-    $jsonSchema: {
-      bsonType: 'object',
-      required: ['dataHora', 'ip'],
-      properties: {
-        usuarioId: {
-          bsonType: 'objectId'
-        },
-        dataHora: {
-          bsonType: 'date'
-        },
-        ip: {
-          bsonType: 'string'
-        },
-        userAgent: {
-          bsonType: 'string'
-        },
-        sucesso: {
-          bsonType: 'bool'
-        },
-        motivo: {
-          bsonType: 'string'
-        }
-      }
-    }
-  }
+  timeseries: {
+    timeField: 'dataHora',
+    metaField: 'origem',
+    granularity: 'seconds'
+  },
+  expireAfterSeconds: 7776000
 });
 
 // Criar índices para performance
 db.usuarios.createIndex({ "email": 1 }, { unique: true });
 db.usuarios.createIndex({ "status": 1 });
 db.tokens.createIndex({ "usuarioId": 1 });
+db.tokens.createIndex({ "refreshToken": 1 });
 db.tokens.createIndex({ "dataExpiracao": 1 }, { expireAfterSeconds: 0 });
-db.logs_acesso.createIndex({ "usuarioId": 1 });
-db.logs_acesso.createIndex({ "dataHora": -1 });
+db.logs_acesso.createIndex({ "origem.usuarioId": 1, "sucesso": 1, "dataHora": -1 });
+db.logs_acesso.createIndex({ "origem.ip": 1, "sucesso": 1, "dataHora": -1 });
+db.logs_acesso.createIndex({ "sucesso": 1, "dataHora": -1 });
+db.login_stats.createIndex({ "dimensao": 1, "valor": 1, "minuto": 1 });
+db.login_stats.createIndex({ "minuto": 1 }, { name: "minuto_ttl", expireAfterSeconds: 2592000 });
+db.user_agents.createIndex({ "valor": 1 }, { unique: true });
 
 // Inserir usuário admin padrão para testes
 db.usuarios.insertOne({
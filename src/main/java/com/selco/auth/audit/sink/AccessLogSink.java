@@ -0,0 +1,21 @@
+package com.selco.auth.audit.sink;
+
+import com.selco.auth.model.LogAcesso;
+
+/**
+ * SPI de persistência dos logs de acesso gerados pela autenticação
+ * A implementação ativa é escolhida por app.audit.sink.type (mongo, mongo-batch, rabbit ou journal);
+ * as implementações não podem lançar exceção para não afetar o login
+ */
+public interface AccessLogSink {
+
+    /**
+     * Nome usado na configuração (ex.: mongo, journal)
+     */
+    String getNome();
+
+    /**
+     * Entrega o log ao destino; pode ser assíncrono conforme a implementação
+     */
+    void registrar(LogAcesso log);
+}
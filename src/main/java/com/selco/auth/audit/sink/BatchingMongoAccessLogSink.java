@@ -0,0 +1,117 @@
+package com.selco.auth.audit.sink;
+
+import com.selco.auth.model.LogAcesso;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Acumula os logs de acesso em uma fila limitada e grava em lotes com insertMany
+ * O login só enfileira o log; com a fila cheia (MongoDB lento ou indisponível) o log é descartado
+ * e contado em selco.audit.sink.dropped, em vez de segurar a requisição
+ *
+ * Um lote com erro volta inteiro para a fila, então uma falha parcial pode gravar parte dos logs duas vezes
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.sink.type", havingValue = "mongo-batch")
+public class BatchingMongoAccessLogSink implements AccessLogSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingMongoAccessLogSink.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.audit.sink.mongo-batch.queue-capacity:50000}")
+    private int capacidadeFila;
+
+    @Value("${app.audit.sink.mongo-batch.batch-size:500}")
+    private int tamanhoLote;
+
+    private BlockingQueue<LogAcesso> fila;
+
+    private Counter descartados;
+
+    private Counter falhasLote;
+
+    @PostConstruct
+    public void init() {
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.descartados = Counter.builder("selco.audit.sink.dropped")
+                .tag("sink", getNome())
+                .description("Logs de acesso descartados pelo sink")
+                .register(meterRegistry);
+        this.falhasLote = Counter.builder("selco.audit.sink.batch.failures")
+                .description("Lotes de logs de acesso que falharam ao gravar e voltaram para a fila")
+                .register(meterRegistry);
+        Gauge.builder("selco.audit.sink.queue.size", fila, BlockingQueue::size)
+                .tag("sink", getNome())
+                .register(meterRegistry);
+        logger.info("Logs de acesso gravados em lotes de até {} (fila de {})", tamanhoLote, capacidadeFila);
+    }
+
+    @Override
+    public String getNome() {
+        return "mongo-batch";
+    }
+
+    @Override
+    public void registrar(LogAcesso log) {
+        if (!fila.offer(log)) {
+            descartados.increment();
+            logger.warn("Fila de logs de acesso cheia ({}), log descartado", capacidadeFila);
+        }
+    }
+
+    /**
+     * Esvazia a fila em lotes; no primeiro lote com erro os logs voltam para a fila
+     * e a gravação é retomada na próxima execução
+     */
+    @Scheduled(fixedDelayString = "${app.audit.sink.mongo-batch.flush-interval-ms:200}")
+    public void descarregar() {
+        List<LogAcesso> lote = new ArrayList<>(tamanhoLote);
+        while (fila.drainTo(lote, tamanhoLote) > 0) {
+            try {
+                mongoTemplate.insert(lote, LogAcesso.class);
+            } catch (Exception e) {
+                falhasLote.increment();
+                int devolvidos = 0;
+                for (LogAcesso log : lote) {
+                    if (fila.offer(log)) {
+                        devolvidos++;
+                    }
+                }
+                descartados.increment(lote.size() - devolvidos);
+                logger.warn("Erro ao gravar lote de {} logs de acesso, {} voltaram para a fila: {}",
+                        lote.size(), devolvidos, e.getMessage());
+                return;
+            }
+            lote.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        descarregar();
+        if (!fila.isEmpty()) {
+            logger.warn("{} logs de acesso não gravados no encerramento", fila.size());
+        }
+    }
+}
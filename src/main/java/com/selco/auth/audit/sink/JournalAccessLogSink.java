@@ -0,0 +1,338 @@
+package com.selco.auth.audit.sink;
+
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.service.LogAcessoRecordCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal binário append-only dos logs de acesso, para implantações que não querem escrita de auditoria
+ * no banco de autenticação
+ *
+ * O arquivo corrente termina em .journal.open; ao atingir max-file-bytes ou rotate-interval-ms ele é
+ * sincronizado, ganha um arquivo .sha256 (formato do sha256sum) e é renomeado para .journal.
+ * Arquivos .journal estão prontos para envio por ferramenta externa, que deve removê-los após a entrega;
+ * o serviço nunca apaga arquivos selados
+ *
+ * Formato: cabeçalho [magic][versão] e registros [int tamanho][int crc32][LogAcessoRecordCodec]
+ * Os registros ficam em um buffer em memória por até flush-interval-ms antes do fsync,
+ * então uma queda do processo perde no máximo esse intervalo
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.sink.type", havingValue = "journal")
+public class JournalAccessLogSink implements AccessLogSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalAccessLogSink.class);
+    static final int MAGIC = 0x53414A4C; // "SAJL"
+    static final short VERSAO = 1;
+    static final int CABECALHO_ARQUIVO = 6;
+    static final int CABECALHO_REGISTRO = 8;
+    static final String PREFIXO = "access-";
+    static final String EXTENSAO_SELADO = ".journal";
+    static final String EXTENSAO_ABERTO = ".journal.open";
+    static final String EXTENSAO_CHECKSUM = ".sha256";
+    private static final DateTimeFormatter FORMATO_NOME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.audit.sink.journal.directory:${java.io.tmpdir}/selco-auth/access-journal}")
+    private String diretorio;
+
+    @Value("${app.audit.sink.journal.max-file-bytes:67108864}")
+    private long maxBytesArquivo;
+
+    @Value("${app.audit.sink.journal.rotate-interval-ms:3600000}")
+    private long intervaloRotacaoMs;
+
+    @Value("${app.audit.sink.journal.buffer-bytes:262144}")
+    private int tamanhoBuffer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteArrayOutputStream registro = new ByteArrayOutputStream(512);
+    private final CRC32 crc = new CRC32();
+
+    private Path caminho;
+    private ByteBuffer pendente;
+    private Arquivo atual;
+    private int sequencia;
+
+    private Counter descartados;
+    private Counter rotacoes;
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.descartados = Counter.builder("selco.audit.sink.dropped")
+                .tag("sink", getNome())
+                .description("Logs de acesso descartados pelo sink")
+                .register(meterRegistry);
+        this.rotacoes = Counter.builder("selco.audit.journal.rotations")
+                .description("Arquivos do journal de logs de acesso selados para envio")
+                .register(meterRegistry);
+
+        this.caminho = Paths.get(diretorio);
+        this.pendente = ByteBuffer.allocate(tamanhoBuffer);
+        Files.createDirectories(caminho);
+        recuperar();
+        logger.info("Logs de acesso gravados no journal local {}", caminho);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.lock();
+        try {
+            escreverPendente();
+            if (atual != null) {
+                selar();
+            }
+        } catch (IOException e) {
+            logger.error("Erro ao selar journal de logs de acesso no encerramento: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String getNome() {
+        return "journal";
+    }
+
+    @Override
+    public void registrar(LogAcesso log) {
+        lock.lock();
+        try {
+            registro.reset();
+            LogAcessoRecordCodec.codificar(log, registro);
+            int tamanho = registro.size();
+            if (CABECALHO_REGISTRO + tamanho > pendente.remaining()) {
+                escreverPendente();
+                if (CABECALHO_REGISTRO + tamanho > pendente.capacity()) {
+                    descartados.increment();
+                    logger.error("Log de acesso de {} bytes excede o buffer do journal", tamanho);
+                    return;
+                }
+            }
+
+            byte[] bytes = registro.toByteArray();
+            crc.reset();
+            crc.update(bytes);
+            pendente.putInt(tamanho).putInt((int) crc.getValue()).put(bytes);
+        } catch (IOException e) {
+            descartados.increment();
+            logger.error("Erro ao gravar log de acesso no journal: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava o buffer, sincroniza com o disco e sela o arquivo corrente se ele passou do intervalo de rotação
+     */
+    @Scheduled(fixedDelayString = "${app.audit.sink.journal.flush-interval-ms:1000}")
+    public void descarregar() {
+        lock.lock();
+        try {
+            escreverPendente();
+            if (atual != null) {
+                atual.canal.force(false);
+                if (System.currentTimeMillis() - atual.criadoEm >= intervaloRotacaoMs) {
+                    selar();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Erro ao descarregar journal de logs de acesso: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lê um arquivo do journal, selado ou não, até o fim ou o primeiro registro truncado ou corrompido
+     * Usado por ferramentas de envio e reprocessamento; retorna a quantidade de registros lidos
+     */
+    public static long ler(Path arquivo, Consumer<LogAcesso> consumidor) throws IOException {
+        ByteBuffer dados = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        return varrer(dados, arquivo, consumidor);
+    }
+
+    private static long varrer(ByteBuffer dados, Path arquivo, Consumer<LogAcesso> consumidor) throws IOException {
+        if (dados.remaining() < CABECALHO_ARQUIVO || dados.getInt() != MAGIC || dados.getShort() != VERSAO) {
+            throw new IOException("Arquivo de journal inválido: " + arquivo);
+        }
+
+        long registros = 0;
+        CRC32 verificacao = new CRC32();
+        while (dados.remaining() >= CABECALHO_REGISTRO) {
+            int inicio = dados.position();
+            int tamanho = dados.getInt();
+            int crcEsperado = dados.getInt();
+            if (tamanho <= 0 || tamanho > dados.remaining()) {
+                dados.position(inicio);
+                break;
+            }
+
+            verificacao.reset();
+            verificacao.update(dados.array(), dados.position(), tamanho);
+            if ((int) verificacao.getValue() != crcEsperado) {
+                logger.warn("Registro corrompido em {} na posição {}, ignorando o restante", arquivo, inicio);
+                dados.position(inicio);
+                break;
+            }
+
+            if (consumidor != null) {
+                consumidor.accept(LogAcessoRecordCodec.decodificar(dados.slice(dados.position(), tamanho)));
+            }
+            dados.position(dados.position() + tamanho);
+            registros++;
+        }
+        return registros;
+    }
+
+    private void escreverPendente() throws IOException {
+        if (pendente.position() == 0) {
+            return;
+        }
+        if (atual == null) {
+            atual = abrir();
+        }
+
+        pendente.flip();
+        atual.sha256.update(pendente.array(), 0, pendente.limit());
+        while (pendente.hasRemaining()) {
+            atual.tamanho += atual.canal.write(pendente);
+        }
+        pendente.clear();
+
+        if (atual.tamanho >= maxBytesArquivo) {
+            selar();
+        }
+    }
+
+    private Arquivo abrir() throws IOException {
+        String base;
+        do {
+            base = PREFIXO + LocalDateTime.now().format(FORMATO_NOME) + String.format("-%06d", sequencia++);
+        } while (Files.exists(caminho.resolve(base + EXTENSAO_ABERTO)) || Files.exists(caminho.resolve(base + EXTENSAO_SELADO)));
+
+        Path arquivo = caminho.resolve(base + EXTENSAO_ABERTO);
+        FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        Arquivo novo = new Arquivo(arquivo, canal, novoDigest());
+
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_ARQUIVO).putInt(MAGIC).putShort(VERSAO).flip();
+        novo.sha256.update(cabecalho.array());
+        while (cabecalho.hasRemaining()) {
+            novo.tamanho += canal.write(cabecalho);
+        }
+        return novo;
+    }
+
+    /**
+     * Sincroniza e fecha o arquivo corrente, grava o .sha256 e publica o arquivo como .journal
+     */
+    private void selar() throws IOException {
+        Arquivo arquivo = atual;
+        atual = null;
+        arquivo.canal.force(true);
+        arquivo.canal.close();
+        selar(arquivo.caminho, arquivo.sha256);
+        rotacoes.increment();
+    }
+
+    private static void selar(Path aberto, MessageDigest sha256) throws IOException {
+        String nome = aberto.getFileName().toString();
+        Path selado = aberto.resolveSibling(nome.substring(0, nome.length() - EXTENSAO_ABERTO.length()) + EXTENSAO_SELADO);
+
+        // O checksum existe antes do .journal, então quem envia nunca vê um arquivo selado sem ele
+        String linha = HexFormat.of().formatHex(sha256.digest()) + "  " + selado.getFileName() + "\n";
+        Files.write(selado.resolveSibling(selado.getFileName() + EXTENSAO_CHECKSUM), linha.getBytes(StandardCharsets.UTF_8));
+        Files.move(aberto, selado, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Journal de logs de acesso selado: {}", selado.getFileName());
+    }
+
+    /**
+     * Sela os arquivos .journal.open deixados por uma execução anterior,
+     * truncando no último registro íntegro
+     */
+    private void recuperar() throws IOException {
+        List<Path> abertos;
+        try (Stream<Path> arquivos = Files.list(caminho)) {
+            abertos = arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(EXTENSAO_ABERTO)).sorted().toList();
+        }
+
+        for (Path aberto : abertos) {
+            ByteBuffer dados = ByteBuffer.wrap(Files.readAllBytes(aberto));
+            long registros;
+            try {
+                registros = varrer(dados, aberto, null);
+            } catch (IOException e) {
+                logger.warn("Journal de logs de acesso sem cabeçalho válido removido: {}", aberto.getFileName());
+                Files.delete(aberto);
+                continue;
+            }
+
+            int valido = dados.position();
+            if (valido < dados.capacity()) {
+                try (FileChannel canal = FileChannel.open(aberto, StandardOpenOption.WRITE)) {
+                    canal.truncate(valido);
+                    canal.force(true);
+                }
+            }
+            MessageDigest sha256 = novoDigest();
+            sha256.update(dados.array(), 0, valido);
+            selar(aberto, sha256);
+            logger.warn("Journal de logs de acesso recuperado após reinício: {} ({} registros)", aberto.getFileName(), registros);
+        }
+    }
+
+    private static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static final class Arquivo {
+        private final Path caminho;
+        private final FileChannel canal;
+        private final MessageDigest sha256;
+        private final long criadoEm = System.currentTimeMillis();
+        private long tamanho;
+
+        private Arquivo(Path caminho, FileChannel canal, MessageDigest sha256) {
+            this.caminho = caminho;
+            this.canal = canal;
+            this.sha256 = sha256;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.selco.auth.audit.sink;
+
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.repository.LogAcessoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grava cada log de acesso em logs_acesso na própria requisição de login (comportamento padrão)
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.sink.type", havingValue = "mongo", matchIfMissing = true)
+public class MongoAccessLogSink implements AccessLogSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoAccessLogSink.class);
+
+    @Autowired
+    private LogAcessoRepository logAcessoRepository;
+
+    @Override
+    public String getNome() {
+        return "mongo";
+    }
+
+    @Override
+    public void registrar(LogAcesso log) {
+        try {
+            logAcessoRepository.save(log);
+        } catch (Exception e) {
+            logger.error("Erro ao gravar log de acesso no MongoDB: {}", e.getMessage(), e);
+        }
+    }
+}
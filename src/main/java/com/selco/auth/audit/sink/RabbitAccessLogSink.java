@@ -0,0 +1,56 @@
+package com.selco.auth.audit.sink;
+
+import com.selco.auth.events.LogAcessoRegistrado;
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.service.EventPublisherService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica cada log de acesso como evento LogAcessoRegistrado na exchange de auditoria
+ * Usa o mesmo caminho dos demais eventos (codec configurável, publisher confirms e journal local
+ * quando o broker está fora), então logs_acesso deixa de receber escritas do login
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.sink.type", havingValue = "rabbit")
+public class RabbitAccessLogSink implements AccessLogSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitAccessLogSink.class);
+
+    @Autowired
+    private EventPublisherService eventPublisherService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter descartados;
+
+    @PostConstruct
+    public void init() {
+        this.descartados = Counter.builder("selco.audit.sink.dropped")
+                .tag("sink", getNome())
+                .description("Logs de acesso descartados pelo sink")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getNome() {
+        return "rabbit";
+    }
+
+    @Override
+    public void registrar(LogAcesso log) {
+        try {
+            eventPublisherService.publicarLogAcesso(LogAcessoRegistrado.de(log));
+        } catch (Exception e) {
+            descartados.increment();
+            logger.error("Erro ao publicar log de acesso: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.selco.auth.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selco.auth.model.Usuario;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coerência dos caches locais entre réplicas
+ *
+ * Regiões:
+ *   usuarios   Usuario por email, usado na validação de token
+ *   blacklist  resultado da consulta à blacklist por hash do token
+ *
+ * Quem altera um dado chama invalidar(regiao, chave): a chave é removida localmente na hora e a
+ * invalidação entra no lote enviado a cada app.cache.coherence.batch-interval-ms. Os receptores
+ * aplicam cada invalidação pela versão (repetidas ou mais antigas são ignoradas) e descartam
+ * todas as regiões quando a sequência de um nó salta ou quando a assinatura é refeita, pois o
+ * transporte não guarda o que foi publicado enquanto o nó estava desconectado.
+ * O TTL de cada região limita quanto tempo um dado fica desatualizado se o transporte falhar
+ *
+ * Sem transporte (app.cache.coherence.transport=none) as regiões ficam desligadas e toda leitura
+ * vai à origem, que é o comportamento correto para várias réplicas sem canal de invalidação
+ */
+@Service
+public class CacheCoherenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheCoherenceService.class);
+
+    public static final String USUARIOS = "usuarios";
+    public static final String BLACKLIST = "blacklist";
+
+    @Autowired(required = false)
+    private CoherenceTransport transport;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cache.coherence.batch-interval-ms:20}")
+    private long intervaloLoteMs;
+
+    @Value("${app.cache.coherence.batch-max-size:500}")
+    private int tamanhoMaximoLote;
+
+    @Value("${app.cache.coherence.clock-skew-ms:1000}")
+    private long toleranciaRelogioMs;
+
+    @Value("${app.cache.coherence.retry-interval-ms:5000}")
+    private long intervaloRetentativaMs;
+
+    @Value("${app.cache.usuarios.enabled:true}")
+    private boolean usuariosHabilitado;
+
+    @Value("${app.cache.usuarios.ttl-seconds:30}")
+    private long usuariosTtlSegundos;
+
+    @Value("${app.cache.usuarios.max-entries:100000}")
+    private int usuariosMaxEntradas;
+
+    @Value("${app.cache.blacklist.enabled:true}")
+    private boolean blacklistHabilitado;
+
+    @Value("${app.cache.blacklist.ttl-seconds:10}")
+    private long blacklistTtlSegundos;
+
+    @Value("${app.cache.blacklist.max-entries:200000}")
+    private int blacklistMaxEntradas;
+
+    private final String no = UUID.randomUUID().toString();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Map<String, Long> ultimaSequenciaPorNo = new ConcurrentHashMap<>();
+    private final Map<String, LocalCache<?>> regioes = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Invalidacao> pendentes = new ConcurrentLinkedQueue<>();
+
+    private LocalCache<Usuario> usuarios;
+    private LocalCache<Boolean> blacklist;
+    private ScheduledExecutorService executor;
+
+    private Counter mensagensEnviadas;
+    private Counter mensagensRecebidas;
+    private Counter invalidacoesAplicadas;
+    private Counter invalidacoesIgnoradas;
+    private Counter descartesPorLacuna;
+    private Counter descartesPorAssinatura;
+
+    @PostConstruct
+    public void init() {
+        boolean comTransporte = transport != null;
+        usuarios = registrar(new LocalCache<>(USUARIOS, comTransporte && usuariosHabilitado,
+                TimeUnit.SECONDS.toMillis(usuariosTtlSegundos), usuariosMaxEntradas, toleranciaRelogioMs));
+        blacklist = registrar(new LocalCache<>(BLACKLIST, comTransporte && blacklistHabilitado,
+                TimeUnit.SECONDS.toMillis(blacklistTtlSegundos), blacklistMaxEntradas, toleranciaRelogioMs));
+
+        mensagensEnviadas = Counter.builder("selco.cache.coherence.messages").tag("direction", "sent").register(meterRegistry);
+        mensagensRecebidas = Counter.builder("selco.cache.coherence.messages").tag("direction", "received").register(meterRegistry);
+        invalidacoesAplicadas = Counter.builder("selco.cache.coherence.invalidations").tag("result", "applied").register(meterRegistry);
+        invalidacoesIgnoradas = Counter.builder("selco.cache.coherence.invalidations").tag("result", "duplicate").register(meterRegistry);
+        descartesPorLacuna = Counter.builder("selco.cache.coherence.flushes").tag("reason", "gap").register(meterRegistry);
+        descartesPorAssinatura = Counter.builder("selco.cache.coherence.flushes").tag("reason", "subscribe").register(meterRegistry);
+    }
+
+    private <V> LocalCache<V> registrar(LocalCache<V> regiao) {
+        regioes.put(regiao.getNome(), regiao);
+        Gauge.builder("selco.cache.local.size", regiao, LocalCache::getTamanho)
+                .tag("region", regiao.getNome()).register(meterRegistry);
+        FunctionCounter.builder("selco.cache.local.requests", regiao, LocalCache::getAcertos)
+                .tag("region", regiao.getNome()).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("selco.cache.local.requests", regiao, LocalCache::getFalhas)
+                .tag("region", regiao.getNome()).tag("result", "miss").register(meterRegistry);
+        return regiao;
+    }
+
+    /**
+     * Inicia o transporte e o envio de lotes depois da subida; sem broker, tenta de novo periodicamente
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (transport == null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "cache-coherence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::iniciarTransporte);
+        executor.scheduleWithFixedDelay(this::enviarPendentes, intervaloLoteMs, intervaloLoteMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::expurgar, 60, 60, TimeUnit.SECONDS);
+    }
+
+    private void iniciarTransporte() {
+        try {
+            transport.iniciar(this::receber, this::aoAssinar);
+            logger.info("Coerência de cache iniciada via {} (nó {})", transport.getNome(), no);
+        } catch (Exception e) {
+            logger.warn("Falha ao iniciar coerência de cache via {}: {}; nova tentativa em {} ms",
+                    transport.getNome(), e.getMessage(), intervaloRetentativaMs);
+            executor.schedule(this::iniciarTransporte, intervaloRetentativaMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Invalida a chave neste nó imediatamente e nos demais no próximo lote
+     */
+    public void invalidar(String regiao, String chave) {
+        LocalCache<?> cache = regioes.get(regiao);
+        if (cache == null || !cache.isHabilitado()) {
+            return;
+        }
+        Invalidacao invalidacao = new Invalidacao(regiao, chave, System.currentTimeMillis());
+        cache.invalidar(chave, invalidacao.versao());
+        pendentes.add(invalidacao);
+    }
+
+    void enviarPendentes() {
+        while (!pendentes.isEmpty()) {
+            List<Invalidacao> lote = new ArrayList<>();
+            Invalidacao invalidacao;
+            while (lote.size() < tamanhoMaximoLote && (invalidacao = pendentes.poll()) != null) {
+                lote.add(invalidacao);
+            }
+
+            // A sequência é consumida mesmo se a publicação falhar: os receptores veem o salto e descartam os caches
+            MensagemCoerencia mensagem = new MensagemCoerencia(no, sequencia.incrementAndGet(), lote);
+            try {
+                transport.publicar(objectMapper.writeValueAsBytes(mensagem));
+                mensagensEnviadas.increment();
+            } catch (Exception e) {
+                logger.warn("Falha ao publicar {} invalidações de cache: {}", lote.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    void receber(byte[] dados) {
+        MensagemCoerencia mensagem;
+        try {
+            mensagem = objectMapper.readValue(dados, MensagemCoerencia.class);
+        } catch (Exception e) {
+            logger.warn("Mensagem de coerência de cache inválida: {}", e.getMessage());
+            return;
+        }
+        if (no.equals(mensagem.no())) {
+            return;
+        }
+        mensagensRecebidas.increment();
+
+        if (registrarSequencia(mensagem.no(), mensagem.sequencia())) {
+            descartesPorLacuna.increment();
+            descartar("mensagens perdidas do nó " + mensagem.no());
+        }
+
+        // Invalidações são idempotentes pela versão: mensagens repetidas ou fora de ordem podem ser aplicadas
+        for (Invalidacao invalidacao : mensagem.invalidacoes()) {
+            LocalCache<?> cache = regioes.get(invalidacao.regiao());
+            if (cache != null && cache.invalidar(invalidacao.chave(), invalidacao.versao())) {
+                invalidacoesAplicadas.increment();
+            } else {
+                invalidacoesIgnoradas.increment();
+            }
+        }
+    }
+
+    /**
+     * Registra a sequência recebida de um nó e indica se houve salto em relação à anterior
+     */
+    boolean registrarSequencia(String origem, long recebida) {
+        long[] anterior = {-1};
+        ultimaSequenciaPorNo.compute(origem, (chave, atual) -> {
+            anterior[0] = atual == null ? -1 : atual;
+            return atual == null ? recebida : Math.max(atual, recebida);
+        });
+        return anterior[0] >= 0 && recebida > anterior[0] + 1;
+    }
+
+    void aoAssinar() {
+        descartesPorAssinatura.increment();
+        descartar("assinatura refeita");
+    }
+
+    private void descartar(String motivo) {
+        regioes.values().forEach(LocalCache::limpar);
+        logger.info("Caches locais descartados: {}", motivo);
+    }
+
+    private void expurgar() {
+        regioes.values().forEach(LocalCache::expurgar);
+    }
+
+    public LocalCache<Usuario> getUsuarios() {
+        return usuarios;
+    }
+
+    public LocalCache<Boolean> getBlacklist() {
+        return blacklist;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            // Último lote antes de parar: invalidações locais ainda não propagadas
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+            enviarPendentes();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            transport.parar();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.selco.auth.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Transporte das mensagens de coerência entre as réplicas
+ * Implementações: Redis pub/sub (padrão) e exchange fanout do RabbitMQ, escolhidas por
+ * app.cache.coherence.transport; com "none" não há transporte e os caches locais ficam desligados
+ *
+ * Nenhum dos transportes guarda mensagens de um nó desconectado, por isso cada nova assinatura
+ * (a primeira e as reconexões) é avisada para que o nó descarte os caches locais
+ */
+public interface CoherenceTransport {
+
+    /**
+     * Nome do transporte, para logs
+     */
+    String getNome();
+
+    /**
+     * Publica uma mensagem para todos os nós, inclusive o próprio
+     */
+    void publicar(byte[] mensagem);
+
+    /**
+     * Começa a receber mensagens
+     *
+     * @param receptor chamado com cada mensagem recebida
+     * @param aoAssinar chamado a cada assinatura efetivada no broker
+     */
+    void iniciar(Consumer<byte[]> receptor, Runnable aoAssinar);
+
+    void parar();
+}
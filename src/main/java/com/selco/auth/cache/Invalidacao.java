@@ -0,0 +1,9 @@
+package com.selco.auth.cache;
+
+/**
+ * Invalidação de uma chave de uma região de cache local
+ * A versão é o instante (epoch ms) da alteração no nó de origem; aplicar a mesma versão
+ * de novo, ou uma mais antiga que a já aplicada, não tem efeito
+ */
+public record Invalidacao(String regiao, String chave, long versao) {
+}
@@ -0,0 +1,131 @@
+package com.selco.auth.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Região de cache local de um nó, mantida coerente pelo CacheCoherenceService
+ *
+ * Cada entrada guarda a versão da leitura que a produziu (instante em que a leitura começou).
+ * Uma invalidação remove a entrada e deixa uma lápide com a sua versão por um TTL; leituras que
+ * começaram antes dela (com margem para diferença de relógio entre nós) não voltam a popular a chave,
+ * o que evita regravar um valor lido antes da alteração e entregue depois da invalidação
+ */
+public class LocalCache<V> {
+
+    private record Entrada<V>(V valor, long versao, long expiraEm) {
+
+        boolean lapide() {
+            return valor == null;
+        }
+    }
+
+    private final String nome;
+    private final boolean habilitado;
+    private final long ttlMs;
+    private final int maxEntradas;
+    private final long toleranciaRelogioMs;
+    private final ConcurrentHashMap<String, Entrada<V>> entradas = new ConcurrentHashMap<>();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+
+    public LocalCache(String nome, boolean habilitado, long ttlMs, int maxEntradas, long toleranciaRelogioMs) {
+        this.nome = nome;
+        this.habilitado = habilitado;
+        this.ttlMs = ttlMs;
+        this.maxEntradas = maxEntradas;
+        this.toleranciaRelogioMs = toleranciaRelogioMs;
+    }
+
+    /**
+     * Retorna o valor em cache ou carrega e guarda; valores nulos não são guardados
+     */
+    public V obter(String chave, Supplier<V> carregar) {
+        if (!habilitado) {
+            return carregar.get();
+        }
+
+        long agora = System.currentTimeMillis();
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada != null && !entrada.lapide() && entrada.expiraEm() > agora) {
+            acertos.increment();
+            return entrada.valor();
+        }
+
+        falhas.increment();
+        V valor = carregar.get();
+        if (valor != null) {
+            guardar(chave, valor, agora);
+        }
+        return valor;
+    }
+
+    void guardar(String chave, V valor, long versaoLeitura) {
+        long agora = System.currentTimeMillis();
+        entradas.compute(chave, (k, atual) -> {
+            if (atual != null && atual.lapide() && atual.expiraEm() > agora
+                    && atual.versao() + toleranciaRelogioMs >= versaoLeitura) {
+                return atual;
+            }
+            if (atual == null && entradas.size() >= maxEntradas) {
+                return null;
+            }
+            return new Entrada<>(valor, versaoLeitura, agora + ttlMs);
+        });
+    }
+
+    /**
+     * Remove a chave e registra a lápide com a versão
+     *
+     * @return false se uma invalidação igual ou mais nova já tinha sido aplicada
+     */
+    public boolean invalidar(String chave, long versao) {
+        if (!habilitado) {
+            return false;
+        }
+
+        long agora = System.currentTimeMillis();
+        boolean[] aplicada = {true};
+        entradas.compute(chave, (k, atual) -> {
+            if (atual != null && atual.lapide() && atual.versao() >= versao) {
+                aplicada[0] = false;
+                return atual;
+            }
+            return new Entrada<>(null, versao, agora + ttlMs);
+        });
+        return aplicada[0];
+    }
+
+    public void limpar() {
+        entradas.clear();
+    }
+
+    /**
+     * Remove entradas e lápides vencidas
+     */
+    public void expurgar() {
+        long agora = System.currentTimeMillis();
+        entradas.values().removeIf(entrada -> entrada.expiraEm() <= agora);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public int getTamanho() {
+        return entradas.size();
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+}
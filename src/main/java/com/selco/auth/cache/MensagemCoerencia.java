@@ -0,0 +1,10 @@
+package com.selco.auth.cache;
+
+import java.util.List;
+
+/**
+ * Lote de invalidações enviado por um nó
+ * A sequência cresce de um em um por nó de origem; um salto indica mensagens perdidas
+ */
+public record MensagemCoerencia(String no, long sequencia, List<Invalidacao> invalidacoes) {
+}
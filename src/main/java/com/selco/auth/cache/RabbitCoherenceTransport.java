@@ -0,0 +1,98 @@
+package com.selco.auth.cache;
+
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Coerência via exchange fanout do RabbitMQ, para instalações sem Redis compartilhado entre as réplicas
+ *
+ * Cada nó tem uma queue própria, não durável e removida quando o consumidor sai. A cada conexão
+ * criada com o broker a exchange, a queue e o binding são declarados de novo e a assinatura é
+ * avisada, já que a queue anterior pode ter sido removida junto com as mensagens pendentes.
+ * Publica por um RabbitTemplate próprio, fora do controle de confirms dos eventos de domínio
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.coherence.transport", havingValue = "rabbit")
+public class RabbitCoherenceTransport implements CoherenceTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitCoherenceTransport.class);
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Value("${app.cache.coherence.rabbit.exchange:selco.cache.coherence}")
+    private String exchange;
+
+    private final String queue = "selco.cache.coherence." + UUID.randomUUID();
+
+    private RabbitTemplate rabbitTemplate;
+    private SimpleMessageListenerContainer container;
+    private ConnectionListener ouvinteConexao;
+
+    @Override
+    public String getNome() {
+        return "rabbit";
+    }
+
+    @Override
+    public void publicar(byte[] mensagem) {
+        rabbitTemplate.send(exchange, "", new Message(mensagem));
+    }
+
+    @Override
+    public synchronized void iniciar(Consumer<byte[]> receptor, Runnable aoAssinar) {
+        parar();
+
+        rabbitTemplate = new RabbitTemplate(connectionFactory);
+        ouvinteConexao = conexao -> declarar(conexao, aoAssinar);
+        connectionFactory.addConnectionListener(ouvinteConexao);
+        declarar(connectionFactory.createConnection(), aoAssinar);
+
+        container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(queue);
+        container.setMissingQueuesFatal(false);
+        container.setMessageListener((MessageListener) mensagem -> receptor.accept(mensagem.getBody()));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    private void declarar(Connection conexao, Runnable aoAssinar) {
+        try (Channel canal = conexao.createChannel(false)) {
+            canal.exchangeDeclare(exchange, ExchangeTypes.FANOUT, true);
+            canal.queueDeclare(queue, false, false, true, null);
+            canal.queueBind(queue, exchange, "");
+        } catch (Exception e) {
+            logger.warn("Falha ao declarar a queue de coerência de cache {}: {}", queue, e.getMessage());
+            return;
+        }
+        aoAssinar.run();
+    }
+
+    @Override
+    public synchronized void parar() {
+        if (ouvinteConexao != null) {
+            connectionFactory.removeConnectionListener(ouvinteConexao);
+            ouvinteConexao = null;
+        }
+        if (container != null) {
+            container.destroy();
+            container = null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.selco.auth.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Coerência via Redis pub/sub em um canal compartilhado por todas as réplicas
+ *
+ * O container reassina sozinho depois de uma queda de conexão e cada assinatura é repassada ao
+ * CacheCoherenceService. As mensagens são entregues em uma única thread para manter a ordem de publicação
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.coherence.transport", havingValue = "redis", matchIfMissing = true)
+public class RedisCoherenceTransport implements CoherenceTransport {
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.cache.coherence.redis.channel:selco:cache:invalidacao}")
+    private String canal;
+
+    private RedisMessageListenerContainer container;
+    private ExecutorService entrega;
+
+    @Override
+    public String getNome() {
+        return "redis";
+    }
+
+    @Override
+    public void publicar(byte[] mensagem) {
+        byte[] canalBytes = canal.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisCallback<Long>) conexao -> conexao.publish(canalBytes, mensagem));
+    }
+
+    @Override
+    public synchronized void iniciar(Consumer<byte[]> receptor, Runnable aoAssinar) {
+        parar();
+
+        entrega = Executors.newSingleThreadExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "cache-coherence-redis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(entrega);
+        container.addMessageListener(new Ouvinte(receptor, aoAssinar), new ChannelTopic(canal));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public synchronized void parar() {
+        if (container != null) {
+            try {
+                container.destroy();
+            } catch (Exception e) {
+                // Conexão já encerrada
+            }
+            container = null;
+        }
+        if (entrega != null) {
+            entrega.shutdownNow();
+            entrega = null;
+        }
+    }
+
+    private record Ouvinte(Consumer<byte[]> receptor, Runnable aoAssinar) implements MessageListener, SubscriptionListener {
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            receptor.accept(message.getBody());
+        }
+
+        @Override
+        public void onChannelSubscribed(byte[] channel, long count) {
+            aoAssinar.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.selco.auth.cache;
+
+import com.selco.auth.model.Usuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalida a região "usuarios" em todas as réplicas quando um Usuario é gravado pelo repositório ou
+ * pelo MongoTemplate (cadastro, alteração de status ou de senha)
+ * Atualizações parciais (updateFirst/updateMulti) e gravações feitas fora do serviço não geram o evento;
+ * para essas vale o TTL de app.cache.usuarios
+ */
+@Component
+public class UsuarioCacheInvalidator extends AbstractMongoEventListener<Usuario> {
+
+    @Autowired
+    private CacheCoherenceService cacheCoherenceService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Usuario> event) {
+        String email = event.getSource().getEmail();
+        if (email != null) {
+            cacheCoherenceService.invalidar(CacheCoherenceService.USUARIOS, email);
+        }
+    }
+}
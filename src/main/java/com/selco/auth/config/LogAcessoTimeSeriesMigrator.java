@@ -0,0 +1,248 @@
+package com.selco.auth.config;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.TimeSeriesGranularity;
+import com.mongodb.client.model.TimeSeriesOptions;
+import com.mongodb.client.model.Updates;
+import com.selco.auth.model.EnderecoIp;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Migração idempotente da coleção logs_acesso para o layout time-series
+ * - coleção inexistente: cria como time-series com expiração configurada
+ * - coleção time-series: apenas ajusta expireAfterSeconds se mudou
+ * - coleção comum (layout antigo): renomeia para logs_acesso_legado, cria a time-series
+ *   e copia os documentos movendo usuarioId/ip para o metaField 'origem'
+ * - IPs ainda em texto no metaField são convertidos para binário (ver EnderecoIp); como a
+ *   atualização filtra e altera apenas o metaField, é permitida em coleções time-series. A conclusão
+ *   fica registrada na coleção migracoes e as subidas seguintes não percorrem a coleção de novo
+ *
+ * As operações de estrutura (criar, ajustar expiração, renomear a coleção antiga) são rápidas e rodam
+ * no primeiro ApplicationRunner, antes de MongoIndexInitializer e antes de a aplicação aceitar tráfego
+ * (ReadinessState), para que o primeiro insert não crie a coleção comum. Fora do refresh do contexto,
+ * a execução de treino do Dockerfile (spring.context.exit=onRefresh) não conecta ao MongoDB.
+ * A cópia do legado e a conversão de IPs em texto percorrem a coleção inteira e rodam em segundo plano,
+ * em lotes: a subida não espera por elas e, durante a cópia, consultas de auditoria podem ainda não ver
+ * parte do histórico
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LogAcessoTimeSeriesMigrator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogAcessoTimeSeriesMigrator.class);
+    private static final String COLECAO = "logs_acesso";
+    private static final String COLECAO_LEGADA = "logs_acesso_legado";
+    private static final String COLECAO_MIGRACOES = "migracoes";
+    private static final String MARCADOR_IP_BINARIO = "logs_acesso.ip_binario";
+    private static final int LOTE_COPIA = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.audit.timeseries.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.audit.timeseries.expire-after-days:90}")
+    private long expiracaoDias;
+
+    @Value("${app.audit.timeseries.migrate-existing:true}")
+    private boolean migrarExistente;
+
+    // Trabalho de dados deixado para o segundo plano pela etapa de estrutura
+    private volatile boolean copiaPendente;
+    private volatile boolean conversaoPendente;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitado) {
+            return;
+        }
+
+        try {
+            prepararEstrutura();
+        } catch (Exception e) {
+            logger.error("Erro na migração de {} para time-series: {}", COLECAO, e.getMessage(), e);
+            return;
+        }
+        migrarDadosEmSegundoPlano();
+    }
+
+    /**
+     * Cópia do legado e conversão de IPs fora do caminho da subida
+     */
+    void migrarDadosEmSegundoPlano() {
+        if (!copiaPendente && !conversaoPendente) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                migrarDados();
+            } catch (RuntimeException e) {
+                logger.error("Erro na migração dos dados de {}: {}", COLECAO, e.getMessage(), e);
+            }
+        }, "logs-acesso-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Etapa de estrutura, antes de aceitar tráfego; marca o trabalho de dados pendente
+     */
+    void prepararEstrutura() {
+        MongoDatabase db = mongoTemplate.getDb();
+        Document info = buscarInfoColecao(db, COLECAO);
+        long expiracaoSegundos = TimeUnit.DAYS.toSeconds(expiracaoDias);
+
+        if (info == null) {
+            criarTimeSeries(db);
+            marcarIpsConvertidos(db);
+            logger.info("Coleção {} criada como time-series (expiração de {} dias)", COLECAO, expiracaoDias);
+            return;
+        }
+
+        if ("timeseries".equals(info.getString("type"))) {
+            Document opcoes = info.get("options", Document.class);
+            Number atual = opcoes == null ? null : opcoes.get("expireAfterSeconds", Number.class);
+            if (atual == null || atual.longValue() != expiracaoSegundos) {
+                db.runCommand(new Document("collMod", COLECAO).append("expireAfterSeconds", expiracaoSegundos));
+                logger.info("Expiração de {} ajustada para {} dias", COLECAO, expiracaoDias);
+            }
+            conversaoPendente = !ipsConvertidos(db);
+            return;
+        }
+
+        if (!migrarExistente) {
+            logger.warn("Coleção {} está no layout antigo e a migração está desabilitada", COLECAO);
+            return;
+        }
+
+        if (buscarInfoColecao(db, COLECAO_LEGADA) != null) {
+            logger.error("Coleção {} já existe; migração anterior incompleta precisa de revisão manual", COLECAO_LEGADA);
+            return;
+        }
+
+        db.getCollection(COLECAO).renameCollection(new MongoNamespace(db.getName(), COLECAO_LEGADA));
+        criarTimeSeries(db);
+        copiaPendente = true;
+        logger.info("Coleção {} recriada como time-series; cópia de {} em segundo plano após a subida",
+                COLECAO, COLECAO_LEGADA);
+    }
+
+    /**
+     * Etapa de dados: cópia do legado em lotes de LOTE_COPIA e conversão de IPs em texto
+     */
+    void migrarDados() {
+        MongoDatabase db = mongoTemplate.getDb();
+        if (copiaPendente) {
+            long inicio = System.nanoTime();
+            long copiados = copiarLegado(db.getCollection(COLECAO_LEGADA), db.getCollection(COLECAO));
+            copiaPendente = false;
+            // A cópia já grava os IPs em binário
+            marcarIpsConvertidos(db);
+            logger.info("Coleção {} migrada para time-series: {} documentos copiados em {} s, original mantida em {}",
+                    COLECAO, copiados, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicio), COLECAO_LEGADA);
+        }
+        if (conversaoPendente) {
+            converterIpsTexto(db.getCollection(COLECAO));
+            conversaoPendente = false;
+            marcarIpsConvertidos(db);
+        }
+    }
+
+    private boolean ipsConvertidos(MongoDatabase db) {
+        return db.getCollection(COLECAO_MIGRACOES).find(Filters.eq("_id", MARCADOR_IP_BINARIO)).first() != null;
+    }
+
+    private void marcarIpsConvertidos(MongoDatabase db) {
+        db.getCollection(COLECAO_MIGRACOES).replaceOne(Filters.eq("_id", MARCADOR_IP_BINARIO),
+                new Document("_id", MARCADOR_IP_BINARIO).append("concluidaEm", new Date()),
+                new ReplaceOptions().upsert(true));
+    }
+
+    private void criarTimeSeries(MongoDatabase db) {
+        TimeSeriesOptions timeSeries = new TimeSeriesOptions("dataHora")
+                .metaField("origem")
+                .granularity(TimeSeriesGranularity.SECONDS);
+        db.createCollection(COLECAO, new CreateCollectionOptions()
+                .timeSeriesOptions(timeSeries)
+                .expireAfter(expiracaoDias, TimeUnit.DAYS));
+    }
+
+    private long copiarLegado(MongoCollection<Document> origem, MongoCollection<Document> destino) {
+        long copiados = 0;
+        List<Document> lote = new ArrayList<>(LOTE_COPIA);
+        try (MongoCursor<Document> cursor = origem.find().batchSize(LOTE_COPIA).iterator()) {
+            while (cursor.hasNext()) {
+                Document antigo = cursor.next();
+                if (antigo.get("dataHora") == null) {
+                    continue;
+                }
+                String ip = antigo.getString("ip");
+                byte[] ipBinario = EnderecoIp.paraBytes(ip);
+                Document novo = new Document("_id", antigo.get("_id"))
+                        .append("dataHora", antigo.get("dataHora"))
+                        .append("origem", new Document("usuarioId", antigo.get("usuarioId"))
+                                .append("ip", ipBinario == null ? null : new Binary(ipBinario)))
+                        .append("ipTexto", ipBinario == null ? ip : null)
+                        .append("userAgent", antigo.get("userAgent"))
+                        .append("sucesso", antigo.get("sucesso"))
+                        .append("motivo", antigo.get("motivo"));
+                lote.add(novo);
+                if (lote.size() == LOTE_COPIA) {
+                    destino.insertMany(lote, new InsertManyOptions().ordered(false));
+                    copiados += lote.size();
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            destino.insertMany(lote, new InsertManyOptions().ordered(false));
+            copiados += lote.size();
+        }
+        return copiados;
+    }
+
+    /**
+     * Converte IPs gravados em texto no metaField (registros anteriores à forma binária)
+     * Valores que não são literais de IP ficam nulos
+     */
+    private void converterIpsTexto(MongoCollection<Document> colecao) {
+        long convertidos = 0;
+        for (String ip : colecao.distinct("origem.ip", Filters.type("origem.ip", BsonType.STRING), String.class)) {
+            byte[] binario = EnderecoIp.paraBytes(ip);
+            convertidos += colecao.updateMany(Filters.eq("origem.ip", ip),
+                    Updates.set("origem.ip", binario == null ? null : new Binary(binario))).getModifiedCount();
+        }
+        if (convertidos > 0) {
+            logger.info("{} registros de {} com IP em texto convertidos para binário", convertidos, COLECAO);
+        }
+    }
+
+    private Document buscarInfoColecao(MongoDatabase db, String nome) {
+        return db.listCollections().filter(new Document("name", nome)).first();
+    }
+}
@@ -0,0 +1,154 @@
+package com.selco.auth.config;
+
+import com.selco.auth.model.EstatisticaLogin;
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.model.Token;
+import com.selco.auth.model.UserAgentDicionario;
+import com.selco.auth.model.Usuario;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cria os índices declarados nas entidades (@Indexed, @CompoundIndex)
+ * A criação automática do Spring Data fica desligada porque rodaria antes da migração de logs_acesso
+ * e criaria a coleção como comum; aqui os índices são garantidos depois dela
+ *
+ * Índices com as mesmas chaves já existentes (por exemplo, criados pelo mongo-init.js com outro nome)
+ * são mantidos como estão, exceto o expireAfterSeconds de índices TTL, ajustado com collMod quando a
+ * configuração muda; índices retirados das entidades (INDICES_OBSOLETOS) são removidos
+ *
+ * Expressões #{...} das anotações (ex.: expireAfter) são avaliadas pelo MongoMappingContext, com acesso
+ * aos beans do contexto como @environment
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+    private static final List<Class<?>> ENTIDADES = List.of(Usuario.class, Token.class, LogAcesso.class,
+            EstatisticaLogin.class, UserAgentDicionario.class);
+    // Índices de logs_acesso cobertos pelas variantes com sucesso ou pelos limites de tempo dos buckets
+    private static final Map<String, List<Document>> INDICES_OBSOLETOS = Map.of("logs_acesso", List.of(
+            Document.parse("{ 'origem.usuarioId': 1, 'dataHora': -1 }"),
+            Document.parse("{ 'origem.ip': 1, 'dataHora': -1 }"),
+            Document.parse("{ 'dataHora': -1 }")));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+
+    @Value("${app.mongodb.indexes.ensure-on-startup:true}")
+    private boolean habilitado;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitado) {
+            return;
+        }
+
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        int criados = 0;
+        for (Class<?> entidade : ENTIDADES) {
+            for (MongoPersistentEntityIndexResolver.IndexDefinitionHolder indice : resolver.resolveIndexFor(TypeInformation.of(entidade))) {
+                try {
+                    if (garantirIndice(indice)) {
+                        criados++;
+                    }
+                } catch (Exception e) {
+                    logger.error("Erro ao criar índice {} em {}: {}", indice.getIndexKeys().toJson(), indice.getCollection(), e.getMessage());
+                }
+            }
+        }
+        logger.info("Índices das entidades verificados: {} criados", criados);
+        removerObsoletos();
+    }
+
+    private void ajustarExpiracao(MongoPersistentEntityIndexResolver.IndexDefinitionHolder indice, IndexInfo info) {
+        Number expiracao = indice.getIndexOptions().get("expireAfterSeconds", Number.class);
+        if (expiracao == null || info.getExpireAfter().isEmpty()
+                || info.getExpireAfter().get().getSeconds() == expiracao.longValue()) {
+            return;
+        }
+        mongoTemplate.getDb().runCommand(new Document("collMod", indice.getCollection())
+                .append("index", new Document("keyPattern", indice.getIndexKeys())
+                        .append("expireAfterSeconds", expiracao.longValue())));
+        logger.info("Expiração do índice {} em {} ajustada para {} s", info.getName(), indice.getCollection(), expiracao);
+    }
+
+    private void removerObsoletos() {
+        INDICES_OBSOLETOS.forEach((colecao, indices) -> {
+            Set<String> obsoletos = new HashSet<>();
+            indices.forEach(chaves -> obsoletos.add(chave(chaves)));
+            try {
+                IndexOperations operacoes = mongoTemplate.indexOps(colecao);
+                // Pelas chaves, qualquer que seja o nome (anotação ou mongo-init.js)
+                for (IndexInfo info : operacoes.getIndexInfo()) {
+                    if (obsoletos.contains(chave(info))) {
+                        operacoes.dropIndex(info.getName());
+                        logger.info("Índice obsoleto {} removido de {}", info.getName(), colecao);
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Erro ao remover índices obsoletos de {}: {}", colecao, e.getMessage());
+            }
+        });
+    }
+
+    private boolean garantirIndice(MongoPersistentEntityIndexResolver.IndexDefinitionHolder indice) {
+        IndexOperations operacoes = mongoTemplate.indexOps(indice.getCollection());
+        String chaveIndice = chave(indice.getIndexKeys());
+        for (IndexInfo info : operacoes.getIndexInfo()) {
+            if (chave(info).equals(chaveIndice)) {
+                ajustarExpiracao(indice, info);
+                return false;
+            }
+        }
+
+        operacoes.ensureIndex(indice);
+        logger.info("Índice {} criado em {}", indice.getIndexKeys().toJson(), indice.getCollection());
+        return true;
+    }
+
+    private static String chave(IndexInfo info) {
+        StringBuilder chave = new StringBuilder();
+        for (IndexField campo : info.getIndexFields()) {
+            chave.append(campo.getKey()).append(':')
+                    .append(campo.getDirection() == null ? "1" : campo.getDirection().isAscending() ? "1" : "-1")
+                    .append(',');
+        }
+        return chave.toString();
+    }
+
+    private static String chave(Document chaves) {
+        StringBuilder chave = new StringBuilder();
+        for (String campo : chaves.keySet()) {
+            Object direcao = chaves.get(campo);
+            String valor = direcao instanceof Number numero ? (numero.intValue() < 0 ? "-1" : "1") : "1";
+            chave.append(campo).append(':').append(valor).append(',');
+        }
+        return chave.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.selco.auth.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.connection.ServerType;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distribuição das leituras entre os membros do replica set
+ * selco.mongo.reads{member, role, command, collection}: cada comando de leitura enviado, com o endereço
+ * e o papel (primary, secondary, standalone) do membro que o recebeu. Mostra quanto da validação de
+ * token saiu do primário com app.mongodb.read-preference.validation
+ */
+@Component
+public class MongoReadMetrics implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final Set<String> LEITURAS = Set.of("find", "aggregate", "count", "distinct", "getMore");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> contadores = new ConcurrentHashMap<>();
+
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent evento) {
+        String comando = evento.getCommandName();
+        if (!LEITURAS.contains(comando)) {
+            return;
+        }
+
+        String membro = evento.getConnectionDescription().getServerAddress().toString();
+        String papel = papel(evento.getConnectionDescription().getServerType());
+        String colecao = colecao(comando, evento.getCommand());
+        contadores.computeIfAbsent(membro + '|' + papel + '|' + comando + '|' + colecao,
+                chave -> Counter.builder("selco.mongo.reads")
+                        .tag("member", membro)
+                        .tag("role", papel)
+                        .tag("command", comando)
+                        .tag("collection", colecao)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private static String papel(ServerType tipo) {
+        return switch (tipo) {
+            case REPLICA_SET_PRIMARY -> "primary";
+            case REPLICA_SET_SECONDARY -> "secondary";
+            case STANDALONE -> "standalone";
+            case SHARD_ROUTER -> "mongos";
+            default -> "other";
+        };
+    }
+
+    /**
+     * O nome da coleção é o valor do próprio comando, exceto em getMore, que usa o campo collection
+     */
+    private static String colecao(String comando, BsonDocument documento) {
+        BsonValue valor = documento.get("getMore".equals(comando) ? "collection" : comando);
+        return valor != null && valor.isString() ? valor.asString().getValue() : "desconhecida";
+    }
+}
@@ -0,0 +1,239 @@
+package com.selco.auth.config;
+
+import com.selco.auth.repository.EstatisticaLoginRepository;
+import com.selco.auth.repository.LogAcessoRepository;
+import com.selco.auth.repository.TokenRepository;
+import com.selco.auth.repository.UsuarioRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.query.AbstractMongoQuery;
+import org.springframework.data.mongodb.repository.query.ConvertingParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoParametersParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoQueryMethod;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.data.repository.core.support.PropertiesBasedNamedQueries;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Verificação de planos de consulta na inicialização
+ * Monta a consulta de cada método derivado ou @Query dos repositórios com argumentos de exemplo,
+ * executa explain (queryPlanner, sem ler documentos) e aponta os métodos cujo plano vencedor
+ * contém COLLSCAN, ou seja, que não têm índice compatível com filtro e ordenação
+ *
+ * Métodos de remoção e métodos default não são analisados
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryPlanAdvisor implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanAdvisor.class);
+    private static final List<Class<?>> REPOSITORIOS = List.of(UsuarioRepository.class, TokenRepository.class,
+            LogAcessoRepository.class, EstatisticaLoginRepository.class);
+    private static final String ID_EXEMPLO = "000000000000000000000000";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.mongodb.query-advisor.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.mongodb.query-advisor.fail-on-collscan:false}")
+    private boolean falharComCollscan;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitado) {
+            return;
+        }
+
+        List<String> comCollscan = analisar();
+        if (comCollscan.isEmpty()) {
+            logger.info("Planos de consulta verificados: nenhum método faz COLLSCAN");
+            return;
+        }
+
+        if (falharComCollscan) {
+            throw new IllegalStateException("Consultas sem índice: " + comCollscan);
+        }
+        logger.warn("{} métodos de repositório fazem COLLSCAN: {}", comCollscan.size(), comCollscan);
+    }
+
+    /**
+     * Retorna os métodos (Repositorio.metodo) cujo plano vencedor faz COLLSCAN
+     */
+    List<String> analisar() {
+        ConsultaFactory factory = new ConsultaFactory(mongoTemplate);
+        QueryLookupStrategy estrategia = factory.estrategia();
+        MongoConverter converter = mongoTemplate.getConverter();
+        QueryMapper mapper = new QueryMapper(converter);
+
+        List<String> comCollscan = new ArrayList<>();
+        for (Class<?> repositorio : REPOSITORIOS) {
+            RepositoryMetadata metadata = new DefaultRepositoryMetadata(repositorio);
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                if (metodo.isDefault() || Modifier.isStatic(metodo.getModifiers())) {
+                    continue;
+                }
+
+                String nome = repositorio.getSimpleName() + "." + metodo.getName();
+                try {
+                    RepositoryQuery consulta = estrategia.resolveQuery(metodo, metadata,
+                            new SpelAwareProxyProjectionFactory(), new PropertiesBasedNamedQueries(new Properties()));
+                    if (!(consulta instanceof AbstractMongoQuery mongoQuery) || invocar(mongoQuery, "isDeleteQuery")) {
+                        continue;
+                    }
+
+                    Document plano = explicar(mongoQuery, argumentosExemplo(metodo), converter, mapper);
+                    if (contemCollscan(plano.get("queryPlanner"))) {
+                        comCollscan.add(nome);
+                        logger.warn("Consulta {} sem índice (COLLSCAN): {}", nome, plano.get("command"));
+                    } else {
+                        logger.debug("Consulta {} usa índice", nome);
+                    }
+                } catch (Exception e) {
+                    logger.warn("Não foi possível analisar o plano de {}: {}", nome, e.getMessage());
+                }
+            }
+        }
+        return comCollscan;
+    }
+
+    private Document explicar(AbstractMongoQuery consulta, Object[] argumentos, MongoConverter converter, QueryMapper mapper) {
+        MongoQueryMethod metodo = consulta.getQueryMethod();
+        ConvertingParameterAccessor acessor = new ConvertingParameterAccessor(converter,
+                new MongoParametersParameterAccessor(metodo, argumentos));
+
+        Method criar = ReflectionUtils.findMethod(consulta.getClass(), "createQuery", ConvertingParameterAccessor.class);
+        ReflectionUtils.makeAccessible(criar);
+        Query query = (Query) ReflectionUtils.invokeMethod(criar, consulta, acessor);
+        Document ordenacaoQuery = query.getSortObject();
+        if (metodo.hasAnnotatedSort() && ordenacaoQuery.isEmpty()) {
+            ordenacaoQuery = Document.parse(metodo.getAnnotatedSort());
+        }
+
+        MongoPersistentEntity<?> entidade = converter.getMappingContext().getRequiredPersistentEntity(metodo.getEntityInformation().getJavaType());
+        String colecao = metodo.getEntityInformation().getCollectionName();
+        Document filtro = mapper.getMappedObject(query.getQueryObject(), entidade);
+
+        Document comando;
+        if (invocar(consulta, "isCountQuery")) {
+            comando = new Document("count", colecao).append("query", filtro);
+        } else {
+            comando = new Document("find", colecao).append("filter", filtro);
+            Document ordenacao = mapper.getMappedSort(ordenacaoQuery, entidade);
+            if (!ordenacao.isEmpty()) {
+                comando.append("sort", ordenacao);
+            }
+            if (invocar(consulta, "isExistsQuery") || query.getLimit() > 0) {
+                comando.append("limit", invocar(consulta, "isExistsQuery") ? 1 : query.getLimit());
+            }
+        }
+
+        Document plano = mongoTemplate.getDb().runCommand(new Document("explain", comando).append("verbosity", "queryPlanner"));
+        plano.put("command", comando.toJson());
+        return plano;
+    }
+
+    /**
+     * Procura um estágio COLLSCAN no plano vencedor, ignorando os planos rejeitados
+     * Em coleções time-series o plano fica aninhado em estágios de agregação, por isso a busca é recursiva
+     */
+    static boolean contemCollscan(Object no) {
+        if (no instanceof Document documento) {
+            if ("COLLSCAN".equals(documento.get("stage"))) {
+                return true;
+            }
+            for (String campo : documento.keySet()) {
+                if (!"rejectedPlans".equals(campo) && contemCollscan(documento.get(campo))) {
+                    return true;
+                }
+            }
+        } else if (no instanceof List<?> lista) {
+            for (Object item : lista) {
+                if (contemCollscan(item)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Object[] argumentosExemplo(Method metodo) {
+        Class<?>[] tipos = metodo.getParameterTypes();
+        Object[] argumentos = new Object[tipos.length];
+        LocalDateTime agora = LocalDateTime.now();
+        int datas = 0;
+        for (int i = 0; i < tipos.length; i++) {
+            Class<?> tipo = tipos[i];
+            if (tipo == String.class) {
+                argumentos[i] = ID_EXEMPLO;
+            } else if (tipo == byte[].class) {
+                argumentos[i] = new byte[4];
+            } else if (tipo == Range.class) {
+                argumentos[i] = Range.rightOpen(agora.minusDays(1), agora);
+            } else if (tipo == LocalDateTime.class) {
+                argumentos[i] = datas++ == 0 ? agora.minusDays(1) : agora;
+            } else if (tipo == boolean.class || tipo == Boolean.class) {
+                argumentos[i] = Boolean.FALSE;
+            } else if (tipo == int.class || tipo == Integer.class) {
+                argumentos[i] = 0;
+            } else if (tipo == long.class || tipo == Long.class) {
+                argumentos[i] = 0L;
+            } else if (tipo == Pageable.class) {
+                argumentos[i] = PageRequest.of(0, 1);
+            }
+        }
+        return argumentos;
+    }
+
+    private static boolean invocar(AbstractMongoQuery consulta, String nomeMetodo) {
+        Method metodo = ReflectionUtils.findMethod(consulta.getClass(), nomeMetodo);
+        ReflectionUtils.makeAccessible(metodo);
+        return Boolean.TRUE.equals(ReflectionUtils.invokeMethod(metodo, consulta));
+    }
+
+    /**
+     * Expõe a estratégia de resolução de consultas usada pelos repositórios Spring Data
+     */
+    private static final class ConsultaFactory extends MongoRepositoryFactory {
+
+        private ConsultaFactory(MongoOperations operations) {
+            super(operations);
+        }
+
+        private QueryLookupStrategy estrategia() {
+            return getQueryLookupStrategy(QueryLookupStrategy.Key.CREATE_IF_NOT_FOUND, QueryMethodEvaluationContextProvider.DEFAULT)
+                    .orElseThrow(() -> new IllegalStateException("Estratégia de consulta indisponível"));
+        }
+    }
+}
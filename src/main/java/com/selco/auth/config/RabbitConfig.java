@@ -3,16 +3,21 @@ package com.selco.auth.config;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Configuração do RabbitMQ para o microserviço de autenticação
  * Define exchanges, queues e bindings necessários
+ *
+ * Os beans de topologia são declarados uma única vez pelo RabbitTopologyInitializer, fora da subida;
+ * o RabbitAdmin não redeclara tudo a cada conexão aberta
  */
 @Configuration
 public class RabbitConfig {
@@ -24,6 +29,9 @@ public class RabbitConfig {
     @Value("${rabbitmq.exchanges.email:selco.email.exchange}")
     private String emailExchange;
 
+    @Value("${rabbitmq.exchanges.audit:selco.audit.exchange}")
+    private String auditExchange;
+
     // Queues
     @Value("${rabbitmq.queues.user-created:selco.user.created.queue}")
     private String userCreatedQueue;
@@ -31,6 +39,9 @@ public class RabbitConfig {
     @Value("${rabbitmq.queues.email-send:selco.email.send.queue}")
     private String emailSendQueue;
 
+    @Value("${rabbitmq.queues.access-log:selco.audit.access.queue}")
+    private String accessLogQueue;
+
     // Routing Keys
     @Value("${rabbitmq.routing-keys.user-created:user.created}")
     private String userCreatedRoutingKey;
@@ -38,6 +49,9 @@ public class RabbitConfig {
     @Value("${rabbitmq.routing-keys.email-send:email.send}")
     private String emailSendRoutingKey;
 
+    @Value("${rabbitmq.routing-keys.access-log:audit.access}")
+    private String accessLogRoutingKey;
+
     /**
      * Conversor de mensagens para JSON
      */
@@ -48,14 +62,27 @@ public class RabbitConfig {
 
     /**
      * Template do RabbitMQ com conversor JSON
+     * Mandatory para que mensagens sem rota sejam devolvidas ao PublisherConfirmTracker
      */
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        template.setMandatory(true);
         return template;
     }
 
+    /**
+     * Admin sem autoStartup: não registra o listener de conexão que declararia toda a topologia
+     * a cada conexão (e a cada reconexão); a declaração fica com o RabbitTopologyInitializer
+     */
+    @Bean
+    public RabbitAdmin amqpAdmin(ConnectionFactory connectionFactory) {
+        RabbitAdmin admin = new RabbitAdmin(connectionFactory);
+        admin.setAutoStartup(false);
+        return admin;
+    }
+
     /**
      * Factory para containers de listener
      */
@@ -209,12 +236,50 @@ public class RabbitConfig {
                 .with("email.send.failed");
     }
 
+    // ==================== AUDITORIA ====================
+
+    /**
+     * Exchange dos logs de acesso, declarada apenas com app.audit.sink.type=rabbit
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.audit.sink.type", havingValue = "rabbit")
+    public TopicExchange auditExchange() {
+        return ExchangeBuilder
+                .topicExchange(auditExchange)
+                .durable(true)
+                .build();
+    }
+
+    /**
+     * Queue consumida pelo serviço de auditoria; sem TTL para não perder logs com o consumidor parado
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.audit.sink.type", havingValue = "rabbit")
+    public Queue accessLogQueue() {
+        return QueueBuilder
+                .durable(accessLogQueue)
+                .build();
+    }
+
+    /**
+     * Binding dos logs de acesso
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.audit.sink.type", havingValue = "rabbit")
+    public Binding accessLogBinding() {
+        return BindingBuilder
+                .bind(accessLogQueue())
+                .to(auditExchange())
+                .with(accessLogRoutingKey);
+    }
+
     // ==================== QUEUES DE TESTE ====================
 
     /**
-     * Queue para testes de conectividade
+     * Queue para inspecionar mensagens de teste, declarada apenas com app.rabbitmq.topology.test-queue=true
      */
     @Bean
+    @ConditionalOnProperty(name = "app.rabbitmq.topology.test-queue", havingValue = "true")
     public Queue testQueue() {
         return QueueBuilder
                 .durable("selco.test.queue")
@@ -226,6 +291,7 @@ public class RabbitConfig {
      * Binding para queue de teste
      */
     @Bean
+    @ConditionalOnProperty(name = "app.rabbitmq.topology.test-queue", havingValue = "true")
     public Binding testBinding() {
         return BindingBuilder
                 .bind(testQueue())
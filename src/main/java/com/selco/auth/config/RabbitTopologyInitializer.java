@@ -0,0 +1,152 @@
+package com.selco.auth.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Declaração da topologia do RabbitMQ (exchanges, queues e bindings de RabbitConfig) em uma única etapa,
+ * fora do caminho crítico da subida: roda em thread própria depois do ApplicationReadyEvent e, quando
+ * conclui, não se repete em reconexões. Sem broker disponível, tenta de novo com backoff até conseguir
+ *
+ * app.rabbitmq.topology.mode:
+ *   declare  declara tudo (idempotente para topologia igual à existente)
+ *   verify   apenas confere passivamente se exchanges e queues existem e registra as ausentes;
+ *            bindings não têm verificação passiva no protocolo
+ *   none     não toca na topologia, mantida por fora (definitions.json do broker, por exemplo)
+ *
+ * Todas as exchanges e queues são duráveis, então sobrevivem a reinícios do broker sem redeclaração.
+ * Eventos publicados antes da primeira declaração numa instalação nova falham e vão para o journal local
+ */
+@Component
+public class RabbitTopologyInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RabbitTopologyInitializer.class);
+
+    @Autowired
+    private RabbitAdmin rabbitAdmin;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${app.rabbitmq.topology.mode:declare}")
+    private String modo;
+
+    @Value("${app.rabbitmq.topology.retry-initial-backoff-ms:1000}")
+    private long backoffInicialMs;
+
+    @Value("${app.rabbitmq.topology.retry-max-backoff-ms:60000}")
+    private long backoffMaximoMs;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "rabbit-topology");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean concluida;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void agendar() {
+        if ("none".equalsIgnoreCase(modo)) {
+            logger.info("Declaração da topologia do RabbitMQ desligada (app.rabbitmq.topology.mode=none)");
+            return;
+        }
+        executor.execute(() -> tentar(backoffInicialMs));
+    }
+
+    private void tentar(long backoffMs) {
+        try {
+            if ("verify".equalsIgnoreCase(modo)) {
+                verificar();
+            } else {
+                declarar();
+            }
+            concluida = true;
+        } catch (Exception e) {
+            logger.warn("Topologia do RabbitMQ não aplicada ({}); nova tentativa em {} ms", e.getMessage(), backoffMs);
+            executor.schedule(() -> tentar(Math.min(backoffMs * 2, backoffMaximoMs)), backoffMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void declarar() {
+        long inicio = System.nanoTime();
+        rabbitAdmin.initialize();
+        logger.info("Topologia do RabbitMQ declarada: {} exchanges, {} queues, {} bindings em {} ms",
+                beans(Exchange.class).size(), beans(Queue.class).size(), beans(Binding.class).size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+    }
+
+    /**
+     * Declaração passiva item a item: uma ausência fecha o canal, então cada uma usa o seu
+     *
+     * @return nomes das exchanges e queues que não existem no broker
+     */
+    List<String> verificar() {
+        List<String> ausentes = new ArrayList<>();
+        for (Exchange exchange : beans(Exchange.class)) {
+            try {
+                rabbitAdmin.getRabbitTemplate().execute(canal -> canal.exchangeDeclarePassive(exchange.getName()));
+            } catch (RuntimeException e) {
+                if (!naoEncontrada(e)) {
+                    throw e;
+                }
+                ausentes.add("exchange " + exchange.getName());
+            }
+        }
+        for (Queue queue : beans(Queue.class)) {
+            if (rabbitAdmin.getQueueInfo(queue.getName()) == null) {
+                ausentes.add("queue " + queue.getName());
+            }
+        }
+
+        if (ausentes.isEmpty()) {
+            logger.info("Topologia do RabbitMQ verificada: exchanges e queues presentes");
+        } else {
+            logger.error("Topologia do RabbitMQ incompleta, ausentes: {}", String.join(", ", ausentes));
+        }
+        return ausentes;
+    }
+
+    /**
+     * Falha de conexão deve ser repetida; NOT_FOUND (404) na declaração passiva indica ausência
+     */
+    private static boolean naoEncontrada(Exception e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa.getMessage() != null && causa.getMessage().contains("NOT_FOUND")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> Collection<T> beans(Class<T> tipo) {
+        return applicationContext.getBeansOfType(tipo).values();
+    }
+
+    public boolean isConcluida() {
+        return concluida;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -43,6 +43,8 @@ public class SecurityConfig {
                                 "/auth/health",               // Health check (sem /api prefix no contexto)
                                 "/auth/register",             // Cadastro de funcionário
                                 "/auth/login",                // Login
+                                "/auth/check",                // Verificação de token para subrequisições do gateway
+                                "/auth/email-templates/**",   // Registro de templates de email
                                 "/error",                     // Página de erro do Spring Boot
                                 "/actuator/health",           // Actuator health check
                                 "/actuator/**",               // Todos os endpoints do actuator
@@ -51,6 +53,9 @@ public class SecurityConfig {
                                 "/swagger-ui.html",           // Swagger UI
                                 "/v3/api-docs/**"             // OpenAPI docs
                         ).permitAll()
+                        // Consulta de logs de acesso e estatísticas restrita a administradores
+                        .requestMatchers("/auth/audit/**").hasRole("ADMIN")
+                        .requestMatchers("/auth/stats/**").hasRole("ADMIN")
                         // Todos os outros endpoints requerem autenticação
                         .anyRequest().authenticated()
                 )
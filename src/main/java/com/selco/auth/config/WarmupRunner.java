@@ -0,0 +1,277 @@
+package com.selco.auth.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selco.auth.dto.LoginRequestDTO;
+import com.selco.auth.dto.LoginResponseDTO;
+import com.selco.auth.dto.TokenValidationDTO;
+import com.selco.auth.events.LogAcessoRegistrado;
+import com.selco.auth.events.UsuarioCriado;
+import com.selco.auth.events.codec.EventCodec;
+import com.selco.auth.events.codec.EventCodecRegistry;
+import com.selco.auth.repository.UsuarioRepository;
+import com.selco.auth.service.EmailEventFactory;
+import com.selco.auth.service.JwtService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Aquecimento antes de a aplicação aceitar tráfego
+ * Executa iterações sintéticas de assinatura e leitura de JWT, BCrypt e serialização (DTOs HTTP e
+ * eventos com os codecs configurados) para que o JIT compile esses caminhos, e abre antecipadamente
+ * as conexões com MongoDB, Redis e RabbitMQ, que o driver só abriria na primeira requisição
+ *
+ * Roda como último ApplicationRunner: o Spring Boot só publica ReadinessState.ACCEPTING_TRAFFIC
+ * depois dos runners, então /actuator/health/readiness fica OUT_OF_SERVICE durante o aquecimento.
+ * O tempo total é limitado por app.warmup.budget-ms; etapas que não couberem são interrompidas e a
+ * aplicação sobe mesmo assim. Falhas de conexão só são registradas no relatório, que fica em /actuator/info
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner, InfoContributor {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+    private static final String EMAIL_SINTETICO = "aquecimento@selco.com.br";
+    private static final String ID_SINTETICO = "000000000000000000000000";
+
+    /**
+     * Resultado de uma etapa do aquecimento
+     */
+    public record Etapa(String nome, int iteracoes, long duracaoMs, String erro) {
+    }
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EventCodecRegistry eventCodecRegistry;
+
+    @Autowired
+    private EmailEventFactory emailEventFactory;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Value("${app.warmup.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.warmup.budget-ms:20000}")
+    private long orcamentoMs;
+
+    @Value("${app.warmup.iterations:5000}")
+    private int iteracoes;
+
+    @Value("${app.warmup.bcrypt-iterations:4}")
+    private int iteracoesBcrypt;
+
+    @Value("${app.warmup.pools.enabled:true}")
+    private boolean conexoesHabilitadas;
+
+    @Value("${app.warmup.pools.mongo-connections:4}")
+    private int conexoesMongo;
+
+    @Value("${rabbitmq.codecs.user:json}")
+    private String userCodecNome;
+
+    @Value("${rabbitmq.codecs.email:json}")
+    private String emailCodecNome;
+
+    @Value("${rabbitmq.codecs.audit:json}")
+    private String auditCodecNome;
+
+    private final List<Etapa> relatorio = new CopyOnWriteArrayList<>();
+    private volatile long prazoNanos;
+    private volatile long duracaoTotalMs = -1;
+    private volatile boolean orcamentoEsgotado;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitado) {
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        prazoNanos = inicio + TimeUnit.MILLISECONDS.toNanos(orcamentoMs);
+
+        // Conexões esperam rede e o aquecimento do JIT usa CPU: rodam em paralelo
+        ExecutorService executor = Executors.newFixedThreadPool(2, tarefa -> {
+            Thread thread = new Thread(tarefa, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<Void> cpu = CompletableFuture.runAsync(this::aquecerCodigo, executor);
+            CompletableFuture<Void> conexoes = conexoesHabilitadas
+                    ? CompletableFuture.runAsync(this::abrirConexoes, executor)
+                    : CompletableFuture.completedFuture(null);
+            CompletableFuture.allOf(cpu, conexoes).get(orcamentoMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            orcamentoEsgotado = true;
+            logger.warn("Aquecimento interrompido após o orçamento de {} ms", orcamentoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Erro no aquecimento: {}", e.getMessage());
+        } finally {
+            // As etapas seguintes veem o prazo vencido e só se registram no relatório
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        duracaoTotalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        for (Etapa etapa : relatorio) {
+            if (etapa.erro() == null) {
+                logger.info("Aquecimento {}: {} iterações em {} ms", etapa.nome(), etapa.iteracoes(), etapa.duracaoMs());
+            } else {
+                logger.warn("Aquecimento {}: {} iterações em {} ms, erro: {}", etapa.nome(), etapa.iteracoes(),
+                        etapa.duracaoMs(), etapa.erro());
+            }
+        }
+        logger.info("Aquecimento concluído em {} ms", duracaoTotalMs);
+    }
+
+    private void aquecerCodigo() {
+        executar("jwt", iteracoes, () -> {
+            String token = jwtService.generateAccessToken(EMAIL_SINTETICO, "FUNCIONARIO", ID_SINTETICO);
+            jwtService.validateToken(token, EMAIL_SINTETICO);
+            jwtService.extractUsuarioId(token);
+            jwtService.extractTipoUsuario(token);
+        });
+
+        // Cadastro gera hash e login verifica: a primeira iteração gera o hash usado nas seguintes
+        String[] hash = new String[1];
+        executar("bcrypt", iteracoesBcrypt, () -> {
+            if (hash[0] == null) {
+                hash[0] = passwordEncoder.encode("aquecimento");
+            } else {
+                passwordEncoder.matches("aquecimento", hash[0]);
+            }
+        });
+
+        byte[] login = "{\"email\":\"aquecimento@selco.com.br\",\"senha\":\"123456\"}".getBytes();
+        executar("json", iteracoes, () -> {
+            objectMapper.readValue(login, LoginRequestDTO.class);
+            objectMapper.writeValueAsBytes(LoginResponseDTO.sucesso("Login realizado com sucesso", "a", "r", "FUNCIONARIO", 28800));
+            objectMapper.writeValueAsBytes(TokenValidationDTO.valido(ID_SINTETICO, "Aquecimento", EMAIL_SINTETICO,
+                    "FUNCIONARIO", LocalDateTime.now()));
+        });
+
+        EventCodec userCodec = eventCodecRegistry.getCodec(userCodecNome);
+        EventCodec emailCodec = eventCodecRegistry.getCodec(emailCodecNome);
+        EventCodec auditCodec = eventCodecRegistry.getCodec(auditCodecNome);
+        executar("eventos", iteracoes, () -> {
+            userCodec.serializar(new UsuarioCriado(ID_SINTETICO, EMAIL_SINTETICO, "Aquecimento", "TI", "Analista",
+                    "FUNCIONARIO", "ATIVO", LocalDateTime.now(), null));
+            emailCodec.serializar(emailEventFactory.notificacaoLogin(EMAIL_SINTETICO, "Aquecimento", true, "127.0.0.1"));
+            auditCodec.serializar(new LogAcessoRegistrado(ID_SINTETICO, "127.0.0.1", "warmup", true,
+                    "Login realizado com sucesso", LocalDateTime.now()));
+        });
+    }
+
+    private void abrirConexoes() {
+        // Operações simultâneas obrigam o driver a abrir várias conexões do pool
+        executar("mongo", 1, () -> {
+            ExecutorService clientes = Executors.newFixedThreadPool(conexoesMongo);
+            try {
+                List<CompletableFuture<Document>> pings = new ArrayList<>();
+                for (int i = 0; i < conexoesMongo; i++) {
+                    pings.add(CompletableFuture.supplyAsync(() -> mongoTemplate.executeCommand(new Document("ping", 1)), clientes));
+                }
+                pings.forEach(CompletableFuture::join);
+            } finally {
+                clientes.shutdownNow();
+            }
+            usuarioRepository.findByEmail(EMAIL_SINTETICO);
+        });
+        executar("redis", 1, () -> {
+            redisTemplate.execute((RedisCallback<String>) conexao -> conexao.ping());
+            redisTemplate.hasKey("blacklist:token:aquecimento");
+        });
+        executar("rabbitmq", 1, () -> rabbitTemplate.execute(canal -> canal.isOpen()));
+    }
+
+    private interface Iteracao {
+        void executar() throws Exception;
+    }
+
+    private void executar(String nome, int quantidade, Iteracao iteracao) {
+        long inicio = System.nanoTime();
+        int feitas = 0;
+        String erro = null;
+        try {
+            while (feitas < quantidade && !Thread.currentThread().isInterrupted()) {
+                if (System.nanoTime() >= prazoNanos) {
+                    erro = "orçamento esgotado";
+                    break;
+                }
+                iteracao.executar();
+                feitas++;
+            }
+        } catch (Exception e) {
+            erro = e.getMessage();
+        }
+        relatorio.add(new Etapa(nome, feitas, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), erro));
+    }
+
+    public List<Etapa> getRelatorio() {
+        return List.copyOf(relatorio);
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        if (!habilitado) {
+            return;
+        }
+        Map<String, Object> aquecimento = new LinkedHashMap<>();
+        aquecimento.put("duracaoMs", duracaoTotalMs);
+        aquecimento.put("orcamentoMs", orcamentoMs);
+        aquecimento.put("orcamentoEsgotado", orcamentoEsgotado);
+        aquecimento.put("etapas", getRelatorio());
+        builder.withDetail("warmup", aquecimento);
+    }
+}
@@ -0,0 +1,122 @@
+package com.selco.auth.controller;
+
+import com.selco.auth.dto.AuditPaginaDTO;
+import com.selco.auth.dto.LogAcessoDTO;
+import com.selco.auth.repository.LogAcessoFiltro;
+import com.selco.auth.service.AuditService;
+import com.selco.auth.service.AuditService.FormatoExportacao;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Controller de consulta aos logs de acesso (AUT-18)
+ * Restrito a administradores; a listagem é paginada por cursor e a exportação é transmitida
+ * em NDJSON ou CSV diretamente do cursor do MongoDB
+ */
+@RestController
+@RequestMapping("/auth/audit")
+@Tag(name = "Auditoria", description = "Consulta e exportação dos logs de acesso")
+public class AuditController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    @Autowired
+    private AuditService auditService;
+
+    @GetMapping("/logs")
+    @Operation(summary = "Listar logs de acesso", description = "Lista logs do mais recente para o mais antigo; use proximo_cursor para a página seguinte")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem perfil de administrador")
+    })
+    public ResponseEntity<AuditPaginaDTO> listarLogs(
+            @RequestParam(required = false) String usuarioId,
+            @RequestParam(required = false) String ip,
+            @RequestParam(required = false) Boolean sucesso,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+
+        try {
+            LogAcessoFiltro filtro = new LogAcessoFiltro(usuarioId, ip, sucesso, inicio, fim);
+            return ResponseEntity.ok(auditService.buscarPagina(filtro, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Consulta de auditoria rejeitada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/logs/export")
+    @Operation(summary = "Exportar logs de acesso", description = "Transmite todos os logs do filtro em ordem cronológica, em NDJSON ou CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem perfil de administrador")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarLogs(
+            @RequestParam(required = false) String usuarioId,
+            @RequestParam(required = false) String ip,
+            @RequestParam(required = false) Boolean sucesso,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato) {
+
+        LogAcessoFiltro filtro = new LogAcessoFiltro(usuarioId, ip, sucesso, inicio, fim);
+        StreamingResponseBody corpo = saida -> auditService.exportar(filtro, formato, saida);
+        String arquivo = "logs-acesso." + (formato == FormatoExportacao.CSV ? "csv" : "ndjson");
+
+        return ResponseEntity.ok()
+                .contentType(formato == FormatoExportacao.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + arquivo + "\"")
+                .body(corpo);
+    }
+
+    @GetMapping("/archive/logs")
+    @Operation(summary = "Consultar logs arquivados", description = "Lê os segmentos de arquivo dos logs mais antigos que o período mantido no MongoDB, em ordem cronológica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Logs retornados"),
+            @ApiResponse(responseCode = "400", description = "Período ausente ou inválido"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem perfil de administrador")
+    })
+    public ResponseEntity<List<LogAcessoDTO>> listarLogsArquivados(
+            @RequestParam(required = false) String usuarioId,
+            @RequestParam(required = false) String ip,
+            @RequestParam(required = false) Boolean sucesso,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(required = false) Integer limite) {
+
+        if (!inicio.isBefore(fim)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            LogAcessoFiltro filtro = new LogAcessoFiltro(usuarioId, ip, sucesso, inicio, fim);
+            return ResponseEntity.ok(auditService.buscarArquivados(filtro, limite));
+        } catch (IOException e) {
+            logger.error("Erro ao ler logs arquivados: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -2,13 +2,19 @@ package com.selco.auth.controller;
 
 import com.selco.auth.dto.CadastroFuncionarioDTO;
 import com.selco.auth.dto.CadastroResponseDTO;
+import com.selco.auth.dto.IntrospeccaoDTO;
 import com.selco.auth.dto.LoginRequestDTO;
 import com.selco.auth.dto.LoginResponseDTO;
 import com.selco.auth.dto.LogoutRequestDTO;
 import com.selco.auth.dto.LogoutResponseDTO;
 import com.selco.auth.dto.TokenValidationDTO;
+import com.selco.auth.model.Usuario;
+import com.selco.auth.service.AuthMetrics.Operacao;
 import com.selco.auth.service.AuthService;
+import com.selco.auth.service.AuthService.Validacao;
 import com.selco.auth.service.CadastroService;
+import com.selco.auth.service.IntrospectionService;
+import com.selco.auth.service.IntrospectionService.Introspeccao;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -18,10 +24,17 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Controller para endpoints de autenticação
  * Implementa RF01 e RF02 do sistema SELCO
@@ -33,12 +46,22 @@ public class AuthController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
+    // Cabeçalhos de /auth/check repassados pelo gateway ao serviço de destino
+    public static final String HEADER_USUARIO_ID = "X-User-Id";
+    public static final String HEADER_USUARIO_EMAIL = "X-User-Email";
+    public static final String HEADER_USUARIO_TIPO = "X-User-Type";
+
+    private static final Pattern ETAG_LISTA = Pattern.compile("\\*|(?:W/)?\"[^\"]*\"");
+
     @Autowired
     private CadastroService cadastroService;
 
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private IntrospectionService introspectionService;
+
     @GetMapping("/health")
     @Operation(summary = "Health Check", description = "Verifica se o serviço de autenticação está funcionando")
     @ApiResponse(responseCode = "200", description = "Serviço funcionando corretamente")
@@ -233,4 +256,106 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * Verificação de token para subrequisições do gateway (auth_request do nginx, ext_authz do Envoy)
+     * Responde apenas status e cabeçalhos: sem DTO, sem JSON e sem log por requisição em INFO.
+     * A duração fica em selco.auth.operation{operation=check}
+     */
+    @GetMapping("/check")
+    @Operation(summary = "Verificar Token JWT", description = "Retorna 204 com X-User-Id, X-User-Email e X-User-Type para token válido, 401 caso contrário, sem corpo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token válido"),
+            @ApiResponse(responseCode = "401", description = "Token ausente, inválido, expirado ou revogado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<Void> verificarToken(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            Validacao validacao = authService.validar(authHeader.substring(7), Operacao.VERIFICACAO);
+            if (!validacao.valido()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            Usuario usuario = validacao.usuario();
+            return ResponseEntity.noContent()
+                    .header(HEADER_USUARIO_ID, usuario.getId())
+                    .header(HEADER_USUARIO_EMAIL, usuario.getEmail())
+                    .header(HEADER_USUARIO_TIPO, usuario.getTipoUsuario())
+                    .build();
+        } catch (Exception e) {
+            logger.error("Erro inesperado na verificação de token: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Introspecção de token (RFC 7662)
+     * O chamador se autentica com o próprio token; o token consultado vai no corpo. A resposta informa
+     * em Cache-Control (private) por quanto tempo o chamador pode reaproveitá-la e traz um ETag estável
+     */
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    @Operation(summary = "Introspecção de Token", description = "Informa se o token está ativo e seus dados (RFC 7662), com Cache-Control e ETag para cache nos gateways")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado da introspecção; active=false para token inválido, expirado ou revogado"),
+            @ApiResponse(responseCode = "304", description = "Resultado igual ao do ETag informado em If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Parâmetro token ausente"),
+            @ApiResponse(responseCode = "401", description = "Chamador não autenticado"),
+            @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
+    })
+    public ResponseEntity<IntrospeccaoDTO> introspectarToken(
+            @RequestParam("token") String token,
+            @RequestParam(value = "token_type_hint", required = false) String tokenTypeHint,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        try {
+            Introspeccao introspeccao = introspectionService.introspectar(token);
+            if (!introspeccao.armazenavel()) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .cacheControl(CacheControl.noStore())
+                        .build();
+            }
+
+            // private: o corpo traz email, id e sessão; só o gateway que consultou pode reaproveitar
+            CacheControl cacheControl = CacheControl.maxAge(introspeccao.maxAgeSegundos(), TimeUnit.SECONDS).cachePrivate();
+            if (correspondeIfNoneMatch(ifNoneMatch, introspeccao.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(cacheControl)
+                        .eTag(introspeccao.etag())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .cacheControl(cacheControl)
+                    .eTag(introspeccao.etag())
+                    .body(introspeccao.corpo());
+        } catch (Exception e) {
+            logger.error("Erro inesperado na introspecção de token: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+    }
+
+    /**
+     * If-None-Match com a comparação fraca da RFC 9110: "*", listas e prefixo W/
+     * WebRequest.checkNotModified responde 412 em vez de 304 fora de GET/HEAD, por isso não serve ao POST
+     */
+    static boolean correspondeIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaco = etag.startsWith("W/") ? etag.substring(2) : etag;
+        Matcher candidatos = ETAG_LISTA.matcher(ifNoneMatch);
+        while (candidatos.find()) {
+            String candidato = candidatos.group();
+            if ("*".equals(candidato) || opaco.equals(candidato.startsWith("W/") ? candidato.substring(2) : candidato)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
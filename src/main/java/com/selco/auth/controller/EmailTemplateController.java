@@ -0,0 +1,64 @@
+package com.selco.auth.controller;
+
+import com.selco.auth.dto.EmailTemplateCatalogoDTO;
+import com.selco.auth.dto.EmailTemplateDTO;
+import com.selco.auth.service.EmailTemplateRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller do registro de templates de email
+ * Permite que consumidores de eventos compactos busquem e mantenham os templates em cache
+ */
+@RestController
+@RequestMapping("/auth/email-templates")
+@Tag(name = "Templates de Email", description = "Registro versionado dos templates usados nos eventos de email")
+public class EmailTemplateController {
+
+    @Autowired
+    private EmailTemplateRegistry emailTemplateRegistry;
+
+    @GetMapping
+    @Operation(summary = "Catálogo de templates", description = "Retorna todos os templates publicados, com ETag igual à versão do catálogo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catálogo retornado"),
+            @ApiResponse(responseCode = "304", description = "Catálogo não mudou desde o ETag informado")
+    })
+    public ResponseEntity<EmailTemplateCatalogoDTO> listarTemplates(WebRequest request) {
+        String etag = "\"" + emailTemplateRegistry.getVersaoCatalogo() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES))
+                .body(emailTemplateRegistry.getCatalogo());
+    }
+
+    @GetMapping("/{id}/{versao}")
+    @Operation(summary = "Template por versão", description = "Retorna uma versão específica de um template; versões publicadas são imutáveis")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Template encontrado"),
+            @ApiResponse(responseCode = "404", description = "Template ou versão inexistente")
+    })
+    public ResponseEntity<EmailTemplateDTO> buscarTemplate(@PathVariable String id, @PathVariable int versao) {
+        return emailTemplateRegistry.getTemplate(id, versao)
+                .map(template -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                        .body(template))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
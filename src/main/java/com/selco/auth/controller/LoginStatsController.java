@@ -0,0 +1,57 @@
+package com.selco.auth.controller;
+
+import com.selco.auth.dto.EstatisticaLoginSerieDTO;
+import com.selco.auth.service.LoginStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Controller das estatísticas de login por minuto para dashboards operacionais
+ * Restrito a administradores
+ */
+@RestController
+@RequestMapping("/auth/stats")
+@Tag(name = "Estatísticas", description = "Séries de sucesso e falha de login a partir dos rollups por minuto")
+public class LoginStatsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginStatsController.class);
+
+    @Autowired
+    private LoginStatsService loginStatsService;
+
+    @GetMapping("/logins")
+    @Operation(summary = "Séries de login", description = "Retorna sucessos e falhas por intervalo para a dimensão global, ip ou tipoUsuario")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Séries retornadas"),
+            @ApiResponse(responseCode = "400", description = "Dimensão, período ou intervalo inválido"),
+            @ApiResponse(responseCode = "403", description = "Usuário sem perfil de administrador")
+    })
+    public ResponseEntity<List<EstatisticaLoginSerieDTO>> buscarSeries(
+            @RequestParam(defaultValue = "global") String dimensao,
+            @RequestParam(required = false) String valor,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "1") int intervaloMinutos) {
+
+        try {
+            return ResponseEntity.ok(loginStatsService.buscarSeries(dimensao, valor, inicio, fim, intervaloMinutos));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Consulta de estatísticas rejeitada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.selco.auth.controller;
+
+import com.selco.auth.dto.SessaoDTO;
+import com.selco.auth.security.JwtAuthenticationFilter.JwtAuthenticationDetails;
+import com.selco.auth.service.SessionRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller das sessões ativas do usuário autenticado
+ * Cada login abre uma sessão com dispositivo, IP e último acesso; revogar uma sessão invalida
+ * todos os tokens emitidos para ela. Administradores podem informar usuarioId para agir em outro usuário
+ */
+@RestController
+@RequestMapping("/auth/sessions")
+@Tag(name = "Sessões", description = "Listagem e revogação das sessões ativas")
+public class SessionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionController.class);
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @GetMapping
+    @Operation(summary = "Listar sessões", description = "Lista as sessões ativas, da mais recente para a mais antiga; atual indica a sessão do token usado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sessões retornadas"),
+            @ApiResponse(responseCode = "401", description = "Token ausente ou inválido"),
+            @ApiResponse(responseCode = "403", description = "usuarioId de outro usuário sem perfil de administrador")
+    })
+    public ResponseEntity<List<SessaoDTO>> listarSessoes(
+            Authentication authentication,
+            @RequestParam(required = false) String usuarioId) {
+
+        if (authentication == null || !(authentication.getDetails() instanceof JwtAuthenticationDetails detalhes)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String alvo = usuarioAlvo(authentication, detalhes, usuarioId);
+        if (alvo == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        try {
+            return ResponseEntity.ok(sessionRegistry.listar(alvo, detalhes.getSessaoId()));
+        } catch (Exception e) {
+            logger.error("Erro ao listar sessões do usuário {}: {}", alvo, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Revogar sessão", description = "Encerra a sessão: os tokens emitidos para ela passam a ser recusados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sessão revogada"),
+            @ApiResponse(responseCode = "401", description = "Token ausente ou inválido"),
+            @ApiResponse(responseCode = "403", description = "usuarioId de outro usuário sem perfil de administrador"),
+            @ApiResponse(responseCode = "404", description = "Sessão inexistente ou de outro usuário")
+    })
+    public ResponseEntity<Void> revogarSessao(
+            Authentication authentication,
+            @PathVariable String id,
+            @RequestParam(required = false) String usuarioId) {
+
+        if (authentication == null || !(authentication.getDetails() instanceof JwtAuthenticationDetails detalhes)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String alvo = usuarioAlvo(authentication, detalhes, usuarioId);
+        if (alvo == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        try {
+            if (!sessionRegistry.revogar(id, alvo)) {
+                return ResponseEntity.notFound().build();
+            }
+            logger.info("Sessão {} do usuário {} revogada por {}", id, alvo, detalhes.getEmail());
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            logger.error("Erro ao revogar sessão {}: {}", id, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Usuário cujas sessões serão consultadas: o próprio, ou o informado se o chamador for administrador
+     * Retorna null quando um usuário comum informa outro usuarioId
+     */
+    private static String usuarioAlvo(Authentication authentication, JwtAuthenticationDetails detalhes, String usuarioId) {
+        if (usuarioId == null || usuarioId.equals(detalhes.getUsuarioId())) {
+            return detalhes.getUsuarioId();
+        }
+        boolean administrador = authentication.getAuthorities().stream()
+                .anyMatch(autoridade -> "ROLE_ADMIN".equals(autoridade.getAuthority()));
+        return administrador ? usuarioId : null;
+    }
+}
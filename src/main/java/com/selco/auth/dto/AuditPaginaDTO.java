@@ -0,0 +1,58 @@
+package com.selco.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO de uma página de logs de acesso com cursor para a página seguinte
+ */
+@Schema(description = "Página de logs de acesso")
+public class AuditPaginaDTO {
+
+    @JsonProperty("itens")
+    @Schema(description = "Registros da página, do mais recente para o mais antigo")
+    private List<LogAcessoDTO> itens;
+
+    @JsonProperty("proximo_cursor")
+    @Schema(description = "Cursor opaco da próxima página; ausente na última página", example = "MjAyNC0xMi0yM1QxNDozMDo0NXw2NzZh")
+    private String proximoCursor;
+
+    @JsonProperty("tamanho")
+    @Schema(description = "Quantidade de registros na página", example = "100")
+    private int tamanho;
+
+    public AuditPaginaDTO() {}
+
+    public AuditPaginaDTO(List<LogAcessoDTO> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+        this.tamanho = itens.size();
+    }
+
+    // Getters e Setters
+    public List<LogAcessoDTO> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<LogAcessoDTO> itens) {
+        this.itens = itens;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public void setTamanho(int tamanho) {
+        this.tamanho = tamanho;
+    }
+}
@@ -0,0 +1,43 @@
+package com.selco.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO do catálogo completo de templates de email
+ */
+@Schema(description = "Catálogo de templates de email")
+public class EmailTemplateCatalogoDTO {
+
+    @Schema(description = "Versão do catálogo (hash do conteúdo), igual ao ETag da resposta", example = "9f2c4e1a7b3d5f60")
+    private String versao;
+
+    @Schema(description = "Templates disponíveis em todas as versões publicadas")
+    private List<EmailTemplateDTO> templates;
+
+    // Construtores
+    public EmailTemplateCatalogoDTO() {}
+
+    public EmailTemplateCatalogoDTO(String versao, List<EmailTemplateDTO> templates) {
+        this.versao = versao;
+        this.templates = templates;
+    }
+
+    // Getters e Setters
+    public String getVersao() {
+        return versao;
+    }
+
+    public void setVersao(String versao) {
+        this.versao = versao;
+    }
+
+    public List<EmailTemplateDTO> getTemplates() {
+        return templates;
+    }
+
+    public void setTemplates(List<EmailTemplateDTO> templates) {
+        this.templates = templates;
+    }
+}
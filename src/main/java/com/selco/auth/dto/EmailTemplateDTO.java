@@ -0,0 +1,92 @@
+package com.selco.auth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+/**
+ * DTO de um template de email versionado
+ * Consumidores de eventos compactos usam templateId + versão para renderizar o corpo localmente
+ */
+@Schema(description = "Template de email versionado")
+public class EmailTemplateDTO {
+
+    @Schema(description = "Identificador do template", example = "login-falha")
+    private String id;
+
+    @Schema(description = "Versão do template (imutável após publicada)", example = "1")
+    private int versao;
+
+    @Schema(description = "Tipo de email associado", example = "LOGIN_FALHA")
+    private String tipoEmail;
+
+    @Schema(description = "Assunto do email")
+    private String assunto;
+
+    @Schema(description = "Parâmetros esperados e seus tipos (string, datetime, number, list)")
+    private Map<String, String> parametros;
+
+    @Schema(description = "Corpo do email com marcadores {{parametro}}")
+    private String corpo;
+
+    // Construtores
+    public EmailTemplateDTO() {}
+
+    // Getters e Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public int getVersao() {
+        return versao;
+    }
+
+    public void setVersao(int versao) {
+        this.versao = versao;
+    }
+
+    public String getTipoEmail() {
+        return tipoEmail;
+    }
+
+    public void setTipoEmail(String tipoEmail) {
+        this.tipoEmail = tipoEmail;
+    }
+
+    public String getAssunto() {
+        return assunto;
+    }
+
+    public void setAssunto(String assunto) {
+        this.assunto = assunto;
+    }
+
+    public Map<String, String> getParametros() {
+        return parametros;
+    }
+
+    public void setParametros(Map<String, String> parametros) {
+        this.parametros = parametros;
+    }
+
+    public String getCorpo() {
+        return corpo;
+    }
+
+    public void setCorpo(String corpo) {
+        this.corpo = corpo;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailTemplateDTO{" +
+                "id='" + id + '\'' +
+                ", versao=" + versao +
+                ", tipoEmail='" + tipoEmail + '\'' +
+                '}';
+    }
+}
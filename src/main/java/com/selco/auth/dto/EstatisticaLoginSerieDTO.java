@@ -0,0 +1,117 @@
+package com.selco.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de uma série temporal de logins para um valor de dimensão
+ */
+@Schema(description = "Série de logins por intervalo")
+public class EstatisticaLoginSerieDTO {
+
+    @JsonProperty("dimensao")
+    @Schema(description = "Dimensão da série", example = "ip")
+    private String dimensao;
+
+    @JsonProperty("valor")
+    @Schema(description = "Valor da dimensão", example = "192.168.0.10")
+    private String valor;
+
+    @JsonProperty("pontos")
+    @Schema(description = "Pontos da série em ordem cronológica; intervalos sem logins são omitidos")
+    private List<Ponto> pontos = new ArrayList<>();
+
+    public EstatisticaLoginSerieDTO() {}
+
+    public EstatisticaLoginSerieDTO(String dimensao, String valor) {
+        this.dimensao = dimensao;
+        this.valor = valor;
+    }
+
+    // Getters e Setters
+    public String getDimensao() {
+        return dimensao;
+    }
+
+    public void setDimensao(String dimensao) {
+        this.dimensao = dimensao;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public void setValor(String valor) {
+        this.valor = valor;
+    }
+
+    public List<Ponto> getPontos() {
+        return pontos;
+    }
+
+    public void setPontos(List<Ponto> pontos) {
+        this.pontos = pontos;
+    }
+
+    /**
+     * Contagens de um intervalo da série
+     */
+    @Schema(description = "Contagens de logins de um intervalo")
+    public static class Ponto {
+
+        @JsonProperty("inicio")
+        @Schema(description = "Início do intervalo", example = "2024-12-23T14:30:00")
+        private LocalDateTime inicio;
+
+        @JsonProperty("sucessos")
+        @Schema(description = "Logins bem-sucedidos no intervalo", example = "42")
+        private long sucessos;
+
+        @JsonProperty("falhas")
+        @Schema(description = "Logins com falha no intervalo", example = "3")
+        private long falhas;
+
+        public Ponto() {}
+
+        public Ponto(LocalDateTime inicio, long sucessos, long falhas) {
+            this.inicio = inicio;
+            this.sucessos = sucessos;
+            this.falhas = falhas;
+        }
+
+        @JsonProperty("taxa_falha")
+        @Schema(description = "Fração de falhas no intervalo", example = "0.067")
+        public double getTaxaFalha() {
+            long total = sucessos + falhas;
+            return total == 0 ? 0.0 : (double) falhas / total;
+        }
+
+        public LocalDateTime getInicio() {
+            return inicio;
+        }
+
+        public void setInicio(LocalDateTime inicio) {
+            this.inicio = inicio;
+        }
+
+        public long getSucessos() {
+            return sucessos;
+        }
+
+        public void setSucessos(long sucessos) {
+            this.sucessos = sucessos;
+        }
+
+        public long getFalhas() {
+            return falhas;
+        }
+
+        public void setFalhas(long falhas) {
+            this.falhas = falhas;
+        }
+    }
+}
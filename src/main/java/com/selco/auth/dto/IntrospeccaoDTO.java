@@ -0,0 +1,145 @@
+package com.selco.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO da resposta de introspecção de token (RFC 7662)
+ * Sem timestamp: para o mesmo token e o mesmo estado do usuário o corpo é sempre igual, o que
+ * permite ETag estável e cache nos gateways. Token inativo retorna apenas active=false
+ */
+@Schema(description = "Resposta de introspecção de token (RFC 7662)")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospeccaoDTO {
+
+    @JsonProperty("active")
+    @Schema(description = "Indica se o token está ativo", example = "true")
+    private boolean active;
+
+    @JsonProperty("sub")
+    @Schema(description = "Subject do JWT (email do usuário)", example = "joao.silva@empresa.com")
+    private String sub;
+
+    @JsonProperty("username")
+    @Schema(description = "Email do usuário", example = "joao.silva@empresa.com")
+    private String username;
+
+    @JsonProperty("token_type")
+    @Schema(description = "access_token ou refresh_token", example = "access_token")
+    private String tokenType;
+
+    @JsonProperty("exp")
+    @Schema(description = "Expiração do token em segundos desde 1970-01-01T00:00:00Z", example = "1735039845")
+    private Long exp;
+
+    @JsonProperty("iat")
+    @Schema(description = "Emissão do token em segundos desde 1970-01-01T00:00:00Z", example = "1735011045")
+    private Long iat;
+
+    @JsonProperty("usuario_id")
+    @Schema(description = "ID do usuário proprietário do token", example = "676a1b2c3d4e5f6789012345")
+    private String usuarioId;
+
+    @JsonProperty("tipo_usuario")
+    @Schema(description = "Tipo do usuário", example = "FUNCIONARIO")
+    private String tipoUsuario;
+
+    @JsonProperty("sid")
+    @Schema(description = "ID da sessão do token", example = "676a1b2c3d4e5f6789012346")
+    private String sid;
+
+    public IntrospeccaoDTO() {}
+
+    public static IntrospeccaoDTO inativo() {
+        return new IntrospeccaoDTO();
+    }
+
+    public static IntrospeccaoDTO ativo(String sub, String tokenType, long exp, long iat,
+                                        String usuarioId, String tipoUsuario, String sid) {
+        IntrospeccaoDTO dto = new IntrospeccaoDTO();
+        dto.active = true;
+        dto.sub = sub;
+        dto.username = sub;
+        dto.tokenType = tokenType;
+        dto.exp = exp;
+        dto.iat = iat;
+        dto.usuarioId = usuarioId;
+        dto.tipoUsuario = tipoUsuario;
+        dto.sid = sid;
+        return dto;
+    }
+
+    // Getters e Setters
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getSub() {
+        return sub;
+    }
+
+    public void setSub(String sub) {
+        this.sub = sub;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+
+    public Long getExp() {
+        return exp;
+    }
+
+    public void setExp(Long exp) {
+        this.exp = exp;
+    }
+
+    public Long getIat() {
+        return iat;
+    }
+
+    public void setIat(Long iat) {
+        this.iat = iat;
+    }
+
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(String usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getTipoUsuario() {
+        return tipoUsuario;
+    }
+
+    public void setTipoUsuario(String tipoUsuario) {
+        this.tipoUsuario = tipoUsuario;
+    }
+
+    public String getSid() {
+        return sid;
+    }
+
+    public void setSid(String sid) {
+        this.sid = sid;
+    }
+}
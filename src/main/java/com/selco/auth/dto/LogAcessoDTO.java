@@ -0,0 +1,113 @@
+package com.selco.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.selco.auth.model.LogAcesso;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de um registro de log de acesso retornado pela API de auditoria
+ */
+@Schema(description = "Registro de log de acesso")
+public class LogAcessoDTO {
+
+    @JsonProperty("id")
+    @Schema(description = "ID do registro", example = "676a1b2c3d4e5f6789012345")
+    private String id;
+
+    @JsonProperty("data_hora")
+    @Schema(description = "Data e hora da tentativa de acesso", example = "2024-12-23T14:30:45")
+    private LocalDateTime dataHora;
+
+    @JsonProperty("usuario_id")
+    @Schema(description = "ID do usuário, quando identificado", example = "676a1b2c3d4e5f6789012345")
+    private String usuarioId;
+
+    @JsonProperty("ip")
+    @Schema(description = "Endereço IP de origem", example = "192.168.0.10")
+    private String ip;
+
+    @JsonProperty("user_agent")
+    @Schema(description = "User-Agent do cliente")
+    private String userAgent;
+
+    @JsonProperty("sucesso")
+    @Schema(description = "Indica se o acesso foi bem-sucedido", example = "true")
+    private boolean sucesso;
+
+    @JsonProperty("motivo")
+    @Schema(description = "Motivo registrado para a tentativa", example = "Senha incorreta")
+    private String motivo;
+
+    public LogAcessoDTO() {}
+
+    public static LogAcessoDTO de(LogAcesso log) {
+        LogAcessoDTO dto = new LogAcessoDTO();
+        dto.id = log.getId();
+        dto.dataHora = log.getDataHora();
+        dto.usuarioId = log.getUsuarioId();
+        dto.ip = log.getIp();
+        dto.userAgent = log.getUserAgent();
+        dto.sucesso = log.isSucesso();
+        dto.motivo = log.getMotivo();
+        return dto;
+    }
+
+    // Getters e Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(LocalDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(String usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public void setIp(String ip) {
+        this.ip = ip;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public void setUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public void setSucesso(boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+}
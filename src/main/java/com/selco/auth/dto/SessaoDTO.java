@@ -0,0 +1,114 @@
+package com.selco.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.selco.auth.model.Token;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de uma sessão ativa retornada por GET /auth/sessions
+ */
+@Schema(description = "Sessão ativa de um usuário")
+public class SessaoDTO {
+
+    @JsonProperty("id")
+    @Schema(description = "ID da sessão, usado em DELETE /auth/sessions/{id}", example = "676a1b2c3d4e5f6789012345")
+    private String id;
+
+    @JsonProperty("dispositivo")
+    @Schema(description = "User-Agent do login")
+    private String dispositivo;
+
+    @JsonProperty("ip")
+    @Schema(description = "Endereço IP do login", example = "192.168.0.10")
+    private String ip;
+
+    @JsonProperty("data_criacao")
+    @Schema(description = "Data e hora do login", example = "2024-12-23T14:30:45")
+    private LocalDateTime dataCriacao;
+
+    @JsonProperty("ultimo_acesso")
+    @Schema(description = "Último uso de um token da sessão, com resolução de app.sessions.last-seen.resolution-seconds",
+            example = "2024-12-23T16:02:00")
+    private LocalDateTime ultimoAcesso;
+
+    @JsonProperty("data_expiracao")
+    @Schema(description = "Expiração do refresh token da sessão", example = "2024-12-30T14:30:45")
+    private LocalDateTime dataExpiracao;
+
+    @JsonProperty("atual")
+    @Schema(description = "Indica a sessão do token usado na requisição", example = "true")
+    private boolean atual;
+
+    public SessaoDTO() {}
+
+    public static SessaoDTO de(Token sessao, LocalDateTime ultimoAcesso, boolean atual) {
+        SessaoDTO dto = new SessaoDTO();
+        dto.id = sessao.getId();
+        dto.dispositivo = sessao.getDispositivo();
+        dto.ip = sessao.getIp();
+        dto.dataCriacao = sessao.getDataCriacao();
+        dto.ultimoAcesso = ultimoAcesso;
+        dto.dataExpiracao = sessao.getDataExpiracao();
+        dto.atual = atual;
+        return dto;
+    }
+
+    // Getters e Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDispositivo() {
+        return dispositivo;
+    }
+
+    public void setDispositivo(String dispositivo) {
+        this.dispositivo = dispositivo;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public void setIp(String ip) {
+        this.ip = ip;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+
+    public LocalDateTime getUltimoAcesso() {
+        return ultimoAcesso;
+    }
+
+    public void setUltimoAcesso(LocalDateTime ultimoAcesso) {
+        this.ultimoAcesso = ultimoAcesso;
+    }
+
+    public LocalDateTime getDataExpiracao() {
+        return dataExpiracao;
+    }
+
+    public void setDataExpiracao(LocalDateTime dataExpiracao) {
+        this.dataExpiracao = dataExpiracao;
+    }
+
+    public boolean isAtual() {
+        return atual;
+    }
+
+    public void setAtual(boolean atual) {
+        this.atual = atual;
+    }
+}
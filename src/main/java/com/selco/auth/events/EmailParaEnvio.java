@@ -1,11 +1,17 @@
 package com.selco.auth.events;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Evento para solicitar o envio de email
  * Usado para comunicar com o microserviço de email
+ * No modo compacto leva apenas templateId, versão e parâmetros; o consumidor renderiza o corpo
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class EmailParaEnvio {
     
     private String destinatario;
@@ -14,6 +20,8 @@ public class EmailParaEnvio {
     private String tipoEmail; // CADASTRO, LOGIN_SUCESSO, LOGIN_FALHA, etc.
     private LocalDateTime dataEnvio;
     private String templateId; // Para templates de email específicos
+    private Integer templateVersao; // Versão do template no registro (modo compacto)
+    private Map<String, Object> parametros; // Parâmetros tipados do template (modo compacto)
     
     // Dados adicionais para templates
     private String nomeUsuario;
@@ -60,6 +68,33 @@ public class EmailParaEnvio {
         return email;
     }
     
+    // Construtor para resumo de tentativas de login com falha agregadas em uma janela
+    public static EmailParaEnvio resumoLoginFalha(String destinatario, String nomeUsuario, int tentativas,
+                                                  List<String> ips, LocalDateTime primeira, LocalDateTime ultima) {
+        EmailParaEnvio email = new EmailParaEnvio();
+        email.setDestinatario(destinatario);
+        email.setTipoEmail("LOGIN_FALHA_RESUMO");
+        email.setDataEnvio(LocalDateTime.now());
+        email.setNomeUsuario(nomeUsuario);
+        email.setTemplateId("login-falha-resumo");
+        email.setAssunto("SELCO - Várias tentativas de acesso não autorizadas");
+        email.setCorpo(construirCorpoResumoLoginFalha(nomeUsuario, tentativas, ips, primeira, ultima));
+        return email;
+    }
+    
+    // Construtor para email referenciando template, sem corpo pré-renderizado
+    public static EmailParaEnvio porTemplate(String destinatario, String tipoEmail, String templateId,
+                                             int templateVersao, Map<String, Object> parametros) {
+        EmailParaEnvio email = new EmailParaEnvio();
+        email.setDestinatario(destinatario);
+        email.setTipoEmail(tipoEmail);
+        email.setDataEnvio(LocalDateTime.now());
+        email.setTemplateId(templateId);
+        email.setTemplateVersao(templateVersao);
+        email.setParametros(parametros);
+        return email;
+    }
+    
     // Métodos auxiliares para construir o corpo dos emails
     private static String construirCorpoCadastro(String nome, String email, String senhaTemporaria) {
         return String.format("""
@@ -120,6 +155,27 @@ public class EmailParaEnvio {
             Equipe de Segurança SELCO
             """, nome, LocalDateTime.now(), ipAddress);
     }
+    
+    private static String construirCorpoResumoLoginFalha(String nome, int tentativas, List<String> ips,
+                                                         LocalDateTime primeira, LocalDateTime ultima) {
+        return String.format("""
+            Olá %s,
+            
+            ⚠️ ALERTA DE SEGURANÇA
+            
+            Detectamos %d tentativas de acesso não autorizadas em sua conta SELCO:
+            
+            Primeira tentativa: %s
+            Última tentativa: %s
+            IPs de origem: %s
+            
+            Recomendamos alterar sua senha imediatamente e entrar em contato conosco
+            se você não reconhece estas tentativas.
+            
+            Atenciosamente,
+            Equipe de Segurança SELCO
+            """, nome, tentativas, primeira, ultima, String.join(", ", ips));
+    }
 
     // Getters e Setters
     public String getDestinatario() {
@@ -170,6 +226,22 @@ public class EmailParaEnvio {
         this.templateId = templateId;
     }
 
+    public Integer getTemplateVersao() {
+        return templateVersao;
+    }
+
+    public void setTemplateVersao(Integer templateVersao) {
+        this.templateVersao = templateVersao;
+    }
+
+    public Map<String, Object> getParametros() {
+        return parametros;
+    }
+
+    public void setParametros(Map<String, Object> parametros) {
+        this.parametros = parametros;
+    }
+
     public String getNomeUsuario() {
         return nomeUsuario;
     }
@@ -202,6 +274,7 @@ public class EmailParaEnvio {
                 ", tipoEmail='" + tipoEmail + '\'' +
                 ", dataEnvio=" + dataEnvio +
                 ", templateId='" + templateId + '\'' +
+                ", templateVersao=" + templateVersao +
                 ", nomeUsuario='" + nomeUsuario + '\'' +
                 ", senhaTemporaria='[HIDDEN]'" +
                 '}';
@@ -0,0 +1,98 @@
+package com.selco.auth.events;
+
+import com.selco.auth.model.LogAcesso;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado para cada tentativa de login quando app.audit.sink.type=rabbit
+ * Permite que um serviço de auditoria persista os logs de acesso fora do banco de autenticação
+ */
+public class LogAcessoRegistrado {
+
+    private String usuarioId;
+    private String ip;
+    private String userAgent;
+    private boolean sucesso;
+    private String motivo;
+    private LocalDateTime dataHora;
+
+    // Construtor padrão
+    public LogAcessoRegistrado() {}
+
+    // Construtor completo
+    public LogAcessoRegistrado(String usuarioId, String ip, String userAgent, boolean sucesso,
+                               String motivo, LocalDateTime dataHora) {
+        this.usuarioId = usuarioId;
+        this.ip = ip;
+        this.userAgent = userAgent;
+        this.sucesso = sucesso;
+        this.motivo = motivo;
+        this.dataHora = dataHora;
+    }
+
+    public static LogAcessoRegistrado de(LogAcesso log) {
+        return new LogAcessoRegistrado(log.getUsuarioId(), log.getIp(), log.getUserAgent(), log.isSucesso(),
+                log.getMotivo(), log.getDataHora());
+    }
+
+    // Getters e Setters
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(String usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public void setIp(String ip) {
+        this.ip = ip;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public void setUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public void setSucesso(boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public void setDataHora(LocalDateTime dataHora) {
+        this.dataHora = dataHora;
+    }
+
+    @Override
+    public String toString() {
+        return "LogAcessoRegistrado{" +
+                "usuarioId='" + usuarioId + '\'' +
+                ", ip='" + ip + '\'' +
+                ", sucesso=" + sucesso +
+                ", motivo='" + motivo + '\'' +
+                ", dataHora=" + dataHora +
+                '}';
+    }
+}
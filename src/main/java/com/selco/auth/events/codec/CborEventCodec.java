@@ -0,0 +1,25 @@
+package com.selco.auth.events.codec;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Codec CBOR (RFC 8949), binário compacto com suporte amplo fora da JVM
+ */
+@Component
+public class CborEventCodec extends JacksonEventCodec {
+
+    public CborEventCodec() {
+        super(new CBORFactory());
+    }
+
+    @Override
+    public String getNome() {
+        return "cbor";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/cbor";
+    }
+}
@@ -0,0 +1,24 @@
+package com.selco.auth.events.codec;
+
+import java.io.IOException;
+
+/**
+ * SPI de serialização dos eventos publicados no RabbitMQ
+ * Cada implementação define o formato binário e o content-type enviados ao broker
+ */
+public interface EventCodec {
+
+    /**
+     * Nome usado na configuração (ex.: json, smile, cbor)
+     */
+    String getNome();
+
+    /**
+     * Content-type gravado nas propriedades da mensagem AMQP
+     */
+    String getContentType();
+
+    byte[] serializar(Object evento) throws IOException;
+
+    <T> T desserializar(byte[] dados, Class<T> tipo) throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.selco.auth.events.codec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Registro dos codecs de eventos disponíveis, indexados pelo nome configurado
+ */
+@Component
+public class EventCodecRegistry {
+
+    private final Map<String, EventCodec> codecs = new HashMap<>();
+
+    @Autowired
+    public EventCodecRegistry(List<EventCodec> disponiveis) {
+        for (EventCodec codec : disponiveis) {
+            codecs.put(codec.getNome(), codec);
+        }
+    }
+
+    /**
+     * Retorna o codec com o nome informado
+     * @throws IllegalArgumentException se o codec não estiver registrado
+     */
+    public EventCodec getCodec(String nome) {
+        EventCodec codec = codecs.get(nome.trim().toLowerCase(Locale.ROOT));
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec de eventos desconhecido: " + nome + " (disponíveis: " + codecs.keySet() + ")");
+        }
+        return codec;
+    }
+
+    /**
+     * Retorna o codec registrado para o content-type informado, ou null se nenhum corresponder
+     */
+    public EventCodec getCodecPorContentType(String contentType) {
+        for (EventCodec codec : codecs.values()) {
+            if (codec.getContentType().equals(contentType)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.selco.auth.events.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+
+/**
+ * Base para codecs baseados no Jackson, variando apenas o formato do JsonFactory
+ */
+public abstract class JacksonEventCodec implements EventCodec {
+
+    private final ObjectMapper objectMapper;
+
+    protected JacksonEventCodec(JsonFactory jsonFactory) {
+        this.objectMapper = new ObjectMapper(jsonFactory);
+        this.objectMapper.registerModule(new JavaTimeModule());
+    }
+
+    @Override
+    public byte[] serializar(Object evento) throws IOException {
+        return objectMapper.writeValueAsBytes(evento);
+    }
+
+    @Override
+    public <T> T desserializar(byte[] dados, Class<T> tipo) throws IOException {
+        return objectMapper.readValue(dados, tipo);
+    }
+}
@@ -0,0 +1,25 @@
+package com.selco.auth.events.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Codec JSON (UTF-8), formato padrão e legível pelos consumidores atuais
+ */
+@Component
+public class JsonEventCodec extends JacksonEventCodec {
+
+    public JsonEventCodec() {
+        super(new JsonFactory());
+    }
+
+    @Override
+    public String getNome() {
+        return "json";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+}
@@ -0,0 +1,25 @@
+package com.selco.auth.events.codec;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Codec Smile (JSON binário do Jackson), com referências a nomes de campos repetidos
+ */
+@Component
+public class SmileEventCodec extends JacksonEventCodec {
+
+    public SmileEventCodec() {
+        super(new SmileFactory());
+    }
+
+    @Override
+    public String getNome() {
+        return "smile";
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/x-jackson-smile";
+    }
+}
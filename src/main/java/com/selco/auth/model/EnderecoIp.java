@@ -0,0 +1,98 @@
+package com.selco.auth.model;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Conversão de endereços IP entre texto e a forma binária armazenada nos logs de acesso
+ * IPv4 ocupa 4 bytes e IPv6 16 bytes; apenas literais são aceitos, nunca há resolução de DNS
+ */
+public final class EnderecoIp {
+
+    private EnderecoIp() {}
+
+    /**
+     * Converte um literal IPv4 ou IPv6 para bytes
+     * Retorna null para valores que não são literais de IP (nomes, lixo de cabeçalhos, vazio)
+     */
+    public static byte[] paraBytes(String ip) {
+        if (ip == null) {
+            return null;
+        }
+        String valor = ip.trim();
+        if (valor.isEmpty()) {
+            return null;
+        }
+
+        if (valor.indexOf(':') < 0) {
+            return parseIpv4(valor);
+        }
+        return parseIpv6(valor);
+    }
+
+    /**
+     * Formata bytes de IP no texto canônico; retorna null para tamanhos inválidos
+     */
+    public static String formatar(byte[] ip) {
+        if (ip == null || (ip.length != 4 && ip.length != 16)) {
+            return null;
+        }
+        if (ip.length == 4) {
+            return (ip[0] & 0xFF) + "." + (ip[1] & 0xFF) + "." + (ip[2] & 0xFF) + "." + (ip[3] & 0xFF);
+        }
+        try {
+            // Com 16 bytes não há consulta de nome; IPv4 mapeado em IPv6 volta como IPv4
+            return InetAddress.getByAddress(ip).getHostAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static byte[] parseIpv4(String valor) {
+        byte[] bytes = new byte[4];
+        int octeto = 0;
+        int valorOcteto = -1;
+        for (int i = 0; i <= valor.length(); i++) {
+            char c = i < valor.length() ? valor.charAt(i) : '.';
+            if (c == '.') {
+                if (valorOcteto < 0 || octeto > 3) {
+                    return null;
+                }
+                bytes[octeto++] = (byte) valorOcteto;
+                valorOcteto = -1;
+            } else if (c >= '0' && c <= '9') {
+                valorOcteto = (valorOcteto < 0 ? 0 : valorOcteto * 10) + (c - '0');
+                if (valorOcteto > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        return octeto == 4 ? bytes : null;
+    }
+
+    private static byte[] parseIpv6(String valor) {
+        if (valor.startsWith("[") && valor.endsWith("]")) {
+            valor = valor.substring(1, valor.length() - 1);
+        }
+        int zona = valor.indexOf('%');
+        if (zona >= 0) {
+            valor = valor.substring(0, zona);
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            boolean hex = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            if (!hex && c != ':' && c != '.') {
+                return null;
+            }
+        }
+        try {
+            // Texto com ':' e apenas dígitos hexadecimais é tratado como literal IPv6, sem DNS
+            byte[] bytes = InetAddress.getByName(valor).getAddress();
+            return bytes.length == 16 || bytes.length == 4 ? bytes : null;
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.selco.auth.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contagem de logins de um minuto para um valor de dimensão (global, ip ou tipoUsuario)
+ * Documentos são criados e incrementados por upsert com $inc a partir dos contadores em memória;
+ * o _id é derivado de dimensão, valor e minuto para que cada incremento atinja um único documento
+ *
+ * Retenção por índice TTL em minuto (app.stats.login.retention, padrão 30d); deve cobrir
+ * app.stats.login.max-range-hours para que a consulta mais longa encontre todos os rollups
+ */
+@Document(collection = "login_stats")
+@CompoundIndex(name = "dimensao_valor_minuto", def = "{ 'dimensao': 1, 'valor': 1, 'minuto': 1 }")
+public class EstatisticaLogin {
+
+    public static final String DIMENSAO_GLOBAL = "global";
+    public static final String DIMENSAO_IP = "ip";
+    public static final String DIMENSAO_TIPO_USUARIO = "tipoUsuario";
+
+    @Id
+    private String id;
+
+    private String dimensao;
+
+    private String valor;
+
+    @Indexed(name = "minuto_ttl", expireAfter = "#{@environment.getProperty('app.stats.login.retention', '30d')}")
+    private LocalDateTime minuto;
+
+    private long sucessos;
+
+    private long falhas;
+
+    // Construtores
+    public EstatisticaLogin() {}
+
+    public static String gerarId(String dimensao, String valor, LocalDateTime minuto) {
+        return dimensao + '|' + valor + '|' + minuto;
+    }
+
+    // Getters e Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDimensao() {
+        return dimensao;
+    }
+
+    public void setDimensao(String dimensao) {
+        this.dimensao = dimensao;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public void setValor(String valor) {
+        this.valor = valor;
+    }
+
+    public LocalDateTime getMinuto() {
+        return minuto;
+    }
+
+    public void setMinuto(LocalDateTime minuto) {
+        this.minuto = minuto;
+    }
+
+    public long getSucessos() {
+        return sucessos;
+    }
+
+    public void setSucessos(long sucessos) {
+        this.sucessos = sucessos;
+    }
+
+    public long getFalhas() {
+        return falhas;
+    }
+
+    public void setFalhas(long falhas) {
+        this.falhas = falhas;
+    }
+}
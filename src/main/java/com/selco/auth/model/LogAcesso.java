@@ -1,30 +1,54 @@
 package com.selco.auth.model;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
 
 import java.time.LocalDateTime;
 
 /**
  * Entidade LogAcesso para MongoDB
+ * Armazenada em coleção time-series: dataHora é o campo de tempo e origem (usuário/IP) o metaField,
+ * de modo que os registros de uma mesma origem são agrupados em buckets compactos
+ *
+ * Índices compostos seguem a ordem igualdade, ordenação, intervalo das consultas de LogAcessoRepository.
+ * Só os índices que o QueryPlanAdvisor mostra em uso: as variantes com sucesso também atendem, pelo
+ * prefixo, as consultas só por usuário ou IP, e intervalos de dataHora usam os limites de tempo dos
+ * buckets. Cada índice secundário a mais é custo em todo insert de log
+ *
+ * Forma compacta: o IP é gravado em binário (4 ou 16 bytes) e o User-Agent como id do dicionário
+ * user_agents, resolvido pelos callbacks de conversão; valores fora do dicionário ou que não são
+ * literais de IP ficam em texto nos campos userAgent e ipTexto
  */
-@Document(collection = "logs_acesso")
+@CompoundIndexes({
+        @CompoundIndex(name = "usuario_sucesso_data", def = "{ 'origem.usuarioId': 1, 'sucesso': 1, 'dataHora': -1 }"),
+        @CompoundIndex(name = "ip_sucesso_data", def = "{ 'origem.ip': 1, 'sucesso': 1, 'dataHora': -1 }"),
+        @CompoundIndex(name = "sucesso_data", def = "{ 'sucesso': 1, 'dataHora': -1 }")
+})
+@TimeSeries(collection = "logs_acesso", timeField = "dataHora", metaField = "origem", granularity = Granularity.SECONDS)
 public class LogAcesso {
     
     @Id
     private String id;
     
-    @Indexed
-    private String usuarioId;
-    
-    @Indexed
     private LocalDateTime dataHora;
     
-    private String ip;
+    private Origem origem = new Origem();
+    
+    private String ipTexto; // IP recebido que não é literal IPv4/IPv6
     
+    @Transient
     private String userAgent;
     
+    private Integer userAgentId; // id no dicionário user_agents
+    
+    @Field("userAgent")
+    private String userAgentTexto; // User-Agent fora do dicionário ou de registros antigos
+    
     private boolean sucesso;
     
     private String motivo; // Motivo da falha (se aplicável)
@@ -33,8 +57,8 @@ public class LogAcesso {
     public LogAcesso() {}
     
     public LogAcesso(String usuarioId, String ip, String userAgent, boolean sucesso) {
-        this.usuarioId = usuarioId;
-        this.ip = ip;
+        this.origem = new Origem(usuarioId, null);
+        setIp(ip);
         this.userAgent = userAgent;
         this.sucesso = sucesso;
         this.dataHora = LocalDateTime.now();
@@ -55,11 +79,11 @@ public class LogAcesso {
     }
     
     public String getUsuarioId() {
-        return usuarioId;
+        return origem.getUsuarioId();
     }
     
     public void setUsuarioId(String usuarioId) {
-        this.usuarioId = usuarioId;
+        origem.setUsuarioId(usuarioId);
     }
     
     public LocalDateTime getDataHora() {
@@ -71,11 +95,30 @@ public class LogAcesso {
     }
     
     public String getIp() {
-        return ip;
+        String ip = EnderecoIp.formatar(origem.getIp());
+        return ip != null ? ip : ipTexto;
     }
     
     public void setIp(String ip) {
-        this.ip = ip;
+        byte[] binario = EnderecoIp.paraBytes(ip);
+        origem.setIp(binario);
+        this.ipTexto = binario == null ? ip : null;
+    }
+    
+    public String getIpTexto() {
+        return ipTexto;
+    }
+    
+    public void setIpTexto(String ipTexto) {
+        this.ipTexto = ipTexto;
+    }
+    
+    public Origem getOrigem() {
+        return origem;
+    }
+    
+    public void setOrigem(Origem origem) {
+        this.origem = origem;
     }
     
     public String getUserAgent() {
@@ -86,6 +129,22 @@ public class LogAcesso {
         this.userAgent = userAgent;
     }
     
+    public Integer getUserAgentId() {
+        return userAgentId;
+    }
+    
+    public void setUserAgentId(Integer userAgentId) {
+        this.userAgentId = userAgentId;
+    }
+    
+    public String getUserAgentTexto() {
+        return userAgentTexto;
+    }
+    
+    public void setUserAgentTexto(String userAgentTexto) {
+        this.userAgentTexto = userAgentTexto;
+    }
+    
     public boolean isSucesso() {
         return sucesso;
     }
@@ -101,4 +160,38 @@ public class LogAcesso {
     public void setMotivo(String motivo) {
         this.motivo = motivo;
     }
+    
+    /**
+     * metaField da coleção time-series: identifica a série (usuário e IP de origem)
+     * O IP fica em binário; nulo quando o valor recebido não era um literal de IP
+     */
+    public static class Origem {
+        
+        private String usuarioId;
+        
+        private byte[] ip;
+        
+        public Origem() {}
+        
+        public Origem(String usuarioId, byte[] ip) {
+            this.usuarioId = usuarioId;
+            this.ip = ip;
+        }
+        
+        public String getUsuarioId() {
+            return usuarioId;
+        }
+        
+        public void setUsuarioId(String usuarioId) {
+            this.usuarioId = usuarioId;
+        }
+        
+        public byte[] getIp() {
+            return ip;
+        }
+        
+        public void setIp(byte[] ip) {
+            this.ip = ip;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.selco.auth.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -8,16 +9,19 @@ import java.time.LocalDateTime;
 
 /**
  * Entidade Token (Refresh Token) para MongoDB
+ * Cada documento é uma sessão emitida no login: o id vai no claim "sid" dos tokens e o documento
+ * expira junto com o refresh token. A listagem por usuário usa o índice (usuarioId, dataCriacao)
  */
 @Document(collection = "tokens")
+@CompoundIndex(name = "usuario_criacao", def = "{ 'usuarioId': 1, 'dataCriacao': -1 }")
 public class Token {
     
     @Id
     private String id;
     
-    @Indexed
     private String usuarioId;
     
+    @Indexed
     private String refreshToken;
     
     @Indexed(expireAfterSeconds = 0)
@@ -25,6 +29,12 @@ public class Token {
     
     private LocalDateTime dataCriacao;
     
+    private String dispositivo; // User-Agent do login
+    
+    private String ip;
+    
+    private LocalDateTime ultimoAcesso; // atualizado em lote, com resolução de app.sessions.last-seen.resolution-seconds
+    
     // Construtores
     public Token() {}
     
@@ -76,6 +86,30 @@ public class Token {
         this.dataCriacao = dataCriacao;
     }
     
+    public String getDispositivo() {
+        return dispositivo;
+    }
+    
+    public void setDispositivo(String dispositivo) {
+        this.dispositivo = dispositivo;
+    }
+    
+    public String getIp() {
+        return ip;
+    }
+    
+    public void setIp(String ip) {
+        this.ip = ip;
+    }
+    
+    public LocalDateTime getUltimoAcesso() {
+        return ultimoAcesso;
+    }
+    
+    public void setUltimoAcesso(LocalDateTime ultimoAcesso) {
+        this.ultimoAcesso = ultimoAcesso;
+    }
+    
     /**
      * Verifica se o token está expirado
      */
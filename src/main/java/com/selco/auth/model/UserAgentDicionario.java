@@ -0,0 +1,44 @@
+package com.selco.auth.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Entrada do dicionário de User-Agents referenciado pelos logs de acesso
+ * Ids são inteiros sequenciais alocados no contador "user_agents" da coleção contadores
+ */
+@Document(collection = "user_agents")
+public class UserAgentDicionario {
+
+    @Id
+    private Integer id;
+
+    @Indexed(unique = true)
+    private String valor;
+
+    // Construtores
+    public UserAgentDicionario() {}
+
+    public UserAgentDicionario(Integer id, String valor) {
+        this.id = id;
+        this.valor = valor;
+    }
+
+    // Getters e Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public void setValor(String valor) {
+        this.valor = valor;
+    }
+}
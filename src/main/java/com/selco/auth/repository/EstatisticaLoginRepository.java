@@ -0,0 +1,28 @@
+package com.selco.auth.repository;
+
+import com.selco.auth.model.EstatisticaLogin;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório dos rollups por minuto de logins (login_stats)
+ */
+@Repository
+public interface EstatisticaLoginRepository extends MongoRepository<EstatisticaLogin, String> {
+
+    /**
+     * Busca a série de um valor de dimensão em um período
+     */
+    List<EstatisticaLogin> findByDimensaoAndValorAndMinutoBetweenOrderByMinutoAsc(String dimensao, String valor,
+                                                                                   Range<LocalDateTime> periodo);
+
+    /**
+     * Busca as séries de todos os valores de uma dimensão em um período
+     */
+    List<EstatisticaLogin> findByDimensaoAndMinutoBetweenOrderByValorAscMinutoAsc(String dimensao,
+                                                                                  Range<LocalDateTime> periodo);
+}
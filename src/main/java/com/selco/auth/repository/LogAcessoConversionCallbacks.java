@@ -0,0 +1,42 @@
+package com.selco.auth.repository;
+
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.service.UserAgentDictionary;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Callbacks de conversão de LogAcesso que trocam o User-Agent pelo id do dicionário ao gravar
+ * e restauram o texto ao ler, tanto em repositórios quanto em consultas via MongoTemplate
+ */
+@Component
+public class LogAcessoConversionCallbacks implements BeforeConvertCallback<LogAcesso>, AfterConvertCallback<LogAcesso> {
+
+    // Lazy: o dicionário usa o MongoTemplate, que por sua vez carrega os callbacks
+    @Autowired
+    @Lazy
+    private UserAgentDictionary userAgentDictionary;
+
+    @Override
+    public LogAcesso onBeforeConvert(LogAcesso log, String collection) {
+        if (log.getUserAgent() == null || log.getUserAgentId() != null) {
+            return log;
+        }
+
+        Integer id = userAgentDictionary.obterId(log.getUserAgent());
+        log.setUserAgentId(id);
+        log.setUserAgentTexto(id == null ? log.getUserAgent() : null);
+        return log;
+    }
+
+    @Override
+    public LogAcesso onAfterConvert(LogAcesso log, Document document, String collection) {
+        String userAgent = log.getUserAgentId() == null ? null : userAgentDictionary.obterValor(log.getUserAgentId());
+        log.setUserAgent(userAgent != null ? userAgent : log.getUserAgentTexto());
+        return log;
+    }
+}
@@ -0,0 +1,52 @@
+package com.selco.auth.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posição de paginação por chave (dataHora, id) sobre os logs de acesso
+ * Serializado como token opaco base64url para ser devolvido ao cliente
+ */
+public final class LogAcessoCursor {
+
+    private static final char SEPARADOR = '|';
+
+    private final LocalDateTime dataHora;
+    private final String id;
+
+    public LogAcessoCursor(LocalDateTime dataHora, String id) {
+        this.dataHora = dataHora;
+        this.id = id;
+    }
+
+    public LocalDateTime getDataHora() {
+        return dataHora;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String codificar() {
+        String valor = dataHora + String.valueOf(SEPARADOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor recebido do cliente
+     * Lança IllegalArgumentException se o token estiver malformado
+     */
+    public static LogAcessoCursor decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador <= 0 || separador == valor.length() - 1) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new LogAcessoCursor(LocalDateTime.parse(valor.substring(0, separador)), valor.substring(separador + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
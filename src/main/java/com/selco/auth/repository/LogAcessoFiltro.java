@@ -0,0 +1,70 @@
+package com.selco.auth.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Critérios opcionais de consulta aos logs de acesso
+ * Campos nulos não restringem a busca; o período é fechado no início e aberto no fim
+ */
+public class LogAcessoFiltro {
+
+    private String usuarioId;
+
+    private String ip;
+
+    private Boolean sucesso;
+
+    private LocalDateTime inicio;
+
+    private LocalDateTime fim;
+
+    public LogAcessoFiltro() {}
+
+    public LogAcessoFiltro(String usuarioId, String ip, Boolean sucesso, LocalDateTime inicio, LocalDateTime fim) {
+        this.usuarioId = usuarioId;
+        this.ip = ip;
+        this.sucesso = sucesso;
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(String usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public void setIp(String ip) {
+        this.ip = ip;
+    }
+
+    public Boolean getSucesso() {
+        return sucesso;
+    }
+
+    public void setSucesso(Boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+
+    public LocalDateTime getFim() {
+        return fim;
+    }
+
+    public void setFim(LocalDateTime fim) {
+        this.fim = fim;
+    }
+}
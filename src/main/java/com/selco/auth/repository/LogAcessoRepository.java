@@ -1,5 +1,6 @@
 package com.selco.auth.repository;
 
+import com.selco.auth.model.EnderecoIp;
 import com.selco.auth.model.LogAcesso;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
@@ -11,13 +12,18 @@ import java.util.List;
 /**
  * Repository para gerenciamento de logs de acesso
  * Implementa AUT-18: Log de Acessos
+ * Usuário e IP ficam no metaField 'origem' da coleção time-series; o IP é gravado em binário,
+ * então os métodos por IP em texto convertem o argumento antes da consulta. Valores que não são
+ * literais de IP viram null e casam com os registros gravados sem IP binário
+ * Para volumes grandes use buscarPagina/exportar de LogAcessoRepositoryCustom
  */
 @Repository
-public interface LogAcessoRepository extends MongoRepository<LogAcesso, String> {
+public interface LogAcessoRepository extends MongoRepository<LogAcesso, String>, LogAcessoRepositoryCustom {
     
     /**
      * Busca logs por usuário ordenados por data
      */
+    @Query(value = "{ 'origem.usuarioId': ?0 }", sort = "{ 'dataHora': -1 }")
     List<LogAcesso> findByUsuarioIdOrderByDataHoraDesc(String usuarioId);
     
     /**
@@ -25,35 +31,65 @@ public interface LogAcessoRepository extends MongoRepository<LogAcesso, String>
      */
     List<LogAcesso> findByDataHoraBetweenOrderByDataHoraDesc(LocalDateTime inicio, LocalDateTime fim);
     
+    /**
+     * Busca logs de tentativas de acesso por IP (binário, ver EnderecoIp)
+     */
+    @Query("{ 'origem.ip': ?0, 'dataHora': { $gt: ?1, $lt: ?2 } }")
+    List<LogAcesso> findByIpBinarioAndDataHoraBetween(byte[] ip, LocalDateTime inicio, LocalDateTime fim);
+
     /**
      * Busca logs de tentativas de acesso por IP
      */
-    List<LogAcesso> findByIpAndDataHoraBetween(String ip, LocalDateTime inicio, LocalDateTime fim);
+    default List<LogAcesso> findByIpAndDataHoraBetween(String ip, LocalDateTime inicio, LocalDateTime fim) {
+        return findByIpBinarioAndDataHoraBetween(EnderecoIp.paraBytes(ip), inicio, fim);
+    }
     
     /**
      * Busca logs de sucesso/falha ordenados por data
      */
     List<LogAcesso> findBySucessoOrderByDataHoraDesc(boolean sucesso);
 
+    /**
+     * Busca logs por IP (binário) ordenados por data
+     */
+    @Query(value = "{ 'origem.ip': ?0 }", sort = "{ 'dataHora': -1 }")
+    List<LogAcesso> findByIpBinarioOrderByDataHoraDesc(byte[] ip);
+
     /**
      * Busca logs por IP ordenados por data
      */
-    List<LogAcesso> findByIpOrderByDataHoraDesc(String ip);
+    default List<LogAcesso> findByIpOrderByDataHoraDesc(String ip) {
+        return findByIpBinarioOrderByDataHoraDesc(EnderecoIp.paraBytes(ip));
+    }
+
+    /**
+     * Conta tentativas de login com falha por IP (binário) em um período
+     */
+    @Query(value = "{ 'origem.ip': ?0, 'sucesso': false, 'dataHora': { $gte: ?1, $lte: ?2 } }", count = true)
+    long countFailedAttemptsByIpBinarioAndDateRange(byte[] ip, LocalDateTime inicio, LocalDateTime fim);
 
     /**
      * Conta tentativas de login com falha por IP em um período
      */
-    @Query("{ 'ip': ?0, 'sucesso': false, 'dataHora': { $gte: ?1, $lte: ?2 } }")
-    long countFailedAttemptsByIpAndDateRange(String ip, LocalDateTime inicio, LocalDateTime fim);
+    default long countFailedAttemptsByIpAndDateRange(String ip, LocalDateTime inicio, LocalDateTime fim) {
+        return countFailedAttemptsByIpBinarioAndDateRange(EnderecoIp.paraBytes(ip), inicio, fim);
+    }
 
     /**
      * Conta tentativas de login com falha por usuário em um período
      */
-    @Query("{ 'usuarioId': ?0, 'sucesso': false, 'dataHora': { $gte: ?1, $lte: ?2 } }")
+    @Query(value = "{ 'origem.usuarioId': ?0, 'sucesso': false, 'dataHora': { $gte: ?1, $lte: ?2 } }", count = true)
     long countFailedAttemptsByUserAndDateRange(String usuarioId, LocalDateTime inicio, LocalDateTime fim);
 
     /**
      * Busca último acesso bem-sucedido de um usuário
      */
-    LogAcesso findFirstByUsuarioIdAndSucessoTrueOrderByDataHoraDesc(String usuarioId);
+    LogAcesso findFirstByOrigemUsuarioIdAndSucessoTrueOrderByDataHoraDesc(String usuarioId);
+
+    /**
+     * Busca último acesso bem-sucedido de um usuário
+     */
+    default LogAcesso findFirstByUsuarioIdAndSucessoTrueOrderByDataHoraDesc(String usuarioId) {
+        return findFirstByOrigemUsuarioIdAndSucessoTrueOrderByDataHoraDesc(usuarioId);
+    }
 }
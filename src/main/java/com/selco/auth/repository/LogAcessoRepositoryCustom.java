@@ -0,0 +1,25 @@
+package com.selco.auth.repository;
+
+import com.selco.auth.model.LogAcesso;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de auditoria com memória limitada sobre os logs de acesso
+ * Complementa os métodos derivados de LogAcessoRepository, que materializam listas sem limite
+ */
+public interface LogAcessoRepositoryCustom {
+
+    /**
+     * Busca uma página ordenada por dataHora e id decrescentes, a partir do cursor (exclusivo)
+     * Um cursor nulo retorna a primeira página
+     */
+    List<LogAcesso> buscarPagina(LogAcessoFiltro filtro, LogAcessoCursor cursor, int limite);
+
+    /**
+     * Abre um cursor do MongoDB sobre todos os logs do filtro, em ordem cronológica
+     * O Stream precisa ser fechado pelo chamador
+     */
+    Stream<LogAcesso> exportar(LogAcessoFiltro filtro);
+}
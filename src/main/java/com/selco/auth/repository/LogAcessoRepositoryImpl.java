@@ -0,0 +1,92 @@
+package com.selco.auth.repository;
+
+import com.selco.auth.model.EnderecoIp;
+import com.selco.auth.model.LogAcesso;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementação das consultas de auditoria com MongoTemplate
+ * A paginação usa chave (dataHora, _id) em vez de skip, de modo que o custo de cada página
+ * não cresce com a profundidade; a exportação lê em lotes de um cursor do servidor
+ */
+public class LogAcessoRepositoryImpl implements LogAcessoRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.audit.query.export-batch-size:500}")
+    private int tamanhoLoteExportacao;
+
+    @Override
+    public List<LogAcesso> buscarPagina(LogAcessoFiltro filtro, LogAcessoCursor cursor, int limite) {
+        List<Criteria> criterios = criteriosFiltro(filtro);
+        if (cursor != null) {
+            criterios.add(new Criteria().orOperator(
+                    Criteria.where("dataHora").lt(cursor.getDataHora()),
+                    Criteria.where("dataHora").is(cursor.getDataHora()).and("_id").lt(paraObjectId(cursor.getId()))));
+        }
+
+        Query query = montarQuery(criterios)
+                .with(Sort.by(Sort.Order.desc("dataHora"), Sort.Order.desc("_id")))
+                .limit(limite);
+        return mongoTemplate.find(query, LogAcesso.class);
+    }
+
+    @Override
+    public Stream<LogAcesso> exportar(LogAcessoFiltro filtro) {
+        Query query = montarQuery(criteriosFiltro(filtro))
+                .with(Sort.by(Sort.Order.asc("dataHora")))
+                .cursorBatchSize(tamanhoLoteExportacao)
+                .allowDiskUse(true);
+        return mongoTemplate.stream(query, LogAcesso.class);
+    }
+
+    private List<Criteria> criteriosFiltro(LogAcessoFiltro filtro) {
+        List<Criteria> criterios = new ArrayList<>();
+        if (filtro == null) {
+            return criterios;
+        }
+        if (filtro.getUsuarioId() != null) {
+            criterios.add(Criteria.where("origem.usuarioId").is(filtro.getUsuarioId()));
+        }
+        if (filtro.getIp() != null) {
+            byte[] ip = EnderecoIp.paraBytes(filtro.getIp());
+            // Valor que não é literal de IP é gravado em ipTexto com origem.ip nulo (ver LogAcesso.setIp)
+            criterios.add(ip != null
+                    ? Criteria.where("origem.ip").is(ip)
+                    : Criteria.where("origem.ip").is(null).and("ipTexto").is(filtro.getIp()));
+        }
+        if (filtro.getSucesso() != null) {
+            criterios.add(Criteria.where("sucesso").is(filtro.getSucesso()));
+        }
+        if (filtro.getInicio() != null || filtro.getFim() != null) {
+            Criteria periodo = Criteria.where("dataHora");
+            if (filtro.getInicio() != null) {
+                periodo.gte(filtro.getInicio());
+            }
+            if (filtro.getFim() != null) {
+                periodo.lt(filtro.getFim());
+            }
+            criterios.add(periodo);
+        }
+        return criterios;
+    }
+
+    private Query montarQuery(List<Criteria> criterios) {
+        return criterios.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criterios));
+    }
+
+    private Object paraObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
@@ -1,6 +1,7 @@
 package com.selco.auth.repository;
 
 import com.selco.auth.model.Token;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -22,8 +23,14 @@ public interface TokenRepository extends MongoRepository<Token, String> {
      */
     java.util.List<Token> findByUsuarioId(String usuarioId);
     
+    /**
+     * Sessões de um usuário da mais recente para a mais antiga, pelo índice (usuarioId, dataCriacao)
+     */
+    java.util.List<Token> findByUsuarioIdOrderByDataCriacaoDesc(String usuarioId, Pageable pageable);
+    
     /**
      * Remove todos os tokens de um usuário
      */
     void deleteByUsuarioId(String usuarioId);
+
 }
@@ -2,6 +2,7 @@ package com.selco.auth.repository;
 
 import com.selco.auth.model.Usuario;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,11 +11,13 @@ import java.util.Optional;
  * Repositório para a entidade Usuario
  */
 @Repository
-public interface UsuarioRepository extends MongoRepository<Usuario, String> {
+public interface UsuarioRepository extends MongoRepository<Usuario, String>, UsuarioRepositoryCustom {
     
     /**
-     * Busca um usuário pelo email
+     * Busca um usuário pelo email no primário (login e cadastro)
+     * A validação de token usa buscarParaValidacao, que pode ler de um secundário
      */
+    @ReadPreference("primary")
     Optional<Usuario> findByEmail(String email);
     
     /**
@@ -0,0 +1,18 @@
+package com.selco.auth.repository;
+
+import com.selco.auth.model.Usuario;
+
+import java.util.Optional;
+
+/**
+ * Leituras de usuário com preferência de leitura própria
+ * findByEmail fica no primário (login precisa de senhaHash e status atuais); a validação de token
+ * aceita um secundário com atraso limitado
+ */
+public interface UsuarioRepositoryCustom {
+
+    /**
+     * Busca um usuário pelo email com app.mongodb.read-preference.validation
+     */
+    Optional<Usuario> buscarParaValidacao(String email);
+}
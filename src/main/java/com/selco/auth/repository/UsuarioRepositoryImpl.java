@@ -0,0 +1,46 @@
+package com.selco.auth.repository;
+
+import com.mongodb.ReadPreference;
+import com.selco.auth.model.Usuario;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementação das leituras de usuário com MongoTemplate
+ * Com secondaryPreferred e maxStalenessSeconds, o driver só escolhe secundários cujo atraso estimado
+ * não passa do limite e volta ao primário quando nenhum atende (ou em um nó único)
+ */
+public class UsuarioRepositoryImpl implements UsuarioRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.mongodb.read-preference.validation:secondaryPreferred}")
+    private String preferenciaValidacao;
+
+    @Value("${app.mongodb.read-preference.validation-max-staleness-seconds:90}")
+    private long maxStalenessSegundos;
+
+    private ReadPreference leituraValidacao;
+
+    @PostConstruct
+    public void init() {
+        leituraValidacao = "primary".equalsIgnoreCase(preferenciaValidacao)
+                ? ReadPreference.primary()
+                : ReadPreference.valueOf(preferenciaValidacao, List.of(), maxStalenessSegundos, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Optional<Usuario> buscarParaValidacao(String email) {
+        Query query = Query.query(Criteria.where("email").is(email)).withReadPreference(leituraValidacao);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Usuario.class));
+    }
+}
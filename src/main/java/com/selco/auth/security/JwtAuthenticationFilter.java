@@ -1,6 +1,7 @@
 package com.selco.auth.security;
 
 import com.selco.auth.service.JwtService;
+import com.selco.auth.service.SessionRegistry;
 import com.selco.auth.service.TokenBlacklistService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -37,6 +38,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -117,6 +121,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String email = jwtService.extractEmail(token);
             String tipoUsuario = jwtService.extractClaim(token, claims -> claims.get("tipoUsuario", String.class));
             String usuarioId = jwtService.extractClaim(token, claims -> claims.get("usuarioId", String.class));
+            String sessaoId = jwtService.extractSessaoId(token);
 
             // Cria as authorities baseadas no tipo de usuário
             List<SimpleGrantedAuthority> authorities = new ArrayList<>();
@@ -133,12 +138,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             // Define adicional de metadados do usuário se necessário
             authentication.setDetails(new JwtAuthenticationDetails(
-                email, usuarioId, tipoUsuario, 
+                email, usuarioId, tipoUsuario, sessaoId,
                 webDetails
             ));
 
             // Define no contexto de segurança
             SecurityContextHolder.getContext().setAuthentication(authentication);
+            sessionRegistry.registrarAcesso(sessaoId);
             
             logger.debug("Autenticação definida para o usuário: {} (Tipo: {})", email, tipoUsuario);
 
@@ -158,6 +164,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return path.startsWith("/api/auth/health") ||
                path.startsWith("/api/auth/register") ||
                path.startsWith("/api/auth/login") ||
+               path.startsWith("/api/auth/check") ||   // valida o próprio token, sem passar duas vezes pela blacklist
                path.startsWith("/api-docs") ||
                path.startsWith("/swagger-ui") ||
                path.startsWith("/v3/api-docs") ||
@@ -171,18 +178,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         private final String email;
         private final String usuarioId;
         private final String tipoUsuario;
+        private final String sessaoId;
         private final Object webDetails;
 
-        public JwtAuthenticationDetails(String email, String usuarioId, String tipoUsuario, Object webDetails) {
+        public JwtAuthenticationDetails(String email, String usuarioId, String tipoUsuario, String sessaoId, Object webDetails) {
             this.email = email;
             this.usuarioId = usuarioId;
             this.tipoUsuario = tipoUsuario;
+            this.sessaoId = sessaoId;
             this.webDetails = webDetails;
         }
 
         public String getEmail() { return email; }
         public String getUsuarioId() { return usuarioId; }
         public String getTipoUsuario() { return tipoUsuario; }
+        public String getSessaoId() { return sessaoId; }
         public Object getWebDetails() { return webDetails; }
     }
 }
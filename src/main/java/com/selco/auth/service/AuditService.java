@@ -0,0 +1,163 @@
+package com.selco.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selco.auth.dto.AuditPaginaDTO;
+import com.selco.auth.dto.LogAcessoDTO;
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.repository.LogAcessoCursor;
+import com.selco.auth.repository.LogAcessoFiltro;
+import com.selco.auth.repository.LogAcessoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de consulta e exportação dos logs de acesso
+ * A paginação retorna no máximo max-page-size registros por chamada e a exportação
+ * escreve cada documento na resposta assim que é lido do cursor, sem acumular resultados
+ */
+@Service
+public class AuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+    private static final String CABECALHO_CSV = "id,data_hora,usuario_id,ip,user_agent,sucesso,motivo";
+
+    public enum FormatoExportacao { NDJSON, CSV }
+
+    @Autowired
+    private LogAcessoRepository logAcessoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LogAcessoArchiveReader logAcessoArchiveReader;
+
+    @Value("${app.audit.query.default-page-size:100}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${app.audit.query.max-page-size:500}")
+    private int tamanhoPaginaMaximo;
+
+    @Value("${app.audit.archive.max-results:1000}")
+    private int maxResultadosArquivo;
+
+    /**
+     * Busca uma página de logs a partir do cursor informado (nulo para a primeira página)
+     * Lança IllegalArgumentException para cursor malformado
+     */
+    public AuditPaginaDTO buscarPagina(LogAcessoFiltro filtro, String cursor, Integer limite) {
+        int tamanho = limite == null || limite <= 0 ? tamanhoPaginaPadrao : Math.min(limite, tamanhoPaginaMaximo);
+        LogAcessoCursor posicao = cursor == null || cursor.isBlank() ? null : LogAcessoCursor.decodificar(cursor);
+
+        // Um registro a mais indica se existe próxima página sem precisar de count
+        List<LogAcesso> logs = logAcessoRepository.buscarPagina(filtro, posicao, tamanho + 1);
+        boolean temProxima = logs.size() > tamanho;
+
+        List<LogAcessoDTO> itens = new ArrayList<>(Math.min(logs.size(), tamanho));
+        for (int i = 0; i < logs.size() && i < tamanho; i++) {
+            itens.add(LogAcessoDTO.de(logs.get(i)));
+        }
+
+        String proximoCursor = null;
+        if (temProxima) {
+            LogAcessoDTO ultimo = itens.get(itens.size() - 1);
+            proximoCursor = new LogAcessoCursor(ultimo.getDataHora(), ultimo.getId()).codificar();
+        }
+        return new AuditPaginaDTO(itens, proximoCursor);
+    }
+
+    /**
+     * Busca logs já movidos para os segmentos de arquivo, em ordem cronológica
+     * O período é obrigatório e limita os segmentos lidos; lança IllegalArgumentException sem início ou fim
+     */
+    public List<LogAcessoDTO> buscarArquivados(LogAcessoFiltro filtro, Integer limite) throws IOException {
+        int tamanho = limite == null || limite <= 0 ? maxResultadosArquivo : Math.min(limite, maxResultadosArquivo);
+        List<LogAcesso> logs = logAcessoArchiveReader.buscar(filtro, tamanho);
+
+        List<LogAcessoDTO> itens = new ArrayList<>(logs.size());
+        for (LogAcesso log : logs) {
+            itens.add(LogAcessoDTO.de(log));
+        }
+        return itens;
+    }
+
+    /**
+     * Escreve todos os logs do filtro no formato pedido, um registro por linha
+     * Retorna a quantidade de registros exportados
+     */
+    public long exportar(LogAcessoFiltro filtro, FormatoExportacao formato, OutputStream saida) throws IOException {
+        long exportados = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+
+        try (Stream<LogAcesso> logs = logAcessoRepository.exportar(filtro)) {
+            for (LogAcesso log : (Iterable<LogAcesso>) logs::iterator) {
+                LogAcessoDTO dto = LogAcessoDTO.de(log);
+                if (formato == FormatoExportacao.CSV) {
+                    escreverCsv(writer, dto);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                }
+                writer.write('\n');
+                exportados++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        logger.info("Exportação de auditoria concluída: {} registros em {}", exportados, formato);
+        return exportados;
+    }
+
+    private void escreverCsv(Writer writer, LogAcessoDTO dto) throws IOException {
+        writer.write(campoCsv(dto.getId()));
+        writer.write(',');
+        writer.write(dto.getDataHora() == null ? "" : dto.getDataHora().toString());
+        writer.write(',');
+        writer.write(campoCsv(dto.getUsuarioId()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getIp()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getUserAgent()));
+        writer.write(',');
+        writer.write(Boolean.toString(dto.isSucesso()));
+        writer.write(',');
+        writer.write(campoCsv(dto.getMotivo()));
+    }
+
+    /**
+     * Escapa um campo CSV conforme RFC 4180
+     */
+    static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        boolean precisaAspas = false;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                precisaAspas = true;
+                break;
+            }
+        }
+        return precisaAspas ? '"' + valor.replace("\"", "\"\"") + '"' : valor;
+    }
+}
@@ -0,0 +1,151 @@
+package com.selco.auth.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers das operações de autenticação e de cada etapa que as compõe
+ *
+ * selco.auth.operation (operation, outcome): duração total de login, logout, validação, introspecção, verificação e cadastro
+ * selco.auth.stage (stage): duração de cada dependência chamada (MongoDB, BCrypt, JWT, Redis, RabbitMQ, log de acesso)
+ *
+ * As tags vêm apenas dos enums abaixo, então a cardinalidade é fixa. Os timers são criados uma vez
+ * e guardados em arrays indexados pelo ordinal, de modo que cada medição custa um System.nanoTime()
+ * e um record() sem alocação. O histograma de percentis (buckets agregáveis, para registries que os exportam)
+ * pode ser desligado em app.metrics.auth.percentile-histogram; os percentis calculados na aplicação
+ * (app.metrics.auth.percentiles) aparecem em /actuator/metrics e não são agregáveis entre réplicas
+ */
+@Component
+public class AuthMetrics {
+
+    public enum Operacao {
+        LOGIN("login"), LOGOUT("logout"), VALIDACAO("validate"), INTROSPECCAO("introspect"), VERIFICACAO("check"), CADASTRO("register");
+
+        private final String tag;
+
+        Operacao(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Etapa {
+        BUSCA_USUARIO("user_lookup"),
+        VERIFICACAO_SENHA("password_verify"),
+        HASH_SENHA("password_hash"),
+        GRAVACAO_USUARIO("user_save"),
+        ASSINATURA_TOKEN("token_sign"),
+        LEITURA_TOKEN("token_parse"),
+        CONSULTA_BLACKLIST("blacklist_check"),
+        GRAVACAO_BLACKLIST("blacklist_write"),
+        LOG_ACESSO("access_log"),
+        PUBLICACAO_EVENTO("event_publish");
+
+        private final String tag;
+
+        Etapa(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum Resultado {
+        SUCESSO("success"),
+        USUARIO_NAO_ENCONTRADO("user_not_found"),
+        USUARIO_INATIVO("inactive_user"),
+        SENHA_INCORRETA("wrong_password"),
+        TOKEN_BLACKLIST("blacklisted"),
+        TOKEN_EXPIRADO("expired"),
+        TOKEN_INVALIDO("invalid_token"),
+        DOMINIO_INVALIDO("invalid_domain"),
+        EMAIL_DUPLICADO("duplicate_email"),
+        ERRO("error");
+
+        private final String tag;
+
+        Resultado(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.metrics.auth.percentile-histogram:true}")
+    private boolean histograma;
+
+    @Value("${app.metrics.auth.percentiles:0.5,0.95,0.99}")
+    private double[] percentis;
+
+    private final Timer[][] operacoes = new Timer[Operacao.values().length][Resultado.values().length];
+    private final Timer[] etapas = new Timer[Etapa.values().length];
+
+    /**
+     * Executa a etapa e registra sua duração, inclusive quando lança exceção
+     */
+    public <T> T medir(Etapa etapa, Supplier<T> acao) {
+        long inicio = System.nanoTime();
+        try {
+            return acao.get();
+        } finally {
+            etapa(etapa, inicio);
+        }
+    }
+
+    /**
+     * Versão de medir para etapas sem retorno
+     */
+    public void medir(Etapa etapa, Runnable acao) {
+        long inicio = System.nanoTime();
+        try {
+            acao.run();
+        } finally {
+            etapa(etapa, inicio);
+        }
+    }
+
+    /**
+     * Registra a duração de uma etapa iniciada em inicioNanos (System.nanoTime())
+     */
+    public void etapa(Etapa etapa, long inicioNanos) {
+        Timer timer = etapas[etapa.ordinal()];
+        if (timer == null) {
+            // Registro concorrente é inofensivo: o MeterRegistry devolve o mesmo timer
+            timer = configurar(Timer.builder("selco.auth.stage")
+                    .description("Duração das etapas das operações de autenticação")
+                    .tag("stage", etapa.tag));
+            etapas[etapa.ordinal()] = timer;
+        }
+        timer.record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra a duração total de uma operação iniciada em inicioNanos com o resultado obtido
+     */
+    public void operacao(Operacao operacao, Resultado resultado, long inicioNanos) {
+        Timer timer = operacoes[operacao.ordinal()][resultado.ordinal()];
+        if (timer == null) {
+            timer = configurar(Timer.builder("selco.auth.operation")
+                    .description("Duração das operações de autenticação por resultado")
+                    .tag("operation", operacao.tag)
+                    .tag("outcome", resultado.tag));
+            operacoes[operacao.ordinal()][resultado.ordinal()] = timer;
+        }
+        timer.record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer configurar(Timer.Builder builder) {
+        // Faixa limita a quantidade de buckets: de leitura de token (dezenas de µs) a timeouts de rede
+        return builder
+                .publishPercentileHistogram(histograma)
+                .publishPercentiles(percentis)
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+}
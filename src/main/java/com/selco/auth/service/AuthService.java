@@ -1,5 +1,7 @@
 package com.selco.auth.service;
 
+import com.selco.auth.audit.sink.AccessLogSink;
+import com.selco.auth.cache.CacheCoherenceService;
 import com.selco.auth.dto.LoginRequestDTO;
 import com.selco.auth.dto.LoginResponseDTO;
 import com.selco.auth.dto.LogoutRequestDTO;
@@ -8,8 +10,12 @@ import com.selco.auth.dto.TokenValidationDTO;
 import com.selco.auth.events.EmailParaEnvio;
 import com.selco.auth.model.LogAcesso;
 import com.selco.auth.model.Usuario;
-import com.selco.auth.repository.LogAcessoRepository;
 import com.selco.auth.repository.UsuarioRepository;
+import com.selco.auth.service.AuthMetrics.Etapa;
+import com.selco.auth.service.AuthMetrics.Operacao;
+import com.selco.auth.service.AuthMetrics.Resultado;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,7 +38,7 @@ public class AuthService {
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private LogAcessoRepository logAcessoRepository;
+    private AccessLogSink accessLogSink;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -46,18 +52,41 @@ public class AuthService {
     @Autowired
     private EventPublisherService eventPublisherService;
 
+    @Autowired
+    private EmailEventFactory emailEventFactory;
+
+    @Autowired
+    private LoginNotificationAggregator loginNotificationAggregator;
+
+    @Autowired
+    private LoginStatsAggregator loginStatsAggregator;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private CacheCoherenceService cacheCoherenceService;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
     /**
      * AUT-13 e AUT-14: Realiza o login do usuário
      */
     public LoginResponseDTO realizarLogin(LoginRequestDTO loginRequest, String userAgent, String ipAddress) {
+        long inicio = System.nanoTime();
+        Resultado resultado = Resultado.ERRO;
         try {
             logger.info("Tentativa de login para: {}", loginRequest.getEmail());
 
             // AUT-14: Verificar se o usuário existe
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(loginRequest.getEmail());
+            Optional<Usuario> usuarioOpt = authMetrics.medir(Etapa.BUSCA_USUARIO,
+                    () -> usuarioRepository.findByEmail(loginRequest.getEmail()));
             if (usuarioOpt.isEmpty()) {
                 logger.warn("Usuário não encontrado: {}", loginRequest.getEmail());
+                resultado = Resultado.USUARIO_NAO_ENCONTRADO;
                 registrarLogAcesso(null, loginRequest.getEmail(), false, "Usuário não encontrado", userAgent, ipAddress);
+                loginStatsAggregator.registrar(ipAddress, null, false);
                 return LoginResponseDTO.erro("Credenciais inválidas");
             }
 
@@ -66,25 +95,25 @@ public class AuthService {
             // AUT-14: Verificar se o usuário está ativo
             if (!"ATIVO".equals(usuario.getStatus())) {
                 logger.warn("Usuário inativo tentou fazer login: {}", loginRequest.getEmail());
+                resultado = Resultado.USUARIO_INATIVO;
                 registrarLogAcesso(usuario.getId(), loginRequest.getEmail(), false, "Usuário inativo", userAgent, ipAddress);
+                loginStatsAggregator.registrar(ipAddress, usuario.getTipoUsuario(), false);
                 return LoginResponseDTO.erro("Usuário inativo. Entre em contato com o administrador.");
             }
 
             // AUT-14: Verificar senha usando BCrypt
-            if (!passwordEncoder.matches(loginRequest.getSenha(), usuario.getSenhaHash())) {
+            if (!authMetrics.medir(Etapa.VERIFICACAO_SENHA,
+                    () -> passwordEncoder.matches(loginRequest.getSenha(), usuario.getSenhaHash()))) {
                 logger.warn("Senha incorreta para usuário: {}", loginRequest.getEmail());
+                resultado = Resultado.SENHA_INCORRETA;
                 registrarLogAcesso(usuario.getId(), loginRequest.getEmail(), false, "Senha incorreta", userAgent, ipAddress);
+                loginStatsAggregator.registrar(ipAddress, usuario.getTipoUsuario(), false);
 
                 // AUT-11: Enviar notificação de tentativa de login com senha incorreta
+                // Falhas repetidas na mesma janela são agregadas em um único resumo
                 try {
-                    EmailParaEnvio emailLoginFalha = EmailParaEnvio.notificacaoLogin(
-                        usuario.getEmail(),
-                        loginRequest.getEmail(),
-                        false,
-                        ipAddress
-                    );
-                    eventPublisherService.publicarNotificacaoLogin(emailLoginFalha);
-                    logger.debug("Notificação de login falhado publicada para: {}", usuario.getEmail());
+                    loginNotificationAggregator.registrarFalha(usuario.getEmail(), loginRequest.getEmail(), ipAddress);
+                    logger.debug("Notificação de login falhado registrada para: {}", usuario.getEmail());
                 } catch (Exception emailError) {
                     logger.warn("Erro ao enviar notificação de login falhado: {}", emailError.getMessage());
                 }
@@ -92,23 +121,33 @@ public class AuthService {
                 return LoginResponseDTO.erro("Credenciais inválidas");
             }
 
-            // AUT-15: Gerar tokens JWT
+            // AUT-15: Gerar tokens JWT ligados à nova sessão
+            String sessaoId = sessionRegistry.gerarId();
             String accessToken = jwtService.generateAccessToken(
                     usuario.getEmail(),
                     usuario.getTipoUsuario(),
-                    usuario.getId()
+                    usuario.getId(),
+                    sessaoId
             );
 
-            String refreshToken = jwtService.generateRefreshToken(usuario.getEmail());
+            String refreshToken = jwtService.generateRefreshToken(usuario.getEmail(), sessaoId);
 
             long expiresIn = jwtService.getAccessTokenExpirationInSeconds();
 
+            if (sessaoId != null) {
+                LocalDateTime expiracaoSessao = jwtService.extractExpiration(refreshToken).toInstant()
+                        .atZone(java.time.ZoneId.systemDefault())
+                        .toLocalDateTime();
+                sessionRegistry.registrar(sessaoId, usuario.getId(), refreshToken, expiracaoSessao, userAgent, ipAddress);
+            }
+
             // AUT-18: Registrar log de acesso bem-sucedido
             registrarLogAcesso(usuario.getId(), loginRequest.getEmail(), true, "Login realizado com sucesso", userAgent, ipAddress);
+            loginStatsAggregator.registrar(ipAddress, usuario.getTipoUsuario(), true);
 
             // AUT-11: Enviar notificação de login bem-sucedido por email
             try {
-                EmailParaEnvio emailLogin = EmailParaEnvio.notificacaoLogin(
+                EmailParaEnvio emailLogin = emailEventFactory.notificacaoLogin(
                     usuario.getEmail(),
                     loginRequest.getEmail(), // Usando email como nome por enquanto
                     true,
@@ -121,6 +160,7 @@ public class AuthService {
             }
 
             logger.info("Login realizado com sucesso para: {}", loginRequest.getEmail());
+            resultado = Resultado.SUCESSO;
 
             return LoginResponseDTO.sucesso(
                     "Login realizado com sucesso",
@@ -134,6 +174,8 @@ public class AuthService {
             logger.error("Erro durante o login: {}", e.getMessage(), e);
             registrarLogAcesso(null, loginRequest.getEmail(), false, "Erro interno", userAgent, ipAddress);
             return LoginResponseDTO.erro("Erro interno do servidor. Tente novamente mais tarde.");
+        } finally {
+            authMetrics.operacao(Operacao.LOGIN, resultado, inicio);
         }
     }
 
@@ -150,7 +192,7 @@ public class AuthService {
             logAcesso.setIp(ipAddress);
             logAcesso.setDataHora(LocalDateTime.now());
 
-            logAcessoRepository.save(logAcesso);
+            authMetrics.medir(Etapa.LOG_ACESSO, () -> accessLogSink.registrar(logAcesso));
             
             logger.debug("Log de acesso registrado para: {} - Sucesso: {}", email, sucesso);
         } catch (Exception e) {
@@ -162,6 +204,8 @@ public class AuthService {
      * AUT-17: Realiza o logout do usuário
      */
     public LogoutResponseDTO realizarLogout(LogoutRequestDTO logoutRequest, String userAgent, String ipAddress) {
+        long inicio = System.nanoTime();
+        Resultado resultado = Resultado.ERRO;
         try {
             String token = logoutRequest.getToken();
             
@@ -170,6 +214,7 @@ public class AuthService {
             // Valida se o token é válido antes de invalidá-lo
             if (token == null || token.trim().isEmpty()) {
                 logger.warn("Token vazio fornecido para logout");
+                resultado = Resultado.TOKEN_INVALIDO;
                 return LogoutResponseDTO.erro("Token inválido");
             }
 
@@ -181,6 +226,7 @@ public class AuthService {
             // Verifica se o token já está na blacklist
             if (tokenBlacklistService.isTokenBlacklisted(token)) {
                 logger.warn("Tentativa de logout com token já invalidado");
+                resultado = Resultado.TOKEN_BLACKLIST;
                 return LogoutResponseDTO.erro("Token já foi invalidado");
             }
 
@@ -195,16 +241,36 @@ public class AuthService {
             // Adiciona o token à blacklist
             tokenBlacklistService.invalidateToken(token);
 
+            // Encerra a sessão do token: os demais tokens dela também deixam de valer
+            try {
+                sessionRegistry.encerrar(jwtService.extractSessaoId(token));
+            } catch (Exception e) {
+                logger.warn("Não foi possível encerrar a sessão no logout: {}", e.getMessage());
+            }
+
             // Registra log de logout
             registrarLogAcesso(null, email, true, "Logout realizado com sucesso", userAgent, ipAddress);
 
             logger.info("Logout realizado com sucesso para email: {}", email);
+            resultado = Resultado.SUCESSO;
             return LogoutResponseDTO.sucesso("Logout realizado com sucesso");
 
         } catch (Exception e) {
             logger.error("Erro durante o logout: {}", e.getMessage(), e);
             registrarLogAcesso(null, null, false, "Erro no logout: " + e.getMessage(), userAgent, ipAddress);
             return LogoutResponseDTO.erro("Erro interno do servidor. Tente novamente mais tarde.");
+        } finally {
+            authMetrics.operacao(Operacao.LOGOUT, resultado, inicio);
+        }
+    }
+
+    /**
+     * Resultado da validação de um token: o usuário quando válido, o motivo quando não
+     */
+    public record Validacao(Resultado resultado, String mensagem, Usuario usuario, LocalDateTime expiracao) {
+
+        public boolean valido() {
+            return resultado == Resultado.SUCESSO;
         }
     }
 
@@ -212,19 +278,50 @@ public class AuthService {
      * AUT-22: Valida um token JWT e retorna informações do usuário
      */
     public TokenValidationDTO validarToken(String token) {
+        Validacao validacao = validar(token, Operacao.VALIDACAO);
+        if (!validacao.valido()) {
+            return TokenValidationDTO.invalido(validacao.mensagem());
+        }
+        Usuario usuario = validacao.usuario();
+        return TokenValidationDTO.valido(
+                usuario.getId(),
+                usuario.getEmail(), // Usando email como nome até encontrarmos o campo nome
+                usuario.getEmail(),
+                usuario.getTipoUsuario(),
+                validacao.expiracao()
+        );
+    }
+
+    /**
+     * Validação comum a /auth/validate, /auth/introspect e /auth/check; a duração é registrada na operação informada
+     * Sucesso e token ilegível registrados em DEBUG: a validação roda em toda requisição que passa pelo gateway.
+     * Somente a introspecção aceita refresh token (informado em token_type); as demais exigem access token
+     */
+    public Validacao validar(String token, Operacao operacao) {
+        long inicio = System.nanoTime();
+        Resultado resultado = Resultado.ERRO;
         try {
-            logger.info("Validando token JWT");
+            logger.debug("Validando token JWT");
 
             // Verifica se o token está na blacklist
             if (tokenBlacklistService.isTokenBlacklisted(token)) {
                 logger.warn("Token encontrado na blacklist");
-                return TokenValidationDTO.invalido("Token foi invalidado");
+                resultado = Resultado.TOKEN_BLACKLIST;
+                return new Validacao(resultado, "Token foi invalidado", null, null);
             }
 
             // Verifica se o token expirou
             if (jwtService.isTokenExpired(token)) {
                 logger.warn("Token JWT expirado");
-                return TokenValidationDTO.invalido("Token expirado");
+                resultado = Resultado.TOKEN_EXPIRADO;
+                return new Validacao(resultado, "Token expirado", null, null);
+            }
+
+            // Refresh token não autoriza requisições, apenas a renovação
+            if (operacao != Operacao.INTROSPECCAO && !jwtService.isAccessToken(token)) {
+                logger.debug("Token que não é de acesso recusado na validação");
+                resultado = Resultado.TOKEN_INVALIDO;
+                return new Validacao(resultado, "Token não é de acesso", null, null);
             }
 
             // Extrai informações do token
@@ -234,10 +331,14 @@ public class AuthService {
                     .toLocalDateTime();
 
             // Busca o usuário no banco de dados
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
+            // Usuário pela região "usuarios" do cache local; alterações chegam pelo CacheCoherenceService
+            // Na falta, lê de um secundário com atraso limitado (app.mongodb.read-preference.validation)
+            Optional<Usuario> usuarioOpt = Optional.ofNullable(cacheCoherenceService.getUsuarios().obter(email,
+                    () -> authMetrics.medir(Etapa.BUSCA_USUARIO, () -> usuarioRepository.buscarParaValidacao(email)).orElse(null)));
             if (usuarioOpt.isEmpty()) {
                 logger.warn("Usuário não encontrado para email: {}", email);
-                return TokenValidationDTO.invalido("Usuário não encontrado");
+                resultado = Resultado.USUARIO_NAO_ENCONTRADO;
+                return new Validacao(resultado, "Usuário não encontrado", null, null);
             }
 
             Usuario usuario = usuarioOpt.get();
@@ -245,27 +346,37 @@ public class AuthService {
             // Verifica se o token é válido para este usuário
             if (!jwtService.validateToken(token, email)) {
                 logger.warn("Token inválido para usuário: {}", email);
-                return TokenValidationDTO.invalido("Token inválido para o usuário");
+                resultado = Resultado.TOKEN_INVALIDO;
+                return new Validacao(resultado, "Token inválido para o usuário", null, null);
             }
 
             // Verifica se o usuário está ativo
             if (!"ATIVO".equals(usuario.getStatus())) {
                 logger.warn("Usuário não ativo - status: {} para email: {}", usuario.getStatus(), email);
-                return TokenValidationDTO.invalido("Usuário não está ativo");
+                resultado = Resultado.USUARIO_INATIVO;
+                return new Validacao(resultado, "Usuário não está ativo", null, null);
             }
 
-            logger.info("Token válido para usuário: {}", email);
-            return TokenValidationDTO.valido(
-                    usuario.getId(),
-                    email, // Usando email como nome até encontrarmos o campo nome
-                    usuario.getEmail(),
-                    usuario.getTipoUsuario(),
-                    expiresAt
-            );
-
+            sessionRegistry.registrarAcesso(jwtService.extractSessaoId(token));
+
+            logger.debug("Token válido para usuário: {}", email);
+            resultado = Resultado.SUCESSO;
+            return new Validacao(resultado, "Token válido e ativo", usuario, expiresAt);
+
+        } catch (ExpiredJwtException e) {
+            // Token expirado ou malformado lança exceção na leitura das claims; é entrada do cliente, não erro do serviço
+            logger.debug("Token JWT expirado: {}", e.getMessage());
+            resultado = Resultado.TOKEN_EXPIRADO;
+            return new Validacao(resultado, "Token expirado", null, null);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token JWT inválido: {}", e.getMessage());
+            resultado = Resultado.TOKEN_INVALIDO;
+            return new Validacao(resultado, "Token inválido", null, null);
         } catch (Exception e) {
             logger.error("Erro durante validação do token: {}", e.getMessage(), e);
-            return TokenValidationDTO.invalido("Erro na validação do token");
+            return new Validacao(resultado, "Erro na validação do token", null, null);
+        } finally {
+            authMetrics.operacao(operacao, resultado, inicio);
         }
     }
 }
@@ -6,6 +6,9 @@ import com.selco.auth.events.EmailParaEnvio;
 import com.selco.auth.events.UsuarioCriado;
 import com.selco.auth.model.Usuario;
 import com.selco.auth.repository.UsuarioRepository;
+import com.selco.auth.service.AuthMetrics.Etapa;
+import com.selco.auth.service.AuthMetrics.Operacao;
+import com.selco.auth.service.AuthMetrics.Resultado;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +38,12 @@ public class CadastroService {
     @Autowired
     private EventPublisherService eventPublisherService;
 
+    @Autowired
+    private EmailEventFactory emailEventFactory;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
     @Value("${app.email.allowed-domain:@selco.com.br}")
     private String dominioEmpresa;
 
@@ -49,25 +58,30 @@ public class CadastroService {
      * Conforme RF01 e especificações AUT-06 a AUT-12
      */
     public CadastroResponseDTO cadastrarFuncionario(CadastroFuncionarioDTO dto) {
+        long inicio = System.nanoTime();
+        Resultado resultado = Resultado.ERRO;
         try {
             logger.info("Iniciando cadastro de funcionário: {}", dto.getEmail());
 
             // AUT-09: Validação de domínio de e-mail
             if (!validarDominioEmail(dto.getEmail())) {
                 logger.warn("Tentativa de cadastro com domínio de email inválido: {}", dto.getEmail());
+                resultado = Resultado.DOMINIO_INVALIDO;
                 return CadastroResponseDTO.erro("E-mail deve pertencer ao domínio da empresa: " + dominioEmpresa);
             }
 
             // Verificar se usuário já existe
-            Optional<Usuario> usuarioExistente = usuarioRepository.findByEmail(dto.getEmail());
+            Optional<Usuario> usuarioExistente = authMetrics.medir(Etapa.BUSCA_USUARIO,
+                    () -> usuarioRepository.findByEmail(dto.getEmail()));
             if (usuarioExistente.isPresent()) {
                 logger.warn("Tentativa de cadastro com email já existente: {}", dto.getEmail());
+                resultado = Resultado.EMAIL_DUPLICADO;
                 return CadastroResponseDTO.erro("Já existe um usuário cadastrado com este e-mail");
             }
 
             // AUT-10: Geração de senha de 6 dígitos
             String senhaTemporaria = gerarSenhaTemporaria();
-            String senhaHash = passwordEncoder.encode(senhaTemporaria);
+            String senhaHash = authMetrics.medir(Etapa.HASH_SENHA, () -> passwordEncoder.encode(senhaTemporaria));
 
             // AUT-08: Criar modelo Usuario
             Usuario novoUsuario = new Usuario();
@@ -79,7 +93,7 @@ public class CadastroService {
             novoUsuario.setDataAtualizacao(LocalDateTime.now());
 
             // Salvar no banco
-            Usuario usuarioSalvo = usuarioRepository.save(novoUsuario);
+            Usuario usuarioSalvo = authMetrics.medir(Etapa.GRAVACAO_USUARIO, () -> usuarioRepository.save(novoUsuario));
 
             logger.info("Usuário cadastrado com sucesso: {} (ID: {})", dto.getEmail(), usuarioSalvo.getId());
 
@@ -99,7 +113,7 @@ public class CadastroService {
                 );
 
                 // Criar evento EmailParaEnvio
-                EmailParaEnvio emailEvent = EmailParaEnvio.cadastroFuncionario(
+                EmailParaEnvio emailEvent = emailEventFactory.cadastroFuncionario(
                     dto.getEmail(),
                     dto.getNome(),
                     senhaTemporaria
@@ -117,6 +131,7 @@ public class CadastroService {
                 // Em produção, poderia implementar retry ou dead letter queue
             }
 
+            resultado = Resultado.SUCESSO;
             return CadastroResponseDTO.sucesso(
                 "Funcionário cadastrado com sucesso. Senha enviada por e-mail.",
                 usuarioSalvo.getId()
@@ -125,6 +140,8 @@ public class CadastroService {
         } catch (Exception e) {
             logger.error("Erro ao cadastrar funcionário: {}", e.getMessage(), e);
             return CadastroResponseDTO.erro("Erro interno do servidor. Tente novamente mais tarde.");
+        } finally {
+            authMetrics.operacao(Operacao.CADASTRO, resultado, inicio);
         }
     }
 
@@ -0,0 +1,61 @@
+package com.selco.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente: cada nó ocupa vários pontos (nós virtuais) e a chave pertence ao
+ * primeiro ponto no sentido horário a partir do seu hash
+ *
+ * Com N nós, adicionar um novo move apenas ~1/(N+1) das chaves, todas para o nó novo
+ */
+public final class ConsistentHashRing {
+
+    private final TreeMap<Long, String> pontos = new TreeMap<>();
+    private final List<String> nos;
+
+    public ConsistentHashRing(Collection<String> nos, int nosVirtuais) {
+        if (nos.isEmpty()) {
+            throw new IllegalArgumentException("Anel de hash consistente sem nós");
+        }
+        this.nos = List.copyOf(nos);
+        for (String no : this.nos) {
+            for (int i = 0; i < nosVirtuais; i++) {
+                pontos.put(hash(no + "#" + i), no);
+            }
+        }
+    }
+
+    /**
+     * Nó responsável pela chave
+     */
+    public String no(String chave) {
+        Map.Entry<Long, String> ponto = pontos.ceilingEntry(hash(chave));
+        return ponto != null ? ponto.getValue() : pontos.firstEntry().getValue();
+    }
+
+    public List<String> getNos() {
+        return nos;
+    }
+
+    /**
+     * Primeiros 8 bytes do MD5: distribuição uniforme, sem dependência de hashCode do Java
+     */
+    private static long hash(String valor) {
+        try {
+            byte[] resumo = MessageDigest.getInstance("MD5").digest(valor.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (resumo[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
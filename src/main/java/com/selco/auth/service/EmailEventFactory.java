@@ -0,0 +1,91 @@
+package com.selco.auth.service;
+
+import com.selco.auth.events.EmailParaEnvio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fábrica dos eventos EmailParaEnvio conforme o modo configurado
+ * full: corpo renderizado no serviço de autenticação (comportamento original)
+ * compact: apenas templateId, versão e parâmetros tipados, renderizados pelo consumidor
+ */
+@Component
+public class EmailEventFactory {
+
+    private static final String TEMPLATE_CADASTRO = "cadastro-funcionario";
+    private static final String TEMPLATE_LOGIN_SUCESSO = "login-sucesso";
+    private static final String TEMPLATE_LOGIN_FALHA = "login-falha";
+    private static final String TEMPLATE_LOGIN_FALHA_RESUMO = "login-falha-resumo";
+
+    @Autowired
+    private EmailTemplateRegistry emailTemplateRegistry;
+
+    @Value("${app.email.event-mode:full}")
+    private String modo;
+
+    public boolean isModoCompacto() {
+        return "compact".equalsIgnoreCase(modo);
+    }
+
+    /**
+     * Email de boas-vindas com a senha temporária
+     */
+    public EmailParaEnvio cadastroFuncionario(String destinatario, String nomeUsuario, String senhaTemporaria) {
+        if (!isModoCompacto()) {
+            return EmailParaEnvio.cadastroFuncionario(destinatario, nomeUsuario, senhaTemporaria);
+        }
+
+        return EmailParaEnvio.porTemplate(destinatario, "CADASTRO", TEMPLATE_CADASTRO,
+                emailTemplateRegistry.getVersaoAtual(TEMPLATE_CADASTRO),
+                parametros("nomeUsuario", nomeUsuario, "email", destinatario, "senhaTemporaria", senhaTemporaria));
+    }
+
+    /**
+     * Notificação de login bem-sucedido ou de tentativa com senha incorreta
+     */
+    public EmailParaEnvio notificacaoLogin(String destinatario, String nomeUsuario, boolean sucesso, String ipAddress) {
+        if (!isModoCompacto()) {
+            return EmailParaEnvio.notificacaoLogin(destinatario, nomeUsuario, sucesso, ipAddress);
+        }
+
+        String templateId = sucesso ? TEMPLATE_LOGIN_SUCESSO : TEMPLATE_LOGIN_FALHA;
+        return EmailParaEnvio.porTemplate(destinatario, sucesso ? "LOGIN_SUCESSO" : "LOGIN_FALHA", templateId,
+                emailTemplateRegistry.getVersaoAtual(templateId),
+                parametros("nomeUsuario", nomeUsuario, "dataHora", LocalDateTime.now(), "ip", ipAddress));
+    }
+
+    /**
+     * Resumo de tentativas de login com falha agregadas pelo LoginNotificationAggregator
+     */
+    public EmailParaEnvio resumoLoginFalha(String destinatario, String nomeUsuario, int tentativas,
+                                           List<String> ips, LocalDateTime primeira, LocalDateTime ultima) {
+        if (!isModoCompacto()) {
+            return EmailParaEnvio.resumoLoginFalha(destinatario, nomeUsuario, tentativas, ips, primeira, ultima);
+        }
+
+        return EmailParaEnvio.porTemplate(destinatario, "LOGIN_FALHA_RESUMO", TEMPLATE_LOGIN_FALHA_RESUMO,
+                emailTemplateRegistry.getVersaoAtual(TEMPLATE_LOGIN_FALHA_RESUMO),
+                parametros("nomeUsuario", nomeUsuario, "tentativas", tentativas, "ips", ips,
+                        "primeiraTentativa", primeira, "ultimaTentativa", ultima));
+    }
+
+    /**
+     * Parâmetros do template em pares chave, valor; valores nulos (nome ou IP ausentes) ficam de fora
+     * em vez de derrubar o login ou o cadastro, e o template trata o parâmetro ausente
+     */
+    static Map<String, Object> parametros(Object... chavesEValores) {
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        for (int i = 0; i < chavesEValores.length; i += 2) {
+            if (chavesEValores[i + 1] != null) {
+                parametros.put((String) chavesEValores[i], chavesEValores[i + 1]);
+            }
+        }
+        return parametros;
+    }
+}
@@ -0,0 +1,107 @@
+package com.selco.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selco.auth.dto.EmailTemplateCatalogoDTO;
+import com.selco.auth.dto.EmailTemplateDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Registro versionado de templates de email
+ * Fonte única dos textos usados pelos consumidores de eventos compactos (templateId + parâmetros)
+ */
+@Service
+public class EmailTemplateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateRegistry.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${app.email.templates-location:classpath:email/templates.json}")
+    private String localizacao;
+
+    private final Map<String, NavigableMap<Integer, EmailTemplateDTO>> templates = new HashMap<>();
+
+    private EmailTemplateCatalogoDTO catalogo;
+
+    @PostConstruct
+    public void carregar() throws IOException {
+        Resource resource = resourceLoader.getResource(localizacao);
+        byte[] conteudo;
+        try (InputStream in = resource.getInputStream()) {
+            conteudo = in.readAllBytes();
+        }
+
+        EmailTemplateCatalogoDTO lido = new ObjectMapper().readValue(conteudo, EmailTemplateCatalogoDTO.class);
+        List<EmailTemplateDTO> todos = new ArrayList<>();
+        for (EmailTemplateDTO template : lido.getTemplates()) {
+            EmailTemplateDTO anterior = templates
+                    .computeIfAbsent(template.getId(), id -> new TreeMap<>())
+                    .putIfAbsent(template.getVersao(), template);
+            if (anterior != null) {
+                throw new IllegalStateException("Template duplicado: " + template.getId() + " v" + template.getVersao());
+            }
+            todos.add(template);
+        }
+
+        this.catalogo = new EmailTemplateCatalogoDTO(calcularVersao(conteudo), List.copyOf(todos));
+        logger.info("Registro de templates de email carregado: {} templates, versão {}", todos.size(), catalogo.getVersao());
+    }
+
+    public EmailTemplateCatalogoDTO getCatalogo() {
+        return catalogo;
+    }
+
+    /**
+     * Versão do catálogo, usada como ETag pelos consumidores que mantêm cache local
+     */
+    public String getVersaoCatalogo() {
+        return catalogo.getVersao();
+    }
+
+    public Optional<EmailTemplateDTO> getTemplate(String id, int versao) {
+        NavigableMap<Integer, EmailTemplateDTO> versoes = templates.get(id);
+        return versoes == null ? Optional.empty() : Optional.ofNullable(versoes.get(versao));
+    }
+
+    /**
+     * Retorna a versão mais recente publicada do template
+     * @throws IllegalArgumentException se o template não existir
+     */
+    public int getVersaoAtual(String id) {
+        NavigableMap<Integer, EmailTemplateDTO> versoes = templates.get(id);
+        if (versoes == null || versoes.isEmpty()) {
+            throw new IllegalArgumentException("Template de email não registrado: " + id);
+        }
+        return versoes.lastKey();
+    }
+
+    private String calcularVersao(byte[] conteudo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
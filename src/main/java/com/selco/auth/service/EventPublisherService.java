@@ -2,16 +2,23 @@ package com.selco.auth.service;
 
 import com.selco.auth.events.UsuarioCriado;
 import com.selco.auth.events.EmailParaEnvio;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.selco.auth.events.LogAcessoRegistrado;
+import com.selco.auth.events.codec.EventCodec;
+import com.selco.auth.events.codec.EventCodecRegistry;
+import com.selco.auth.service.AuthMetrics.Etapa;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+
 /**
  * Serviço para publicação de eventos no RabbitMQ
  * Responsável por enviar eventos para outros microserviços
@@ -24,7 +31,17 @@ public class EventPublisherService {
     @Autowired
     private RabbitTemplate rabbitTemplate;
 
-    private final ObjectMapper objectMapper;
+    @Autowired
+    private PublisherConfirmTracker publisherConfirmTracker;
+
+    @Autowired
+    private EventCodecRegistry eventCodecRegistry;
+
+    @Autowired
+    private EventSpillJournal eventSpillJournal;
+
+    @Autowired
+    private AuthMetrics authMetrics;
 
     // Configurações do RabbitMQ
     @Value("${rabbitmq.exchanges.user:selco.user.exchange}")
@@ -33,15 +50,41 @@ public class EventPublisherService {
     @Value("${rabbitmq.exchanges.email:selco.email.exchange}")
     private String emailExchange;
 
+    @Value("${rabbitmq.exchanges.audit:selco.audit.exchange}")
+    private String auditExchange;
+
     @Value("${rabbitmq.routing-keys.user-created:user.created}")
     private String userCreatedRoutingKey;
 
     @Value("${rabbitmq.routing-keys.email-send:email.send}")
     private String emailSendRoutingKey;
 
-    public EventPublisherService() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+    @Value("${rabbitmq.routing-keys.access-log:audit.access}")
+    private String accessLogRoutingKey;
+
+    @Value("${rabbitmq.codecs.user:json}")
+    private String userCodecNome;
+
+    @Value("${rabbitmq.codecs.email:json}")
+    private String emailCodecNome;
+
+    @Value("${rabbitmq.codecs.audit:json}")
+    private String auditCodecNome;
+
+    private EventCodec userCodec;
+
+    private EventCodec emailCodec;
+
+    private EventCodec auditCodec;
+
+    @PostConstruct
+    public void init() {
+        this.userCodec = eventCodecRegistry.getCodec(userCodecNome);
+        this.emailCodec = eventCodecRegistry.getCodec(emailCodecNome);
+        this.auditCodec = eventCodecRegistry.getCodec(auditCodecNome);
+        eventSpillJournal.setDestino(this::enviarAoBroker);
+        logger.info("Codecs de eventos: {} -> {}, {} -> {}",
+                   userExchange, userCodec.getNome(), emailExchange, emailCodec.getNome());
     }
 
     /**
@@ -52,17 +95,11 @@ public class EventPublisherService {
         try {
             logger.info("Publicando evento UsuarioCriado para usuário: {}", evento.getEmail());
 
-            String eventoJson = objectMapper.writeValueAsString(evento);
-            
-            rabbitTemplate.convertAndSend(
-                userExchange,
-                userCreatedRoutingKey,
-                eventoJson
-            );
+            enviar(userExchange, userCreatedRoutingKey, userCodec, evento);
 
             logger.info("Evento UsuarioCriado publicado com sucesso para: {}", evento.getEmail());
 
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             logger.error("Erro ao serializar evento UsuarioCriado: {}", e.getMessage(), e);
             throw new RuntimeException("Falha na serialização do evento UsuarioCriado", e);
         } catch (Exception e) {
@@ -80,18 +117,12 @@ public class EventPublisherService {
             logger.info("Publicando evento EmailParaEnvio para: {} (tipo: {})", 
                        evento.getDestinatario(), evento.getTipoEmail());
 
-            String eventoJson = objectMapper.writeValueAsString(evento);
-            
-            rabbitTemplate.convertAndSend(
-                emailExchange,
-                emailSendRoutingKey,
-                eventoJson
-            );
+            enviar(emailExchange, emailSendRoutingKey, emailCodec, evento);
 
             logger.info("Evento EmailParaEnvio publicado com sucesso para: {}", 
                        evento.getDestinatario());
 
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             logger.error("Erro ao serializar evento EmailParaEnvio: {}", e.getMessage(), e);
             throw new RuntimeException("Falha na serialização do evento EmailParaEnvio", e);
         } catch (Exception e) {
@@ -141,17 +172,76 @@ public class EventPublisherService {
         }
     }
 
+    /**
+     * Publica o log de uma tentativa de login para o serviço de auditoria
+     * Sem log por evento: o volume acompanha o de logins
+     */
+    public void publicarLogAcesso(LogAcessoRegistrado evento) {
+        try {
+            enviar(auditExchange, accessLogRoutingKey, auditCodec, evento);
+        } catch (IOException e) {
+            throw new RuntimeException("Falha na serialização do evento LogAcessoRegistrado", e);
+        }
+    }
+
+    /**
+     * Serializa o evento com o codec da exchange e envia os bytes diretamente ao broker,
+     * recorrendo ao journal local quando o broker está indisponível
+     */
+    private void enviar(String exchange, String routingKey, EventCodec codec, Object evento) throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            enviarOuGuardar(exchange, routingKey, codec, evento);
+        } finally {
+            authMetrics.etapa(Etapa.PUBLICACAO_EVENTO, inicio);
+        }
+    }
+
+    private void enviarOuGuardar(String exchange, String routingKey, EventCodec codec, Object evento) throws IOException {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(codec.getContentType());
+        propriedades.setType(evento.getClass().getSimpleName());
+        Message mensagem = new Message(codec.serializar(evento), propriedades);
+
+        // Enquanto houver eventos no journal, os novos entram atrás deles para não passar à frente do backlog
+        if (eventSpillJournal.temPendencias()) {
+            if (eventSpillJournal.anexar(exchange, routingKey, mensagem)) {
+                return;
+            }
+            // Journal cheio: enviar direto passaria à frente do backlog (app.events.spill.full-policy)
+            if (!eventSpillJournal.permiteEnvioForaDeOrdem()) {
+                throw new AmqpException("Journal de eventos cheio com eventos pendentes, evento recusado para não passar à frente do backlog");
+            }
+        }
+
+        try {
+            enviarAoBroker(exchange, routingKey, mensagem);
+        } catch (AmqpException e) {
+            if (!eventSpillJournal.anexar(exchange, routingKey, mensagem)) {
+                throw e;
+            }
+            logger.warn("RabbitMQ indisponível, evento guardado no journal local para reenvio: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Envia a mensagem já serializada, também usado pelo journal ao reenviar eventos pendentes
+     */
+    private void enviarAoBroker(String exchange, String routingKey, Message mensagem) {
+        if (publisherConfirmTracker.isHabilitado()) {
+            publisherConfirmTracker.publicar(exchange, routingKey, mensagem);
+        } else {
+            rabbitTemplate.send(exchange, routingKey, mensagem);
+        }
+    }
+
     /**
      * Testa a conectividade com RabbitMQ
+     * Verifica passivamente a exchange de usuários, sem publicar mensagem nem depender da queue de teste
      */
     public boolean testarConectividade() {
         try {
-            // Envia mensagem de teste
-            rabbitTemplate.convertAndSend(
-                userExchange,
-                "test.connectivity",
-                "Teste de conectividade - " + System.currentTimeMillis()
-            );
+            rabbitTemplate.execute(canal -> canal.exchangeDeclarePassive(userExchange));
             logger.info("Teste de conectividade com RabbitMQ realizado com sucesso");
             return true;
         } catch (Exception e) {
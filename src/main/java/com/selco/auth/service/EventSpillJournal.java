@@ -0,0 +1,519 @@
+package com.selco.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal local de eventos para quando o RabbitMQ está indisponível
+ * Segmentos append-only mapeados em memória recebem os eventos sem I/O síncrono;
+ * quando o broker volta, os eventos são reenviados na ordem em que entraram no journal, com limite de vazão
+ *
+ * A vazão começa em app.events.spill.replay-rate-per-second e dobra a cada execução em que o broker
+ * aceita o lote inteiro (até replay-max-rate-per-second, 0 sem teto), de modo que o reenvio supera
+ * qualquer taxa de chegada constante e o journal esvazia; uma falha de envio volta à vazão inicial.
+ * Com o journal cheio e eventos pendentes, app.events.spill.full-policy decide: reject recusa o evento
+ * novo para não passar à frente do backlog, bypass o envia direto ao broker
+ *
+ * A ordem de publicação não é garantida: o reenvio não espera o confirm de cada evento, e um evento
+ * que recebe nack (no envio original ou no reenvio) esgota as tentativas do PublisherConfirmTracker e
+ * volta ao fim do journal, atrás de eventos publicados depois dele. Consumidores devem tolerar
+ * eventos fora de ordem
+ *
+ * Formato de cada registro: [int tamanho][int crc32][payload], com o tamanho gravado por último
+ * para que um registro incompleto (queda no meio da escrita) seja tratado como fim do segmento
+ */
+@Component
+public class EventSpillJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSpillJournal.class);
+    private static final String PREFIXO_SEGMENTO = "segment-";
+    private static final String SUFIXO_SEGMENTO = ".log";
+    private static final String ARQUIVO_CHECKPOINT = "checkpoint";
+    private static final int CABECALHO = 8;
+
+    /**
+     * Destino dos eventos reprocessados; deve lançar exceção se o envio falhar
+     */
+    @FunctionalInterface
+    public interface DestinoReplay {
+        void enviar(String exchange, String routingKey, Message mensagem);
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.events.spill.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.events.spill.directory:${java.io.tmpdir}/selco-auth/spill}")
+    private String diretorio;
+
+    @Value("${app.events.spill.segment-size-bytes:16777216}")
+    private int tamanhoSegmento;
+
+    @Value("${app.events.spill.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${app.events.spill.replay-rate-per-second:200}")
+    private int taxaReplayPorSegundo;
+
+    @Value("${app.events.spill.replay-interval-ms:1000}")
+    private long intervaloReplayMs;
+
+    @Value("${app.events.spill.replay-max-rate-per-second:0}")
+    private int taxaReplayMaximaPorSegundo;
+
+    @Value("${app.events.spill.full-policy:reject}")
+    private String politicaCheio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Segmento> segmentos = new ArrayDeque<>();
+    private final AtomicLong registrosPendentes = new AtomicLong();
+    private final AtomicLong bytesPendentes = new AtomicLong();
+
+    private Path caminho;
+    private int posicaoLeitura;
+    private volatile DestinoReplay destino;
+    // Eventos por execução do reenvio; só alterado pela thread do reenvio
+    private long limiteReplay;
+
+    private Counter anexados;
+    private Counter reprocessados;
+    private Counter rejeitados;
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.anexados = Counter.builder("selco.events.spill.appended").register(meterRegistry);
+        this.reprocessados = Counter.builder("selco.events.spill.replayed").register(meterRegistry);
+        this.rejeitados = Counter.builder("selco.events.spill.rejected").register(meterRegistry);
+        Gauge.builder("selco.events.spill.backlog.records", registrosPendentes, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("selco.events.spill.backlog.bytes", bytesPendentes, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("selco.events.spill.segments", segmentos, Deque::size).register(meterRegistry);
+
+        if (!habilitado) {
+            return;
+        }
+
+        this.caminho = Paths.get(diretorio);
+        Files.createDirectories(caminho);
+        recuperar();
+
+        if (registrosPendentes.get() > 0) {
+            logger.warn("Journal de eventos com {} eventos pendentes ({} bytes) a reenviar",
+                    registrosPendentes.get(), bytesPendentes.get());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!habilitado) {
+            return;
+        }
+        lock.lock();
+        try {
+            gravarCheckpoint();
+            for (Segmento segmento : segmentos) {
+                segmento.fechar();
+            }
+            segmentos.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setDestino(DestinoReplay destino) {
+        this.destino = destino;
+    }
+
+    /**
+     * Indica se há eventos aguardando reenvio; novos eventos devem entrar no journal
+     * enquanto isso for verdade, para não passar à frente do backlog
+     */
+    public boolean temPendencias() {
+        return registrosPendentes.get() > 0;
+    }
+
+    /**
+     * Política para um evento que não coube no journal enquanto há pendências
+     * @return true para enviar direto ao broker (bypass), false para recusar e não passar à frente do backlog (reject)
+     */
+    public boolean permiteEnvioForaDeOrdem() {
+        return "bypass".equalsIgnoreCase(politicaCheio);
+    }
+
+    /**
+     * Grava o evento no journal
+     * @return false se o journal estiver desabilitado, cheio ou sem acesso ao disco
+     */
+    public boolean anexar(String exchange, String routingKey, Message mensagem) {
+        if (!habilitado) {
+            return false;
+        }
+
+        byte[] payload = codificar(exchange, routingKey, mensagem);
+        int tamanhoRegistro = CABECALHO + payload.length;
+        if (tamanhoRegistro > tamanhoSegmento) {
+            rejeitados.increment();
+            logger.error("Evento de {} bytes excede o tamanho do segmento do journal", payload.length);
+            return false;
+        }
+
+        lock.lock();
+        try {
+            if (bytesPendentes.get() + tamanhoRegistro > maxBytes) {
+                rejeitados.increment();
+                logger.error("Journal de eventos cheio ({} bytes pendentes), evento descartado", bytesPendentes.get());
+                return false;
+            }
+
+            Segmento segmento = segmentos.peekLast();
+            if (segmento.posicaoEscrita + tamanhoRegistro > segmento.buffer.capacity()) {
+                segmento.buffer.force();
+                segmento = abrirSegmento(segmento.id + 1);
+                segmentos.addLast(segmento);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int posicao = segmento.posicaoEscrita;
+            segmento.buffer.put(posicao + CABECALHO, payload);
+            segmento.buffer.putInt(posicao + 4, (int) crc.getValue());
+            segmento.buffer.putInt(posicao, payload.length);
+            segmento.posicaoEscrita = posicao + tamanhoRegistro;
+
+            registrosPendentes.incrementAndGet();
+            bytesPendentes.addAndGet(tamanhoRegistro);
+            anexados.increment();
+            return true;
+        } catch (IOException e) {
+            rejeitados.increment();
+            logger.error("Erro ao gravar evento no journal: {}", e.getMessage(), e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reenvia os eventos pendentes em ordem, respeitando a vazão configurada
+     * Para no primeiro erro de envio; a próxima execução tenta de novo a partir do mesmo evento
+     */
+    @Scheduled(fixedDelayString = "${app.events.spill.replay-interval-ms:1000}")
+    public void reproduzir() {
+        DestinoReplay destinoAtual = destino;
+        if (!habilitado || destinoAtual == null || registrosPendentes.get() == 0) {
+            return;
+        }
+
+        long inicial = Math.max(1, taxaReplayPorSegundo * intervaloReplayMs / 1000);
+        long teto = taxaReplayMaximaPorSegundo > 0
+                ? Math.max(inicial, taxaReplayMaximaPorSegundo * intervaloReplayMs / 1000)
+                : Long.MAX_VALUE / 2;
+        long limite = Math.min(teto, Math.max(inicial, limiteReplay));
+        int enviados = 0;
+        boolean falhou = false;
+        try {
+            while (enviados < limite) {
+                Registro registro = lerProximo();
+                if (registro == null) {
+                    break;
+                }
+
+                try {
+                    destinoAtual.enviar(registro.exchange, registro.routingKey, registro.mensagem);
+                } catch (Exception e) {
+                    logger.debug("Broker ainda indisponível para reenvio do journal: {}", e.getMessage());
+                    falhou = true;
+                    break;
+                }
+
+                avancar(registro);
+                enviados++;
+            }
+        } finally {
+            // Lote inteiro aceito: o backlog pode estar crescendo mais rápido que a vazão, dobra para a próxima
+            limiteReplay = falhou ? inicial : enviados >= limite ? Math.min(teto, limite * 2) : limite;
+            if (enviados > 0) {
+                reprocessados.increment(enviados);
+                lock.lock();
+                try {
+                    gravarCheckpoint();
+                } finally {
+                    lock.unlock();
+                }
+                logger.info("Journal de eventos: {} eventos reenviados, {} pendentes", enviados, registrosPendentes.get());
+            }
+        }
+    }
+
+    public long getRegistrosPendentes() {
+        return registrosPendentes.get();
+    }
+
+    public long getBytesPendentes() {
+        return bytesPendentes.get();
+    }
+
+    private Registro lerProximo() {
+        lock.lock();
+        try {
+            while (true) {
+                Segmento segmento = segmentos.peekFirst();
+                if (posicaoLeitura < segmento.posicaoEscrita) {
+                    ByteBuffer buffer = segmento.buffer;
+                    int tamanho = buffer.getInt(posicaoLeitura);
+                    byte[] payload = new byte[tamanho];
+                    buffer.get(posicaoLeitura + CABECALHO, payload);
+                    return decodificar(payload, posicaoLeitura + CABECALHO + tamanho);
+                }
+                if (segmentos.size() == 1) {
+                    return null;
+                }
+                descartarSegmentoConsumido();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void avancar(Registro registro) {
+        lock.lock();
+        try {
+            bytesPendentes.addAndGet(-(registro.proximaPosicao - posicaoLeitura));
+            registrosPendentes.decrementAndGet();
+            posicaoLeitura = registro.proximaPosicao;
+            if (posicaoLeitura >= segmentos.peekFirst().posicaoEscrita && segmentos.size() > 1) {
+                descartarSegmentoConsumido();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void descartarSegmentoConsumido() {
+        Segmento consumido = segmentos.pollFirst();
+        consumido.fechar();
+        try {
+            Files.deleteIfExists(consumido.arquivo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover segmento consumido {}: {}", consumido.arquivo, e.getMessage());
+        }
+        posicaoLeitura = 0;
+    }
+
+    /**
+     * Reabre os segmentos existentes a partir do checkpoint e localiza o fim de cada um
+     */
+    private void recuperar() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(caminho)) {
+            arquivos.map(arquivo -> arquivo.getFileName().toString())
+                    .filter(nome -> nome.startsWith(PREFIXO_SEGMENTO) && nome.endsWith(SUFIXO_SEGMENTO))
+                    .map(nome -> Long.parseLong(nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length())))
+                    .sorted()
+                    .forEach(ids::add);
+        }
+
+        long segmentoCheckpoint = 0;
+        int posicaoCheckpoint = 0;
+        Path checkpoint = caminho.resolve(ARQUIVO_CHECKPOINT);
+        if (Files.exists(checkpoint)) {
+            ByteBuffer dados = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+            segmentoCheckpoint = dados.getLong();
+            posicaoCheckpoint = dados.getInt();
+        }
+
+        for (long id : ids) {
+            if (id < segmentoCheckpoint) {
+                Files.deleteIfExists(arquivoSegmento(id));
+                continue;
+            }
+
+            Segmento segmento = abrirSegmento(id);
+            int inicio = segmentos.isEmpty() && id == segmentoCheckpoint ? posicaoCheckpoint : 0;
+            if (segmentos.isEmpty()) {
+                posicaoLeitura = inicio;
+            }
+            varrer(segmento, inicio);
+            segmentos.addLast(segmento);
+        }
+
+        if (segmentos.isEmpty()) {
+            segmentos.addLast(abrirSegmento(Math.max(1, segmentoCheckpoint)));
+            posicaoLeitura = 0;
+        }
+    }
+
+    /**
+     * Percorre o segmento até o primeiro registro vazio, truncado ou com CRC inválido
+     */
+    private void varrer(Segmento segmento, int inicio) {
+        ByteBuffer buffer = segmento.buffer;
+        int posicao = 0;
+        while (posicao + CABECALHO <= buffer.capacity()) {
+            int tamanho = buffer.getInt(posicao);
+            if (tamanho <= 0 || posicao + CABECALHO + tamanho > buffer.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[tamanho];
+            buffer.get(posicao + CABECALHO, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(posicao + 4)) {
+                logger.warn("Registro corrompido no segmento {} na posição {}, ignorando o restante", segmento.id, posicao);
+                break;
+            }
+            if (posicao >= inicio) {
+                registrosPendentes.incrementAndGet();
+                bytesPendentes.addAndGet(CABECALHO + tamanho);
+            }
+            posicao += CABECALHO + tamanho;
+        }
+        segmento.posicaoEscrita = posicao;
+    }
+
+    private Segmento abrirSegmento(long id) throws IOException {
+        Path arquivo = arquivoSegmento(id);
+        FileChannel canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        return new Segmento(id, arquivo, canal, buffer);
+    }
+
+    private Path arquivoSegmento(long id) {
+        return caminho.resolve(String.format("%s%016d%s", PREFIXO_SEGMENTO, id, SUFIXO_SEGMENTO));
+    }
+
+    private void gravarCheckpoint() {
+        Segmento primeiro = segmentos.peekFirst();
+        if (primeiro == null) {
+            return;
+        }
+        try {
+            primeiro.buffer.force();
+            ByteBuffer dados = ByteBuffer.allocate(12).putLong(primeiro.id).putInt(posicaoLeitura);
+            Path temporario = caminho.resolve(ARQUIVO_CHECKPOINT + ".tmp");
+            Files.write(temporario, dados.array());
+            Files.move(temporario, caminho.resolve(ARQUIVO_CHECKPOINT),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Erro ao gravar checkpoint do journal: {}", e.getMessage());
+        }
+    }
+
+    private static byte[] codificar(String exchange, String routingKey, Message mensagem) {
+        MessageProperties propriedades = mensagem.getMessageProperties();
+        byte[][] textos = {
+                bytes(exchange), bytes(routingKey), bytes(propriedades.getContentType()), bytes(propriedades.getType())
+        };
+        int tamanho = 4 + mensagem.getBody().length;
+        for (byte[] texto : textos) {
+            tamanho += 2 + (texto == null ? 0 : texto.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        for (byte[] texto : textos) {
+            if (texto == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) texto.length).put(texto);
+            }
+        }
+        buffer.putInt(mensagem.getBody().length).put(mensagem.getBody());
+        return buffer.array();
+    }
+
+    private static Registro decodificar(byte[] payload, int proximaPosicao) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        String exchange = lerTexto(buffer);
+        String routingKey = lerTexto(buffer);
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(lerTexto(buffer));
+        propriedades.setType(lerTexto(buffer));
+        byte[] corpo = new byte[buffer.getInt()];
+        buffer.get(corpo);
+        return new Registro(exchange, routingKey, new Message(corpo, propriedades), proximaPosicao);
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto == null ? null : texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String lerTexto(ByteBuffer buffer) {
+        short tamanho = buffer.getShort();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] texto = new byte[tamanho];
+        buffer.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segmento {
+        private final long id;
+        private final Path arquivo;
+        private final FileChannel canal;
+        private final MappedByteBuffer buffer;
+        private int posicaoEscrita;
+
+        private Segmento(long id, Path arquivo, FileChannel canal, MappedByteBuffer buffer) {
+            this.id = id;
+            this.arquivo = arquivo;
+            this.canal = canal;
+            this.buffer = buffer;
+        }
+
+        private void fechar() {
+            try {
+                buffer.force();
+                canal.close();
+            } catch (IOException e) {
+                logger.warn("Erro ao fechar segmento {}: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Registro {
+        private final String exchange;
+        private final String routingKey;
+        private final Message mensagem;
+        private final int proximaPosicao;
+
+        private Registro(String exchange, String routingKey, Message mensagem, int proximaPosicao) {
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.mensagem = mensagem;
+            this.proximaPosicao = proximaPosicao;
+        }
+    }
+}
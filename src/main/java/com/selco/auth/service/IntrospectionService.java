@@ -0,0 +1,107 @@
+package com.selco.auth.service;
+
+import com.selco.auth.dto.IntrospeccaoDTO;
+import com.selco.auth.model.Usuario;
+import com.selco.auth.service.AuthMetrics.Operacao;
+import com.selco.auth.service.AuthMetrics.Resultado;
+import com.selco.auth.service.AuthService.Validacao;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Introspecção de token (RFC 7662) com o tempo que cada resposta pode ficar em cache nos gateways
+ *
+ * Token ativo: max-age limitado pelo tempo de vida restante do token e por
+ * app.introspection.revocation-window-seconds, o atraso aceito para uma revogação (logout, sessão
+ * revogada, usuário desativado) valer também nos caches. Token inativo por motivo definitivo (blacklist,
+ * expirado, assinatura inválida) usa app.introspection.inactive-max-age-seconds; por usuário inexistente
+ * ou inativo, que pode mudar, volta à janela de revogação. Erros não são armazenados.
+ *
+ * O ETag é o hash do conteúdo da resposta, igual em todas as réplicas. Respostas servidas do cache do
+ * gateway não atualizam o último acesso da sessão
+ */
+@Service
+public class IntrospectionService {
+
+    public static final String ACCESS_TOKEN = "access_token";
+    public static final String REFRESH_TOKEN = "refresh_token";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Value("${app.introspection.revocation-window-seconds:10}")
+    private long janelaRevogacaoSegundos;
+
+    @Value("${app.introspection.inactive-max-age-seconds:300}")
+    private long maxAgeInativoSegundos;
+
+    /**
+     * Resposta da introspecção; maxAgeSegundos negativo indica resposta que não deve ser armazenada
+     */
+    public record Introspeccao(IntrospeccaoDTO corpo, long maxAgeSegundos, String etag) {
+
+        public boolean armazenavel() {
+            return maxAgeSegundos >= 0;
+        }
+    }
+
+    public Introspeccao introspectar(String token) {
+        Validacao validacao = authService.validar(token, Operacao.INTROSPECCAO);
+        if (validacao.resultado() == Resultado.ERRO) {
+            return new Introspeccao(IntrospeccaoDTO.inativo(), -1, null);
+        }
+        if (!validacao.valido()) {
+            IntrospeccaoDTO corpo = IntrospeccaoDTO.inativo();
+            return new Introspeccao(corpo, maxAgeInativo(validacao.resultado()), etag(corpo));
+        }
+
+        Usuario usuario = validacao.usuario();
+        Claims claims = jwtService.extractClaim(token, todas -> todas);
+        long exp = claims.getExpiration().getTime() / 1000;
+        // Somente o access token leva usuarioId; o refresh token tem apenas subject e sessão
+        IntrospeccaoDTO corpo = IntrospeccaoDTO.ativo(
+                claims.getSubject(),
+                claims.get("usuarioId") != null ? ACCESS_TOKEN : REFRESH_TOKEN,
+                exp,
+                claims.getIssuedAt().getTime() / 1000,
+                usuario.getId(),
+                usuario.getTipoUsuario(),
+                claims.get(JwtService.CLAIM_SESSAO, String.class));
+
+        long restante = exp - System.currentTimeMillis() / 1000;
+        return new Introspeccao(corpo, Math.max(0, Math.min(restante, janelaRevogacaoSegundos)), etag(corpo));
+    }
+
+    private long maxAgeInativo(Resultado resultado) {
+        return switch (resultado) {
+            case USUARIO_NAO_ENCONTRADO, USUARIO_INATIVO -> janelaRevogacaoSegundos;
+            default -> maxAgeInativoSegundos;
+        };
+    }
+
+    /**
+     * ETag forte a partir dos campos da resposta, na ordem em que são serializados
+     */
+    static String etag(IntrospeccaoDTO corpo) {
+        String conteudo = corpo.isActive() + "|" + corpo.getSub() + "|" + corpo.getTokenType() + "|"
+                + corpo.getExp() + "|" + corpo.getIat() + "|" + corpo.getUsuarioId() + "|"
+                + corpo.getTipoUsuario() + "|" + corpo.getSid();
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(conteudo.getBytes(StandardCharsets.UTF_8));
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(resumo, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.selco.auth.service;
 
+import com.selco.auth.service.AuthMetrics.Etapa;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +26,8 @@ public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
+    public static final String CLAIM_SESSAO = "sid";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -33,13 +37,26 @@ public class JwtService {
     @Value("${app.jwt.refresh-expiration-time}")
     private long refreshExpirationTime; // em milissegundos
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
     /**
      * AUT-15: Gera token JWT com informações do usuário
      */
     public String generateAccessToken(String email, String tipoUsuario, String usuarioId) {
+        return generateAccessToken(email, tipoUsuario, usuarioId, null);
+    }
+
+    /**
+     * AUT-15: Gera token JWT ligado a uma sessão do SessionRegistry (claim "sid")
+     */
+    public String generateAccessToken(String email, String tipoUsuario, String usuarioId, String sessaoId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("tipoUsuario", tipoUsuario);
         claims.put("usuarioId", usuarioId);
+        if (sessaoId != null) {
+            claims.put(CLAIM_SESSAO, sessaoId);
+        }
         
         return createToken(claims, email, jwtExpirationTime);
     }
@@ -48,23 +65,39 @@ public class JwtService {
      * AUT-16: Gera refresh token
      */
     public String generateRefreshToken(String email) {
-        return createToken(new HashMap<>(), email, refreshExpirationTime);
+        return generateRefreshToken(email, null);
+    }
+
+    /**
+     * AUT-16: Gera refresh token ligado a uma sessão
+     */
+    public String generateRefreshToken(String email, String sessaoId) {
+        Map<String, Object> claims = new HashMap<>();
+        if (sessaoId != null) {
+            claims.put(CLAIM_SESSAO, sessaoId);
+        }
+        return createToken(claims, email, refreshExpirationTime);
     }
 
     /**
      * Cria token JWT
      */
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
+        long inicio = System.nanoTime();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        return Jwts.builder()
-                .claims(claims)
-                .subject(subject)
-                .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+        try {
+            return Jwts.builder()
+                    .claims(claims)
+                    .subject(subject)
+                    .issuedAt(now)
+                    .expiration(expiryDate)
+                    .signWith(getSigningKey())
+                    .compact();
+        } finally {
+            authMetrics.etapa(Etapa.ASSINATURA_TOKEN, inicio);
+        }
     }
 
     /**
@@ -89,6 +122,13 @@ public class JwtService {
         return (String) claims.get("tipoUsuario");
     }
 
+    /**
+     * Extrai o ID da sessão do token; nulo em tokens emitidos antes do registro de sessões
+     */
+    public String extractSessaoId(String token) {
+        return extractClaim(token, claims -> claims.get(CLAIM_SESSAO, String.class));
+    }
+
     /**
      * Extrai ID do usuário do token
      */
@@ -97,6 +137,14 @@ public class JwtService {
         return (String) claims.get("usuarioId");
     }
 
+    /**
+     * Indica se é um access token: somente ele leva usuarioId e tipoUsuario; o refresh token tem apenas subject e sessão
+     */
+    public boolean isAccessToken(String token) {
+        final Claims claims = extractAllClaims(token);
+        return claims.get("usuarioId") != null && claims.get("tipoUsuario") != null;
+    }
+
     /**
      * Extrai claim específico do token
      */
@@ -109,11 +157,16 @@ public class JwtService {
      * Extrai todas as claims do token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long inicio = System.nanoTime();
+        try {
+            return Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        } finally {
+            authMetrics.etapa(Etapa.LEITURA_TOKEN, inicio);
+        }
     }
 
     /**
@@ -150,4 +203,11 @@ public class JwtService {
     public long getAccessTokenExpirationInSeconds() {
         return jwtExpirationTime / 1000;
     }
+
+    /**
+     * Retorna o tempo de expiração do refresh token em segundos
+     */
+    public long getRefreshTokenExpirationInSeconds() {
+        return refreshExpirationTime / 1000;
+    }
 }
@@ -0,0 +1,220 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.EnderecoIp;
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.repository.LogAcessoFiltro;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Leitura dos segmentos arquivados de logs de acesso
+ * Seleciona os arquivos pelo dia no nome, usa o índice esparso para descartar blocos fora do período
+ * e descomprime somente os blocos restantes, lidos diretamente do segmento mapeado em memória
+ */
+@Service
+public class LogAcessoArchiveReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogAcessoArchiveReader.class);
+
+    @Value("${app.audit.archive.directory:}")
+    private String diretorio;
+
+    /**
+     * Busca até limite registros arquivados do filtro, em ordem cronológica
+     * O filtro precisa de início e fim
+     */
+    public List<LogAcesso> buscar(LogAcessoFiltro filtro, int limite) throws IOException {
+        if (filtro.getInicio() == null || filtro.getFim() == null) {
+            throw new IllegalArgumentException("Consulta ao arquivo exige início e fim");
+        }
+
+        long inicio = LogAcessoRecordCodec.paraEpochMillis(filtro.getInicio());
+        long fim = LogAcessoRecordCodec.paraEpochMillis(filtro.getFim());
+        byte[] ip = filtro.getIp() == null ? null : EnderecoIp.paraBytes(filtro.getIp());
+
+        List<LogAcesso> resultado = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        for (Path segmento : listarSegmentos(filtro.getInicio(), filtro.getFim())) {
+            lerSegmento(segmento, inicio, fim, log -> {
+                if (corresponde(log, filtro, ip) && (log.getId() == null || ids.add(log.getId()))) {
+                    resultado.add(log);
+                }
+                return resultado.size() < limite;
+            });
+            if (resultado.size() >= limite) {
+                break;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Segmentos publicados (com índice) dos dias do período, em ordem de dia e parte
+     */
+    List<Path> listarSegmentos(LocalDateTime inicio, LocalDateTime fim) throws IOException {
+        if (diretorio == null || diretorio.isBlank()) {
+            return List.of();
+        }
+        Path caminho = Paths.get(diretorio);
+        if (!Files.isDirectory(caminho)) {
+            return List.of();
+        }
+
+        LocalDate primeiroDia = inicio.toLocalDate();
+        LocalDate ultimoDia = fim.toLocalDate();
+        try (Stream<Path> arquivos = Files.list(caminho)) {
+            return arquivos
+                    .filter(arquivo -> {
+                        String nome = arquivo.getFileName().toString();
+                        if (!nome.startsWith(LogAcessoSegmentWriter.PREFIXO) || !nome.endsWith(LogAcessoSegmentWriter.EXTENSAO_SEGMENTO)) {
+                            return false;
+                        }
+                        LocalDate dia = diaDoArquivo(nome);
+                        return dia != null && !dia.isBefore(primeiroDia) && !dia.isAfter(ultimoDia)
+                                && Files.exists(indiceDe(arquivo));
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void lerSegmento(Path segmento, long inicio, long fim, Consumidor consumidor) throws IOException {
+        ByteBuffer indice = ByteBuffer.wrap(Files.readAllBytes(indiceDe(segmento)));
+        if (indice.getInt() != LogAcessoSegmentWriter.MAGIC_INDICE || indice.getShort() != LogAcessoSegmentWriter.VERSAO) {
+            logger.warn("Índice inválido, segmento ignorado: {}", segmento);
+            return;
+        }
+        int blocos = indice.getInt();
+
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            Inflater inflater = new Inflater();
+            byte[] bruto = new byte[0];
+            try {
+                for (int i = primeiroBlocoCandidato(indice, blocos, inicio); i < blocos; i++) {
+                    int base = LogAcessoSegmentWriter.CABECALHO_INDICE + i * LogAcessoSegmentWriter.ENTRADA_INDICE;
+                    long primeiro = indice.getLong(base);
+                    long ultimo = indice.getLong(base + 8);
+                    int offset = (int) indice.getLong(base + 16);
+                    if (primeiro >= fim) {
+                        break;
+                    }
+                    if (ultimo < inicio) {
+                        continue;
+                    }
+
+                    int tamanhoBruto = mapa.getInt(offset);
+                    int tamanhoComprimido = mapa.getInt(offset + 4);
+                    int crcEsperado = mapa.getInt(offset + 8);
+                    ByteBuffer comprimido = mapa.slice(offset + LogAcessoSegmentWriter.CABECALHO_BLOCO, tamanhoComprimido);
+
+                    CRC32 crc = new CRC32();
+                    crc.update(comprimido.duplicate());
+                    if ((int) crc.getValue() != crcEsperado) {
+                        logger.error("Bloco corrompido em {} (offset {}), ignorado", segmento, offset);
+                        continue;
+                    }
+
+                    if (bruto.length < tamanhoBruto) {
+                        bruto = new byte[tamanhoBruto];
+                    }
+                    inflater.reset();
+                    inflater.setInput(comprimido);
+                    int lidos = 0;
+                    while (lidos < tamanhoBruto && !inflater.finished()) {
+                        lidos += inflater.inflate(bruto, lidos, tamanhoBruto - lidos);
+                    }
+
+                    ByteBuffer registros = ByteBuffer.wrap(bruto, 0, lidos);
+                    while (registros.hasRemaining()) {
+                        LogAcesso log = LogAcessoRecordCodec.decodificar(registros);
+                        long momento = LogAcessoRecordCodec.paraEpochMillis(log.getDataHora());
+                        if (momento >= inicio && momento < fim && !consumidor.aceitar(log)) {
+                            return;
+                        }
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Bloco comprimido inválido em " + segmento, e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Busca binária pelo primeiro bloco cujo último registro não é anterior ao início
+     */
+    private static int primeiroBlocoCandidato(ByteBuffer indice, int blocos, long inicio) {
+        int baixo = 0;
+        int alto = blocos;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            long ultimo = indice.getLong(LogAcessoSegmentWriter.CABECALHO_INDICE + meio * LogAcessoSegmentWriter.ENTRADA_INDICE + 8);
+            if (ultimo < inicio) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+
+    private static boolean corresponde(LogAcesso log, LogAcessoFiltro filtro, byte[] ip) {
+        if (filtro.getUsuarioId() != null && !filtro.getUsuarioId().equals(log.getUsuarioId())) {
+            return false;
+        }
+        if (filtro.getSucesso() != null && filtro.getSucesso() != log.isSucesso()) {
+            return false;
+        }
+        if (filtro.getIp() != null) {
+            return ip != null ? Arrays.equals(ip, log.getOrigem().getIp()) : filtro.getIp().equals(log.getIpTexto());
+        }
+        return true;
+    }
+
+    private static LocalDate diaDoArquivo(String nome) {
+        int inicio = LogAcessoSegmentWriter.PREFIXO.length();
+        try {
+            return LocalDate.parse(nome.substring(inicio, inicio + 10));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Path indiceDe(Path segmento) {
+        String nome = segmento.getFileName().toString();
+        return segmento.resolveSibling(nome.substring(0, nome.length() - LogAcessoSegmentWriter.EXTENSAO_SEGMENTO.length())
+                + LogAcessoSegmentWriter.EXTENSAO_INDICE);
+    }
+
+    @FunctionalInterface
+    private interface Consumidor {
+        /**
+         * Recebe um registro do período; retorna false para encerrar a leitura
+         */
+        boolean aceitar(LogAcesso log);
+    }
+}
@@ -0,0 +1,178 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.repository.LogAcessoFiltro;
+import com.selco.auth.repository.LogAcessoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Arquivamento dos logs de acesso mais antigos que hot-days em segmentos locais comprimidos
+ * Cada dia vira um segmento (ver LogAcessoSegmentWriter); o dia só é removido do MongoDB depois que
+ * segmento e índice foram sincronizados e publicados, e o segmento é descartado se a remoção falhar
+ *
+ * A remoção filtra pelo campo de tempo da coleção time-series, o que exige MongoDB 7.0 ou superior.
+ * Os arquivos ficam no disco da instância, por isso o arquivamento vem desligado: habilite em apenas
+ * uma réplica (AUDIT_ARCHIVE_ENABLED) e informe um diretório persistente (AUDIT_ARCHIVE_DIR), obrigatório
+ * quando habilitado. A execução roda em thread própria para não ocupar o agendador compartilhado
+ */
+@Service
+public class LogAcessoArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogAcessoArchiver.class);
+
+    @Autowired
+    private LogAcessoRepository logAcessoRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.audit.archive.enabled:false}")
+    private boolean habilitado;
+
+    @Value("${app.audit.archive.directory:}")
+    private String diretorio;
+
+    @Value("${app.audit.archive.hot-days:30}")
+    private int diasQuentes;
+
+    @Value("${app.audit.archive.block-size-bytes:65536}")
+    private int tamanhoBloco;
+
+    @Value("${app.audit.archive.max-days-per-run:7}")
+    private int maxDiasPorExecucao;
+
+    private final AtomicBoolean executando = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "logs-acesso-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter registrosArquivados;
+
+    @PostConstruct
+    public void init() {
+        if (habilitado && (diretorio == null || diretorio.isBlank())) {
+            throw new IllegalStateException("app.audit.archive.directory é obrigatório com o arquivamento habilitado");
+        }
+        this.registrosArquivados = Counter.builder("selco.audit.archive.records")
+                .description("Logs de acesso movidos do MongoDB para segmentos de arquivo")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Dispara o arquivamento na thread própria; execuções sobrepostas são ignoradas
+     */
+    @Scheduled(cron = "${app.audit.archive.cron:0 30 3 * * *}")
+    public void arquivar() {
+        if (!habilitado || !executando.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(this::executar);
+        } catch (RuntimeException e) {
+            executando.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Arquiva os dias mais antigos que ainda estão no MongoDB, do mais antigo para o mais recente,
+     * até max-days-per-run dias por execução
+     */
+    void executar() {
+        try {
+            LocalDate limite = LocalDate.now().minusDays(diasQuentes);
+            for (int dias = 0; dias < maxDiasPorExecucao; dias++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                LocalDate dia = diaMaisAntigo();
+                if (dia == null || !dia.isBefore(limite)) {
+                    break;
+                }
+                arquivarDia(dia);
+            }
+        } catch (Exception e) {
+            logger.error("Erro no arquivamento de logs de acesso, nova tentativa na próxima execução: {}", e.getMessage());
+        } finally {
+            executando.set(false);
+        }
+    }
+
+    private LocalDate diaMaisAntigo() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "dataHora")).limit(1);
+        query.fields().include("dataHora");
+        LogAcesso maisAntigo = mongoTemplate.findOne(query, LogAcesso.class);
+        return maisAntigo == null || maisAntigo.getDataHora() == null ? null : maisAntigo.getDataHora().toLocalDate();
+    }
+
+    /**
+     * Grava os logs do dia em um novo segmento e, após o commit (arquivos e diretório sincronizados
+     * com o disco), remove o dia do MongoDB
+     */
+    void arquivarDia(LocalDate dia) throws IOException {
+        long inicio = System.currentTimeMillis();
+        Path caminho = Paths.get(diretorio);
+        LogAcessoFiltro filtro = new LogAcessoFiltro(null, null, null, dia.atStartOfDay(), dia.plusDays(1).atStartOfDay());
+
+        try (LogAcessoSegmentWriter writer = new LogAcessoSegmentWriter(caminho, dia, tamanhoBloco)) {
+            try (Stream<LogAcesso> logs = logAcessoRepository.exportar(filtro)) {
+                for (LogAcesso log : (Iterable<LogAcesso>) logs::iterator) {
+                    writer.adicionar(log);
+                }
+            }
+            long bytes = writer.commit();
+
+            long removidos;
+            try {
+                removidos = mongoTemplate.remove(new Query(Criteria.where("dataHora")
+                        .gte(filtro.getInicio()).lt(filtro.getFim())), LogAcesso.class).getDeletedCount();
+            } catch (RuntimeException e) {
+                writer.desfazer();
+                throw e;
+            }
+
+            if (removidos != writer.getRegistros()) {
+                // Diferença indica expiração pela TTL ou gravação tardia no dia enquanto o segmento era escrito
+                logger.warn("Arquivamento de {}: {} registros no segmento e {} removidos do MongoDB",
+                        dia, writer.getRegistros(), removidos);
+            }
+            registrosArquivados.increment(writer.getRegistros());
+            logger.info("Logs de acesso de {} arquivados em {}: {} registros, {} bytes em {} ms",
+                    dia, writer.getSegmento().getFileName(), writer.getRegistros(), bytes, System.currentTimeMillis() - inicio);
+        }
+    }
+}
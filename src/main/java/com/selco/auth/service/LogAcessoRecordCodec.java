@@ -0,0 +1,119 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.LogAcesso;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Codificação binária compacta de um LogAcesso, independente do MongoDB
+ * Layout: dataHora (epoch millis), id, usuarioId, ip (0, 4 ou 16 bytes), ipTexto, userAgent, sucesso, motivo
+ * Strings usam varint(tamanho + 1) seguido de UTF-8, com 0 representando null
+ *
+ * O User-Agent é gravado em texto para que o registro não dependa do dicionário do banco
+ */
+public final class LogAcessoRecordCodec {
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private LogAcessoRecordCodec() {}
+
+    public static long paraEpochMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZONA).toInstant().toEpochMilli();
+    }
+
+    public static LocalDateTime deEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONA);
+    }
+
+    /**
+     * Acrescenta o registro codificado ao buffer
+     */
+    public static void codificar(LogAcesso log, ByteArrayOutputStream saida) {
+        escreverLong(saida, log.getDataHora() == null ? 0L : paraEpochMillis(log.getDataHora()));
+        escreverString(saida, log.getId());
+        escreverString(saida, log.getUsuarioId());
+        byte[] ip = log.getOrigem() == null ? null : log.getOrigem().getIp();
+        if (ip == null) {
+            saida.write(0);
+        } else {
+            saida.write(ip.length);
+            saida.write(ip, 0, ip.length);
+        }
+        escreverString(saida, log.getIpTexto());
+        escreverString(saida, log.getUserAgent());
+        saida.write(log.isSucesso() ? 1 : 0);
+        escreverString(saida, log.getMotivo());
+    }
+
+    /**
+     * Lê o próximo registro a partir da posição atual do buffer
+     */
+    public static LogAcesso decodificar(ByteBuffer entrada) {
+        LogAcesso log = new LogAcesso();
+        log.setDataHora(deEpochMillis(entrada.getLong()));
+        log.setId(lerString(entrada));
+        log.setUsuarioId(lerString(entrada));
+        int tamanhoIp = entrada.get() & 0xFF;
+        if (tamanhoIp > 0) {
+            byte[] ip = new byte[tamanhoIp];
+            entrada.get(ip);
+            log.getOrigem().setIp(ip);
+        }
+        log.setIpTexto(lerString(entrada));
+        log.setUserAgent(lerString(entrada));
+        log.setSucesso(entrada.get() != 0);
+        log.setMotivo(lerString(entrada));
+        return log;
+    }
+
+    private static void escreverLong(ByteArrayOutputStream saida, long valor) {
+        for (int deslocamento = 56; deslocamento >= 0; deslocamento -= 8) {
+            saida.write((int) (valor >>> deslocamento));
+        }
+    }
+
+    private static void escreverString(ByteArrayOutputStream saida, String valor) {
+        if (valor == null) {
+            saida.write(0);
+            return;
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        escreverVarint(saida, bytes.length + 1);
+        saida.write(bytes, 0, bytes.length);
+    }
+
+    private static String lerString(ByteBuffer entrada) {
+        int tamanho = lerVarint(entrada);
+        if (tamanho == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho - 1];
+        entrada.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escreverVarint(ByteArrayOutputStream saida, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            saida.write((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        saida.write(valor);
+    }
+
+    private static int lerVarint(ByteBuffer entrada) {
+        int valor = 0;
+        for (int deslocamento = 0; deslocamento < 32; deslocamento += 7) {
+            byte b = entrada.get();
+            valor |= (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Varint malformado");
+    }
+}
@@ -0,0 +1,201 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.LogAcesso;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Escrita de um segmento de arquivo de logs de acesso de um dia
+ *
+ * Segmento (.seg): cabeçalho [magic][versão] seguido de blocos
+ * [tamanho bruto][tamanho comprimido][crc32][bytes deflate], cada bloco com registros em ordem cronológica
+ * Índice esparso (.idx): [magic][versão][quantidade] e uma entrada por bloco
+ * [primeiro epoch millis][último epoch millis][offset do bloco][quantidade de registros]
+ *
+ * Os arquivos são escritos com sufixo .tmp e renomeados em commit(); o índice é renomeado por último,
+ * então um segmento só é considerado válido pelo leitor quando o .idx existe
+ */
+final class LogAcessoSegmentWriter implements Closeable {
+
+    static final int MAGIC_SEGMENTO = 0x534C4F47; // "SLOG"
+    static final int MAGIC_INDICE = 0x53494458; // "SIDX"
+    static final short VERSAO = 1;
+    static final int CABECALHO_SEGMENTO = 6;
+    static final int CABECALHO_BLOCO = 12;
+    static final int CABECALHO_INDICE = 10;
+    static final int ENTRADA_INDICE = 28;
+    static final String PREFIXO = "logs-acesso-";
+    static final String EXTENSAO_SEGMENTO = ".seg";
+    static final String EXTENSAO_INDICE = ".idx";
+
+    private final Path diretorio;
+    private final Path segmento;
+    private final Path indice;
+    private final Path segmentoTemporario;
+    private final Path indiceTemporario;
+    private final FileChannel canal;
+    private final int tamanhoBloco;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final ByteArrayOutputStream bloco;
+    private final ByteArrayOutputStream entradasIndice = new ByteArrayOutputStream();
+    private byte[] comprimido;
+
+    private long posicao;
+    private int registrosBloco;
+    private long primeiroBloco;
+    private long ultimoBloco;
+    private int blocos;
+    private long registros;
+    private boolean concluido;
+
+    LogAcessoSegmentWriter(Path diretorio, LocalDate dia, int tamanhoBloco) throws IOException {
+        Files.createDirectories(diretorio);
+        int parte = 0;
+        while (Files.exists(diretorio.resolve(nomeArquivo(dia, parte) + EXTENSAO_SEGMENTO))) {
+            parte++;
+        }
+        String base = nomeArquivo(dia, parte);
+        this.diretorio = diretorio;
+        this.segmento = diretorio.resolve(base + EXTENSAO_SEGMENTO);
+        this.indice = diretorio.resolve(base + EXTENSAO_INDICE);
+        this.segmentoTemporario = diretorio.resolve(base + EXTENSAO_SEGMENTO + ".tmp");
+        this.indiceTemporario = diretorio.resolve(base + EXTENSAO_INDICE + ".tmp");
+        this.tamanhoBloco = tamanhoBloco;
+        this.bloco = new ByteArrayOutputStream(tamanhoBloco + 1024);
+        this.comprimido = new byte[tamanhoBloco + 1024];
+
+        this.canal = FileChannel.open(segmentoTemporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_SEGMENTO).putInt(MAGIC_SEGMENTO).putShort(VERSAO).flip();
+        escrever(cabecalho);
+    }
+
+    static String nomeArquivo(LocalDate dia, int parte) {
+        return PREFIXO + dia + "." + String.format("%03d", parte);
+    }
+
+    /**
+     * Acrescenta um registro; registros devem chegar em ordem cronológica
+     */
+    void adicionar(LogAcesso log) throws IOException {
+        long epochMillis = LogAcessoRecordCodec.paraEpochMillis(log.getDataHora());
+        if (registrosBloco == 0) {
+            primeiroBloco = epochMillis;
+        }
+        ultimoBloco = epochMillis;
+        LogAcessoRecordCodec.codificar(log, bloco);
+        registrosBloco++;
+        registros++;
+
+        if (bloco.size() >= tamanhoBloco) {
+            fecharBloco();
+        }
+    }
+
+    long getRegistros() {
+        return registros;
+    }
+
+    Path getSegmento() {
+        return segmento;
+    }
+
+    /**
+     * Grava o último bloco e o índice, sincroniza com o disco e publica os arquivos
+     * O diretório também é sincronizado para que as renomeações sobrevivam a uma queda antes
+     * da remoção no MongoDB. Retorna o tamanho do segmento em bytes
+     */
+    long commit() throws IOException {
+        fecharBloco();
+        canal.force(true);
+        long tamanho = posicao;
+        canal.close();
+
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_INDICE).putInt(MAGIC_INDICE).putShort(VERSAO).putInt(blocos);
+        try (FileChannel canalIndice = FileChannel.open(indiceTemporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            canalIndice.write(cabecalho.flip());
+            canalIndice.write(ByteBuffer.wrap(entradasIndice.toByteArray()));
+            canalIndice.force(true);
+        }
+
+        Files.move(segmentoTemporario, segmento, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indiceTemporario, indice, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel canalDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canalDiretorio.force(true);
+        }
+        concluido = true;
+        return tamanho;
+    }
+
+    /**
+     * Remove os arquivos publicados, usado quando a remoção no MongoDB falha após o commit
+     */
+    void desfazer() throws IOException {
+        Files.deleteIfExists(indice);
+        Files.deleteIfExists(segmento);
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!concluido) {
+            canal.close();
+            Files.deleteIfExists(segmentoTemporario);
+            Files.deleteIfExists(indiceTemporario);
+        }
+    }
+
+    private void fecharBloco() throws IOException {
+        if (registrosBloco == 0) {
+            return;
+        }
+
+        byte[] bruto = bloco.toByteArray();
+        deflater.reset();
+        deflater.setInput(bruto);
+        deflater.finish();
+        int tamanhoComprimido = 0;
+        while (!deflater.finished()) {
+            if (tamanhoComprimido == comprimido.length) {
+                comprimido = Arrays.copyOf(comprimido, comprimido.length * 2);
+            }
+            tamanhoComprimido += deflater.deflate(comprimido, tamanhoComprimido, comprimido.length - tamanhoComprimido);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(comprimido, 0, tamanhoComprimido);
+
+        long offset = posicao;
+        ByteBuffer cabecalho = ByteBuffer.allocate(CABECALHO_BLOCO)
+                .putInt(bruto.length).putInt(tamanhoComprimido).putInt((int) crc.getValue()).flip();
+        escrever(cabecalho);
+        escrever(ByteBuffer.wrap(comprimido, 0, tamanhoComprimido));
+
+        ByteBuffer entrada = ByteBuffer.allocate(ENTRADA_INDICE)
+                .putLong(primeiroBloco).putLong(ultimoBloco).putLong(offset).putInt(registrosBloco);
+        entradasIndice.write(entrada.array(), 0, ENTRADA_INDICE);
+
+        blocos++;
+        registrosBloco = 0;
+        bloco.reset();
+    }
+
+    private void escrever(ByteBuffer dados) throws IOException {
+        while (dados.hasRemaining()) {
+            posicao += canal.write(dados);
+        }
+    }
+}
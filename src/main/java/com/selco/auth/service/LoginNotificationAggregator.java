@@ -0,0 +1,264 @@
+package com.selco.auth.service;
+
+import com.selco.auth.events.EmailParaEnvio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agregador de notificações de login com falha
+ * A primeira falha de uma janela é notificada imediatamente; as seguintes são acumuladas
+ * por destinatário e enviadas em um único resumo com contagem e IPs distintos ao fim da janela,
+ * evitando milhares de eventos e emails durante ataques de força bruta a uma conta
+ */
+@Service
+public class LoginNotificationAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginNotificationAggregator.class);
+    private static final String REDIS_PREFIX = "login-digest:";
+
+    /**
+     * Registro de uma falha em uma única ida ao Redis, de forma atômica
+     * KEYS: hash da janela, conjunto de IPs; ARGV: agora (ms), expiração (s), IP ou vazio, máximo de IPs
+     * Retorna a contagem de tentativas da janela; 1 abre a janela e é notificada na hora
+     */
+    static final RedisScript<Long> SCRIPT_REGISTRO = new DefaultRedisScript<>("""
+            local tentativas = redis.call('HINCRBY', KEYS[1], 'tentativas', 1)
+            if tentativas > 1 then
+              redis.call('HSETNX', KEYS[1], 'primeira', ARGV[1])
+              redis.call('HSET', KEYS[1], 'ultima', ARGV[1])
+              if ARGV[3] ~= '' and redis.call('SCARD', KEYS[2]) < tonumber(ARGV[4]) then
+                redis.call('SADD', KEYS[2], ARGV[3])
+                redis.call('EXPIRE', KEYS[2], ARGV[2])
+              end
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return tentativas
+            """, Long.class);
+
+    /**
+     * Lê e remove a janela de uma vez: só uma réplica recebe os dados, e a próxima falha abre uma
+     * janela nova em vez de somar à que está sendo resumida
+     * Retorna {tentativas, primeira, ultima, ips...} ou vazio se outra réplica já descarregou
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> SCRIPT_DESCARGA = new DefaultRedisScript<>("""
+            local dados = redis.call('HMGET', KEYS[1], 'tentativas', 'primeira', 'ultima')
+            if not dados[1] then
+              return {}
+            end
+            local resultado = {dados[1], dados[2] or '', dados[3] or ''}
+            for _, ip in ipairs(redis.call('SMEMBERS', KEYS[2])) do
+              table.insert(resultado, ip)
+            end
+            redis.call('DEL', KEYS[1], KEYS[2])
+            return resultado
+            """, List.class);
+
+    @Autowired
+    private EventPublisherService eventPublisherService;
+
+    @Autowired
+    private EmailEventFactory emailEventFactory;
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.email.login-digest.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.email.login-digest.window-seconds:300}")
+    private long janelaSegundos;
+
+    @Value("${app.email.login-digest.max-ips:20}")
+    private int maxIps;
+
+    @Value("${app.email.login-digest.max-recipients:10000}")
+    private int maxDestinatarios;
+
+    @Value("${app.email.login-digest.redis-enabled:false}")
+    private boolean redisHabilitado;
+
+    private final Map<String, Janela> janelas = new ConcurrentHashMap<>();
+
+    /**
+     * Registra uma tentativa de login com senha incorreta para o destinatário
+     */
+    public void registrarFalha(String destinatario, String nomeUsuario, String ipAddress) {
+        if (!habilitado) {
+            publicar(emailEventFactory.notificacaoLogin(destinatario, nomeUsuario, false, ipAddress));
+            return;
+        }
+
+        if (redisHabilitado) {
+            registrarFalhaCompartilhada(destinatario, nomeUsuario, ipAddress);
+            return;
+        }
+
+        if (!janelas.containsKey(destinatario) && janelas.size() >= maxDestinatarios) {
+            logger.warn("Limite de {} janelas de agregação atingido, notificando sem agregar", maxDestinatarios);
+            publicar(emailEventFactory.notificacaoLogin(destinatario, nomeUsuario, false, ipAddress));
+            return;
+        }
+
+        long agora = System.currentTimeMillis();
+        boolean[] primeira = new boolean[1];
+        janelas.compute(destinatario, (chave, janela) -> {
+            if (janela == null) {
+                primeira[0] = true;
+                return new Janela(nomeUsuario, agora);
+            }
+            janela.registrar(ipAddress, agora, maxIps);
+            return janela;
+        });
+
+        if (primeira[0]) {
+            publicar(emailEventFactory.notificacaoLogin(destinatario, nomeUsuario, false, ipAddress));
+        }
+    }
+
+    /**
+     * Variante compartilhada entre réplicas: contagem e IPs ficam no Redis, e a janela local
+     * apenas marca quando este nó deve tentar emitir o resumo
+     */
+    private void registrarFalhaCompartilhada(String destinatario, String nomeUsuario, String ipAddress) {
+        try {
+            String chave = REDIS_PREFIX + destinatario;
+            long agora = System.currentTimeMillis();
+
+            Long tentativas = redisTemplate.execute(SCRIPT_REGISTRO, List.of(chave, chave + ":ips"),
+                    Long.toString(agora), Long.toString(janelaSegundos * 2),
+                    ipAddress != null ? ipAddress : "", Integer.toString(maxIps));
+
+            janelas.putIfAbsent(destinatario, new Janela(nomeUsuario, agora));
+
+            if (tentativas != null && tentativas == 1) {
+                publicar(emailEventFactory.notificacaoLogin(destinatario, nomeUsuario, false, ipAddress));
+            }
+        } catch (Exception e) {
+            logger.warn("Redis indisponível para agregação de notificações, notificando sem agregar: {}", e.getMessage());
+            publicar(emailEventFactory.notificacaoLogin(destinatario, nomeUsuario, false, ipAddress));
+        }
+    }
+
+    /**
+     * Fecha as janelas vencidas e publica os resumos pendentes
+     */
+    @Scheduled(fixedDelayString = "${app.email.login-digest.flush-interval-ms:5000}")
+    public void descarregarJanelas() {
+        long limite = System.currentTimeMillis() - janelaSegundos * 1000;
+        for (Map.Entry<String, Janela> entrada : janelas.entrySet()) {
+            Janela janela = entrada.getValue();
+            if (janela.inicioMillis > limite || !janelas.remove(entrada.getKey(), janela)) {
+                continue;
+            }
+
+            if (redisHabilitado) {
+                descarregarJanelaCompartilhada(entrada.getKey(), janela);
+            } else if (janela.tentativasAgregadas > 0) {
+                publicar(emailEventFactory.resumoLoginFalha(entrada.getKey(), janela.nomeUsuario,
+                        janela.tentativasAgregadas, janela.getIps(),
+                        paraData(janela.primeiraAgregadaMillis), paraData(janela.ultimaMillis)));
+            }
+        }
+    }
+
+    private void descarregarJanelaCompartilhada(String destinatario, Janela janela) {
+        try {
+            String chave = REDIS_PREFIX + destinatario;
+            List<?> dados = redisTemplate.execute(SCRIPT_DESCARGA, List.of(chave, chave + ":ips"));
+            if (dados == null || dados.isEmpty()) {
+                return;
+            }
+
+            int tentativas = Integer.parseInt(String.valueOf(dados.get(0)));
+            if (tentativas > 1) {
+                List<String> listaIps = new ArrayList<>();
+                for (int i = 3; i < dados.size(); i++) {
+                    listaIps.add(String.valueOf(dados.get(i)));
+                }
+                publicar(emailEventFactory.resumoLoginFalha(destinatario, janela.nomeUsuario, tentativas - 1, listaIps,
+                        paraData(Long.parseLong(String.valueOf(dados.get(1)))),
+                        paraData(Long.parseLong(String.valueOf(dados.get(2))))));
+            }
+        } catch (Exception e) {
+            logger.warn("Erro ao descarregar resumo compartilhado de {}: {}", destinatario, e.getMessage());
+        }
+    }
+
+    private void publicar(EmailParaEnvio email) {
+        try {
+            eventPublisherService.publicarNotificacaoLogin(email);
+        } catch (Exception e) {
+            logger.warn("Erro ao enviar notificação de login falhado: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime paraData(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Número de destinatários com janela de agregação aberta
+     */
+    public int getJanelasAbertas() {
+        return janelas.size();
+    }
+
+    /**
+     * Estado compacto de uma janela: contadores primitivos e um array pequeno de IPs distintos
+     * Mutado apenas dentro de ConcurrentHashMap.compute, sob o lock da chave
+     */
+    private static final class Janela {
+        private final String nomeUsuario;
+        private final long inicioMillis;
+        private long primeiraAgregadaMillis;
+        private long ultimaMillis;
+        private int tentativasAgregadas;
+        private String[] ips = new String[0];
+
+        private Janela(String nomeUsuario, long inicioMillis) {
+            this.nomeUsuario = nomeUsuario;
+            this.inicioMillis = inicioMillis;
+            this.ultimaMillis = inicioMillis;
+        }
+
+        private void registrar(String ip, long agora, int maxIps) {
+            if (tentativasAgregadas == 0) {
+                primeiraAgregadaMillis = agora;
+            }
+            tentativasAgregadas++;
+            ultimaMillis = agora;
+
+            if (ip == null || ips.length >= maxIps) {
+                return;
+            }
+            for (String existente : ips) {
+                if (existente.equals(ip)) {
+                    return;
+                }
+            }
+            ips = Arrays.copyOf(ips, ips.length + 1);
+            ips[ips.length - 1] = ip;
+        }
+
+        private List<String> getIps() {
+            return List.of(ips);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.selco.auth.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.selco.auth.model.EstatisticaLogin;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de login por minuto mantidos em memória e consolidados periodicamente em login_stats
+ * Cada login incrementa três contadores (global, ip e tipoUsuario); a descarga envia apenas os deltas
+ * acumulados em um único bulk de upserts com $inc, de modo que várias réplicas podem somar no mesmo documento
+ */
+@Service
+public class LoginStatsAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginStatsAggregator.class);
+    private static final String VALOR_GLOBAL = "*";
+    private static final String VALOR_OUTROS = "outros";
+    private static final String TIPO_DESCONHECIDO = "DESCONHECIDO";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.stats.login.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.stats.login.max-ips-per-minute:5000}")
+    private int maxIpsPorMinuto;
+
+    private final Map<Chave, Contadores> contadores = new ConcurrentHashMap<>();
+    private final Map<LocalDateTime, AtomicLong> ipsPorMinuto = new ConcurrentHashMap<>();
+
+    private Counter falhasDescarga;
+
+    @PostConstruct
+    public void init() {
+        this.falhasDescarga = Counter.builder("selco.stats.login.flush.failures")
+                .description("Descargas de contadores de login que falharam e serão repetidas")
+                .register(meterRegistry);
+        Gauge.builder("selco.stats.login.pending_keys", contadores, Map::size)
+                .description("Chaves de contadores de login ainda em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o resultado de uma tentativa de login no minuto corrente
+     */
+    public void registrar(String ip, String tipoUsuario, boolean sucesso) {
+        if (!habilitado) {
+            return;
+        }
+
+        LocalDateTime minuto = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        incrementar(new Chave(EstatisticaLogin.DIMENSAO_GLOBAL, VALOR_GLOBAL, minuto), sucesso);
+        incrementar(new Chave(EstatisticaLogin.DIMENSAO_TIPO_USUARIO, tipoUsuario == null ? TIPO_DESCONHECIDO : tipoUsuario, minuto), sucesso);
+        incrementar(new Chave(EstatisticaLogin.DIMENSAO_IP, valorIp(ip, minuto), minuto), sucesso);
+    }
+
+    /**
+     * Limita a cardinalidade de IPs por minuto; acima do limite os IPs novos são somados em "outros"
+     */
+    private String valorIp(String ip, LocalDateTime minuto) {
+        String valor = ip == null ? TIPO_DESCONHECIDO : ip;
+        if (contadores.containsKey(new Chave(EstatisticaLogin.DIMENSAO_IP, valor, minuto))) {
+            return valor;
+        }
+        AtomicLong distintos = ipsPorMinuto.computeIfAbsent(minuto, m -> new AtomicLong());
+        return distintos.incrementAndGet() <= maxIpsPorMinuto ? valor : VALOR_OUTROS;
+    }
+
+    private void incrementar(Chave chave, boolean sucesso) {
+        Contadores contador = contadores.computeIfAbsent(chave, c -> new Contadores());
+        (sucesso ? contador.sucessos : contador.falhas).incrementAndGet();
+    }
+
+    /**
+     * Envia os deltas acumulados para login_stats
+     * Chaves de minutos encerrados há mais de um minuto e sem deltas pendentes são removidas da memória;
+     * como novos registros sempre usam o minuto corrente, nenhum incremento é perdido na remoção
+     */
+    @Scheduled(fixedDelayString = "${app.stats.login.flush-interval-ms:10000}")
+    public void descarregar() {
+        if (contadores.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime limiteRemocao = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(1);
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<Chave, Contadores> entrada : contadores.entrySet()) {
+            Contadores contador = entrada.getValue();
+            long sucessos = contador.sucessos.getAndSet(0);
+            long falhas = contador.falhas.getAndSet(0);
+            if (sucessos != 0 || falhas != 0) {
+                deltas.add(new Delta(entrada.getKey(), contador, sucessos, falhas));
+            } else if (entrada.getKey().minuto.isBefore(limiteRemocao)) {
+                contadores.remove(entrada.getKey(), contador);
+            }
+        }
+        ipsPorMinuto.keySet().removeIf(minuto -> minuto.isBefore(limiteRemocao));
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EstatisticaLogin.class);
+            for (Delta delta : deltas) {
+                Chave chave = delta.chave;
+                Update update = new Update()
+                        .inc("sucessos", delta.sucessos)
+                        .inc("falhas", delta.falhas)
+                        .setOnInsert("dimensao", chave.dimensao)
+                        .setOnInsert("valor", chave.valor)
+                        .setOnInsert("minuto", chave.minuto);
+                bulk.upsert(new Query(Criteria.where("_id").is(EstatisticaLogin.gerarId(chave.dimensao, chave.valor, chave.minuto))), update);
+            }
+            bulk.execute();
+            logger.debug("Estatísticas de login descarregadas: {} documentos", deltas.size());
+        } catch (BulkOperationException e) {
+            // Bulk não ordenado: apenas as operações com erro voltam para a próxima descarga
+            for (BulkWriteError erro : e.getErrors()) {
+                devolver(deltas.get(erro.getIndex()));
+            }
+            falhasDescarga.increment();
+            logger.warn("{} de {} estatísticas de login não foram gravadas, nova tentativa na próxima descarga",
+                    e.getErrors().size(), deltas.size());
+        } catch (Exception e) {
+            deltas.forEach(this::devolver);
+            falhasDescarga.increment();
+            logger.warn("Erro ao descarregar estatísticas de login, nova tentativa na próxima descarga: {}", e.getMessage());
+        }
+    }
+
+    private void devolver(Delta delta) {
+        delta.contador.sucessos.addAndGet(delta.sucessos);
+        delta.contador.falhas.addAndGet(delta.falhas);
+        contadores.putIfAbsent(delta.chave, delta.contador);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        descarregar();
+    }
+
+    private record Chave(String dimensao, String valor, LocalDateTime minuto) {
+    }
+
+    private static final class Contadores {
+        private final AtomicLong sucessos = new AtomicLong();
+        private final AtomicLong falhas = new AtomicLong();
+    }
+
+    private record Delta(Chave chave, Contadores contador, long sucessos, long falhas) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.selco.auth.service;
+
+import com.selco.auth.dto.EstatisticaLoginSerieDTO;
+import com.selco.auth.model.EstatisticaLogin;
+import com.selco.auth.repository.EstatisticaLoginRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consulta de séries de login a partir dos rollups por minuto em login_stats
+ * O custo depende apenas do período e do número de valores da dimensão, nunca do volume de logs_acesso
+ */
+@Service
+public class LoginStatsService {
+
+    private static final Set<String> DIMENSOES = Set.of(
+            EstatisticaLogin.DIMENSAO_GLOBAL, EstatisticaLogin.DIMENSAO_IP, EstatisticaLogin.DIMENSAO_TIPO_USUARIO);
+
+    @Autowired
+    private EstatisticaLoginRepository estatisticaLoginRepository;
+
+    @Value("${app.stats.login.max-range-hours:168}")
+    private long periodoMaximoHoras;
+
+    /**
+     * Busca as séries da dimensão no período [inicio, fim), agrupadas em intervalos de intervaloMinutos
+     * Sem valor, retorna uma série por valor da dimensão (exceto ip, que exige valor)
+     * Lança IllegalArgumentException para parâmetros inválidos
+     */
+    public List<EstatisticaLoginSerieDTO> buscarSeries(String dimensao, String valor, LocalDateTime inicio,
+                                                       LocalDateTime fim, int intervaloMinutos) {
+        if (!DIMENSOES.contains(dimensao)) {
+            throw new IllegalArgumentException("Dimensão inválida: " + dimensao);
+        }
+        if (EstatisticaLogin.DIMENSAO_IP.equals(dimensao) && (valor == null || valor.isBlank())) {
+            throw new IllegalArgumentException("Dimensão ip exige valor");
+        }
+        if (intervaloMinutos <= 0 || intervaloMinutos > 1440) {
+            throw new IllegalArgumentException("Intervalo deve estar entre 1 e 1440 minutos");
+        }
+        if (!inicio.isBefore(fim) || Duration.between(inicio, fim).toHours() > periodoMaximoHoras) {
+            throw new IllegalArgumentException("Período inválido ou maior que " + periodoMaximoHoras + " horas");
+        }
+
+        Range<LocalDateTime> periodo = Range.rightOpen(inicio, fim);
+        List<EstatisticaLogin> rollups;
+        if (EstatisticaLogin.DIMENSAO_GLOBAL.equals(dimensao)) {
+            rollups = estatisticaLoginRepository.findByDimensaoAndValorAndMinutoBetweenOrderByMinutoAsc(dimensao, "*", periodo);
+        } else if (valor != null && !valor.isBlank()) {
+            rollups = estatisticaLoginRepository.findByDimensaoAndValorAndMinutoBetweenOrderByMinutoAsc(dimensao, valor, periodo);
+        } else {
+            rollups = estatisticaLoginRepository.findByDimensaoAndMinutoBetweenOrderByValorAscMinutoAsc(dimensao, periodo);
+        }
+
+        LocalDateTime base = inicio.truncatedTo(ChronoUnit.MINUTES);
+        Map<String, EstatisticaLoginSerieDTO> series = new LinkedHashMap<>();
+        for (EstatisticaLogin rollup : rollups) {
+            EstatisticaLoginSerieDTO serie = series.computeIfAbsent(rollup.getValor(),
+                    v -> new EstatisticaLoginSerieDTO(dimensao, v));
+            long deslocamento = ChronoUnit.MINUTES.between(base, rollup.getMinuto()) / intervaloMinutos * intervaloMinutos;
+            LocalDateTime inicioIntervalo = base.plusMinutes(deslocamento);
+
+            List<EstatisticaLoginSerieDTO.Ponto> pontos = serie.getPontos();
+            EstatisticaLoginSerieDTO.Ponto ultimo = pontos.isEmpty() ? null : pontos.get(pontos.size() - 1);
+            if (ultimo != null && ultimo.getInicio().equals(inicioIntervalo)) {
+                ultimo.setSucessos(ultimo.getSucessos() + rollup.getSucessos());
+                ultimo.setFalhas(ultimo.getFalhas() + rollup.getFalhas());
+            } else {
+                pontos.add(new EstatisticaLoginSerieDTO.Ponto(inicioIntervalo, rollup.getSucessos(), rollup.getFalhas()));
+            }
+        }
+        return new ArrayList<>(series.values());
+    }
+}
@@ -0,0 +1,317 @@
+package com.selco.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controle de publisher confirms do RabbitMQ
+ * Acompanha as mensagens em voo, reenvia com backoff as que receberam nack ou ficaram sem confirm
+ * por app.rabbitmq.publisher.confirm-timeout-ms, e expõe métricas de latência e taxa de nack.
+ * Esgotadas as tentativas, a mensagem vai para o EventSpillJournal, que a reenvia quando o broker
+ * voltar; só é descartada se o journal recusar. Como entra no fim do journal, pode ser entregue
+ * depois de eventos publicados mais tarde (ver EventSpillJournal)
+ *
+ * Mensagens devolvidas pelo broker (sem fila para a routing key) não são reenviadas: a devolução se
+ * repete enquanto a topologia não existir, e pelo journal o reenvio entraria em ciclo. São contadas
+ * em selco.events.publish.returned e descartadas com WARN
+ */
+@Component
+public class PublisherConfirmTracker implements RabbitTemplate.ConfirmCallback, RabbitTemplate.ReturnsCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublisherConfirmTracker.class);
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EventSpillJournal eventSpillJournal;
+
+    @Value("${app.rabbitmq.publisher.confirms-enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.rabbitmq.publisher.max-in-flight:1000}")
+    private int maxEmVoo;
+
+    @Value("${app.rabbitmq.publisher.in-flight-wait-ms:50}")
+    private long esperaJanelaMs;
+
+    @Value("${app.rabbitmq.publisher.max-retries:5}")
+    private int maxTentativas;
+
+    @Value("${app.rabbitmq.publisher.retry-initial-backoff-ms:200}")
+    private long backoffInicialMs;
+
+    @Value("${app.rabbitmq.publisher.retry-max-backoff-ms:10000}")
+    private long backoffMaximoMs;
+
+    @Value("${app.rabbitmq.publisher.confirm-timeout-ms:30000}")
+    private long timeoutConfirmMs;
+
+    private final Map<String, PublicacaoPendente> pendentes = new ConcurrentHashMap<>();
+    private final AtomicLong totalAcks = new AtomicLong();
+    private final AtomicLong totalNacks = new AtomicLong();
+
+    private Semaphore janela;
+    private ScheduledExecutorService reenvioExecutor;
+
+    private Timer latenciaConfirmacao;
+    private Counter acks;
+    private Counter nacks;
+    private Counter devolvidas;
+    private Counter reenvios;
+    private Counter expiradas;
+    private Counter journaladas;
+    private Counter descartadas;
+
+    @PostConstruct
+    public void init() {
+        this.janela = new Semaphore(maxEmVoo);
+        this.reenvioExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rabbit-publisher-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        rabbitTemplate.setConfirmCallback(this);
+        rabbitTemplate.setReturnsCallback(this);
+
+        this.latenciaConfirmacao = Timer.builder("selco.events.publish.confirm.latency")
+                .description("Tempo entre o envio e o confirm do broker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.acks = Counter.builder("selco.events.publish.confirms").tag("result", "ack").register(meterRegistry);
+        this.nacks = Counter.builder("selco.events.publish.confirms").tag("result", "nack").register(meterRegistry);
+        this.devolvidas = Counter.builder("selco.events.publish.returned").register(meterRegistry);
+        this.reenvios = Counter.builder("selco.events.publish.retries").register(meterRegistry);
+        this.expiradas = Counter.builder("selco.events.publish.confirm.timeouts")
+                .description("Mensagens sem confirm dentro de app.rabbitmq.publisher.confirm-timeout-ms")
+                .register(meterRegistry);
+        this.journaladas = Counter.builder("selco.events.publish.spilled")
+                .description("Mensagens enviadas ao journal local após esgotar as tentativas")
+                .register(meterRegistry);
+        this.descartadas = Counter.builder("selco.events.publish.dropped").register(meterRegistry);
+
+        Gauge.builder("selco.events.publish.in_flight", pendentes, Map::size)
+                .description("Mensagens publicadas aguardando confirm")
+                .register(meterRegistry);
+        Gauge.builder("selco.events.publish.nack_ratio", this, PublisherConfirmTracker::calcularTaxaNack)
+                .description("Fração de confirms negativos desde o início")
+                .register(meterRegistry);
+
+        if (habilitado) {
+            long intervaloMs = Math.max(100, timeoutConfirmMs / 4);
+            reenvioExecutor.scheduleWithFixedDelay(this::expirarConfirmacoes, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reenvioExecutor.shutdownNow();
+        if (!pendentes.isEmpty()) {
+            logger.warn("Encerrando com {} mensagens sem confirmação do broker", pendentes.size());
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Publica a mensagem de forma assíncrona, aguardando o confirm do broker em segundo plano
+     * Lança AmqpException se a janela de mensagens em voo estiver cheia ou o envio falhar
+     */
+    public void publicar(String exchange, String routingKey, Message mensagem) {
+        try {
+            if (!janela.tryAcquire(esperaJanelaMs, TimeUnit.MILLISECONDS)) {
+                throw new AmqpException("Limite de " + maxEmVoo + " mensagens em voo atingido");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Publicação interrompida", e);
+        }
+
+        PublicacaoPendente pendente = new PublicacaoPendente(UUID.randomUUID().toString(), exchange, routingKey, mensagem);
+        pendentes.put(pendente.id, pendente);
+        try {
+            enviar(pendente);
+        } catch (RuntimeException e) {
+            liberar(pendente);
+            throw e;
+        }
+    }
+
+    private void enviar(PublicacaoPendente pendente) {
+        pendente.enviadoEmNanos = System.nanoTime();
+        pendente.aguardandoConfirm.set(true);
+        rabbitTemplate.send(pendente.exchange, pendente.routingKey, pendente.mensagem, new CorrelationData(pendente.id));
+    }
+
+    @Override
+    public void confirm(CorrelationData correlationData, boolean ack, String cause) {
+        if (correlationData == null || correlationData.getId() == null) {
+            return;
+        }
+
+        PublicacaoPendente pendente = pendentes.get(correlationData.getId());
+        // Só quem troca aguardandoConfirm trata o envio: o confirm ou a expiração, nunca os dois
+        if (pendente == null || !pendente.aguardandoConfirm.compareAndSet(true, false)) {
+            return;
+        }
+
+        latenciaConfirmacao.record(System.nanoTime() - pendente.enviadoEmNanos, TimeUnit.NANOSECONDS);
+
+        if (ack) {
+            acks.increment();
+            totalAcks.incrementAndGet();
+            liberar(pendente);
+            if (correlationData.getReturned() != null) {
+                descartadas.increment();
+                logger.warn("Mensagem sem rota descartada (exchange={}, routingKey={}): {} {}",
+                        pendente.exchange, pendente.routingKey,
+                        correlationData.getReturned().getReplyCode(), correlationData.getReturned().getReplyText());
+            }
+            return;
+        }
+
+        nacks.increment();
+        totalNacks.incrementAndGet();
+        agendarReenvio(pendente, cause);
+    }
+
+    @Override
+    public void returnedMessage(ReturnedMessage returned) {
+        devolvidas.increment();
+        logger.warn("Mensagem devolvida pelo broker: exchange={}, routingKey={}, motivo={} {}",
+                returned.getExchange(), returned.getRoutingKey(), returned.getReplyCode(), returned.getReplyText());
+    }
+
+    /**
+     * Trata como nack as mensagens sem confirm há mais de app.rabbitmq.publisher.confirm-timeout-ms
+     * Sem isso, um confirm perdido (canal fechado, broker reiniciado) prenderia a entrada e sua vaga na janela
+     */
+    void expirarConfirmacoes() {
+        long limite = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(timeoutConfirmMs);
+        for (PublicacaoPendente pendente : pendentes.values()) {
+            if (pendente.enviadoEmNanos - limite < 0 && pendente.aguardandoConfirm.compareAndSet(true, false)) {
+                expiradas.increment();
+                agendarReenvio(pendente, "sem confirm em " + timeoutConfirmMs + " ms");
+            }
+        }
+    }
+
+    /**
+     * Agenda novo envio com backoff exponencial ou, após o limite de tentativas, passa a mensagem ao journal
+     */
+    private void agendarReenvio(PublicacaoPendente pendente, String motivo) {
+        int tentativa = pendente.tentativas.incrementAndGet();
+        if (tentativa > maxTentativas) {
+            desistir(pendente, "após " + maxTentativas + " tentativas: " + motivo);
+            return;
+        }
+
+        long atrasoMs = calcularBackoff(tentativa);
+        logger.warn("Falha na confirmação da mensagem (tentativa {}/{}), reenviando em {} ms: {}",
+                tentativa, maxTentativas, atrasoMs, motivo);
+
+        try {
+            reenvioExecutor.schedule(() -> reenviar(pendente), atrasoMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            desistir(pendente, "reenvio não agendado: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tira a mensagem da janela e a guarda no journal, que a reenvia em ordem quando o broker voltar
+     */
+    private void desistir(PublicacaoPendente pendente, String motivo) {
+        liberar(pendente);
+        if (eventSpillJournal.anexar(pendente.exchange, pendente.routingKey, pendente.mensagem)) {
+            journaladas.increment();
+            logger.warn("Mensagem guardada no journal local (exchange={}, routingKey={}) {}",
+                    pendente.exchange, pendente.routingKey, motivo);
+        } else {
+            descartadas.increment();
+            logger.error("Mensagem descartada, journal local indisponível (exchange={}, routingKey={}) {}",
+                    pendente.exchange, pendente.routingKey, motivo);
+        }
+    }
+
+    private void reenviar(PublicacaoPendente pendente) {
+        try {
+            reenvios.increment();
+            enviar(pendente);
+        } catch (AmqpException e) {
+            if (pendente.aguardandoConfirm.compareAndSet(true, false)) {
+                agendarReenvio(pendente, e.getMessage());
+            }
+        }
+    }
+
+    long calcularBackoff(int tentativa) {
+        long atraso = backoffInicialMs << Math.min(tentativa - 1, 20);
+        return Math.min(atraso, backoffMaximoMs);
+    }
+
+    private void liberar(PublicacaoPendente pendente) {
+        if (pendentes.remove(pendente.id) != null) {
+            janela.release();
+        }
+    }
+
+    private double calcularTaxaNack() {
+        long total = totalAcks.get() + totalNacks.get();
+        return total == 0 ? 0.0 : (double) totalNacks.get() / total;
+    }
+
+    /**
+     * Número de mensagens aguardando confirmação do broker
+     */
+    public int getMensagensEmVoo() {
+        return pendentes.size();
+    }
+
+    private static final class PublicacaoPendente {
+        private final String id;
+        private final String exchange;
+        private final String routingKey;
+        private final Message mensagem;
+        private final AtomicInteger tentativas = new AtomicInteger();
+        private final AtomicBoolean aguardandoConfirm = new AtomicBoolean();
+        private volatile long enviadoEmNanos;
+
+        private PublicacaoPendente(String id, String exchange, String routingKey, Message mensagem) {
+            this.id = id;
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.mensagem = mensagem;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.selco.auth.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Blacklist de tokens no Redis, uma chave por token com TTL igual ao tempo restante do token
+ */
+@Component
+@ConditionalOnProperty(name = "app.blacklist.store", havingValue = "redis", matchIfMissing = true)
+public class RedisTokenBlacklistStore implements TokenBlacklistStore {
+
+    private static final String BLACKLIST_PREFIX = "blacklist:token:";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Override
+    public void adicionar(String token, Duration ttl) {
+        redisTemplate.opsForValue().set(BLACKLIST_PREFIX + token, "blacklisted", ttl);
+    }
+
+    @Override
+    public boolean contem(String token) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + token));
+    }
+
+    @Override
+    public long limpar() {
+        var keys = redisTemplate.keys(BLACKLIST_PREFIX + "*");
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        Long removidas = redisTemplate.delete(keys);
+        return removidas != null ? removidas : 0;
+    }
+
+    @Override
+    public long tamanho() {
+        var keys = redisTemplate.keys(BLACKLIST_PREFIX + "*");
+        return keys != null ? keys.size() : 0;
+    }
+}
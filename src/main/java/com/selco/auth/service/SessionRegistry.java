@@ -0,0 +1,252 @@
+package com.selco.auth.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.selco.auth.dto.SessaoDTO;
+import com.selco.auth.model.Token;
+import com.selco.auth.repository.TokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro das sessões emitidas no login (coleção tokens), com listagem e revogação por sessão
+ *
+ * O último acesso não gera uma escrita por requisição: cada sessão é amostrada no máximo uma vez por
+ * app.sessions.last-seen.resolution-seconds, os acessos amostrados são coalescidos em memória por
+ * sessão e descarregados em um único bulk não ordenado com $max, de modo que várias réplicas podem
+ * gravar a mesma sessão sem voltar o horário. A listagem completa o valor gravado com o pendente
+ */
+@Service
+public class SessionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistry.class);
+    private static final int MAX_DISPOSITIVO = 512;
+
+    @Autowired
+    private TokenRepository tokenRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TokenBlacklistService tokenBlacklistService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.sessions.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.sessions.max-list:50}")
+    private int maxListagem;
+
+    @Value("${app.sessions.last-seen.enabled:true}")
+    private boolean ultimoAcessoHabilitado;
+
+    @Value("${app.sessions.last-seen.resolution-seconds:60}")
+    private long resolucaoSegundos;
+
+    @Value("${app.sessions.last-seen.max-pending:100000}")
+    private int maxPendentes;
+
+    // Sessão -> último acesso amostrado ainda não gravado
+    private final Map<String, LocalDateTime> pendentes = new ConcurrentHashMap<>();
+    // Sessão -> instante (epoch ms) da última amostra aceita, para a resolução
+    private final Map<String, Long> amostradas = new ConcurrentHashMap<>();
+
+    private Counter gravacoes;
+    private Counter descartes;
+    private Counter falhasDescarga;
+
+    @PostConstruct
+    public void init() {
+        gravacoes = Counter.builder("selco.sessions.last_seen.writes")
+                .description("Sessões com último acesso gravado")
+                .register(meterRegistry);
+        descartes = Counter.builder("selco.sessions.last_seen.dropped")
+                .description("Acessos não registrados por excederem app.sessions.last-seen.max-pending")
+                .register(meterRegistry);
+        falhasDescarga = Counter.builder("selco.sessions.last_seen.flush.failures")
+                .description("Descargas de último acesso que falharam e serão repetidas")
+                .register(meterRegistry);
+        Gauge.builder("selco.sessions.last_seen.pending", pendentes, Map::size)
+                .description("Sessões com último acesso aguardando gravação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ID da nova sessão, que vai nos tokens antes do registro; nulo com o registro desligado
+     */
+    public String gerarId() {
+        return habilitado ? new ObjectId().toHexString() : null;
+    }
+
+    /**
+     * Grava a sessão do login; uma falha não impede o login, apenas deixa a sessão fora da listagem
+     */
+    public void registrar(String sessaoId, String usuarioId, String refreshToken, LocalDateTime dataExpiracao,
+                          String dispositivo, String ip) {
+        if (sessaoId == null) {
+            return;
+        }
+        try {
+            Token sessao = new Token(usuarioId, refreshToken, dataExpiracao);
+            sessao.setId(sessaoId);
+            sessao.setDispositivo(dispositivo != null && dispositivo.length() > MAX_DISPOSITIVO
+                    ? dispositivo.substring(0, MAX_DISPOSITIVO) : dispositivo);
+            sessao.setIp(ip);
+            sessao.setUltimoAcesso(sessao.getDataCriacao());
+            tokenRepository.insert(sessao);
+        } catch (Exception e) {
+            logger.warn("Sessão {} do usuário {} não registrada: {}", sessaoId, usuarioId, e.getMessage());
+        }
+    }
+
+    /**
+     * Registra o uso de um token da sessão, sem acesso ao banco
+     */
+    public void registrarAcesso(String sessaoId) {
+        if (!habilitado || !ultimoAcessoHabilitado || sessaoId == null) {
+            return;
+        }
+
+        long agora = System.currentTimeMillis();
+        Long anterior = amostradas.get(sessaoId);
+        if (anterior != null && agora - anterior < TimeUnit.SECONDS.toMillis(resolucaoSegundos)) {
+            return;
+        }
+        if (pendentes.size() >= maxPendentes && !pendentes.containsKey(sessaoId)) {
+            descartes.increment();
+            return;
+        }
+        amostradas.put(sessaoId, agora);
+        pendentes.put(sessaoId, LocalDateTime.now());
+    }
+
+    /**
+     * Grava os últimos acessos pendentes em um único bulk
+     */
+    @Scheduled(fixedDelayString = "${app.sessions.last-seen.flush-interval-ms:10000}")
+    public void descarregar() {
+        long limiteAmostra = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(resolucaoSegundos);
+        amostradas.values().removeIf(instante -> instante < limiteAmostra);
+        if (pendentes.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, LocalDateTime>> lote = new ArrayList<>();
+        for (Map.Entry<String, LocalDateTime> entrada : pendentes.entrySet()) {
+            if (pendentes.remove(entrada.getKey(), entrada.getValue())) {
+                lote.add(entrada);
+            }
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class);
+            for (Map.Entry<String, LocalDateTime> entrada : lote) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(entrada.getKey())),
+                        new Update().max("ultimoAcesso", entrada.getValue()));
+            }
+            bulk.execute();
+            gravacoes.increment(lote.size());
+            logger.debug("Último acesso gravado para {} sessões", lote.size());
+        } catch (BulkOperationException e) {
+            // Bulk não ordenado: apenas as operações com erro voltam para a próxima descarga
+            for (BulkWriteError erro : e.getErrors()) {
+                devolver(lote.get(erro.getIndex()));
+            }
+            gravacoes.increment(lote.size() - e.getErrors().size());
+            falhasDescarga.increment();
+            logger.warn("{} de {} últimos acessos não foram gravados, nova tentativa na próxima descarga",
+                    e.getErrors().size(), lote.size());
+        } catch (Exception e) {
+            lote.forEach(this::devolver);
+            falhasDescarga.increment();
+            logger.warn("Erro ao gravar últimos acessos, nova tentativa na próxima descarga: {}", e.getMessage());
+        }
+    }
+
+    private void devolver(Map.Entry<String, LocalDateTime> entrada) {
+        pendentes.merge(entrada.getKey(), entrada.getValue(), (atual, devolvido) -> atual.isAfter(devolvido) ? atual : devolvido);
+    }
+
+    /**
+     * Sessões ativas do usuário, da mais recente para a mais antiga
+     */
+    public List<SessaoDTO> listar(String usuarioId, String sessaoAtual) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<SessaoDTO> sessoes = new ArrayList<>();
+        // O monitor de TTL do MongoDB remove as expiradas a cada minuto; até lá são filtradas aqui
+        for (Token sessao : tokenRepository.findByUsuarioIdOrderByDataCriacaoDesc(usuarioId, PageRequest.of(0, maxListagem))) {
+            if (sessao.getDataExpiracao() != null && sessao.getDataExpiracao().isBefore(agora)) {
+                continue;
+            }
+            LocalDateTime ultimoAcesso = sessao.getUltimoAcesso();
+            LocalDateTime pendente = pendentes.get(sessao.getId());
+            if (pendente != null && (ultimoAcesso == null || pendente.isAfter(ultimoAcesso))) {
+                ultimoAcesso = pendente;
+            }
+            sessoes.add(SessaoDTO.de(sessao, ultimoAcesso, sessao.getId().equals(sessaoAtual)));
+        }
+        return sessoes;
+    }
+
+    /**
+     * Revoga a sessão se ela pertencer ao usuário: os tokens da sessão passam a ser recusados e o registro é removido
+     *
+     * @return false se a sessão não existe ou é de outro usuário
+     */
+    public boolean revogar(String sessaoId, String usuarioId) {
+        Optional<Token> sessao = tokenRepository.findById(sessaoId);
+        if (sessao.isEmpty() || !sessao.get().getUsuarioId().equals(usuarioId)) {
+            return false;
+        }
+        encerrar(sessaoId);
+        return true;
+    }
+
+    /**
+     * Encerra a sessão no logout ou na revogação; a blacklist vem antes da remoção para que uma falha
+     * não deixe a sessão fora da listagem e ainda válida
+     */
+    public void encerrar(String sessaoId) {
+        if (sessaoId == null) {
+            return;
+        }
+        tokenBlacklistService.revogarSessao(sessaoId);
+        pendentes.remove(sessaoId);
+        tokenRepository.deleteById(sessaoId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        descarregar();
+    }
+}
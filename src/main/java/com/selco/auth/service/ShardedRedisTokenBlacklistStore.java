@@ -0,0 +1,313 @@
+package com.selco.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Blacklist de tokens distribuída em vários Redis por um anel de hash consistente (app.blacklist.store=sharded)
+ *
+ * Cada token fica em um único nó, escolhido pelo hash do próprio token; as chaves têm o mesmo formato
+ * de RedisTokenBlacklistStore. Um nó que falha fica fora por app.blacklist.sharded.retry-interval-ms
+ * e, enquanto isso, a consulta segue app.blacklist.sharded.failure-policy:
+ *   open    token considerado válido (disponibilidade; revogações do nó ficam sem efeito)
+ *   closed  token considerado revogado (segurança; usuários daquele nó precisam de novo login)
+ * A gravação em um nó indisponível falha e o logout retorna erro.
+ *
+ * Para adicionar nós, a lista anterior vai em app.blacklist.sharded.previous-nodes: a consulta cai no
+ * dono antigo quando o novo não tem o token, e a subida move as chaves para os novos donos.
+ * Depois da migração (ou do maior TTL de token) a lista anterior pode ser removida
+ */
+@Component
+@ConditionalOnProperty(name = "app.blacklist.store", havingValue = "sharded")
+public class ShardedRedisTokenBlacklistStore implements TokenBlacklistStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedRedisTokenBlacklistStore.class);
+
+    private static final String BLACKLIST_PREFIX = "blacklist:token:";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.blacklist.sharded.nodes:}")
+    private String nos;
+
+    @Value("${app.blacklist.sharded.previous-nodes:}")
+    private String nosAnteriores;
+
+    @Value("${app.blacklist.sharded.virtual-nodes:160}")
+    private int nosVirtuais;
+
+    @Value("${app.blacklist.sharded.failure-policy:open}")
+    private String politicaFalha;
+
+    @Value("${app.blacklist.sharded.retry-interval-ms:5000}")
+    private long intervaloRetentativaMs;
+
+    @Value("${app.blacklist.sharded.timeout-ms:500}")
+    private long timeoutMs;
+
+    @Value("${app.blacklist.sharded.rebalance-on-startup:true}")
+    private boolean rebalancearNaSubida;
+
+    @Value("${spring.data.redis.password:}")
+    private String senha;
+
+    private final Map<String, Shard> shards = new LinkedHashMap<>();
+    private final List<LettuceConnectionFactory> fabricas = new ArrayList<>();
+    private ConsistentHashRing anel;
+    private ConsistentHashRing anelAnterior;
+    private boolean falhaFechada;
+    private Counter migrados;
+
+    /**
+     * Um nó do anel; fica marcado como indisponível por um intervalo depois de uma falha
+     */
+    private final class Shard {
+
+        private final String endpoint;
+        private final RedisTemplate<String, String> template;
+        private final Counter falhas;
+        private volatile long indisponivelAte;
+
+        Shard(String endpoint, RedisTemplate<String, String> template) {
+            this.endpoint = endpoint;
+            this.template = template;
+            this.falhas = Counter.builder("selco.blacklist.shard.failures").tag("shard", endpoint).register(meterRegistry);
+            Gauge.builder("selco.blacklist.shard.available", this, shard -> shard.disponivel() ? 1 : 0)
+                    .tag("shard", endpoint).register(meterRegistry);
+        }
+
+        boolean disponivel() {
+            return System.currentTimeMillis() >= indisponivelAte;
+        }
+
+        <T> T executar(Function<RedisTemplate<String, String>, T> operacao) {
+            if (!disponivel()) {
+                throw new IllegalStateException("Shard da blacklist indisponível: " + endpoint);
+            }
+            try {
+                return operacao.apply(template);
+            } catch (RuntimeException e) {
+                falhas.increment();
+                indisponivelAte = System.currentTimeMillis() + intervaloRetentativaMs;
+                logger.warn("Shard da blacklist {} indisponível por {} ms: {}", endpoint, intervaloRetentativaMs, e.getMessage());
+                throw e;
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        List<String> atuais = endpoints(nos);
+        List<String> anteriores = endpoints(nosAnteriores);
+        if (atuais.isEmpty()) {
+            throw new IllegalStateException("app.blacklist.sharded.nodes vazio com app.blacklist.store=sharded");
+        }
+        if (!"open".equalsIgnoreCase(politicaFalha) && !"closed".equalsIgnoreCase(politicaFalha)) {
+            throw new IllegalStateException("app.blacklist.sharded.failure-policy deve ser open ou closed: " + politicaFalha);
+        }
+        falhaFechada = "closed".equalsIgnoreCase(politicaFalha);
+
+        for (String endpoint : atuais) {
+            shards.put(endpoint, new Shard(endpoint, criarTemplate(endpoint)));
+        }
+        for (String endpoint : anteriores) {
+            shards.computeIfAbsent(endpoint, chave -> new Shard(chave, criarTemplate(chave)));
+        }
+        anel = new ConsistentHashRing(atuais, nosVirtuais);
+        anelAnterior = anteriores.isEmpty() || anteriores.equals(atuais) ? null : new ConsistentHashRing(anteriores, nosVirtuais);
+        migrados = Counter.builder("selco.blacklist.shard.migrated").register(meterRegistry);
+
+        logger.info("Blacklist distribuída em {} nós ({} virtuais cada), política de falha {}{}", atuais.size(),
+                nosVirtuais, politicaFalha, anelAnterior != null ? ", migrando de " + anteriores : "");
+    }
+
+    private static List<String> endpoints(String lista) {
+        return Arrays.stream(lista.split(","))
+                .map(String::trim)
+                .filter(endpoint -> !endpoint.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Conexão própria por nó (host:porta), com timeout curto para que um nó fora não segure a requisição
+     */
+    RedisTemplate<String, String> criarTemplate(String endpoint) {
+        int separador = endpoint.lastIndexOf(':');
+        String host = separador > 0 ? endpoint.substring(0, separador) : endpoint;
+        int porta = separador > 0 ? Integer.parseInt(endpoint.substring(separador + 1)) : 6379;
+
+        RedisStandaloneConfiguration configuracao = new RedisStandaloneConfiguration(host, porta);
+        if (!senha.isEmpty()) {
+            configuracao.setPassword(senha);
+        }
+        LettuceConnectionFactory fabrica = new LettuceConnectionFactory(configuracao,
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(timeoutMs)).build());
+        fabrica.afterPropertiesSet();
+        fabricas.add(fabrica);
+        return new StringRedisTemplate(fabrica);
+    }
+
+    private Shard dono(ConsistentHashRing anel, String token) {
+        return shards.get(anel.no(token));
+    }
+
+    @Override
+    public void adicionar(String token, Duration ttl) {
+        dono(anel, token).executar(template -> {
+            template.opsForValue().set(BLACKLIST_PREFIX + token, "blacklisted", ttl);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean contem(String token) {
+        return consultar(token).contem();
+    }
+
+    /**
+     * Com o nó fora do ar a resposta é a da política de falha, marcada como não definitiva
+     */
+    @Override
+    public Consulta consultar(String token) {
+        Shard atual = dono(anel, token);
+        try {
+            if (Boolean.TRUE.equals(atual.executar(template -> template.hasKey(BLACKLIST_PREFIX + token)))) {
+                return new Consulta(true, true);
+            }
+            // Durante a migração o token pode continuar no dono anterior
+            if (anelAnterior != null) {
+                Shard anterior = dono(anelAnterior, token);
+                if (anterior != atual) {
+                    return new Consulta(Boolean.TRUE.equals(anterior.executar(template -> template.hasKey(BLACKLIST_PREFIX + token))), true);
+                }
+            }
+            return new Consulta(false, true);
+        } catch (RuntimeException e) {
+            return new Consulta(falhaFechada, false);
+        }
+    }
+
+    @Override
+    public long limpar() {
+        long removidos = 0;
+        for (Shard shard : shards.values()) {
+            removidos += shard.executar(template -> {
+                var keys = template.keys(BLACKLIST_PREFIX + "*");
+                if (keys == null || keys.isEmpty()) {
+                    return 0L;
+                }
+                Long removidas = template.delete(keys);
+                return removidas != null ? removidas : 0L;
+            });
+        }
+        return removidos;
+    }
+
+    @Override
+    public long tamanho() {
+        long total = 0;
+        for (Shard shard : shards.values()) {
+            total += shard.executar(template -> {
+                var keys = template.keys(BLACKLIST_PREFIX + "*");
+                return keys != null ? (long) keys.size() : 0L;
+            });
+        }
+        return total;
+    }
+
+    /**
+     * Migra as chaves depois de uma mudança de nós, fora do caminho da subida
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebalancearAposSubida() {
+        if (!rebalancearNaSubida || anelAnterior == null) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebalancear();
+            } catch (RuntimeException e) {
+                logger.warn("Rebalanceamento da blacklist interrompido: {}", e.getMessage());
+            }
+        }, "blacklist-rebalance");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Percorre cada nó com SCAN e move para o dono no anel atual as chaves que estão no nó errado,
+     * mantendo o TTL restante. Idempotente: várias réplicas podem rodar ao mesmo tempo
+     *
+     * @return quantidade de chaves movidas
+     */
+    long rebalancear() {
+        long inicio = System.nanoTime();
+        long movidas = 0;
+        ScanOptions opcoes = ScanOptions.scanOptions().match(BLACKLIST_PREFIX + "*").count(1000).build();
+        for (Shard origem : shards.values()) {
+            List<String> chaves = new ArrayList<>();
+            origem.executar(template -> {
+                try (Cursor<String> cursor = template.scan(opcoes)) {
+                    while (cursor.hasNext()) {
+                        chaves.add(cursor.next());
+                    }
+                }
+                return null;
+            });
+
+            for (String chave : chaves) {
+                Shard destino = dono(anel, chave.substring(BLACKLIST_PREFIX.length()));
+                if (destino == origem) {
+                    continue;
+                }
+                Long ttlMs = origem.executar(template -> template.getExpire(chave, TimeUnit.MILLISECONDS));
+                if (ttlMs != null && ttlMs > 0) {
+                    destino.executar(template -> {
+                        template.opsForValue().set(chave, "blacklisted", Duration.ofMillis(ttlMs));
+                        return null;
+                    });
+                }
+                origem.executar(template -> template.delete(chave));
+                movidas++;
+                migrados.increment();
+            }
+        }
+        logger.info("Rebalanceamento da blacklist: {} chaves movidas em {} ms", movidas,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        return movidas;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fabricas.forEach(LettuceConnectionFactory::destroy);
+    }
+}
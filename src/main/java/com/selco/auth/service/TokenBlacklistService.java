@@ -1,30 +1,50 @@
 package com.selco.auth.service;
 
+import com.selco.auth.cache.CacheCoherenceService;
+import com.selco.auth.cache.LocalCache;
+import com.selco.auth.service.AuthMetrics.Etapa;
+import io.jsonwebtoken.JwtException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
 
 /**
- * Serviço para gerenciar blacklist de tokens JWT no Redis
+ * Serviço para gerenciar blacklist de tokens JWT (Redis por padrão, ver TokenBlacklistStore)
  * Implementa AUT-17: Invalidação de tokens no logout
+ *
+ * As consultas passam pela região "blacklist" do cache local, indexada por um resumo do token;
+ * o logout invalida a chave em todas as réplicas pelo CacheCoherenceService. Respostas da política
+ * de falha do armazenamento não são guardadas
  */
 @Service
 public class TokenBlacklistService {
 
     private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
-    private static final String BLACKLIST_PREFIX = "blacklist:token:";
+
+    // Sessões revogadas ficam no mesmo armazenamento dos tokens, com prefixo que nenhum JWT tem
+    private static final String PREFIXO_SESSAO = "sessao:";
 
     @Autowired
-    private RedisTemplate<String, String> redisTemplate;
+    private TokenBlacklistStore blacklistStore;
 
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private CacheCoherenceService cacheCoherenceService;
+
     /**
      * Adiciona um token à blacklist
      * @param token Token JWT a ser invalidado
@@ -32,14 +52,14 @@ public class TokenBlacklistService {
      */
     public void blacklistToken(String token, Date expiration) {
         try {
-            String key = BLACKLIST_PREFIX + token;
-            
             // Calcula o TTL baseado na expiração do token
             long ttlSeconds = calculateTTL(expiration);
             
             if (ttlSeconds > 0) {
-                // Armazena no Redis com TTL automático
-                redisTemplate.opsForValue().set(key, "blacklisted", Duration.ofSeconds(ttlSeconds));
+                // Armazena com TTL automático
+                authMetrics.medir(Etapa.GRAVACAO_BLACKLIST,
+                        () -> blacklistStore.adicionar(token, Duration.ofSeconds(ttlSeconds)));
+                cacheCoherenceService.invalidar(CacheCoherenceService.BLACKLIST, chaveCache(token));
                 logger.info("Token adicionado à blacklist com TTL de {} segundos", ttlSeconds);
             } else {
                 logger.warn("Token já expirado, não foi adicionado à blacklist");
@@ -51,14 +71,25 @@ public class TokenBlacklistService {
     }
 
     /**
-     * Verifica se um token está na blacklist
+     * Verifica se um token está na blacklist, diretamente ou pela sessão revogada (claim "sid")
+     * Token expirado ou com assinatura inválida não tem sid confiável; a verificação pela sessão é
+     * pulada e quem chama recusa o token na validação seguinte
      * @param token Token JWT a ser verificado
      * @return true se o token está na blacklist
      */
     public boolean isTokenBlacklisted(String token) {
         try {
-            String key = BLACKLIST_PREFIX + token;
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+            if (consultar(token)) {
+                return true;
+            }
+            String sessaoId;
+            try {
+                sessaoId = jwtService.extractSessaoId(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("Token sem sessão legível na verificação da blacklist: {}", e.getMessage());
+                return false;
+            }
+            return sessaoId != null && consultar(PREFIXO_SESSAO + sessaoId);
         } catch (Exception e) {
             logger.error("Erro ao verificar blacklist: {}", e.getMessage(), e);
             // Em caso de erro, considera o token como válido para não bloquear usuários
@@ -66,6 +97,40 @@ public class TokenBlacklistService {
         }
     }
 
+    /**
+     * Consulta pelo cache local; somente respostas do armazenamento são guardadas. A da política de falha
+     * (ou uma exceção) não entra no cache, senão um token revogado seguiria aceito até o TTL da região
+     */
+    private boolean consultar(String chave) {
+        LocalCache<Boolean> cache = cacheCoherenceService.getBlacklist();
+        if (!cache.isHabilitado()) {
+            return authMetrics.medir(Etapa.CONSULTA_BLACKLIST, () -> blacklistStore.consultar(chave)).contem();
+        }
+        TokenBlacklistStore.Consulta[] provisoria = new TokenBlacklistStore.Consulta[1];
+        Boolean contem = cache.obter(chaveCache(chave), () -> {
+            TokenBlacklistStore.Consulta consulta = authMetrics.medir(Etapa.CONSULTA_BLACKLIST, () -> blacklistStore.consultar(chave));
+            if (consulta.definitiva()) {
+                return consulta.contem();
+            }
+            provisoria[0] = consulta;
+            return null;
+        });
+        return contem != null ? contem : provisoria[0].contem();
+    }
+
+    /**
+     * Revoga todos os tokens de uma sessão
+     * A entrada dura o tempo de vida do refresh token, o mais longo dos tokens que levam o sid;
+     * depois dele nenhum token da sessão ainda é aceito
+     */
+    public void revogarSessao(String sessaoId) {
+        String chave = PREFIXO_SESSAO + sessaoId;
+        authMetrics.medir(Etapa.GRAVACAO_BLACKLIST, () -> blacklistStore.adicionar(chave,
+                Duration.ofSeconds(jwtService.getRefreshTokenExpirationInSeconds())));
+        cacheCoherenceService.invalidar(CacheCoherenceService.BLACKLIST, chaveCache(chave));
+        logger.info("Sessão {} revogada", sessaoId);
+    }
+
     /**
      * Invalida um token pelo seu valor
      * @param token Token JWT a ser invalidado
@@ -83,6 +148,18 @@ public class TokenBlacklistService {
         }
     }
 
+    /**
+     * Chave do token (ou da sessão) no cache local: SHA-256 truncado em 16 bytes, em base64url
+     */
+    private static String chaveCache(String token) {
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(resumo, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Calcula o TTL em segundos até a expiração do token
      */
@@ -97,11 +174,9 @@ public class TokenBlacklistService {
      */
     public void clearBlacklist() {
         try {
-            String pattern = BLACKLIST_PREFIX + "*";
-            var keys = redisTemplate.keys(pattern);
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                logger.info("Blacklist limpa: {} tokens removidos", keys.size());
+            long removidos = blacklistStore.limpar();
+            if (removidos > 0) {
+                logger.info("Blacklist limpa: {} tokens removidos", removidos);
             }
         } catch (Exception e) {
             logger.error("Erro ao limpar blacklist: {}", e.getMessage(), e);
@@ -113,9 +188,7 @@ public class TokenBlacklistService {
      */
     public long getBlacklistSize() {
         try {
-            String pattern = BLACKLIST_PREFIX + "*";
-            var keys = redisTemplate.keys(pattern);
-            return keys != null ? keys.size() : 0;
+            return blacklistStore.tamanho();
         } catch (Exception e) {
             logger.error("Erro ao contar tokens na blacklist: {}", e.getMessage(), e);
             return 0;
@@ -0,0 +1,45 @@
+package com.selco.auth.service;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento dos tokens invalidados usado pelo TokenBlacklistService
+ * A implementação padrão é RedisTokenBlacklistStore; com app.blacklist.store=sharded os tokens são
+ * distribuídos em vários Redis por ShardedRedisTokenBlacklistStore. As entradas expiram sozinhas junto com o token
+ */
+public interface TokenBlacklistStore {
+
+    /**
+     * Guarda o token até o fim do TTL
+     */
+    void adicionar(String token, Duration ttl);
+
+    /**
+     * Resposta de uma consulta; definitiva=false quando veio da política de falha e não do armazenamento
+     */
+    record Consulta(boolean contem, boolean definitiva) {
+    }
+
+    /**
+     * Verifica se o token está guardado e ainda não expirou
+     */
+    boolean contem(String token);
+
+    /**
+     * Como contem, informando se a resposta pode ser guardada em cache
+     * Implementações que respondem pela política de falha quando o armazenamento está fora sobrescrevem
+     */
+    default Consulta consultar(String token) {
+        return new Consulta(contem(token), true);
+    }
+
+    /**
+     * Remove todos os tokens e retorna quantos foram removidos
+     */
+    long limpar();
+
+    /**
+     * Quantidade de tokens guardados
+     */
+    long tamanho();
+}
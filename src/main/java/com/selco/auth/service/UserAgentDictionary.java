@@ -0,0 +1,240 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.UserAgentDicionario;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dicionário de User-Agents: associa cada string distinta a um id inteiro pequeno
+ * As associações são imutáveis, então o cache local nos dois sentidos nunca precisa ser invalidado
+ *
+ * O caminho de gravação do log só consulta o cache local: um valor ausente é gravado em texto e
+ * resolvido em segundo plano (busca e, se preciso, criação), em fila limitada. Como o User-Agent é
+ * controlado pelo cliente, a criação de entradas é limitada por réplica (max-new-per-minute) e o
+ * contador só é incrementado abaixo de max-entries; o contador no limite é o estado persistido de
+ * dicionário cheio, visto por todas as réplicas e subidas sem novos incrementos. Com o dicionário
+ * cheio os valores já registrados continuam sendo resolvidos. Strings longas demais ficam sempre em texto
+ */
+@Service
+public class UserAgentDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAgentDictionary.class);
+    private static final String COLECAO_CONTADORES = "contadores";
+    private static final String CONTADOR = "user_agents";
+    private static final int CAPACIDADE_FILA = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.audit.user-agent-dictionary.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${app.audit.user-agent-dictionary.max-entries:10000}")
+    private int maxEntradas;
+
+    @Value("${app.audit.user-agent-dictionary.max-length:512}")
+    private int tamanhoMaximo;
+
+    @Value("${app.audit.user-agent-dictionary.max-new-per-minute:60}")
+    private int maxNovosPorMinuto;
+
+    private final Map<String, Integer> idsPorValor = new ConcurrentHashMap<>();
+    private final Map<Integer, String> valoresPorId = new ConcurrentHashMap<>();
+    private final Set<String> pendentes = ConcurrentHashMap.newKeySet();
+
+    // Estado da thread de resolução: lido do contador na primeira resolução e ao detectar o limite
+    private volatile Boolean cheio;
+    private long inicioJanela;
+    private int novosNaJanela;
+
+    private ThreadPoolExecutor resolucao;
+
+    private Counter acertosCache;
+    private Counter faltasCache;
+    private Counter descartados;
+
+    @PostConstruct
+    public void init() {
+        this.acertosCache = Counter.builder("selco.audit.user_agent.cache").tag("result", "hit").register(meterRegistry);
+        this.faltasCache = Counter.builder("selco.audit.user_agent.cache").tag("result", "miss").register(meterRegistry);
+        this.descartados = Counter.builder("selco.audit.user_agent.dropped")
+                .description("User-Agents não resolvidos por fila cheia ou limite de novas entradas; gravados em texto")
+                .register(meterRegistry);
+        Gauge.builder("selco.audit.user_agent.entries", idsPorValor, Map::size)
+                .description("Entradas do dicionário de User-Agents em cache local")
+                .register(meterRegistry);
+
+        resolucao = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(CAPACIDADE_FILA), tarefa -> {
+            Thread thread = new Thread(tarefa, "user-agent-dictionary");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        resolucao.shutdownNow();
+    }
+
+    /**
+     * Retorna o id do User-Agent se já estiver no cache local, sem acessar o MongoDB
+     * Valor ausente retorna null (o chamador grava o texto) e é resolvido em segundo plano
+     */
+    public Integer obterId(String userAgent) {
+        if (!habilitado || userAgent == null || userAgent.length() > tamanhoMaximo) {
+            return null;
+        }
+
+        Integer id = idsPorValor.get(userAgent);
+        if (id != null) {
+            acertosCache.increment();
+            return id;
+        }
+        faltasCache.increment();
+
+        if (pendentes.add(userAgent)) {
+            try {
+                resolucao.execute(() -> {
+                    try {
+                        resolver(userAgent);
+                    } finally {
+                        pendentes.remove(userAgent);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pendentes.remove(userAgent);
+                descartados.increment();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Busca o valor no dicionário e, se não existir, cria a entrada dentro dos limites
+     */
+    void resolver(String userAgent) {
+        try {
+            UserAgentDicionario existente = mongoTemplate.findOne(
+                    new Query(Criteria.where("valor").is(userAgent)), UserAgentDicionario.class);
+            if (existente != null) {
+                lembrar(existente);
+                return;
+            }
+            if (estaCheio()) {
+                return;
+            }
+            if (!permiteNovo()) {
+                descartados.increment();
+                return;
+            }
+            criar(userAgent);
+        } catch (Exception e) {
+            logger.warn("Dicionário de User-Agents indisponível, valor segue em texto: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna o texto do User-Agent para o id, ou null se o id não existir
+     */
+    public String obterValor(Integer id) {
+        if (id == null) {
+            return null;
+        }
+
+        String valor = valoresPorId.get(id);
+        if (valor != null) {
+            return valor;
+        }
+
+        UserAgentDicionario entrada = mongoTemplate.findById(id, UserAgentDicionario.class);
+        if (entrada == null) {
+            return null;
+        }
+        lembrar(entrada);
+        return entrada.getValor();
+    }
+
+    private boolean estaCheio() {
+        if (cheio == null) {
+            Document contador = mongoTemplate.findById(CONTADOR, Document.class, COLECAO_CONTADORES);
+            cheio = contador != null && contador.get("seq", Number.class).intValue() >= maxEntradas;
+        }
+        return cheio;
+    }
+
+    /**
+     * Janela fixa de um minuto para novas entradas, por réplica
+     */
+    private boolean permiteNovo() {
+        long agora = System.currentTimeMillis();
+        if (agora - inicioJanela >= TimeUnit.MINUTES.toMillis(1)) {
+            inicioJanela = agora;
+            novosNaJanela = 0;
+        }
+        return ++novosNaJanela <= maxNovosPorMinuto;
+    }
+
+    private Integer criar(String userAgent) {
+        // O filtro seq < max-entries impede incrementos no limite; sem documento compatível o upsert
+        // tenta inserir o mesmo _id e falha com chave duplicada, o que indica dicionário cheio
+        Document contador;
+        try {
+            contador = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(CONTADOR).and("seq").lt(maxEntradas)),
+                    new Update().inc("seq", 1),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Document.class, COLECAO_CONTADORES);
+        } catch (DuplicateKeyException e) {
+            cheio = true;
+            logger.warn("Dicionário de User-Agents atingiu {} entradas; novos valores serão gravados em texto", maxEntradas);
+            return null;
+        }
+        int id = contador.get("seq", Number.class).intValue();
+        if (id >= maxEntradas) {
+            cheio = true;
+        }
+
+        try {
+            return lembrar(mongoTemplate.insert(new UserAgentDicionario(id, userAgent)));
+        } catch (DuplicateKeyException e) {
+            // Outra réplica registrou o mesmo valor entre a busca e a inserção; o id alocado é descartado
+            UserAgentDicionario vencedor = mongoTemplate.findOne(
+                    new Query(Criteria.where("valor").is(userAgent)), UserAgentDicionario.class);
+            return vencedor == null ? null : lembrar(vencedor);
+        }
+    }
+
+    private Integer lembrar(UserAgentDicionario entrada) {
+        if (idsPorValor.size() < maxEntradas) {
+            idsPorValor.putIfAbsent(entrada.getValor(), entrada.getId());
+            valoresPorId.putIfAbsent(entrada.getId(), entrada.getValor());
+        }
+        return entrada.getId();
+    }
+}
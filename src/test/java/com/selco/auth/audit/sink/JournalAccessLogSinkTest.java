@@ -0,0 +1,115 @@
+package com.selco.auth.audit.sink;
+
+import com.selco.auth.model.LogAcesso;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do journal local de logs de acesso: rotação, checksum e recuperação após queda
+ */
+@DisplayName("Journal de logs de acesso")
+class JournalAccessLogSinkTest {
+
+    @TempDir
+    Path diretorio;
+
+    private JournalAccessLogSink criarSink(long maxBytesArquivo) throws Exception {
+        JournalAccessLogSink sink = new JournalAccessLogSink();
+        ReflectionTestUtils.setField(sink, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(sink, "diretorio", diretorio.toString());
+        ReflectionTestUtils.setField(sink, "maxBytesArquivo", maxBytesArquivo);
+        ReflectionTestUtils.setField(sink, "intervaloRotacaoMs", 3_600_000L);
+        ReflectionTestUtils.setField(sink, "tamanhoBuffer", 1024);
+        sink.init();
+        return sink;
+    }
+
+    private static LogAcesso log(int i) {
+        return new LogAcesso("usuario-" + i, "10.0.0." + (i % 250), "Mozilla/5.0", i % 3 != 0, "motivo-" + i);
+    }
+
+    private List<Path> arquivos(String extensao) throws Exception {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(extensao)).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Rotaciona por tamanho e os arquivos selados devolvem todos os registros em ordem")
+    void rotacionaERelendoEmOrdem() throws Exception {
+        JournalAccessLogSink sink = criarSink(2048);
+        for (int i = 0; i < 200; i++) {
+            sink.registrar(log(i));
+        }
+        sink.shutdown();
+
+        List<Path> selados = arquivos(JournalAccessLogSink.EXTENSAO_SELADO);
+        assertThat(selados).hasSizeGreaterThan(1);
+        assertThat(arquivos(JournalAccessLogSink.EXTENSAO_ABERTO)).isEmpty();
+
+        List<String> usuarios = new ArrayList<>();
+        for (Path selado : selados) {
+            JournalAccessLogSink.ler(selado, log -> usuarios.add(log.getUsuarioId()));
+        }
+        assertThat(usuarios).hasSize(200);
+        assertThat(usuarios.get(0)).isEqualTo("usuario-0");
+        assertThat(usuarios.get(199)).isEqualTo("usuario-199");
+    }
+
+    @Test
+    @DisplayName("Cada arquivo selado tem .sha256 com o digest do conteúdo")
+    void gravaChecksum() throws Exception {
+        JournalAccessLogSink sink = criarSink(1 << 20);
+        for (int i = 0; i < 10; i++) {
+            sink.registrar(log(i));
+        }
+        sink.shutdown();
+
+        Path selado = arquivos(JournalAccessLogSink.EXTENSAO_SELADO).get(0);
+        String linha = Files.readString(selado.resolveSibling(selado.getFileName() + JournalAccessLogSink.EXTENSAO_CHECKSUM),
+                StandardCharsets.UTF_8);
+        String esperado = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(selado)));
+
+        assertThat(linha).isEqualTo(esperado + "  " + selado.getFileName() + "\n");
+    }
+
+    @Test
+    @DisplayName("Arquivo aberto de uma queda é truncado no último registro íntegro e selado")
+    void recuperaArquivoAberto() throws Exception {
+        JournalAccessLogSink sink = criarSink(1 << 20);
+        for (int i = 0; i < 10; i++) {
+            sink.registrar(log(i));
+        }
+        sink.descarregar();
+
+        // Simula a queda: o arquivo fica .journal.open com um registro incompleto no fim
+        Path aberto = arquivos(JournalAccessLogSink.EXTENSAO_ABERTO).get(0);
+        try (FileChannel canal = FileChannel.open(aberto, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            canal.write(ByteBuffer.allocate(12).putInt(500).putInt(0).putInt(7).flip());
+        }
+
+        criarSink(1 << 20);
+
+        assertThat(arquivos(JournalAccessLogSink.EXTENSAO_ABERTO)).isEmpty();
+        Path selado = arquivos(JournalAccessLogSink.EXTENSAO_SELADO).get(0);
+        assertThat(JournalAccessLogSink.ler(selado, null)).isEqualTo(10);
+        assertThat(Files.exists(selado.resolveSibling(selado.getFileName() + JournalAccessLogSink.EXTENSAO_CHECKSUM))).isTrue();
+    }
+}
@@ -0,0 +1,150 @@
+package com.selco.auth.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selco.auth.model.Usuario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da coerência dos caches locais com um transporte em memória ligando dois nós
+ */
+@DisplayName("Coerência de cache entre réplicas")
+class CacheCoherenceServiceTest {
+
+    /**
+     * Entrega cada mensagem publicada a todos os nós, inclusive ao que publicou
+     */
+    private static class TransporteEmMemoria implements CoherenceTransport {
+
+        private final List<Consumer<byte[]>> receptores = new ArrayList<>();
+        private final List<byte[]> publicadas = new ArrayList<>();
+        private boolean entregar = true;
+
+        @Override
+        public String getNome() {
+            return "memoria";
+        }
+
+        @Override
+        public void publicar(byte[] mensagem) {
+            publicadas.add(mensagem);
+            if (entregar) {
+                receptores.forEach(receptor -> receptor.accept(mensagem));
+            }
+        }
+
+        @Override
+        public void iniciar(Consumer<byte[]> receptor, Runnable aoAssinar) {
+            receptores.add(receptor);
+            aoAssinar.run();
+        }
+
+        @Override
+        public void parar() {
+        }
+    }
+
+    private final TransporteEmMemoria transporte = new TransporteEmMemoria();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CacheCoherenceService criarNo() {
+        CacheCoherenceService servico = new CacheCoherenceService();
+        ReflectionTestUtils.setField(servico, "transport", transporte);
+        ReflectionTestUtils.setField(servico, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(servico, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(servico, "tamanhoMaximoLote", 500);
+        ReflectionTestUtils.setField(servico, "toleranciaRelogioMs", 1000L);
+        ReflectionTestUtils.setField(servico, "usuariosHabilitado", true);
+        ReflectionTestUtils.setField(servico, "usuariosTtlSegundos", 30L);
+        ReflectionTestUtils.setField(servico, "usuariosMaxEntradas", 1000);
+        ReflectionTestUtils.setField(servico, "blacklistHabilitado", true);
+        ReflectionTestUtils.setField(servico, "blacklistTtlSegundos", 10L);
+        ReflectionTestUtils.setField(servico, "blacklistMaxEntradas", 1000);
+        servico.init();
+        transporte.iniciar(servico::receber, servico::aoAssinar);
+        return servico;
+    }
+
+    private static Usuario usuario(String status) {
+        return new Usuario("joao@selco.com.br", "hash", "FUNCIONARIO", status);
+    }
+
+    @Test
+    @DisplayName("Invalidação em um nó remove a entrada no outro após o envio do lote")
+    void propagaInvalidacao() {
+        CacheCoherenceService a = criarNo();
+        CacheCoherenceService b = criarNo();
+        b.getUsuarios().obter("joao@selco.com.br", () -> usuario("ATIVO"));
+
+        a.invalidar(CacheCoherenceService.USUARIOS, "joao@selco.com.br");
+        assertThat(b.getUsuarios().obter("joao@selco.com.br", () -> usuario("INATIVO")).getStatus()).isEqualTo("ATIVO");
+
+        a.enviarPendentes();
+        assertThat(b.getUsuarios().obter("joao@selco.com.br", () -> usuario("INATIVO")).getStatus()).isEqualTo("INATIVO");
+    }
+
+    @Test
+    @DisplayName("Leitura iniciada antes da invalidação não volta a popular o cache")
+    void lapideBloqueiaLeituraAntiga() {
+        CacheCoherenceService a = criarNo();
+        LocalCache<Usuario> usuarios = a.getUsuarios();
+        long inicioLeitura = System.currentTimeMillis();
+
+        a.invalidar(CacheCoherenceService.USUARIOS, "joao@selco.com.br");
+        usuarios.guardar("joao@selco.com.br", usuario("ATIVO"), inicioLeitura);
+
+        AtomicInteger leituras = new AtomicInteger();
+        assertThat(usuarios.obter("joao@selco.com.br", () -> {
+            leituras.incrementAndGet();
+            return usuario("INATIVO");
+        }).getStatus()).isEqualTo("INATIVO");
+        assertThat(leituras).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Invalidações repetidas são aplicadas uma única vez e lotes agrupam várias chaves")
+    void agrupaEIgnoraRepetidas() {
+        CacheCoherenceService a = criarNo();
+        CacheCoherenceService b = criarNo();
+
+        for (int i = 0; i < 10; i++) {
+            a.invalidar(CacheCoherenceService.BLACKLIST, "token-" + i);
+        }
+        a.enviarPendentes();
+        assertThat(transporte.publicadas).hasSize(1);
+
+        transporte.receptores.forEach(receptor -> receptor.accept(transporte.publicadas.get(0)));
+        assertThat(meterRegistry.counter("selco.cache.coherence.invalidations", "result", "applied").count()).isEqualTo(10);
+        assertThat(meterRegistry.counter("selco.cache.coherence.invalidations", "result", "duplicate").count()).isEqualTo(10);
+        assertThat(b.getBlacklist().getTamanho()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Salto na sequência de um nó descarta os caches locais")
+    void lacunaDescartaCaches() {
+        CacheCoherenceService a = criarNo();
+        CacheCoherenceService b = criarNo();
+        b.getUsuarios().obter("maria@selco.com.br", () -> usuario("ATIVO"));
+
+        a.invalidar(CacheCoherenceService.BLACKLIST, "token-1");
+        a.enviarPendentes();
+        transporte.entregar = false;
+        a.invalidar(CacheCoherenceService.USUARIOS, "maria@selco.com.br");
+        a.enviarPendentes();
+        transporte.entregar = true;
+        a.invalidar(CacheCoherenceService.BLACKLIST, "token-3");
+        a.enviarPendentes();
+
+        assertThat(meterRegistry.counter("selco.cache.coherence.flushes", "reason", "gap").count()).isEqualTo(1);
+        assertThat(b.getUsuarios().getTamanho()).isZero();
+    }
+}
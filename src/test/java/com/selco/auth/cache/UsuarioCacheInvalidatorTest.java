@@ -0,0 +1,33 @@
+package com.selco.auth.cache;
+
+import com.selco.auth.model.Usuario;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes da invalidação da região "usuarios" na gravação do usuário
+ */
+@DisplayName("Invalidação do cache de usuários")
+class UsuarioCacheInvalidatorTest {
+
+    @Test
+    @DisplayName("Gravação do usuário invalida a chave do email em todas as réplicas")
+    void invalidaNaGravacao() {
+        CacheCoherenceService cacheCoherenceService = mock(CacheCoherenceService.class);
+        UsuarioCacheInvalidator invalidator = new UsuarioCacheInvalidator();
+        ReflectionTestUtils.setField(invalidator, "cacheCoherenceService", cacheCoherenceService);
+
+        Usuario usuario = new Usuario();
+        usuario.setEmail("joao.silva@empresa.com");
+        usuario.setStatus("INATIVO");
+        invalidator.onAfterSave(new AfterSaveEvent<>(usuario, new Document(), "usuarios"));
+
+        verify(cacheCoherenceService).invalidar(CacheCoherenceService.USUARIOS, "joao.silva@empresa.com");
+    }
+}
@@ -0,0 +1,135 @@
+package com.selco.auth.config;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.DistinctIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.ListCollectionsIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.conversions.Bson;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da separação entre a etapa de estrutura (antes de aceitar tráfego) e o trabalho de dados,
+ * e do marcador que evita repetir a conversão de IPs a cada subida
+ */
+@DisplayName("Migração de logs_acesso para time-series")
+@SuppressWarnings("unchecked")
+class LogAcessoTimeSeriesMigratorTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MongoDatabase db = mock(MongoDatabase.class);
+    private final MongoCollection<Document> atual = mock(MongoCollection.class);
+    private final MongoCollection<Document> legado = mock(MongoCollection.class);
+    private final MongoCollection<Document> migracoes = mock(MongoCollection.class);
+    private final FindIterable<Document> marcador = mock(FindIterable.class, RETURNS_SELF);
+    private final LogAcessoTimeSeriesMigrator migrator = new LogAcessoTimeSeriesMigrator();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getDb()).thenReturn(db);
+        when(db.getName()).thenReturn("selco");
+        when(db.getCollection("logs_acesso")).thenReturn(atual);
+        when(db.getCollection("logs_acesso_legado")).thenReturn(legado);
+        when(db.getCollection("migracoes")).thenReturn(migracoes);
+        when(migracoes.find(any(Bson.class))).thenReturn(marcador);
+
+        ListCollectionsIterable<Document> colecaoComum = mock(ListCollectionsIterable.class, RETURNS_SELF);
+        when(colecaoComum.first()).thenReturn(new Document("name", "logs_acesso").append("type", "collection"));
+        ListCollectionsIterable<Document> semLegado = mock(ListCollectionsIterable.class, RETURNS_SELF);
+        when(semLegado.first()).thenReturn(null);
+        when(db.listCollections()).thenReturn(colecaoComum, semLegado);
+
+        ReflectionTestUtils.setField(migrator, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(migrator, "habilitado", true);
+        ReflectionTestUtils.setField(migrator, "expiracaoDias", 90L);
+        ReflectionTestUtils.setField(migrator, "migrarExistente", true);
+    }
+
+    @Test
+    @DisplayName("Na subida só renomeia e cria a coleção; a cópia fica para o segundo plano")
+    void copiaForaDaSubida() {
+        migrator.prepararEstrutura();
+
+        verify(atual).renameCollection(new MongoNamespace("selco", "logs_acesso_legado"));
+        verify(db).createCollection(eq("logs_acesso"), any(CreateCollectionOptions.class));
+        verify(legado, never()).find();
+
+        FindIterable<Document> busca = mock(FindIterable.class, RETURNS_SELF);
+        MongoCursor<Document> cursor = mock(MongoCursor.class);
+        when(legado.find()).thenReturn(busca);
+        when(busca.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(new Document("_id", "1").append("dataHora", new Date())
+                .append("usuarioId", "usuario-1").append("ip", "10.0.0.1").append("sucesso", true));
+
+        migrator.migrarDados();
+
+        verify(atual).insertMany(anyList(), any(InsertManyOptions.class));
+        verify(migracoes).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+        migrator.migrarDados();
+        verify(legado).find();
+    }
+
+    @Test
+    @DisplayName("Coleção time-series com a conversão já registrada não é percorrida de novo")
+    void conversaoJaRegistrada() {
+        colecaoTimeSeries();
+        when(marcador.first()).thenReturn(new Document("_id", "logs_acesso.ip_binario"));
+
+        migrator.prepararEstrutura();
+        migrator.migrarDados();
+
+        verify(atual, never()).distinct(anyString(), any(Bson.class), eq(String.class));
+        verify(atual, never()).updateMany(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    @DisplayName("Conversão de IPs em texto roda uma vez e registra a conclusão")
+    void conversaoRegistrada() {
+        colecaoTimeSeries();
+        when(marcador.first()).thenReturn(null);
+        DistinctIterable<String> ips = mock(DistinctIterable.class, RETURNS_SELF);
+        MongoCursor<String> cursor = mock(MongoCursor.class);
+        when(atual.distinct(eq("origem.ip"), any(Bson.class), eq(String.class))).thenReturn(ips);
+        when(ips.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn("10.0.0.1");
+        when(atual.updateMany(any(Bson.class), any(Bson.class))).thenReturn(UpdateResult.acknowledged(3, 3L, null));
+
+        migrator.prepararEstrutura();
+        migrator.migrarDados();
+
+        verify(atual).updateMany(any(Bson.class), any(Bson.class));
+        verify(migracoes).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+    }
+
+    private void colecaoTimeSeries() {
+        ListCollectionsIterable<Document> timeSeries = mock(ListCollectionsIterable.class, RETURNS_SELF);
+        when(timeSeries.first()).thenReturn(new Document("name", "logs_acesso").append("type", "timeseries")
+                .append("options", new Document("expireAfterSeconds", 90L * 86400)));
+        when(db.listCollections()).thenReturn(timeSeries);
+    }
+}
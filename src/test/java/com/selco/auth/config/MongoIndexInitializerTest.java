@@ -0,0 +1,50 @@
+package com.selco.auth.config;
+
+import com.selco.auth.model.EstatisticaLogin;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da resolução de índices com expressões avaliadas sobre a configuração, como no MongoMappingContext da aplicação
+ */
+@DisplayName("Criação de índices das entidades")
+class MongoIndexInitializerTest {
+
+    private static Document opcoesTtl(GenericApplicationContext contexto) {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        mappingContext.setApplicationContext(contexto);
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        for (MongoPersistentEntityIndexResolver.IndexDefinitionHolder indice : resolver.resolveIndexFor(TypeInformation.of(EstatisticaLogin.class))) {
+            if (indice.getIndexKeys().equals(new Document("minuto", 1))) {
+                return indice.getIndexOptions();
+            }
+        }
+        throw new AssertionError("Índice TTL de minuto não resolvido");
+    }
+
+    @Test
+    @DisplayName("Retenção de login_stats vem de app.stats.login.retention, com 30 dias por padrão")
+    void retencaoConfiguravel() {
+        GenericApplicationContext padrao = new GenericApplicationContext();
+        padrao.refresh();
+        GenericApplicationContext configurado = new GenericApplicationContext();
+        configurado.setEnvironment(new MockEnvironment().withProperty("app.stats.login.retention", "7d"));
+        configurado.refresh();
+
+        assertThat(opcoesTtl(padrao).get("expireAfterSeconds", Number.class).longValue()).isEqualTo(30L * 86400);
+        assertThat(opcoesTtl(configurado).get("expireAfterSeconds", Number.class).longValue()).isEqualTo(7L * 86400);
+    }
+}
@@ -0,0 +1,56 @@
+package com.selco.auth.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.connection.ServerType;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da contagem de leituras por membro do replica set
+ */
+@DisplayName("Leituras do MongoDB por membro")
+class MongoReadMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoReadMetrics metrics = new MongoReadMetrics();
+
+    private void enviar(String host, ServerType tipo, String json) {
+        ServerId servidor = new ServerId(new ClusterId(), new ServerAddress(host, 27017));
+        ConnectionDescription conexao = new ConnectionDescription(new ConnectionId(servidor), 17, tipo,
+                1000, 16_777_216, 48_000_000, List.of());
+        BsonDocument comando = BsonDocument.parse(json);
+        metrics.commandStarted(new CommandStartedEvent(null, 1, 1, conexao, "selco_auth", comando.getFirstKey(), comando));
+    }
+
+    @Test
+    @DisplayName("Conta leituras por membro e papel, ignorando escritas")
+    void contaLeiturasPorMembro() {
+        ReflectionTestUtils.setField(metrics, "meterRegistry", meterRegistry);
+
+        enviar("mongo-1", ServerType.REPLICA_SET_PRIMARY, "{find: 'usuarios', filter: {email: 'a@selco.com.br'}}");
+        enviar("mongo-2", ServerType.REPLICA_SET_SECONDARY, "{find: 'usuarios', filter: {email: 'a@selco.com.br'}}");
+        enviar("mongo-2", ServerType.REPLICA_SET_SECONDARY, "{find: 'usuarios', filter: {email: 'b@selco.com.br'}}");
+        enviar("mongo-1", ServerType.REPLICA_SET_PRIMARY, "{insert: 'logs_acesso', documents: []}");
+        enviar("mongo-3", ServerType.REPLICA_SET_SECONDARY, "{getMore: 1, collection: 'logs_acesso'}");
+
+        assertThat(meterRegistry.counter("selco.mongo.reads", "member", "mongo-1:27017", "role", "primary",
+                "command", "find", "collection", "usuarios").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("selco.mongo.reads", "member", "mongo-2:27017", "role", "secondary",
+                "command", "find", "collection", "usuarios").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("selco.mongo.reads", "member", "mongo-3:27017", "role", "secondary",
+                "command", "getMore", "collection", "logs_acesso").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("selco.mongo.reads").tag("command", "insert").counter()).isNull();
+    }
+}
@@ -0,0 +1,65 @@
+package com.selco.auth.config;
+
+import com.selco.auth.model.LogAcesso;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da detecção de COLLSCAN em planos de explain e da resolução dos índices de LogAcesso
+ */
+@DisplayName("Verificação de planos de consulta")
+class QueryPlanAdvisorTest {
+
+    @Test
+    @DisplayName("Detecta COLLSCAN aninhado no plano de coleção time-series")
+    void detectaCollscanAninhado() {
+        Document plano = Document.parse("""
+                { "stages": [
+                    { "$cursor": { "queryPlanner": { "winningPlan": { "stage": "COLLSCAN", "direction": "forward" } } } },
+                    { "$_internalUnpackBucket": { "timeField": "dataHora", "metaField": "origem" } }
+                ] }
+                """);
+
+        assertThat(QueryPlanAdvisor.contemCollscan(plano)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Ignora COLLSCAN presente apenas nos planos rejeitados")
+    void ignoraPlanosRejeitados() {
+        Document plano = Document.parse("""
+                { "winningPlan": { "stage": "FETCH", "inputStage": { "stage": "IXSCAN", "indexName": "ip_sucesso_data" } },
+                  "rejectedPlans": [ { "stage": "COLLSCAN" } ] }
+                """);
+
+        assertThat(QueryPlanAdvisor.contemCollscan(plano)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Índices compostos de LogAcesso são resolvidos para a coleção time-series")
+    void resolveIndicesCompostosDeLogAcesso() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        List<Document> chaves = new ArrayList<>();
+        for (MongoPersistentEntityIndexResolver.IndexDefinitionHolder indice : resolver.resolveIndexFor(TypeInformation.of(LogAcesso.class))) {
+            assertThat(indice.getCollection()).isEqualTo("logs_acesso");
+            chaves.add(indice.getIndexKeys());
+        }
+
+        assertThat(chaves).containsExactlyInAnyOrder(
+                Document.parse("{ 'origem.ip': 1, 'sucesso': 1, 'dataHora': -1 }"),
+                Document.parse("{ 'origem.usuarioId': 1, 'sucesso': 1, 'dataHora': -1 }"),
+                Document.parse("{ 'sucesso': 1, 'dataHora': -1 }"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.selco.auth.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.ExchangeBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.RabbitExceptionTranslator;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da declaração única da topologia do RabbitMQ e da verificação passiva
+ */
+@DisplayName("Topologia do RabbitMQ")
+class RabbitTopologyInitializerTest {
+
+    private final RabbitAdmin rabbitAdmin = mock(RabbitAdmin.class);
+    private final ApplicationContext applicationContext = mock(ApplicationContext.class);
+    private RabbitTopologyInitializer initializer;
+
+    private RabbitTopologyInitializer criar(String modo) {
+        when(applicationContext.getBeansOfType(Exchange.class)).thenReturn(Map.of(
+                "userExchange", ExchangeBuilder.topicExchange("selco.user.exchange").build(),
+                "emailExchange", ExchangeBuilder.topicExchange("selco.email.exchange").build()));
+        when(applicationContext.getBeansOfType(Queue.class)).thenReturn(Map.of(
+                "userCreatedQueue", QueueBuilder.durable("selco.user.created.queue").build(),
+                "emailSendQueue", QueueBuilder.durable("selco.email.send.queue").build()));
+
+        initializer = new RabbitTopologyInitializer();
+        ReflectionTestUtils.setField(initializer, "rabbitAdmin", rabbitAdmin);
+        ReflectionTestUtils.setField(initializer, "applicationContext", applicationContext);
+        ReflectionTestUtils.setField(initializer, "modo", modo);
+        ReflectionTestUtils.setField(initializer, "backoffInicialMs", 10L);
+        ReflectionTestUtils.setField(initializer, "backoffMaximoMs", 50L);
+        return initializer;
+    }
+
+    @AfterEach
+    void encerrar() {
+        if (initializer != null) {
+            initializer.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Declara uma única vez, repetindo apenas enquanto o broker está indisponível")
+    void declaraComRetentativa() throws InterruptedException {
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+                .doNothing()
+                .when(rabbitAdmin).initialize();
+        RabbitTopologyInitializer initializer = criar("declare");
+
+        initializer.agendar();
+
+        verify(rabbitAdmin, timeout(2_000).times(2)).initialize();
+        for (int i = 0; i < 100 && !initializer.isConcluida(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(initializer.isConcluida()).isTrue();
+        Thread.sleep(100);
+        verify(rabbitAdmin, times(2)).initialize();
+    }
+
+    @Test
+    @DisplayName("Modo none não declara nada")
+    void modoNone() {
+        RabbitTopologyInitializer initializer = criar("none");
+
+        initializer.agendar();
+
+        verify(rabbitAdmin, times(0)).initialize();
+        assertThat(initializer.isConcluida()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Verificação passiva lista exchanges e queues ausentes sem declarar")
+    void verificaPassivamente() {
+        RabbitTemplate template = mock(RabbitTemplate.class);
+        when(rabbitAdmin.getRabbitTemplate()).thenReturn(template);
+        when(template.execute(any())).thenAnswer(chamada -> null)
+                .thenThrow(RabbitExceptionTranslator.convertRabbitAccessException(
+                        new IOException("channel error; protocol method: #method<channel.close>(reply-code=404, "
+                                + "reply-text=NOT_FOUND - no exchange 'selco.email.exchange' in vhost '/')")));
+        when(rabbitAdmin.getQueueInfo("selco.user.created.queue")).thenReturn(new QueueInformation("selco.user.created.queue", 0, 1));
+        when(rabbitAdmin.getQueueInfo("selco.email.send.queue")).thenReturn(null);
+        doNothing().when(rabbitAdmin).initialize();
+
+        assertThat(criar("verify").verificar())
+                .hasSize(2)
+                .contains("queue selco.email.send.queue")
+                .anyMatch(ausente -> ausente.startsWith("exchange "));
+        verify(rabbitAdmin, times(0)).initialize();
+    }
+}
@@ -0,0 +1,120 @@
+package com.selco.auth.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.selco.auth.events.codec.EventCodecRegistry;
+import com.selco.auth.events.codec.JsonEventCodec;
+import com.selco.auth.repository.UsuarioRepository;
+import com.selco.auth.service.EmailEventFactory;
+import com.selco.auth.service.JwtService;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do aquecimento antes da readiness: orçamento de tempo e falhas de conexão no relatório
+ */
+@DisplayName("Aquecimento na inicialização")
+class WarmupRunnerTest {
+
+    private final JwtService jwtService = mock(JwtService.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    private WarmupRunner criarRunner(long orcamentoMs, boolean conexoes) {
+        when(jwtService.generateAccessToken(anyString(), anyString(), anyString())).thenReturn("token");
+
+        WarmupRunner runner = new WarmupRunner();
+        ReflectionTestUtils.setField(runner, "jwtService", jwtService);
+        ReflectionTestUtils.setField(runner, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(runner, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(runner, "eventCodecRegistry", new EventCodecRegistry(List.of(new JsonEventCodec())));
+        ReflectionTestUtils.setField(runner, "emailEventFactory", mock(EmailEventFactory.class));
+        ReflectionTestUtils.setField(runner, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(runner, "usuarioRepository", mock(UsuarioRepository.class));
+        ReflectionTestUtils.setField(runner, "redisTemplate", mock(RedisTemplate.class));
+        ReflectionTestUtils.setField(runner, "rabbitTemplate", mock(RabbitTemplate.class));
+        ReflectionTestUtils.setField(runner, "habilitado", true);
+        ReflectionTestUtils.setField(runner, "orcamentoMs", orcamentoMs);
+        ReflectionTestUtils.setField(runner, "iteracoes", 50);
+        ReflectionTestUtils.setField(runner, "iteracoesBcrypt", 4);
+        ReflectionTestUtils.setField(runner, "conexoesHabilitadas", conexoes);
+        ReflectionTestUtils.setField(runner, "conexoesMongo", 2);
+        ReflectionTestUtils.setField(runner, "userCodecNome", "json");
+        ReflectionTestUtils.setField(runner, "emailCodecNome", "json");
+        ReflectionTestUtils.setField(runner, "auditCodecNome", "json");
+        return runner;
+    }
+
+    private static Map<String, WarmupRunner.Etapa> porNome(WarmupRunner runner) {
+        return runner.getRelatorio().stream().collect(Collectors.toMap(WarmupRunner.Etapa::nome, Function.identity()));
+    }
+
+    @Test
+    @DisplayName("Executa todas as etapas dentro do orçamento e relata as iterações")
+    void executaTodasAsEtapas() {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        WarmupRunner runner = criarRunner(10_000, true);
+
+        runner.run(null);
+
+        Map<String, WarmupRunner.Etapa> etapas = porNome(runner);
+        assertThat(etapas).containsOnlyKeys("jwt", "bcrypt", "json", "eventos", "mongo", "redis", "rabbitmq");
+        assertThat(etapas.get("jwt").iteracoes()).isEqualTo(50);
+        assertThat(etapas.get("bcrypt").iteracoes()).isEqualTo(4);
+        assertThat(etapas.get("eventos").erro()).isNull();
+        assertThat(etapas.get("mongo").erro()).isNull();
+    }
+
+    @Test
+    @DisplayName("Interrompe o aquecimento quando o orçamento esgota")
+    void respeitaOrcamento() {
+        when(passwordEncoder.matches(any(), any())).thenAnswer(chamada -> {
+            Thread.sleep(300);
+            return true;
+        });
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        WarmupRunner runner = criarRunner(200, false);
+
+        long inicio = System.nanoTime();
+        runner.run(null);
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertThat(duracaoMs).isLessThan(2_000);
+        assertThat(ReflectionTestUtils.getField(runner, "orcamentoEsgotado")).isEqualTo(true);
+        WarmupRunner.Etapa json = porNome(runner).get("json");
+        assertThat(json.iteracoes()).isZero();
+        assertThat(json.erro()).isEqualTo("orçamento esgotado");
+    }
+
+    @Test
+    @DisplayName("Falha de conexão fica no relatório sem impedir as demais etapas")
+    void registraFalhaDeConexao() {
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+        when(mongoTemplate.executeCommand(any(Document.class))).thenThrow(new IllegalStateException("Timed out while waiting for a server"));
+        WarmupRunner runner = criarRunner(10_000, true);
+
+        runner.run(null);
+
+        Map<String, WarmupRunner.Etapa> etapas = porNome(runner);
+        assertThat(etapas.get("mongo").erro()).contains("Timed out");
+        assertThat(etapas.get("redis").erro()).isNull();
+        assertThat(etapas.get("rabbitmq").erro()).isNull();
+    }
+}
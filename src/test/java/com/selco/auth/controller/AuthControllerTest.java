@@ -0,0 +1,268 @@
+package com.selco.auth.controller;
+
+import com.selco.auth.cache.CacheCoherenceService;
+import com.selco.auth.cache.LocalCache;
+import com.selco.auth.dto.IntrospeccaoDTO;
+import com.selco.auth.model.Usuario;
+import com.selco.auth.repository.UsuarioRepository;
+import com.selco.auth.service.AuthMetrics;
+import com.selco.auth.service.AuthService;
+import com.selco.auth.service.CadastroService;
+import com.selco.auth.service.IntrospectionService;
+import com.selco.auth.service.IntrospectionService.Introspeccao;
+import com.selco.auth.service.JwtService;
+import com.selco.auth.service.SessionRegistry;
+import com.selco.auth.service.TokenBlacklistService;
+import com.selco.auth.service.TokenBlacklistStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes dos cabeçalhos HTTP dos endpoints de autenticação usados pelos gateways
+ * /auth/check passa pela validação real (JwtService, blacklist em memória), com usuários e sessões simulados
+ */
+@DisplayName("Endpoints de autenticação")
+class AuthControllerTest {
+
+    private static final String ETAG = "\"c2Vzc2FvLTEtYXRpdm8\"";
+    private static final String SEGREDO = "segredo-de-teste-com-pelo-menos-256-bits-para-hmac";
+
+    private final IntrospectionService introspectionService = mock(IntrospectionService.class);
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final SessionRegistry sessionRegistry = mock(SessionRegistry.class);
+    private final Usuario usuario = new Usuario("joao.silva@empresa.com", "hash", "FUNCIONARIO", "ATIVO");
+    private AuthMetrics authMetrics;
+    private JwtService jwtService;
+    private TokenBlacklistService tokenBlacklistService;
+    private MockMvc mockMvc;
+
+    private JwtService jwtService(long expiracaoMs) {
+        JwtService servico = new JwtService();
+        ReflectionTestUtils.setField(servico, "jwtSecret", SEGREDO);
+        ReflectionTestUtils.setField(servico, "jwtExpirationTime", expiracaoMs);
+        ReflectionTestUtils.setField(servico, "refreshExpirationTime", 7 * 86_400_000L);
+        ReflectionTestUtils.setField(servico, "authMetrics", authMetrics);
+        return servico;
+    }
+
+    /**
+     * Blacklist em memória, sem TTL
+     */
+    private static TokenBlacklistStore blacklistEmMemoria() {
+        Set<String> chaves = ConcurrentHashMap.newKeySet();
+        return new TokenBlacklistStore() {
+            @Override
+            public void adicionar(String token, Duration ttl) {
+                chaves.add(token);
+            }
+
+            @Override
+            public boolean contem(String token) {
+                return chaves.contains(token);
+            }
+
+            @Override
+            public long limpar() {
+                long tamanho = chaves.size();
+                chaves.clear();
+                return tamanho;
+            }
+
+            @Override
+            public long tamanho() {
+                return chaves.size();
+            }
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        authMetrics = new AuthMetrics();
+        ReflectionTestUtils.setField(authMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(authMetrics, "percentis", new double[0]);
+        jwtService = jwtService(3_600_000L);
+
+        CacheCoherenceService cacheCoherenceService = mock(CacheCoherenceService.class);
+        when(cacheCoherenceService.getUsuarios()).thenReturn(new LocalCache<>("usuarios", false, 0, 0, 0));
+        when(cacheCoherenceService.getBlacklist()).thenReturn(new LocalCache<>("blacklist", false, 0, 0, 0));
+
+        tokenBlacklistService = new TokenBlacklistService();
+        ReflectionTestUtils.setField(tokenBlacklistService, "blacklistStore", blacklistEmMemoria());
+        ReflectionTestUtils.setField(tokenBlacklistService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(tokenBlacklistService, "authMetrics", authMetrics);
+        ReflectionTestUtils.setField(tokenBlacklistService, "cacheCoherenceService", cacheCoherenceService);
+
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "usuarioRepository", usuarioRepository);
+        ReflectionTestUtils.setField(authService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(authService, "tokenBlacklistService", tokenBlacklistService);
+        ReflectionTestUtils.setField(authService, "authMetrics", authMetrics);
+        ReflectionTestUtils.setField(authService, "cacheCoherenceService", cacheCoherenceService);
+        ReflectionTestUtils.setField(authService, "sessionRegistry", sessionRegistry);
+
+        usuario.setId("676a1b2c3d4e5f6789012345");
+        when(usuarioRepository.buscarParaValidacao(usuario.getEmail())).thenReturn(Optional.of(usuario));
+
+        AuthController controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "authService", authService);
+        ReflectionTestUtils.setField(controller, "cadastroService", mock(CadastroService.class));
+        ReflectionTestUtils.setField(controller, "introspectionService", introspectionService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private static MockHttpServletRequestBuilder introspeccao() {
+        return post("/auth/introspect")
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("token", "token-consultado");
+    }
+
+    private void tokenAtivo() {
+        IntrospeccaoDTO corpo = IntrospeccaoDTO.ativo("joao.silva@empresa.com", IntrospectionService.ACCESS_TOKEN,
+                1735039845L, 1735011045L, "676a1b2c3d4e5f6789012345", "FUNCIONARIO", "sessao-1");
+        when(introspectionService.introspectar("token-consultado")).thenReturn(new Introspeccao(corpo, 10, ETAG));
+    }
+
+    @Test
+    @DisplayName("Introspecção: resposta com dados do usuário é privada e traz ETag")
+    void introspeccaoPrivada() throws Exception {
+        tokenAtivo();
+
+        mockMvc.perform(introspeccao())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10, private"))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(jsonPath("$.active").value(true))
+                .andExpect(jsonPath("$.sid").value("sessao-1"));
+    }
+
+    @Test
+    @DisplayName("Introspecção: If-None-Match com o ETag, em lista, fraco ou * responde 304")
+    void introspeccaoNaoModificada() throws Exception {
+        tokenAtivo();
+
+        for (String ifNoneMatch : new String[] { ETAG, "W/" + ETAG, "\"outra\", " + ETAG, "*" }) {
+            mockMvc.perform(introspeccao().header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                    .andExpect(content().string(""));
+        }
+
+        mockMvc.perform(introspeccao().header(HttpHeaders.IF_NONE_MATCH, "\"outra\", W/\"mais-uma\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Introspecção: erro na validação não é armazenado")
+    void introspeccaoComErro() throws Exception {
+        when(introspectionService.introspectar("token-consultado"))
+                .thenReturn(new Introspeccao(IntrospeccaoDTO.inativo(), -1, null));
+
+        mockMvc.perform(introspeccao().header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+    }
+
+    private String accessToken(JwtService emissor, String sessaoId) {
+        return emissor.generateAccessToken(usuario.getEmail(), usuario.getTipoUsuario(), usuario.getId(), sessaoId);
+    }
+
+    @Test
+    @DisplayName("Check: token válido responde 204 com os cabeçalhos do usuário")
+    void checkValido() throws Exception {
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken(jwtService, "sessao-1")))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(AuthController.HEADER_USUARIO_ID, usuario.getId()))
+                .andExpect(header().string(AuthController.HEADER_USUARIO_EMAIL, usuario.getEmail()))
+                .andExpect(header().string(AuthController.HEADER_USUARIO_TIPO, "FUNCIONARIO"))
+                .andExpect(content().string(""));
+
+        verify(sessionRegistry).registrarAcesso("sessao-1");
+    }
+
+    @Test
+    @DisplayName("Check: sem token ou com token malformado responde 401")
+    void checkSemTokenOuMalformado() throws Exception {
+        mockMvc.perform(get("/auth/check"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Basic am9hbzpzZW5oYQ=="))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer nao.e.jwt"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(AuthController.HEADER_USUARIO_ID));
+
+        String valido = accessToken(jwtService, "sessao-1");
+        String adulterado = valido.substring(0, valido.length() - 4) + "AAAA";
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer " + adulterado))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Check: token expirado responde 401")
+    void checkExpirado() throws Exception {
+        String expirado = accessToken(jwtService(-60_000L), "sessao-1");
+
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer " + expirado))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(AuthController.HEADER_USUARIO_ID));
+    }
+
+    @Test
+    @DisplayName("Check: refresh token válido responde 401")
+    void checkRefreshToken() throws Exception {
+        String refresh = jwtService.generateRefreshToken(usuario.getEmail(), "sessao-1");
+
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer " + refresh))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(AuthController.HEADER_USUARIO_ID));
+
+        verify(sessionRegistry, never()).registrarAcesso(any());
+    }
+
+    @Test
+    @DisplayName("Check: token na blacklist (logout) responde 401")
+    void checkNaBlacklist() throws Exception {
+        String token = accessToken(jwtService, "sessao-1");
+        tokenBlacklistService.invalidateToken(token);
+
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Check: token de sessão revogada responde 401; outras sessões continuam valendo")
+    void checkSessaoRevogada() throws Exception {
+        String revogada = accessToken(jwtService, "sessao-1");
+        String outra = accessToken(jwtService, "sessao-2");
+        tokenBlacklistService.revogarSessao("sessao-1");
+
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer " + revogada))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/auth/check").header(HttpHeaders.AUTHORIZATION, "Bearer " + outra))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -0,0 +1,72 @@
+package com.selco.auth.controller;
+
+import com.selco.auth.service.EmailTemplateRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes do cache HTTP do registro de templates de email
+ */
+@DisplayName("Registro de templates de email")
+class EmailTemplateControllerTest {
+
+    private MockMvc mockMvc;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EmailTemplateRegistry registry = new EmailTemplateRegistry();
+        ReflectionTestUtils.setField(registry, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(registry, "localizacao", "classpath:email/templates.json");
+        registry.carregar();
+        etag = "\"" + registry.getVersaoCatalogo() + "\"";
+
+        EmailTemplateController controller = new EmailTemplateController();
+        ReflectionTestUtils.setField(controller, "emailTemplateRegistry", registry);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @DisplayName("Catálogo com ETag da versão e 304 quando o ETag confere")
+    void catalogoComEtag() throws Exception {
+        mockMvc.perform(get("/auth/email-templates"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300"))
+                .andExpect(jsonPath("$.templates").isArray());
+
+        mockMvc.perform(get("/auth/email-templates").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/auth/email-templates").header(HttpHeaders.IF_NONE_MATCH, "\"outra\", " + etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/auth/email-templates").header(HttpHeaders.IF_NONE_MATCH, "\"outra\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Versão publicada é imutável; versão inexistente retorna 404")
+    void templatePorVersao() throws Exception {
+        mockMvc.perform(get("/auth/email-templates/login-falha/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+
+        mockMvc.perform(get("/auth/email-templates/login-falha/99"))
+                .andExpect(status().isNotFound());
+    }
+}
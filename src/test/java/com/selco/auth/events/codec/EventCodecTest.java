@@ -0,0 +1,55 @@
+package com.selco.auth.events.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.selco.auth.events.EmailParaEnvio;
+import com.selco.auth.events.UsuarioCriado;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ida e volta dos eventos em cada codec e bytes no fio em relação ao formato anterior
+ * (JSON serializado como string e codificado de novo pelo conversor)
+ * O tempo de serialização é medido em EventoSerializacaoBenchmark, no módulo benchmarks
+ */
+@DisplayName("Codecs de eventos")
+class EventCodecTest {
+
+    private final List<EventCodec> codecs = List.of(new JsonEventCodec(), new SmileEventCodec(), new CborEventCodec());
+
+    private final UsuarioCriado usuarioCriado = new UsuarioCriado(
+            "676a1b2c3d4e5f6789012345", "joao.silva@selco.com.br", "João Silva", "Tecnologia",
+            "Desenvolvedor", "FUNCIONARIO", "ATIVO", LocalDateTime.of(2024, 12, 23, 14, 30, 45), "123456");
+
+    private final EmailParaEnvio emailCadastro = EmailParaEnvio.cadastroFuncionario(
+            "joao.silva@selco.com.br", "João Silva", "123456");
+
+    @Test
+    @DisplayName("Codecs fazem ida e volta e são menores que o formato anterior")
+    void compararCodecs() throws Exception {
+        for (Object evento : List.of(usuarioCriado, emailCadastro)) {
+            int bytesAnterior = bytesFormatoAnterior(evento);
+
+            for (EventCodec codec : codecs) {
+                byte[] dados = codec.serializar(evento);
+                Object lido = codec.desserializar(dados, evento.getClass());
+                assertThat(lido).usingRecursiveComparison().isEqualTo(evento);
+                assertThat(dados.length).as(codec.getNome()).isLessThan(bytesAnterior);
+            }
+        }
+    }
+
+    private int bytesFormatoAnterior(Object evento) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        String json = objectMapper.writeValueAsString(evento);
+        return new Jackson2JsonMessageConverter().toMessage(json, new MessageProperties()).getBody().length;
+    }
+}
@@ -58,6 +58,11 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.rabbitmq.port", () -> "0");
         registry.add("app.rabbitmq.enabled", () -> "false");
         
+        // Tarefas de inicialização do MongoDB (desligadas no profile test sem containers)
+        registry.add("app.audit.timeseries.enabled", () -> "true");
+        registry.add("app.mongodb.indexes.ensure-on-startup", () -> "true");
+        registry.add("app.mongodb.query-advisor.enabled", () -> "true");
+        
         // Configurações de logging para testes
         registry.add("logging.level.com.selco.auth", () -> "DEBUG");
         registry.add("logging.level.org.springframework.security", () -> "DEBUG");
@@ -0,0 +1,213 @@
+package com.selco.auth.load;
+
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.model.Usuario;
+import com.selco.auth.repository.LogAcessoRepository;
+import com.selco.auth.repository.TokenRepository;
+import com.selco.auth.repository.UsuarioRepository;
+import com.selco.auth.service.TokenBlacklistStore;
+import org.bson.types.ObjectId;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Substitui MongoDB, Redis e RabbitMQ por implementações em memória para o teste de carga (profile load)
+ * O restante do contexto é o real: filtros de segurança, controllers, serialização, BCrypt e JWT
+ */
+@Configuration
+@Profile("load")
+public class LoadTestConfiguration {
+
+    /**
+     * Usuários em um mapa por email; responde apenas os métodos usados por login, cadastro e pelo harness
+     * Com load.dataset, começa com os usuários exportados pelo DatasetGenerator
+     */
+    @Bean
+    @Primary
+    public UsuarioRepository usuarioRepositoryEmMemoria(@Value("${load.dataset:}") String dataset) throws IOException {
+        Map<String, Usuario> usuarios = new ConcurrentHashMap<>();
+        if (!dataset.isBlank()) {
+            DatasetGenerator.lerUsuarios(Paths.get(dataset, DatasetGenerator.ARQUIVO_USUARIOS),
+                    usuario -> usuarios.put(usuario.getEmail(), usuario));
+        }
+        return repositorio(UsuarioRepository.class, (metodo, argumentos) -> switch (metodo) {
+            case "findByEmail", "buscarParaValidacao" -> Optional.ofNullable(usuarios.get((String) argumentos[0]));
+            case "findByStatus" -> {
+                List<Usuario> encontrados = usuarios.values().stream()
+                        .filter(usuario -> argumentos[0].equals(usuario.getStatus()))
+                        .toList();
+                yield encontrados;
+            }
+            case "existsByEmail" -> usuarios.containsKey((String) argumentos[0]);
+            case "save", "insert" -> {
+                Usuario usuario = (Usuario) argumentos[0];
+                if (usuario.getId() == null) {
+                    usuario.setId(new ObjectId().toHexString());
+                }
+                usuarios.put(usuario.getEmail(), usuario);
+                yield usuario;
+            }
+            case "count" -> (long) usuarios.size();
+            default -> throw new UnsupportedOperationException("UsuarioRepository em memória: " + metodo);
+        });
+    }
+
+    /**
+     * Logs de acesso apenas contados; guardar todos esgotaria o heap em execuções longas
+     */
+    @Bean
+    @Primary
+    public LogAcessoRepository logAcessoRepositoryEmMemoria(ContadoresEmMemoria contadores) {
+        return repositorio(LogAcessoRepository.class, (metodo, argumentos) -> switch (metodo) {
+            case "save", "insert" -> {
+                contadores.logsAcesso.incrementAndGet();
+                yield argumentos[0];
+            }
+            case "count" -> contadores.logsAcesso.get();
+            default -> throw new UnsupportedOperationException("LogAcessoRepository em memória: " + metodo);
+        });
+    }
+
+    /**
+     * Sessões do login apenas contadas, pelo mesmo motivo dos logs; listagem e revogação não são exercitadas
+     */
+    @Bean
+    @Primary
+    public TokenRepository tokenRepositoryEmMemoria(ContadoresEmMemoria contadores) {
+        return repositorio(TokenRepository.class, (metodo, argumentos) -> switch (metodo) {
+            case "save", "insert" -> {
+                contadores.sessoes.incrementAndGet();
+                yield argumentos[0];
+            }
+            case "findById" -> Optional.empty();
+            case "findByUsuarioIdOrderByDataCriacaoDesc" -> List.of();
+            case "deleteById" -> null;
+            case "count" -> contadores.sessoes.get();
+            default -> throw new UnsupportedOperationException("TokenRepository em memória: " + metodo);
+        });
+    }
+
+    @Bean
+    @Primary
+    public TokenBlacklistStore tokenBlacklistStoreEmMemoria() {
+        return new BlacklistEmMemoria();
+    }
+
+    /**
+     * RabbitTemplate que descarta as mensagens já serializadas pelo EventPublisherService
+     * O ConnectionFactory só é exigido na inicialização; nenhuma conexão é aberta
+     */
+    @Bean
+    @Primary
+    public RabbitTemplate rabbitTemplateEmMemoria(ConnectionFactory connectionFactory, ContadoresEmMemoria contadores) {
+        return new RabbitTemplate(connectionFactory) {
+            @Override
+            public void send(String exchange, String routingKey, Message message) {
+                contadores.mensagens.incrementAndGet();
+            }
+
+            @Override
+            public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+                contadores.mensagens.incrementAndGet();
+            }
+        };
+    }
+
+    @Bean
+    public ContadoresEmMemoria contadoresEmMemoria() {
+        return new ContadoresEmMemoria();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repositorio(Class<T> tipo, Metodos metodos) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "toString" -> tipo.getSimpleName() + " em memória";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == argumentos[0];
+                    default -> metodos.invocar(metodo.getName(), argumentos);
+                });
+    }
+
+    @FunctionalInterface
+    private interface Metodos {
+        Object invocar(String metodo, Object[] argumentos);
+    }
+
+    /**
+     * Totais do que chegaria aos serviços externos, para conferência no relatório
+     */
+    public static class ContadoresEmMemoria {
+
+        private final AtomicLong mensagens = new AtomicLong();
+        private final AtomicLong logsAcesso = new AtomicLong();
+        private final AtomicLong sessoes = new AtomicLong();
+
+        public long getMensagens() {
+            return mensagens.get();
+        }
+
+        public long getLogsAcesso() {
+            return logsAcesso.get();
+        }
+
+        public long getSessoes() {
+            return sessoes.get();
+        }
+    }
+
+    /**
+     * Blacklist em um mapa token -> instante de expiração; entradas vencidas saem na consulta
+     */
+    static class BlacklistEmMemoria implements TokenBlacklistStore {
+
+        private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+
+        @Override
+        public void adicionar(String token, Duration ttl) {
+            tokens.put(token, System.currentTimeMillis() + ttl.toMillis());
+        }
+
+        @Override
+        public boolean contem(String token) {
+            Long expiraEm = tokens.get(token);
+            if (expiraEm == null) {
+                return false;
+            }
+            if (expiraEm <= System.currentTimeMillis()) {
+                tokens.remove(token, expiraEm);
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public long limpar() {
+            long removidos = tokens.size();
+            tokens.clear();
+            return removidos;
+        }
+
+        @Override
+        public long tamanho() {
+            return tokens.size();
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.selco.auth.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selco.auth.SelcoAuthServiceApplication;
+import com.selco.auth.load.LoadTestConfiguration.ContadoresEmMemoria;
+import com.selco.auth.model.Usuario;
+import com.selco.auth.repository.UsuarioRepository;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga de ponta a ponta: sobe o contexto completo no profile load (MongoDB, Redis e RabbitMQ
+ * em memória, ver LoadTestConfiguration) e dispara uma mistura de cadastro, login, validação (validate
+ * ou check) e logout pela pilha HTTP real, com latências em histogramas HDR por endpoint
+ *
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.selco.auth.load.LoadTestHarness \
+ *   -Dload.concurrency=32 -Dload.duration-seconds=60 -Dload.mix=login=20,validate=60,logout=10,register=10
+ *
+ * Propriedades (-D): load.concurrency (16), load.warmup-seconds (10), load.duration-seconds (30),
+ * load.mix (login=25,validate=55,logout=10,register=10), load.users (200), load.output (diretório
+ * para gravar a distribuição completa de cada endpoint em .hgrm; opcional) e load.dataset (diretório
+ * exportado pelo DatasetGenerator; os logins passam a usar os usuários ATIVO da base em vez de load.users)
+ */
+public class LoadTestHarness {
+
+    static final String SENHA = "123456";
+    static final String DOMINIO = "@selco.com.br";
+
+    private static final String USER_AGENT = "selco-load-test";
+    // Até 1 minuto por requisição com 3 dígitos significativos
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(1);
+    // Global para que execuções seguidas no mesmo contexto não repitam emails de cadastro
+    private static final AtomicLong SEQUENCIA_CADASTRO = new AtomicLong();
+
+    public enum Operacao {
+        REGISTER("register", "/auth/register", 201),
+        LOGIN("login", "/auth/login", 200),
+        VALIDATE("validate", "/auth/validate", 200),
+        CHECK("check", "/auth/check", 204),
+        LOGOUT("logout", "/auth/logout", 200);
+
+        private final String nome;
+        private final String caminho;
+        private final int statusEsperado;
+
+        Operacao(String nome, String caminho, int statusEsperado) {
+            this.nome = nome;
+            this.caminho = caminho;
+            this.statusEsperado = statusEsperado;
+        }
+
+        static Operacao porNome(String nome) {
+            for (Operacao operacao : values()) {
+                if (operacao.nome.equals(nome)) {
+                    return operacao;
+                }
+            }
+            throw new IllegalArgumentException("Operação desconhecida em load.mix: " + nome);
+        }
+    }
+
+    /**
+     * Parâmetros de uma execução; pesos da mistura são relativos
+     */
+    public record Parametros(int concorrencia, Duration aquecimento, Duration duracao,
+                             Map<Operacao, Integer> mistura, int usuarios) {
+
+        public static Parametros doSistema() {
+            return new Parametros(
+                    Integer.getInteger("load.concurrency", 16),
+                    Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10)),
+                    Duration.ofSeconds(Long.getLong("load.duration-seconds", 30)),
+                    lerMistura(System.getProperty("load.mix", "login=25,validate=55,logout=10,register=10")),
+                    Integer.getInteger("load.users", 200));
+        }
+
+        static Map<Operacao, Integer> lerMistura(String texto) {
+            Map<Operacao, Integer> mistura = new EnumMap<>(Operacao.class);
+            for (String item : texto.split(",")) {
+                String[] partes = item.trim().split("=");
+                mistura.put(Operacao.porNome(partes[0].trim()), Integer.parseInt(partes[1].trim()));
+            }
+            return mistura;
+        }
+    }
+
+    /**
+     * Resultado de um endpoint na janela de medição (após o aquecimento)
+     */
+    public record Medicao(long requisicoes, long erros, double porSegundo, Histogram latenciasUs) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Parametros parametros = Parametros.doSistema();
+        String saida = System.getProperty("load.output");
+
+        ServletWebServerApplicationContext contexto = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+                SelcoAuthServiceApplication.class)
+                .profiles("load")
+                .properties("server.port=0")
+                .run(args);
+        try {
+            String urlBase = "http://localhost:" + contexto.getWebServer().getPort()
+                    + contexto.getEnvironment().getProperty("server.servlet.context-path", "");
+            UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+            List<String> emails = System.getProperty("load.dataset") != null
+                    ? usuarioRepository.findByStatus("ATIVO").stream().map(Usuario::getEmail).toList()
+                    : semearUsuarios(usuarioRepository, contexto.getBean(PasswordEncoder.class), parametros.usuarios());
+
+            Map<Operacao, Medicao> resultado = executar(urlBase, parametros, emails);
+
+            imprimir(System.out, parametros, resultado);
+            ContadoresEmMemoria contadores = contexto.getBean(ContadoresEmMemoria.class);
+            System.out.printf("%nMensagens publicadas: %d  logs de acesso: %d%n",
+                    contadores.getMensagens(), contadores.getLogsAcesso());
+            if (saida != null) {
+                gravarDistribuicoes(Paths.get(saida), resultado);
+            }
+        } finally {
+            SpringApplication.exit(contexto);
+        }
+    }
+
+    /**
+     * Cadastra os usuários de login diretamente no repositório; o hash é calculado uma vez
+     * porque o BCrypt de custo 12 levaria minutos para algumas centenas de usuários
+     * Retorna os emails cadastrados, todos com a senha SENHA
+     */
+    public static List<String> semearUsuarios(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder,
+                                              int quantidade) {
+        String senhaHash = passwordEncoder.encode(SENHA);
+        List<String> emails = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Usuario usuario = new Usuario("carga." + i + DOMINIO, senhaHash, "FUNCIONARIO", "ATIVO");
+            usuario.setDataCriacao(LocalDateTime.now());
+            usuarioRepository.save(usuario);
+            emails.add(usuario.getEmail());
+        }
+        return emails;
+    }
+
+    /**
+     * Executa a mistura contra urlBase com uma thread por cliente simulado e devolve a medição por endpoint
+     * Login usa um dos emails informados (senha SENHA); validação e logout usam tokens obtidos pelo próprio
+     * cliente e, sem token disponível, o cliente faz login
+     */
+    public static Map<Operacao, Medicao> executar(String urlBase, Parametros parametros, List<String> emails)
+            throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Map<Operacao, ConcurrentHistogram> histogramas = new EnumMap<>(Operacao.class);
+        Map<Operacao, LongAdder> erros = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : Operacao.values()) {
+            histogramas.put(operacao, new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3));
+            erros.put(operacao, new LongAdder());
+        }
+
+        long inicioMedicao = System.nanoTime() + parametros.aquecimento().toNanos();
+        long fim = inicioMedicao + parametros.duracao().toNanos();
+        Operacao[] sorteio = tabelaSorteio(parametros.mistura());
+
+        ExecutorService clientes = Executors.newFixedThreadPool(parametros.concorrencia());
+        try {
+            List<Future<?>> execucoes = new ArrayList<>();
+            for (int i = 0; i < parametros.concorrencia(); i++) {
+                Cliente cliente = new Cliente(httpClient, urlBase, emails);
+                execucoes.add(clientes.submit(() -> {
+                    long agora;
+                    while ((agora = System.nanoTime()) < fim) {
+                        Operacao operacao = cliente.ajustar(sorteio[ThreadLocalRandom.current().nextInt(sorteio.length)]);
+                        boolean sucesso = cliente.executar(operacao);
+                        long latenciaUs = (System.nanoTime() - agora) / 1_000;
+                        if (agora < inicioMedicao) {
+                            continue;
+                        }
+                        if (sucesso) {
+                            histogramas.get(operacao).recordValue(Math.min(latenciaUs, LATENCIA_MAXIMA_US));
+                        } else {
+                            erros.get(operacao).increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> execucao : execucoes) {
+                execucao.get();
+            }
+        } finally {
+            clientes.shutdownNow();
+        }
+
+        double segundos = parametros.duracao().toNanos() / 1e9;
+        Map<Operacao, Medicao> resultado = new LinkedHashMap<>();
+        for (Operacao operacao : Operacao.values()) {
+            Histogram histograma = histogramas.get(operacao);
+            long requisicoes = histograma.getTotalCount() + erros.get(operacao).sum();
+            resultado.put(operacao, new Medicao(requisicoes, erros.get(operacao).sum(), requisicoes / segundos, histograma));
+        }
+        return resultado;
+    }
+
+    private static Operacao[] tabelaSorteio(Map<Operacao, Integer> mistura) {
+        List<Operacao> tabela = new ArrayList<>();
+        mistura.forEach((operacao, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                tabela.add(operacao);
+            }
+        });
+        if (tabela.isEmpty()) {
+            throw new IllegalArgumentException("load.mix sem operações com peso positivo");
+        }
+        return tabela.toArray(new Operacao[0]);
+    }
+
+    static void imprimir(PrintStream saida, Parametros parametros, Map<Operacao, Medicao> resultado) {
+        saida.printf("%nCarga: %d clientes, %ds de aquecimento, %ds medidos, mistura %s%n",
+                parametros.concorrencia(), parametros.aquecimento().toSeconds(), parametros.duracao().toSeconds(),
+                parametros.mistura());
+        saida.printf("%-9s %10s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        long totalRequisicoes = 0;
+        double totalPorSegundo = 0;
+        for (Map.Entry<Operacao, Medicao> entrada : resultado.entrySet()) {
+            Medicao medicao = entrada.getValue();
+            Histogram latencias = medicao.latenciasUs();
+            saida.printf("%-9s %10d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entrada.getKey().nome, medicao.requisicoes(), medicao.erros(), medicao.porSegundo(),
+                    latencias.getValueAtPercentile(50) / 1000.0, latencias.getValueAtPercentile(90) / 1000.0,
+                    latencias.getValueAtPercentile(99) / 1000.0, latencias.getValueAtPercentile(99.9) / 1000.0,
+                    latencias.getMaxValue() / 1000.0);
+            totalRequisicoes += medicao.requisicoes();
+            totalPorSegundo += medicao.porSegundo();
+        }
+        saida.printf("%-9s %10d %7s %9.1f%n", "total", totalRequisicoes, "", totalPorSegundo);
+    }
+
+    private static void gravarDistribuicoes(Path diretorio, Map<Operacao, Medicao> resultado) throws IOException {
+        Files.createDirectories(diretorio);
+        for (Map.Entry<Operacao, Medicao> entrada : resultado.entrySet()) {
+            Path arquivo = diretorio.resolve(entrada.getKey().nome + ".hgrm");
+            try (PrintStream saida = new PrintStream(Files.newOutputStream(arquivo))) {
+                // Valores em µs, relatório em ms
+                entrada.getValue().latenciasUs().outputPercentileDistribution(saida, 1000.0);
+            }
+        }
+        System.out.println("Distribuições gravadas em " + diretorio.toAbsolutePath());
+    }
+
+    /**
+     * Um cliente simulado: guarda os access tokens dos próprios logins para validar e fazer logout
+     */
+    private static final class Cliente {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+        private static final int MAX_TOKENS = 16;
+
+        private final HttpClient httpClient;
+        private final String urlBase;
+        private final List<String> emails;
+        private final Deque<String> tokens = new ArrayDeque<>();
+
+        private Cliente(HttpClient httpClient, String urlBase, List<String> emails) {
+            this.httpClient = httpClient;
+            this.urlBase = urlBase;
+            this.emails = emails;
+        }
+
+        Operacao ajustar(Operacao sorteada) {
+            if ((sorteada == Operacao.VALIDATE || sorteada == Operacao.CHECK || sorteada == Operacao.LOGOUT) && tokens.isEmpty()) {
+                return Operacao.LOGIN;
+            }
+            return sorteada;
+        }
+
+        boolean executar(Operacao operacao) {
+            try {
+                HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(urlBase + operacao.caminho))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("User-Agent", USER_AGENT)
+                        .header("Content-Type", "application/json");
+                String token = null;
+                switch (operacao) {
+                    case REGISTER -> {
+                        long n = SEQUENCIA_CADASTRO.incrementAndGet();
+                        requisicao.POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                "{\"cpf\":\"%011d\",\"nome\":\"Funcionário %d\",\"email\":\"novo.%d%s\","
+                                        + "\"departamento\":\"Operações\",\"cargo\":\"Analista\"}",
+                                n, n, n, DOMINIO)));
+                    }
+                    case LOGIN -> requisicao.POST(HttpRequest.BodyPublishers.ofString(String.format(
+                            "{\"email\":\"%s\",\"senha\":\"%s\"}",
+                            emails.get(ThreadLocalRandom.current().nextInt(emails.size())), SENHA)));
+                    case VALIDATE -> requisicao.header("Authorization", "Bearer " + tokens.peekLast())
+                            .POST(HttpRequest.BodyPublishers.noBody());
+                    case CHECK -> requisicao.header("Authorization", "Bearer " + tokens.peekLast()).GET();
+                    case LOGOUT -> {
+                        token = tokens.pollFirst();
+                        requisicao.header("Authorization", "Bearer " + token)
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"token\":\"" + token + "\"}"));
+                    }
+                }
+
+                HttpResponse<String> resposta = httpClient.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+                if (resposta.statusCode() != operacao.statusEsperado) {
+                    return false;
+                }
+                if (operacao == Operacao.LOGIN) {
+                    guardarToken(resposta.body());
+                }
+                return true;
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void guardarToken(String corpo) throws IOException {
+            JsonNode token = MAPPER.readTree(corpo).get("accessToken");
+            if (token != null) {
+                if (tokens.size() == MAX_TOKENS) {
+                    tokens.pollFirst();
+                }
+                tokens.addLast(token.asText());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.selco.auth.load;
+
+import com.selco.auth.load.LoadTestHarness.Medicao;
+import com.selco.auth.load.LoadTestHarness.Operacao;
+import com.selco.auth.load.LoadTestHarness.Parametros;
+import com.selco.auth.repository.UsuarioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Execução curta do teste de carga, para garantir que o contexto sobe no profile load
+ * e que todos os endpoints da mistura respondem sem MongoDB, Redis e RabbitMQ
+ * Fora do mvn test padrão pela tag load: mvn -Pload test -Dtest=LoadTestHarnessTest
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load")
+@DisplayName("Teste de carga com serviços em memória")
+class LoadTestHarnessTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private LoadTestConfiguration.ContadoresEmMemoria contadores;
+
+    @Test
+    @DisplayName("Mistura curta executa sem erros e grava os logs de acesso em memória")
+    void executaMisturaSemErros() throws Exception {
+        List<String> emails = LoadTestHarness.semearUsuarios(usuarioRepository, passwordEncoder, 10);
+        Parametros parametros = new Parametros(4, Duration.ZERO, Duration.ofSeconds(3),
+                Parametros.lerMistura("login=25,validate=40,check=20,logout=15"), 10);
+
+        Map<Operacao, Medicao> resultado = LoadTestHarness.executar("http://localhost:" + porta + "/api", parametros, emails);
+        LoadTestHarness.imprimir(System.out, parametros, resultado);
+
+        // Com BCrypt de custo 12 uma janela curta não garante todas as operações; sem cadastro na mistura
+        // e sem aquecimento, o primeiro passo de cada cliente (ainda sem token) é sempre um login medido
+        assertThat(resultado).allSatisfy((operacao, medicao) -> assertThat(medicao.erros()).as(operacao.name()).isZero());
+        assertThat(resultado.get(Operacao.LOGIN).requisicoes()).isPositive();
+        assertThat(contadores.getLogsAcesso()).isPositive();
+        assertThat(contadores.getSessoes()).isPositive();
+    }
+}
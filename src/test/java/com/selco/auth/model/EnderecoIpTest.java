@@ -0,0 +1,54 @@
+package com.selco.auth.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes da conversão de IPs entre texto e binário
+ */
+@DisplayName("Conversão de endereços IP")
+class EnderecoIpTest {
+
+    @Test
+    @DisplayName("IPv4 ocupa 4 bytes e volta ao mesmo texto")
+    void converteIpv4() {
+        byte[] bytes = EnderecoIp.paraBytes("192.168.0.10");
+
+        assertThat(bytes).containsExactly((byte) 192, (byte) 168, 0, 10);
+        assertThat(EnderecoIp.formatar(bytes)).isEqualTo("192.168.0.10");
+    }
+
+    @Test
+    @DisplayName("IPv6 ocupa 16 bytes, inclusive com colchetes e zona")
+    void converteIpv6() {
+        assertThat(EnderecoIp.paraBytes("2001:db8::1")).hasSize(16);
+        assertThat(EnderecoIp.paraBytes("[fe80::1%eth0]")).hasSize(16);
+        assertThat(EnderecoIp.formatar(EnderecoIp.paraBytes("2001:db8::1"))).isEqualTo("2001:db8:0:0:0:0:0:1");
+    }
+
+    @Test
+    @DisplayName("Valores que não são literais de IP retornam null sem consultar DNS")
+    void rejeitaNaoLiterais() {
+        assertThat(EnderecoIp.paraBytes("localhost")).isNull();
+        assertThat(EnderecoIp.paraBytes("exemplo.com.br")).isNull();
+        assertThat(EnderecoIp.paraBytes("256.1.1.1")).isNull();
+        assertThat(EnderecoIp.paraBytes("1.2.3")).isNull();
+        assertThat(EnderecoIp.paraBytes("1.2.3.4.5")).isNull();
+        assertThat(EnderecoIp.paraBytes("1..2.3")).isNull();
+        assertThat(EnderecoIp.paraBytes("unknown")).isNull();
+        assertThat(EnderecoIp.paraBytes("")).isNull();
+        assertThat(EnderecoIp.paraBytes(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("LogAcesso guarda em texto o IP que não é literal")
+    void logAcessoGuardaIpInvalidoEmTexto() {
+        LogAcesso log = new LogAcesso("u1", "proxy-interno", "curl/8.0", false);
+
+        assertThat(log.getOrigem().getIp()).isNull();
+        assertThat(log.getIpTexto()).isEqualTo("proxy-interno");
+        assertThat(log.getIp()).isEqualTo("proxy-interno");
+    }
+}
@@ -0,0 +1,50 @@
+package com.selco.auth.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes da codificação do cursor opaco da paginação de auditoria
+ */
+@DisplayName("Cursor da paginação de logs de acesso")
+class LogAcessoCursorTest {
+
+    private static String base64(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Codifica e decodifica preservando data com nanossegundos e id")
+    void idaEVolta() {
+        LogAcessoCursor cursor = new LogAcessoCursor(LocalDateTime.of(2024, 12, 24, 10, 30, 45, 123_456_789),
+                "676a1b2c3d4e5f6789012345");
+
+        String token = cursor.codificar();
+        LogAcessoCursor decodificado = LogAcessoCursor.decodificar(token);
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(decodificado.getDataHora()).isEqualTo(cursor.getDataHora());
+        assertThat(decodificado.getId()).isEqualTo(cursor.getId());
+    }
+
+    @Test
+    @DisplayName("Cursor adulterado ou malformado é recusado com IllegalArgumentException")
+    void recusaCursorAdulterado() {
+        String valido = new LogAcessoCursor(LocalDateTime.of(2024, 12, 24, 10, 30), "676a1b2c3d4e5f6789012345").codificar();
+        String adulterado = (valido.charAt(0) == 'A' ? "B" : "A") + valido.substring(1);
+
+        assertThatThrownBy(() -> LogAcessoCursor.decodificar(adulterado)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogAcessoCursor.decodificar("não é base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogAcessoCursor.decodificar(base64("2024-12-24T10:30"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogAcessoCursor.decodificar(base64("|676a1b2c3d4e5f6789012345"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogAcessoCursor.decodificar(base64("2024-12-24T10:30|"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LogAcessoCursor.decodificar(base64("ontem|676a1b2c3d4e5f6789012345"))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.selco.auth.repository;
+
+import com.selco.auth.model.LogAcesso;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes das consultas geradas para a paginação por chave e os filtros de auditoria
+ */
+@DisplayName("Consultas de logs de acesso")
+class LogAcessoRepositoryImplTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final LogAcessoRepositoryImpl repository = new LogAcessoRepositoryImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "mongoTemplate", mongoTemplate);
+    }
+
+    private Query consultaExecutada() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(LogAcesso.class));
+        return query.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> condicoes(Query query) {
+        return (List<Document>) query.getQueryObject().get("$and");
+    }
+
+    @Test
+    @DisplayName("Página seguinte começa estritamente depois do cursor, desempatando pelo id na mesma data")
+    void limiteDaPagina() {
+        LocalDateTime dataHora = LocalDateTime.of(2024, 12, 24, 10, 30);
+        String id = "676a1b2c3d4e5f6789012345";
+
+        repository.buscarPagina(null, new LogAcessoCursor(dataHora, id), 101);
+
+        Query query = consultaExecutada();
+        Document chave = condicoes(query).get(0);
+        assertThat(chave.getList("$or", Document.class)).containsExactly(
+                new Document("dataHora", new Document("$lt", dataHora)),
+                new Document("dataHora", dataHora).append("_id", new Document("$lt", new ObjectId(id))));
+        assertThat(query.getSortObject()).isEqualTo(new Document("dataHora", -1).append("_id", -1));
+        assertThat(query.getLimit()).isEqualTo(101);
+    }
+
+    @Test
+    @DisplayName("Primeira página não tem condição de cursor")
+    void primeiraPagina() {
+        repository.buscarPagina(null, null, 10);
+
+        assertThat(consultaExecutada().getQueryObject()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Filtro por IP literal usa origem.ip binário; outro valor filtra ipTexto com origem.ip nulo")
+    void filtroPorIp() {
+        repository.buscarPagina(new LogAcessoFiltro(null, "desconhecido", null, null, null), null, 10);
+
+        Document condicao = condicoes(consultaExecutada()).get(0);
+        assertThat(condicao).containsEntry("origem.ip", null).containsEntry("ipTexto", "desconhecido");
+
+        MongoTemplate outro = mock(MongoTemplate.class);
+        ReflectionTestUtils.setField(repository, "mongoTemplate", outro);
+        repository.buscarPagina(new LogAcessoFiltro(null, "10.0.0.1", null, null, null), null, 10);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(outro).find(query.capture(), eq(LogAcesso.class));
+
+        Document binario = condicoes(query.getValue()).get(0);
+        assertThat((byte[]) binario.get("origem.ip")).containsExactly(10, 0, 0, 1);
+        assertThat(binario).doesNotContainKey("ipTexto");
+    }
+}
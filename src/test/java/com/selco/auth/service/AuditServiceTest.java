@@ -0,0 +1,94 @@
+package com.selco.auth.service;
+
+import com.selco.auth.dto.AuditPaginaDTO;
+import com.selco.auth.dto.LogAcessoDTO;
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.repository.LogAcessoCursor;
+import com.selco.auth.repository.LogAcessoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes dos limites da paginação por chave dos logs de acesso
+ */
+@DisplayName("Paginação de auditoria")
+class AuditServiceTest {
+
+    private final LogAcessoRepository logAcessoRepository = mock(LogAcessoRepository.class);
+    private final AuditService service = new AuditService();
+    private final LocalDateTime base = LocalDateTime.of(2024, 12, 24, 10, 30);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "logAcessoRepository", logAcessoRepository);
+        ReflectionTestUtils.setField(service, "tamanhoPaginaPadrao", 3);
+        ReflectionTestUtils.setField(service, "tamanhoPaginaMaximo", 5);
+    }
+
+    /**
+     * Logs em ordem decrescente de data, com os ids do mais recente para o mais antigo
+     */
+    private List<LogAcesso> logs(int quantidade) {
+        List<LogAcesso> logs = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            LogAcesso log = new LogAcesso("usuario-1", "10.0.0.1", "curl", true);
+            log.setId("id-" + i);
+            log.setDataHora(base.minusSeconds(i));
+            logs.add(log);
+        }
+        return logs;
+    }
+
+    @Test
+    @DisplayName("Registro a mais indica próxima página e o cursor aponta para o último item devolvido")
+    void paginaCheiaTemProxima() {
+        when(logAcessoRepository.buscarPagina(any(), isNull(), eq(4))).thenReturn(logs(4));
+
+        AuditPaginaDTO pagina = service.buscarPagina(null, null, null);
+
+        assertThat(pagina.getItens()).extracting(LogAcessoDTO::getId).containsExactly("id-0", "id-1", "id-2");
+        LogAcessoCursor proximo = LogAcessoCursor.decodificar(pagina.getProximoCursor());
+        assertThat(proximo.getId()).isEqualTo("id-2");
+        assertThat(proximo.getDataHora()).isEqualTo(base.minusSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Página com exatamente o limite é a última: sem cursor")
+    void paginaExataEhUltima() {
+        when(logAcessoRepository.buscarPagina(any(), isNull(), eq(4))).thenReturn(logs(3));
+
+        AuditPaginaDTO pagina = service.buscarPagina(null, " ", 3);
+
+        assertThat(pagina.getItens()).hasSize(3);
+        assertThat(pagina.getProximoCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Limite acima do máximo é reduzido e o cursor recebido é repassado ao repositório")
+    void limiteMaximoECursor() {
+        String cursor = new LogAcessoCursor(base, "id-9").codificar();
+        when(logAcessoRepository.buscarPagina(any(), any(LogAcessoCursor.class), eq(6))).thenReturn(List.of());
+
+        AuditPaginaDTO pagina = service.buscarPagina(null, cursor, 1000);
+
+        assertThat(pagina.getItens()).isEmpty();
+        assertThat(pagina.getProximoCursor()).isNull();
+        verify(logAcessoRepository).buscarPagina(isNull(), any(LogAcessoCursor.class), eq(6));
+        assertThatThrownBy(() -> service.buscarPagina(null, "adulterado", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
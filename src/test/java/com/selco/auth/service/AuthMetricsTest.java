@@ -0,0 +1,61 @@
+package com.selco.auth.service;
+
+import com.selco.auth.service.AuthMetrics.Etapa;
+import com.selco.auth.service.AuthMetrics.Operacao;
+import com.selco.auth.service.AuthMetrics.Resultado;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes dos timers de operações e etapas de autenticação
+ */
+@DisplayName("Métricas de autenticação")
+class AuthMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private AuthMetrics authMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        authMetrics = new AuthMetrics();
+        ReflectionTestUtils.setField(authMetrics, "meterRegistry", registry);
+        ReflectionTestUtils.setField(authMetrics, "histograma", true);
+        ReflectionTestUtils.setField(authMetrics, "percentis", new double[]{0.99});
+    }
+
+    @Test
+    @DisplayName("Operações são separadas por operação e resultado")
+    void registraOperacaoPorResultado() {
+        long inicio = System.nanoTime();
+        authMetrics.operacao(Operacao.LOGIN, Resultado.SENHA_INCORRETA, inicio);
+        authMetrics.operacao(Operacao.LOGIN, Resultado.SENHA_INCORRETA, inicio);
+        authMetrics.operacao(Operacao.LOGIN, Resultado.SUCESSO, inicio);
+
+        Timer senhaIncorreta = registry.get("selco.auth.operation")
+                .tag("operation", "login").tag("outcome", "wrong_password").timer();
+        assertThat(senhaIncorreta.count()).isEqualTo(2);
+        assertThat(registry.get("selco.auth.operation").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Etapa que lança exceção também é medida")
+    void medeEtapaComExcecao() {
+        assertThatThrownBy(() -> authMetrics.medir(Etapa.CONSULTA_BLACKLIST, () -> {
+            throw new IllegalStateException("redis fora");
+        })).isInstanceOf(IllegalStateException.class);
+
+        String valor = authMetrics.medir(Etapa.BUSCA_USUARIO, () -> "usuario");
+
+        assertThat(valor).isEqualTo("usuario");
+        assertThat(registry.get("selco.auth.stage").tag("stage", "blacklist_check").timer().count()).isEqualTo(1);
+        assertThat(registry.get("selco.auth.stage").tag("stage", "user_lookup").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.selco.auth.service;
+
+import com.selco.auth.events.EmailParaEnvio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes dos eventos de email no modo compacto, com o catálogo de templates real
+ */
+@DisplayName("Eventos de email compactos")
+class EmailEventFactoryTest {
+
+    private final EmailEventFactory factory = new EmailEventFactory();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EmailTemplateRegistry registry = new EmailTemplateRegistry();
+        ReflectionTestUtils.setField(registry, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(registry, "localizacao", "classpath:email/templates.json");
+        registry.carregar();
+        ReflectionTestUtils.setField(factory, "emailTemplateRegistry", registry);
+        ReflectionTestUtils.setField(factory, "modo", "compact");
+    }
+
+    @Test
+    @DisplayName("Evento compacto leva template, versão e parâmetros, sem corpo renderizado")
+    void payloadCompacto() {
+        EmailParaEnvio email = factory.cadastroFuncionario("joao.silva@empresa.com", "João Silva", "Tmp#1234");
+
+        assertThat(email.getTemplateId()).isEqualTo("cadastro-funcionario");
+        assertThat(email.getTemplateVersao()).isEqualTo(1);
+        assertThat(email.getCorpo()).isNull();
+        assertThat(email.getParametros()).containsOnlyKeys("nomeUsuario", "email", "senhaTemporaria")
+                .containsEntry("senhaTemporaria", "Tmp#1234");
+    }
+
+    @Test
+    @DisplayName("Nome ou IP ausentes ficam fora dos parâmetros em vez de falhar")
+    void parametrosNulos() {
+        EmailParaEnvio login = factory.notificacaoLogin("joao.silva@empresa.com", null, false, null);
+        EmailParaEnvio resumo = factory.resumoLoginFalha("joao.silva@empresa.com", null, 3,
+                List.of("10.0.0.1"), LocalDateTime.now().minusMinutes(5), LocalDateTime.now());
+
+        assertThat(login.getTemplateId()).isEqualTo("login-falha");
+        assertThat(login.getParametros()).containsOnlyKeys("dataHora");
+        assertThat(resumo.getParametros()).doesNotContainKey("nomeUsuario").containsEntry("tentativas", 3);
+    }
+}
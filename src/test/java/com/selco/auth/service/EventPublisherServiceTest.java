@@ -0,0 +1,125 @@
+package com.selco.auth.service;
+
+import com.selco.auth.events.LogAcessoRegistrado;
+import com.selco.auth.events.codec.EventCodecRegistry;
+import com.selco.auth.events.codec.JsonEventCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes da política de journal cheio na publicação de eventos, com broker simulado e journal real
+ */
+@DisplayName("Publicação de eventos com journal cheio")
+class EventPublisherServiceTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private EventSpillJournal journal;
+    private EventPublisherService service;
+
+    private void criar(String politicaCheio) throws Exception {
+        journal = new EventSpillJournal();
+        ReflectionTestUtils.setField(journal, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(journal, "habilitado", true);
+        ReflectionTestUtils.setField(journal, "diretorio", diretorio.toString());
+        ReflectionTestUtils.setField(journal, "tamanhoSegmento", 4096);
+        ReflectionTestUtils.setField(journal, "maxBytes", 600L);
+        ReflectionTestUtils.setField(journal, "taxaReplayPorSegundo", 1000);
+        ReflectionTestUtils.setField(journal, "intervaloReplayMs", 1000L);
+        ReflectionTestUtils.setField(journal, "politicaCheio", politicaCheio);
+        journal.init();
+
+        service = new EventPublisherService();
+        ReflectionTestUtils.setField(service, "rabbitTemplate", rabbitTemplate);
+        ReflectionTestUtils.setField(service, "publisherConfirmTracker", mock(PublisherConfirmTracker.class));
+        ReflectionTestUtils.setField(service, "eventCodecRegistry", new EventCodecRegistry(List.of(new JsonEventCodec())));
+        ReflectionTestUtils.setField(service, "eventSpillJournal", journal);
+        ReflectionTestUtils.setField(service, "authMetrics", mock(AuthMetrics.class));
+        ReflectionTestUtils.setField(service, "userExchange", "selco.user.exchange");
+        ReflectionTestUtils.setField(service, "emailExchange", "selco.email.exchange");
+        ReflectionTestUtils.setField(service, "auditExchange", "selco.audit.exchange");
+        ReflectionTestUtils.setField(service, "accessLogRoutingKey", "audit.access");
+        ReflectionTestUtils.setField(service, "userCodecNome", "json");
+        ReflectionTestUtils.setField(service, "emailCodecNome", "json");
+        ReflectionTestUtils.setField(service, "auditCodecNome", "json");
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.shutdown();
+    }
+
+    private static LogAcessoRegistrado evento() {
+        return new LogAcessoRegistrado();
+    }
+
+    /**
+     * Broker fora até o journal recusar um evento; retorna quantos eventos ficaram guardados
+     */
+    private long encherJournal() {
+        doThrow(new AmqpConnectException(new RuntimeException("broker fora")))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        for (int i = 0; i < 100; i++) {
+            try {
+                service.publicarLogAcesso(evento());
+            } catch (AmqpException e) {
+                break;
+            }
+        }
+        assertThat(journal.temPendencias()).isTrue();
+        return journal.getRegistrosPendentes();
+    }
+
+    @Test
+    @DisplayName("Política reject: com o journal cheio o evento novo é recusado e não passa à frente do backlog")
+    void rejectMantemOrdem() throws Exception {
+        criar("reject");
+        long pendentes = encherJournal();
+
+        doNothing().when(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        clearInvocations(rabbitTemplate);
+        assertThatThrownBy(() -> service.publicarLogAcesso(evento())).isInstanceOf(AmqpException.class);
+
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class));
+        assertThat(journal.getRegistrosPendentes()).isEqualTo(pendentes);
+    }
+
+    @Test
+    @DisplayName("Política bypass: com o journal cheio o evento novo vai direto ao broker")
+    void bypassEnviaDireto() throws Exception {
+        criar("bypass");
+        long pendentes = encherJournal();
+
+        doNothing().when(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        clearInvocations(rabbitTemplate);
+        service.publicarLogAcesso(evento());
+
+        verify(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        assertThat(journal.getRegistrosPendentes()).isEqualTo(pendentes);
+    }
+}
@@ -0,0 +1,169 @@
+package com.selco.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes do journal local de eventos: ordem de reenvio, limite de tamanho e recuperação após reinício
+ */
+@DisplayName("Journal local de eventos")
+class EventSpillJournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    private EventSpillJournal criarJournal(int tamanhoSegmento, long maxBytes) throws Exception {
+        EventSpillJournal journal = new EventSpillJournal();
+        ReflectionTestUtils.setField(journal, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(journal, "habilitado", true);
+        ReflectionTestUtils.setField(journal, "diretorio", diretorio.toString());
+        ReflectionTestUtils.setField(journal, "tamanhoSegmento", tamanhoSegmento);
+        ReflectionTestUtils.setField(journal, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(journal, "taxaReplayPorSegundo", 1000);
+        ReflectionTestUtils.setField(journal, "intervaloReplayMs", 1000L);
+        journal.init();
+        return journal;
+    }
+
+    private static Message mensagem(String corpo) {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType("application/json");
+        propriedades.setType("EmailParaEnvio");
+        return new Message(corpo.getBytes(StandardCharsets.UTF_8), propriedades);
+    }
+
+    @Test
+    @DisplayName("Reenvia em ordem, atravessando segmentos, após o broker voltar")
+    void reenviaEmOrdem() throws Exception {
+        EventSpillJournal journal = criarJournal(256, 1 << 20);
+        for (int i = 0; i < 20; i++) {
+            assertThat(journal.anexar("selco.email.exchange", "email.send", mensagem("evento-" + i))).isTrue();
+        }
+        assertThat(journal.getRegistrosPendentes()).isEqualTo(20);
+
+        journal.setDestino((exchange, routingKey, mensagem) -> {
+            throw new AmqpConnectException(new RuntimeException("broker fora"));
+        });
+        journal.reproduzir();
+        assertThat(journal.getRegistrosPendentes()).isEqualTo(20);
+
+        List<String> recebidos = new ArrayList<>();
+        journal.setDestino((exchange, routingKey, mensagem) -> {
+            assertThat(exchange).isEqualTo("selco.email.exchange");
+            assertThat(mensagem.getMessageProperties().getContentType()).isEqualTo("application/json");
+            recebidos.add(new String(mensagem.getBody(), StandardCharsets.UTF_8));
+        });
+        journal.reproduzir();
+
+        assertThat(recebidos).hasSize(20).startsWith("evento-0", "evento-1").endsWith("evento-19");
+        assertThat(journal.temPendencias()).isFalse();
+        assertThat(journal.getBytesPendentes()).isZero();
+        journal.shutdown();
+    }
+
+    @Test
+    @DisplayName("Recusa eventos acima do limite de bytes pendentes")
+    void respeitaLimiteDeTamanho() throws Exception {
+        EventSpillJournal journal = criarJournal(4096, 200);
+        int aceitos = 0;
+        for (int i = 0; i < 10; i++) {
+            if (journal.anexar("x", "y", mensagem("evento-" + i))) {
+                aceitos++;
+            }
+        }
+        assertThat(aceitos).isBetween(1, 9);
+        assertThat(journal.getBytesPendentes()).isLessThanOrEqualTo(200);
+        journal.shutdown();
+    }
+
+    @Test
+    @DisplayName("Vazão do reenvio dobra enquanto o broker aceita o lote e esvazia o journal mesmo com chegada acima da taxa inicial")
+    void reenvioAdaptativoSuperaChegada() throws Exception {
+        EventSpillJournal journal = criarJournal(4096, 1 << 20);
+        ReflectionTestUtils.setField(journal, "taxaReplayPorSegundo", 10);
+        int anexados = 0;
+        for (; anexados < 100; anexados++) {
+            journal.anexar("x", "y", mensagem("evento-" + anexados));
+        }
+
+        List<String> recebidos = new ArrayList<>();
+        journal.setDestino((exchange, routingKey, mensagem) -> recebidos.add(new String(mensagem.getBody(), StandardCharsets.UTF_8)));
+        // Chegam 15 eventos por execução, acima dos 10 da vazão inicial
+        int execucoes = 0;
+        while (journal.temPendencias() && execucoes < 20) {
+            for (int i = 0; i < 15; i++, anexados++) {
+                journal.anexar("x", "y", mensagem("evento-" + anexados));
+            }
+            journal.reproduzir();
+            execucoes++;
+        }
+
+        assertThat(journal.temPendencias()).isFalse();
+        assertThat(execucoes).isLessThan(10);
+        assertThat(recebidos).hasSize(anexados).startsWith("evento-0").endsWith("evento-" + (anexados - 1));
+        journal.shutdown();
+    }
+
+    @Test
+    @DisplayName("Falha no reenvio volta à vazão inicial e o teto limita o crescimento")
+    void falhaVoltaAVazaoInicial() throws Exception {
+        EventSpillJournal journal = criarJournal(4096, 1 << 20);
+        ReflectionTestUtils.setField(journal, "taxaReplayPorSegundo", 2);
+        ReflectionTestUtils.setField(journal, "taxaReplayMaximaPorSegundo", 6);
+        for (int i = 0; i < 40; i++) {
+            journal.anexar("x", "y", mensagem("evento-" + i));
+        }
+        List<String> recebidos = new ArrayList<>();
+        journal.setDestino((exchange, routingKey, mensagem) -> recebidos.add(new String(mensagem.getBody(), StandardCharsets.UTF_8)));
+
+        journal.reproduzir();
+        journal.reproduzir();
+        journal.reproduzir();
+        assertThat(recebidos).hasSize(2 + 4 + 6);
+
+        journal.setDestino((exchange, routingKey, mensagem) -> {
+            throw new AmqpConnectException(new RuntimeException("broker fora"));
+        });
+        journal.reproduzir();
+
+        journal.setDestino((exchange, routingKey, mensagem) -> recebidos.add(new String(mensagem.getBody(), StandardCharsets.UTF_8)));
+        journal.reproduzir();
+        assertThat(recebidos).hasSize(12 + 2).endsWith("evento-13");
+        journal.shutdown();
+    }
+
+    @Test
+    @DisplayName("Recupera o backlog a partir do checkpoint após reinício")
+    void recuperaAposReinicio() throws Exception {
+        EventSpillJournal journal = criarJournal(256, 1 << 20);
+        for (int i = 0; i < 10; i++) {
+            journal.anexar("x", "y", mensagem("evento-" + i));
+        }
+        ReflectionTestUtils.setField(journal, "taxaReplayPorSegundo", 4);
+        journal.setDestino((exchange, routingKey, mensagem) -> { });
+        journal.reproduzir();
+        journal.shutdown();
+
+        EventSpillJournal reaberto = criarJournal(256, 1 << 20);
+        assertThat(reaberto.getRegistrosPendentes()).isEqualTo(6);
+
+        List<String> recebidos = new ArrayList<>();
+        reaberto.setDestino((exchange, routingKey, mensagem) -> recebidos.add(new String(mensagem.getBody(), StandardCharsets.UTF_8)));
+        reaberto.reproduzir();
+        assertThat(recebidos).containsExactly("evento-4", "evento-5", "evento-6", "evento-7", "evento-8", "evento-9");
+        reaberto.shutdown();
+    }
+}
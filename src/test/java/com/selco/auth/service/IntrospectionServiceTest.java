@@ -0,0 +1,94 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.Usuario;
+import com.selco.auth.service.AuthMetrics.Operacao;
+import com.selco.auth.service.AuthMetrics.Resultado;
+import com.selco.auth.service.AuthService.Validacao;
+import com.selco.auth.service.IntrospectionService.Introspeccao;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do tempo de cache e do ETag das respostas de introspecção
+ */
+@DisplayName("Introspecção de token")
+class IntrospectionServiceTest {
+
+    private final AuthService authService = mock(AuthService.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final IntrospectionService service = new IntrospectionService();
+    private final Usuario usuario = new Usuario("joao.silva@empresa.com", "hash", "FUNCIONARIO", "ATIVO");
+
+    @BeforeEach
+    void setUp() {
+        usuario.setId("676a1b2c3d4e5f6789012345");
+        ReflectionTestUtils.setField(service, "authService", authService);
+        ReflectionTestUtils.setField(service, "jwtService", jwtService);
+        ReflectionTestUtils.setField(service, "janelaRevogacaoSegundos", 10L);
+        ReflectionTestUtils.setField(service, "maxAgeInativoSegundos", 300L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void tokenAtivo(String token, long segundosRestantes) {
+        long agora = System.currentTimeMillis();
+        Claims claims = Jwts.claims()
+                .subject(usuario.getEmail())
+                .issuedAt(new Date(agora - 60_000))
+                .expiration(new Date(agora + segundosRestantes * 1000))
+                .add("usuarioId", usuario.getId())
+                .add(JwtService.CLAIM_SESSAO, "sessao-1")
+                .build();
+        when(authService.validar(token, Operacao.INTROSPECCAO))
+                .thenReturn(new Validacao(Resultado.SUCESSO, "Token válido e ativo", usuario, null));
+        when(jwtService.extractClaim(eq(token), any(java.util.function.Function.class))).thenReturn(claims);
+    }
+
+    @Test
+    @DisplayName("Token ativo: max-age limitado pela janela de revogação e pelo tempo de vida restante")
+    void maxAgeDeTokenAtivo() {
+        tokenAtivo("longo", 3600);
+        tokenAtivo("curto", 4);
+
+        Introspeccao longo = service.introspectar("longo");
+        Introspeccao curto = service.introspectar("curto");
+
+        assertThat(longo.corpo().isActive()).isTrue();
+        assertThat(longo.corpo().getTokenType()).isEqualTo(IntrospectionService.ACCESS_TOKEN);
+        assertThat(longo.corpo().getSid()).isEqualTo("sessao-1");
+        assertThat(longo.maxAgeSegundos()).isEqualTo(10);
+        assertThat(curto.maxAgeSegundos()).isBetween(3L, 4L);
+        assertThat(longo.etag()).isEqualTo(service.introspectar("longo").etag()).isNotEqualTo(curto.etag());
+    }
+
+    @Test
+    @DisplayName("Token inativo: motivo definitivo fica mais tempo em cache, erro não é armazenado")
+    void maxAgeDeTokenInativo() {
+        when(authService.validar("revogado", Operacao.INTROSPECCAO))
+                .thenReturn(new Validacao(Resultado.TOKEN_BLACKLIST, "Token foi invalidado", null, null));
+        when(authService.validar("desativado", Operacao.INTROSPECCAO))
+                .thenReturn(new Validacao(Resultado.USUARIO_INATIVO, "Usuário não está ativo", null, null));
+        when(authService.validar("erro", Operacao.INTROSPECCAO))
+                .thenReturn(new Validacao(Resultado.ERRO, "Erro na validação do token", null, null));
+
+        Introspeccao revogado = service.introspectar("revogado");
+        Introspeccao desativado = service.introspectar("desativado");
+
+        assertThat(revogado.corpo().isActive()).isFalse();
+        assertThat(revogado.maxAgeSegundos()).isEqualTo(300);
+        assertThat(desativado.maxAgeSegundos()).isEqualTo(10);
+        assertThat(revogado.etag()).isEqualTo(desativado.etag());
+        assertThat(service.introspectar("erro").armazenavel()).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.repository.LogAcessoFiltro;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de escrita e leitura dos segmentos de arquivo de logs de acesso
+ */
+@DisplayName("Arquivo de logs de acesso em segmentos")
+class LogAcessoArchiveTest {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 3, 10);
+
+    @TempDir
+    Path diretorio;
+
+    private LogAcessoArchiveReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new LogAcessoArchiveReader();
+        ReflectionTestUtils.setField(reader, "diretorio", diretorio.toString());
+    }
+
+    @Test
+    @DisplayName("Registros de vários blocos voltam em ordem e filtrados pelo período")
+    void filtraPeriodoEmVariosBlocos() throws IOException {
+        escreverDia(DIA, 2_000, 1024);
+
+        LocalDateTime inicio = DIA.atTime(1, 0);
+        LocalDateTime fim = DIA.atTime(2, 0);
+        List<LogAcesso> logs = reader.buscar(new LogAcessoFiltro(null, null, null, inicio, fim), 10_000);
+
+        // Um registro por minuto a partir da meia-noite
+        assertThat(logs).hasSize(60);
+        assertThat(logs.get(0).getDataHora()).isEqualTo(inicio);
+        assertThat(logs.get(59).getDataHora()).isEqualTo(fim.minusMinutes(1));
+        assertThat(logs).isSortedAccordingTo((a, b) -> a.getDataHora().compareTo(b.getDataHora()));
+    }
+
+    @Test
+    @DisplayName("Campos do registro e filtros de usuário, IP e sucesso são preservados")
+    void preservaCamposEFiltros() throws IOException {
+        escreverDia(DIA, 100, 65536);
+
+        LogAcessoFiltro filtro = new LogAcessoFiltro("usuario-3", "10.0.0.3", false, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay());
+        List<LogAcesso> logs = reader.buscar(filtro, 100);
+
+        assertThat(logs).isNotEmpty().allSatisfy(log -> {
+            assertThat(log.getUsuarioId()).isEqualTo("usuario-3");
+            assertThat(log.getIp()).isEqualTo("10.0.0.3");
+            assertThat(log.isSucesso()).isFalse();
+            assertThat(log.getUserAgent()).isEqualTo("Mozilla/5.0");
+            assertThat(log.getMotivo()).isEqualTo("Senha incorreta");
+        });
+    }
+
+    @Test
+    @DisplayName("Segmento repetido do mesmo dia não duplica registros e o limite é respeitado")
+    void deduplicaERespeitaLimite() throws IOException {
+        escreverDia(DIA, 50, 65536);
+        escreverDia(DIA, 50, 65536);
+
+        LogAcessoFiltro filtro = new LogAcessoFiltro(null, null, null, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay());
+
+        assertThat(reader.buscar(filtro, 1_000)).hasSize(50);
+        assertThat(reader.buscar(filtro, 20)).hasSize(20);
+    }
+
+    @Test
+    @DisplayName("Segmento sem índice publicado é ignorado")
+    void ignoraSegmentoSemIndice() throws IOException {
+        Path segmento = escreverDia(DIA, 10, 65536);
+        Files.delete(segmento.resolveSibling(segmento.getFileName().toString().replace(".seg", ".idx")));
+
+        LogAcessoFiltro filtro = new LogAcessoFiltro(null, null, null, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay());
+
+        assertThat(reader.buscar(filtro, 100)).isEmpty();
+    }
+
+    private Path escreverDia(LocalDate dia, int registros, int tamanhoBloco) throws IOException {
+        try (LogAcessoSegmentWriter writer = new LogAcessoSegmentWriter(diretorio, dia, tamanhoBloco)) {
+            for (int i = 0; i < registros; i++) {
+                boolean sucesso = i % 2 == 0;
+                LogAcesso log = new LogAcesso("usuario-" + (i % 5), "10.0.0." + (i % 5), "Mozilla/5.0", sucesso,
+                        sucesso ? "Login realizado com sucesso" : "Senha incorreta");
+                log.setId(String.format("%024x", i));
+                log.setDataHora(dia.atStartOfDay().plusMinutes(i));
+                writer.adicionar(log);
+            }
+            writer.commit();
+            return writer.getSegmento();
+        }
+    }
+}
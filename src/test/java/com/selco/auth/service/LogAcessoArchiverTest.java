@@ -0,0 +1,149 @@
+package com.selco.auth.service;
+
+import com.mongodb.client.result.DeleteResult;
+import com.selco.auth.model.LogAcesso;
+import com.selco.auth.repository.LogAcessoFiltro;
+import com.selco.auth.repository.LogAcessoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do agendamento e da remoção do arquivamento de logs de acesso
+ */
+@DisplayName("Arquivamento de logs de acesso")
+class LogAcessoArchiverTest {
+
+    private static final LocalDate DIA = LocalDate.now().minusDays(60);
+
+    @TempDir
+    Path diretorio;
+
+    private LogAcessoArchiver archiver;
+    private LogAcessoRepository logAcessoRepository;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        logAcessoRepository = mock(LogAcessoRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+
+        archiver = new LogAcessoArchiver();
+        ReflectionTestUtils.setField(archiver, "logAcessoRepository", logAcessoRepository);
+        ReflectionTestUtils.setField(archiver, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(archiver, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(archiver, "habilitado", true);
+        ReflectionTestUtils.setField(archiver, "diretorio", diretorio.toString());
+        ReflectionTestUtils.setField(archiver, "diasQuentes", 30);
+        ReflectionTestUtils.setField(archiver, "tamanhoBloco", 65536);
+        ReflectionTestUtils.setField(archiver, "maxDiasPorExecucao", 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiver.encerrar();
+    }
+
+    @Test
+    @DisplayName("Habilitado sem diretório persistente falha na inicialização")
+    void exigeDiretorio() {
+        ReflectionTestUtils.setField(archiver, "diretorio", "");
+
+        assertThatThrownBy(archiver::init).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Desabilitado não consulta o MongoDB")
+    void desabilitadoNaoExecuta() {
+        ReflectionTestUtils.setField(archiver, "habilitado", false);
+        archiver.init();
+
+        archiver.arquivar();
+
+        verifyNoInteractions(mongoTemplate, logAcessoRepository);
+    }
+
+    @Test
+    @DisplayName("Execução agendada roda fora da thread do agendador")
+    void executaEmThreadPropria() throws InterruptedException {
+        archiver.init();
+        AtomicReference<String> thread = new AtomicReference<>();
+        CountDownLatch consultou = new CountDownLatch(1);
+        when(mongoTemplate.findOne(any(Query.class), eq(LogAcesso.class))).thenAnswer(invocacao -> {
+            thread.set(Thread.currentThread().getName());
+            consultou.countDown();
+            return null;
+        });
+
+        archiver.arquivar();
+
+        assertThat(consultou.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(thread.get()).isEqualTo("logs-acesso-archive");
+    }
+
+    @Test
+    @DisplayName("Dia só é removido do MongoDB depois que segmento e índice foram publicados")
+    void removeAposPublicarSegmento() {
+        archiver.init();
+        when(mongoTemplate.findOne(any(Query.class), eq(LogAcesso.class))).thenReturn(log(0), (LogAcesso) null);
+        when(logAcessoRepository.exportar(any(LogAcessoFiltro.class))).thenReturn(Stream.of(log(0), log(1), log(2)));
+        AtomicBoolean publicadoAntesDaRemocao = new AtomicBoolean();
+        when(mongoTemplate.remove(any(Query.class), eq(LogAcesso.class))).thenAnswer(invocacao -> {
+            try (Stream<Path> arquivos = Files.list(diretorio)) {
+                List<String> nomes = arquivos.map(arquivo -> arquivo.getFileName().toString()).toList();
+                publicadoAntesDaRemocao.set(nomes.stream().anyMatch(nome -> nome.endsWith(".idx"))
+                        && nomes.stream().noneMatch(nome -> nome.endsWith(".tmp")));
+            }
+            return DeleteResult.acknowledged(3);
+        });
+
+        archiver.executar();
+
+        assertThat(publicadoAntesDaRemocao).isTrue();
+    }
+
+    @Test
+    @DisplayName("Falha ao ler os logs do dia não remove nada do MongoDB")
+    void falhaNaLeituraNaoRemove() {
+        archiver.init();
+        when(mongoTemplate.findOne(any(Query.class), eq(LogAcesso.class))).thenReturn(log(0));
+        when(logAcessoRepository.exportar(any(LogAcessoFiltro.class))).thenThrow(new IllegalStateException("cursor"));
+
+        archiver.executar();
+
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(LogAcesso.class));
+    }
+
+    private LogAcesso log(int minuto) {
+        LogAcesso log = new LogAcesso("usuario-1", "10.0.0.1", "Mozilla/5.0", true, "Login realizado com sucesso");
+        log.setId(String.format("%024x", minuto));
+        log.setDataHora(DIA.atStartOfDay().plusMinutes(minuto));
+        return log;
+    }
+}
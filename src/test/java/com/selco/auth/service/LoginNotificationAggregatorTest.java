@@ -0,0 +1,142 @@
+package com.selco.auth.service;
+
+import com.selco.auth.events.EmailParaEnvio;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da agregação de notificações de login com falha, local e compartilhada entre réplicas
+ */
+@DisplayName("Agregação de notificações de login com falha")
+class LoginNotificationAggregatorTest {
+
+    private static final String DESTINATARIO = "joao.silva@empresa.com";
+
+    /**
+     * Redis em memória que executa os scripts do agregador com a mesma semântica do Lua
+     */
+    static final class RedisEmMemoria extends RedisTemplate<String, String> {
+
+        private final Map<String, Map<String, String>> hashes = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> conjuntos = new ConcurrentHashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            Map<String, String> janela = hashes.computeIfAbsent(keys.get(0), chave -> new ConcurrentHashMap<>());
+            if (script == LoginNotificationAggregator.SCRIPT_REGISTRO) {
+                long tentativas = Long.parseLong(janela.getOrDefault("tentativas", "0")) + 1;
+                janela.put("tentativas", Long.toString(tentativas));
+                if (tentativas > 1) {
+                    janela.putIfAbsent("primeira", (String) args[0]);
+                    janela.put("ultima", (String) args[0]);
+                    Set<String> ips = conjuntos.computeIfAbsent(keys.get(1), chave -> new LinkedHashSet<>());
+                    if (!((String) args[2]).isEmpty() && ips.size() < Integer.parseInt((String) args[3])) {
+                        ips.add((String) args[2]);
+                    }
+                }
+                return (T) Long.valueOf(tentativas);
+            }
+
+            hashes.remove(keys.get(0));
+            Set<String> ips = conjuntos.remove(keys.get(1));
+            if (!janela.containsKey("tentativas")) {
+                return (T) List.of();
+            }
+            List<String> resultado = new ArrayList<>(List.of(janela.get("tentativas"),
+                    janela.getOrDefault("primeira", ""), janela.getOrDefault("ultima", "")));
+            if (ips != null) {
+                resultado.addAll(ips);
+            }
+            return (T) resultado;
+        }
+    }
+
+    private final EventPublisherService eventPublisherService = mock(EventPublisherService.class);
+    private final EmailEventFactory emailEventFactory = mock(EmailEventFactory.class);
+    private final EmailParaEnvio imediata = new EmailParaEnvio();
+    private final EmailParaEnvio resumo = new EmailParaEnvio();
+
+    private LoginNotificationAggregator criar(RedisTemplate<String, String> redis, long janelaSegundos) {
+        when(emailEventFactory.notificacaoLogin(anyString(), anyString(), eq(false), any())).thenReturn(imediata);
+        when(emailEventFactory.resumoLoginFalha(anyString(), anyString(), anyInt(), anyList(), any(), any())).thenReturn(resumo);
+
+        LoginNotificationAggregator aggregator = new LoginNotificationAggregator();
+        ReflectionTestUtils.setField(aggregator, "eventPublisherService", eventPublisherService);
+        ReflectionTestUtils.setField(aggregator, "emailEventFactory", emailEventFactory);
+        ReflectionTestUtils.setField(aggregator, "redisTemplate", redis);
+        ReflectionTestUtils.setField(aggregator, "habilitado", true);
+        ReflectionTestUtils.setField(aggregator, "janelaSegundos", janelaSegundos);
+        ReflectionTestUtils.setField(aggregator, "maxIps", 20);
+        ReflectionTestUtils.setField(aggregator, "maxDestinatarios", 10_000);
+        ReflectionTestUtils.setField(aggregator, "redisHabilitado", redis != null);
+        return aggregator;
+    }
+
+    @Test
+    @DisplayName("Local: primeira falha notificada na hora, as demais em um único resumo com IPs distintos")
+    void coalesceLocal() {
+        LoginNotificationAggregator aggregator = criar(null, 300);
+
+        for (int i = 0; i < 6; i++) {
+            aggregator.registrarFalha(DESTINATARIO, "João", i % 2 == 0 ? "10.0.0.1" : "10.0.0.2");
+        }
+        aggregator.descarregarJanelas();
+        verify(eventPublisherService, times(1)).publicarNotificacaoLogin(imediata);
+        verify(eventPublisherService, never()).publicarNotificacaoLogin(resumo);
+
+        ReflectionTestUtils.setField(aggregator, "janelaSegundos", 0L);
+        aggregator.descarregarJanelas();
+
+        verify(emailEventFactory).resumoLoginFalha(eq(DESTINATARIO), eq("João"), eq(5),
+                eq(List.of("10.0.0.2", "10.0.0.1")), any(), any());
+        verify(eventPublisherService, times(1)).publicarNotificacaoLogin(resumo);
+    }
+
+    @Test
+    @DisplayName("Redis: falhas em duas réplicas viram um resumo; a janela seguinte não se mistura")
+    void coalesceCompartilhado() {
+        RedisEmMemoria redis = new RedisEmMemoria();
+        LoginNotificationAggregator replicaA = criar(redis, 0);
+        LoginNotificationAggregator replicaB = criar(redis, 0);
+
+        replicaA.registrarFalha(DESTINATARIO, "João", "10.0.0.1");
+        replicaB.registrarFalha(DESTINATARIO, "João", "10.0.0.2");
+        replicaA.registrarFalha(DESTINATARIO, "João", "10.0.0.3");
+        verify(eventPublisherService, times(1)).publicarNotificacaoLogin(imediata);
+
+        replicaA.descarregarJanelas();
+        replicaB.descarregarJanelas();
+        verify(emailEventFactory, times(1)).resumoLoginFalha(eq(DESTINATARIO), eq("João"), eq(2),
+                eq(List.of("10.0.0.2", "10.0.0.3")), any(), any());
+
+        // Depois da descarga, a próxima falha abre uma janela nova, notificada na hora
+        replicaB.registrarFalha(DESTINATARIO, "João", "10.0.0.4");
+        replicaB.registrarFalha(DESTINATARIO, "João", "10.0.0.5");
+        verify(eventPublisherService, times(2)).publicarNotificacaoLogin(imediata);
+        replicaB.descarregarJanelas();
+        verify(emailEventFactory, times(1)).resumoLoginFalha(eq(DESTINATARIO), eq("João"), eq(1),
+                eq(List.of("10.0.0.5")), any(), any());
+    }
+}
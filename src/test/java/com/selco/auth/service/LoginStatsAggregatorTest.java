@@ -0,0 +1,132 @@
+package com.selco.auth.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.selco.auth.model.EstatisticaLogin;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da descarga dos contadores de login: deltas por chave e devolução dos que falharam
+ */
+@DisplayName("Contadores de login por minuto")
+class LoginStatsAggregatorTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulk = mock(BulkOperations.class, RETURNS_SELF);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginStatsAggregator aggregator = new LoginStatsAggregator();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EstatisticaLogin.class)).thenReturn(bulk);
+        ReflectionTestUtils.setField(aggregator, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(aggregator, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(aggregator, "habilitado", true);
+        ReflectionTestUtils.setField(aggregator, "maxIpsPorMinuto", 5000);
+        aggregator.init();
+    }
+
+    /**
+     * Upserts enviados desde o último clearInvocations, por _id e na ordem do bulk: {sucessos, falhas}
+     */
+    private Map<String, long[]> upserts(int quantidade) {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(quantidade)).upsert(queries.capture(), updates.capture());
+
+        Map<String, long[]> porId = new LinkedHashMap<>();
+        for (int i = 0; i < quantidade; i++) {
+            Document inc = updates.getAllValues().get(i).getUpdateObject().get("$inc", Document.class);
+            porId.put(queries.getAllValues().get(i).getQueryObject().getString("_id"),
+                    new long[] { ((Number) inc.get("sucessos")).longValue(), ((Number) inc.get("falhas")).longValue() });
+        }
+        return porId;
+    }
+
+    private static Map<String, long[]> porDimensao(Map<String, long[]> porId) {
+        Map<String, long[]> resultado = new HashMap<>();
+        porId.forEach((id, contagem) -> resultado.put(id.substring(0, id.indexOf('|')), contagem));
+        return resultado;
+    }
+
+    @Test
+    @DisplayName("Descarga envia um upsert com $inc por dimensão e não reenvia o que já foi gravado")
+    void descarregaDeltas() {
+        aggregator.registrar("10.0.0.1", "FUNCIONARIO", true);
+        aggregator.registrar("10.0.0.1", "FUNCIONARIO", true);
+        aggregator.registrar("10.0.0.1", "FUNCIONARIO", false);
+
+        aggregator.descarregar();
+
+        Map<String, long[]> enviados = porDimensao(upserts(3));
+        assertThat(enviados.keySet()).containsExactlyInAnyOrder(
+                EstatisticaLogin.DIMENSAO_GLOBAL, EstatisticaLogin.DIMENSAO_IP, EstatisticaLogin.DIMENSAO_TIPO_USUARIO);
+        assertThat(enviados.values()).allSatisfy(contagem -> assertThat(contagem).containsExactly(2, 1));
+
+        clearInvocations(bulk, mongoTemplate);
+        aggregator.descarregar();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    @DisplayName("Falha do bulk devolve todos os deltas, somados aos novos na descarga seguinte")
+    void falhaDevolveTudo() {
+        aggregator.registrar("10.0.0.1", "FUNCIONARIO", true);
+        when(bulk.execute()).thenThrow(new IllegalStateException("primário indisponível"));
+        aggregator.descarregar();
+
+        reset(bulk);
+        when(bulk.upsert(any(Query.class), any(Update.class))).thenReturn(bulk);
+        aggregator.registrar("10.0.0.1", "FUNCIONARIO", false);
+        aggregator.descarregar();
+
+        assertThat(porDimensao(upserts(3)).values()).allSatisfy(contagem -> assertThat(contagem).containsExactly(1, 1));
+        assertThat(meterRegistry.counter("selco.stats.login.flush.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Erro parcial do bulk devolve só a operação com erro")
+    void erroParcialDevolveSoAFalha() {
+        aggregator.registrar("10.0.0.1", "FUNCIONARIO", true);
+        BulkOperationException erro = mock(BulkOperationException.class);
+        when(erro.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "duplicada", new BsonDocument(), 1)));
+        when(bulk.execute()).thenThrow(erro);
+        aggregator.descarregar();
+        String comErro = List.copyOf(upserts(3).keySet()).get(1);
+
+        reset(bulk);
+        when(bulk.upsert(any(Query.class), any(Update.class))).thenReturn(bulk);
+        aggregator.descarregar();
+
+        Map<String, long[]> reenviados = upserts(1);
+        assertThat(reenviados).containsOnlyKeys(comErro);
+        assertThat(reenviados.get(comErro)).containsExactly(1, 0);
+    }
+}
@@ -0,0 +1,101 @@
+package com.selco.auth.service;
+
+import com.selco.auth.dto.EstatisticaLoginSerieDTO;
+import com.selco.auth.dto.EstatisticaLoginSerieDTO.Ponto;
+import com.selco.auth.model.EstatisticaLogin;
+import com.selco.auth.repository.EstatisticaLoginRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do reagrupamento dos rollups por minuto em intervalos maiores
+ */
+@DisplayName("Séries de estatísticas de login")
+class LoginStatsServiceTest {
+
+    private final EstatisticaLoginRepository repository = mock(EstatisticaLoginRepository.class);
+    private final LoginStatsService service = new LoginStatsService();
+    private final LocalDateTime inicio = LocalDateTime.of(2024, 12, 24, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "estatisticaLoginRepository", repository);
+        ReflectionTestUtils.setField(service, "periodoMaximoHoras", 168L);
+    }
+
+    private EstatisticaLogin rollup(String dimensao, String valor, int minuto, long sucessos, long falhas) {
+        EstatisticaLogin estatistica = new EstatisticaLogin();
+        estatistica.setDimensao(dimensao);
+        estatistica.setValor(valor);
+        estatistica.setMinuto(inicio.plusMinutes(minuto));
+        estatistica.setSucessos(sucessos);
+        estatistica.setFalhas(falhas);
+        return estatistica;
+    }
+
+    @Test
+    @DisplayName("Minutos do mesmo intervalo são somados e intervalos vazios não geram ponto")
+    void reagrupaPorIntervalo() {
+        when(repository.findByDimensaoAndValorAndMinutoBetweenOrderByMinutoAsc(eq("global"), eq("*"), any(Range.class)))
+                .thenReturn(List.of(
+                        rollup("global", "*", 0, 5, 1),
+                        rollup("global", "*", 4, 3, 0),
+                        rollup("global", "*", 5, 2, 2),
+                        rollup("global", "*", 17, 1, 0)));
+
+        List<EstatisticaLoginSerieDTO> series = service.buscarSeries("global", null, inicio, inicio.plusHours(1), 5);
+
+        assertThat(series).hasSize(1);
+        List<Ponto> pontos = series.get(0).getPontos();
+        assertThat(pontos).extracting(Ponto::getInicio)
+                .containsExactly(inicio, inicio.plusMinutes(5), inicio.plusMinutes(15));
+        assertThat(pontos).extracting(Ponto::getSucessos).containsExactly(8L, 2L, 1L);
+        assertThat(pontos).extracting(Ponto::getFalhas).containsExactly(1L, 2L, 0L);
+    }
+
+    @Test
+    @DisplayName("Intervalos partem do início truncado ao minuto e cada valor da dimensão tem sua série")
+    void seriesPorValor() {
+        when(repository.findByDimensaoAndMinutoBetweenOrderByValorAscMinutoAsc(eq("tipoUsuario"), any(Range.class)))
+                .thenReturn(List.of(
+                        rollup("tipoUsuario", "ADMIN", 0, 1, 0),
+                        rollup("tipoUsuario", "FUNCIONARIO", 0, 4, 0),
+                        rollup("tipoUsuario", "FUNCIONARIO", 59, 2, 1)));
+
+        List<EstatisticaLoginSerieDTO> series = service.buscarSeries("tipoUsuario", null,
+                inicio.plusSeconds(30), inicio.plusHours(2), 60);
+
+        assertThat(series).extracting(EstatisticaLoginSerieDTO::getValor).containsExactly("ADMIN", "FUNCIONARIO");
+        assertThat(series.get(1).getPontos()).singleElement().satisfies(ponto -> {
+            assertThat(ponto.getInicio()).isEqualTo(inicio);
+            assertThat(ponto.getSucessos()).isEqualTo(6);
+            assertThat(ponto.getFalhas()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Parâmetros inválidos são recusados")
+    void validaParametros() {
+        assertThatThrownBy(() -> service.buscarSeries("pais", null, inicio, inicio.plusHours(1), 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.buscarSeries("ip", " ", inicio, inicio.plusHours(1), 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.buscarSeries("global", null, inicio, inicio.plusHours(1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.buscarSeries("global", null, inicio, inicio.plusHours(169), 60))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.selco.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do controle de publisher confirms com RabbitTemplate e journal simulados
+ */
+@DisplayName("Publisher confirms do RabbitMQ")
+class PublisherConfirmTrackerTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final EventSpillJournal eventSpillJournal = mock(EventSpillJournal.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PublisherConfirmTracker tracker;
+
+    private PublisherConfirmTracker criar(int maxEmVoo, int maxTentativas, long timeoutConfirmMs) {
+        tracker = new PublisherConfirmTracker();
+        ReflectionTestUtils.setField(tracker, "rabbitTemplate", rabbitTemplate);
+        ReflectionTestUtils.setField(tracker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(tracker, "eventSpillJournal", eventSpillJournal);
+        ReflectionTestUtils.setField(tracker, "habilitado", true);
+        ReflectionTestUtils.setField(tracker, "maxEmVoo", maxEmVoo);
+        ReflectionTestUtils.setField(tracker, "esperaJanelaMs", 10L);
+        ReflectionTestUtils.setField(tracker, "maxTentativas", maxTentativas);
+        ReflectionTestUtils.setField(tracker, "backoffInicialMs", 5L);
+        ReflectionTestUtils.setField(tracker, "backoffMaximoMs", 20L);
+        ReflectionTestUtils.setField(tracker, "timeoutConfirmMs", timeoutConfirmMs);
+        tracker.init();
+        return tracker;
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.shutdown();
+    }
+
+    private static Message mensagem() {
+        return new Message("{}".getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+
+    /**
+     * CorrelationData do último envio ao RabbitTemplate
+     */
+    private CorrelationData ultimoEnvio(int envios) {
+        ArgumentCaptor<CorrelationData> correlacao = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, timeout(2000).times(envios))
+                .send(eq("selco.email.exchange"), eq("email.send"), any(Message.class), correlacao.capture());
+        return correlacao.getValue();
+    }
+
+    private double contador(String nome) {
+        return meterRegistry.counter(nome).count();
+    }
+
+    @Test
+    @DisplayName("Ack libera a vaga na janela")
+    void ackLiberaJanela() {
+        criar(10, 3, 60_000);
+
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+        assertThat(tracker.getMensagensEmVoo()).isEqualTo(1);
+
+        tracker.confirm(ultimoEnvio(1), true, null);
+
+        assertThat(tracker.getMensagensEmVoo()).isZero();
+        assertThat(meterRegistry.counter("selco.events.publish.confirms", "result", "ack").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Nack reenvia com o mesmo id até o ack")
+    void nackReenvia() {
+        criar(10, 3, 60_000);
+
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+        CorrelationData primeiro = ultimoEnvio(1);
+        tracker.confirm(primeiro, false, "fila cheia");
+
+        CorrelationData segundo = ultimoEnvio(2);
+        assertThat(segundo.getId()).isEqualTo(primeiro.getId());
+        tracker.confirm(segundo, true, null);
+
+        assertThat(tracker.getMensagensEmVoo()).isZero();
+        assertThat(contador("selco.events.publish.retries")).isEqualTo(1);
+        verify(eventSpillJournal, never()).anexar(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Mensagem devolvida pelo broker é descartada, sem reenvio nem journal")
+    void devolvidaDescartada() {
+        criar(10, 3, 60_000);
+
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+        CorrelationData envio = ultimoEnvio(1);
+        ReturnedMessage devolvida = new ReturnedMessage(mensagem(), 312, "NO_ROUTE", "selco.email.exchange", "email.send");
+        tracker.returnedMessage(devolvida);
+        envio.setReturned(devolvida);
+        tracker.confirm(envio, true, null);
+
+        verify(rabbitTemplate, after(100).times(1)).send(any(), any(), any(Message.class), any(CorrelationData.class));
+        verify(eventSpillJournal, never()).anexar(any(), any(), any());
+        assertThat(contador("selco.events.publish.returned")).isEqualTo(1);
+        assertThat(contador("selco.events.publish.dropped")).isEqualTo(1);
+        assertThat(contador("selco.events.publish.retries")).isZero();
+        assertThat(tracker.getMensagensEmVoo()).isZero();
+    }
+
+    @Test
+    @DisplayName("Esgotadas as tentativas, a mensagem vai para o journal e sai da janela")
+    void esgotadaVaiParaJournal() {
+        criar(10, 1, 60_000);
+        when(eventSpillJournal.anexar(any(), any(), any())).thenReturn(true);
+
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+        tracker.confirm(ultimoEnvio(1), false, "nack");
+        tracker.confirm(ultimoEnvio(2), false, "nack");
+
+        verify(eventSpillJournal).anexar(eq("selco.email.exchange"), eq("email.send"), any(Message.class));
+        assertThat(tracker.getMensagensEmVoo()).isZero();
+        assertThat(contador("selco.events.publish.spilled")).isEqualTo(1);
+        assertThat(contador("selco.events.publish.dropped")).isZero();
+    }
+
+    @Test
+    @DisplayName("Confirm que não chega expira e a mensagem é reenviada")
+    void confirmExpira() {
+        criar(10, 3, 50);
+
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+        CorrelationData reenvio = ultimoEnvio(2);
+
+        assertThat(contador("selco.events.publish.confirm.timeouts")).isGreaterThanOrEqualTo(1);
+        tracker.confirm(reenvio, true, null);
+        assertThat(tracker.getMensagensEmVoo()).isZero();
+    }
+
+    @Test
+    @DisplayName("Janela cheia recusa novas publicações até um confirm")
+    void limiteEmVoo() {
+        criar(2, 3, 60_000);
+
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+        assertThatThrownBy(() -> tracker.publicar("selco.email.exchange", "email.send", mensagem()))
+                .isInstanceOf(AmqpException.class);
+
+        tracker.confirm(ultimoEnvio(2), true, null);
+        tracker.publicar("selco.email.exchange", "email.send", mensagem());
+
+        verify(rabbitTemplate, times(3)).send(any(), any(), any(Message.class), any(CorrelationData.class));
+        assertThat(tracker.getMensagensEmVoo()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,125 @@
+package com.selco.auth.service;
+
+import com.selco.auth.dto.SessaoDTO;
+import com.selco.auth.model.Token;
+import com.selco.auth.repository.TokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes do registro de sessões: amostragem do último acesso, descarga em bulk e revogação por sessão
+ */
+@DisplayName("Registro de sessões")
+class SessionRegistryTest {
+
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final TokenBlacklistService tokenBlacklistService = mock(TokenBlacklistService.class);
+    private final BulkOperations bulk = mock(BulkOperations.class, RETURNS_SELF);
+    private final SessionRegistry registry = new SessionRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class)).thenReturn(bulk);
+        ReflectionTestUtils.setField(registry, "tokenRepository", tokenRepository);
+        ReflectionTestUtils.setField(registry, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(registry, "tokenBlacklistService", tokenBlacklistService);
+        ReflectionTestUtils.setField(registry, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "habilitado", true);
+        ReflectionTestUtils.setField(registry, "maxListagem", 50);
+        ReflectionTestUtils.setField(registry, "ultimoAcessoHabilitado", true);
+        ReflectionTestUtils.setField(registry, "resolucaoSegundos", 60L);
+        ReflectionTestUtils.setField(registry, "maxPendentes", 100_000);
+        registry.init();
+    }
+
+    private static Token sessao(String id, String usuarioId) {
+        Token token = new Token(usuarioId, "refresh-" + id, LocalDateTime.now().plusDays(7));
+        token.setId(id);
+        token.setUltimoAcesso(token.getDataCriacao());
+        return token;
+    }
+
+    @Test
+    @DisplayName("Vários acessos na mesma resolução viram uma única atualização por sessão")
+    void coalesceAcessos() {
+        for (int i = 0; i < 100; i++) {
+            registry.registrarAcesso("sessao-a");
+            registry.registrarAcesso("sessao-b");
+        }
+        registry.registrarAcesso(null);
+
+        registry.descarregar();
+        registry.descarregar();
+
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, Token.class);
+        verify(bulk, times(2)).updateOne(any(Query.class), any(Update.class));
+        verify(bulk).execute();
+
+        // Dentro da resolução a sessão já amostrada não volta para a fila
+        registry.registrarAcesso("sessao-a");
+        registry.descarregar();
+        verify(bulk, times(2)).updateOne(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    @DisplayName("Descarga com falha mantém o último acesso pendente, que aparece na listagem")
+    void falhaMantemPendente() {
+        Token token = sessao("sessao-a", "usuario-1");
+        LocalDateTime gravado = token.getUltimoAcesso().minusMinutes(30);
+        token.setUltimoAcesso(gravado);
+        when(tokenRepository.findByUsuarioIdOrderByDataCriacaoDesc(eq("usuario-1"), any(Pageable.class)))
+                .thenReturn(List.of(token, sessao("sessao-b", "usuario-1")));
+        when(bulk.execute()).thenThrow(new IllegalStateException("primário indisponível"));
+
+        registry.registrarAcesso("sessao-a");
+        registry.descarregar();
+
+        List<SessaoDTO> sessoes = registry.listar("usuario-1", "sessao-b");
+        assertThat(sessoes).extracting(SessaoDTO::getId).containsExactly("sessao-a", "sessao-b");
+        assertThat(sessoes.get(0).getUltimoAcesso()).isAfter(gravado);
+        assertThat(sessoes.get(0).isAtual()).isFalse();
+        assertThat(sessoes.get(1).isAtual()).isTrue();
+
+        registry.descarregar();
+        verify(bulk, times(2)).updateOne(any(Query.class), any(Update.class));
+    }
+
+    @Test
+    @DisplayName("Revoga apenas sessões do próprio usuário")
+    void revogaSomenteDoUsuario() {
+        when(tokenRepository.findById("sessao-a")).thenReturn(Optional.of(sessao("sessao-a", "usuario-1")));
+        when(tokenRepository.findById("inexistente")).thenReturn(Optional.empty());
+
+        assertThat(registry.revogar("sessao-a", "usuario-2")).isFalse();
+        assertThat(registry.revogar("inexistente", "usuario-1")).isFalse();
+        verify(tokenBlacklistService, never()).revogarSessao(anyString());
+
+        assertThat(registry.revogar("sessao-a", "usuario-1")).isTrue();
+        verify(tokenBlacklistService).revogarSessao("sessao-a");
+        verify(tokenRepository).deleteById("sessao-a");
+    }
+}
@@ -0,0 +1,188 @@
+package com.selco.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da blacklist distribuída com um Redis em memória por nó
+ */
+@DisplayName("Blacklist distribuída em vários Redis")
+class ShardedRedisTokenBlacklistStoreTest {
+
+    /**
+     * Redis em memória com os comandos usados pelo store; fora do ar, toda chamada falha como conexão recusada
+     */
+    static final class RedisEmMemoria extends RedisTemplate<String, String> {
+
+        private final Map<String, Long> chaves = new ConcurrentHashMap<>();
+        private final AtomicInteger chamadas = new AtomicInteger();
+        private volatile boolean foraDoAr;
+
+        @SuppressWarnings("unchecked")
+        private final ValueOperations<String, String> operacoes = (ValueOperations<String, String>) Proxy.newProxyInstance(
+                ValueOperations.class.getClassLoader(), new Class<?>[]{ValueOperations.class},
+                (proxy, metodo, argumentos) -> {
+                    verificar();
+                    if (!metodo.getName().equals("set")) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    chaves.put((String) argumentos[0], System.currentTimeMillis() + ((Duration) argumentos[2]).toMillis());
+                    return null;
+                });
+
+        private void verificar() {
+            chamadas.incrementAndGet();
+            if (foraDoAr) {
+                throw new RedisConnectionFailureException("Connection refused");
+            }
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return operacoes;
+        }
+
+        @Override
+        public Boolean hasKey(String key) {
+            verificar();
+            return chaves.containsKey(key);
+        }
+
+        @Override
+        public Boolean delete(String key) {
+            verificar();
+            return chaves.remove(key) != null;
+        }
+
+        @Override
+        public Long delete(Collection<String> keys) {
+            verificar();
+            return keys.stream().filter(key -> chaves.remove(key) != null).count();
+        }
+
+        @Override
+        public Set<String> keys(String pattern) {
+            verificar();
+            return Set.copyOf(chaves.keySet());
+        }
+
+        @Override
+        public Long getExpire(String key, TimeUnit timeUnit) {
+            verificar();
+            Long expiraEm = chaves.get(key);
+            return expiraEm == null ? -2L : timeUnit.convert(expiraEm - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Cursor<String> scan(ScanOptions options) {
+            verificar();
+            Iterator<String> iterador = List.copyOf(chaves.keySet()).iterator();
+            Cursor<String> cursor = mock(Cursor.class);
+            when(cursor.hasNext()).thenAnswer(chamada -> iterador.hasNext());
+            when(cursor.next()).thenAnswer(chamada -> iterador.next());
+            return cursor;
+        }
+    }
+
+    private final Map<String, RedisEmMemoria> redis = new ConcurrentHashMap<>();
+
+    private ShardedRedisTokenBlacklistStore criar(String nos, String anteriores, String politica) {
+        ShardedRedisTokenBlacklistStore store = new ShardedRedisTokenBlacklistStore() {
+            @Override
+            RedisTemplate<String, String> criarTemplate(String endpoint) {
+                return redis.computeIfAbsent(endpoint, chave -> new RedisEmMemoria());
+            }
+        };
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "nos", nos);
+        ReflectionTestUtils.setField(store, "nosAnteriores", anteriores);
+        ReflectionTestUtils.setField(store, "nosVirtuais", 160);
+        ReflectionTestUtils.setField(store, "politicaFalha", politica);
+        ReflectionTestUtils.setField(store, "intervaloRetentativaMs", 60_000L);
+        store.init();
+        return store;
+    }
+
+    private static List<String> tokens(int quantidade) {
+        return IntStream.range(0, quantidade).mapToObj(i -> "eyJhbGciOiJIUzI1NiJ9.token-" + i).toList();
+    }
+
+    @Test
+    @DisplayName("Distribui os tokens entre os nós, cada um em um único nó")
+    void distribuiEntreOsNos() {
+        ShardedRedisTokenBlacklistStore store = criar("redis-a:6379,redis-b:6379,redis-c:6379", "", "open");
+
+        tokens(3000).forEach(token -> store.adicionar(token, Duration.ofMinutes(5)));
+
+        assertThat(tokens(3000)).allMatch(store::contem);
+        assertThat(store.contem("nao-revogado")).isFalse();
+        assertThat(store.tamanho()).isEqualTo(3000);
+        assertThat(redis.values()).allSatisfy(no -> assertThat(no.chaves.size()).isBetween(700, 1300));
+    }
+
+    @Test
+    @DisplayName("Nó fora do ar segue a política de falha sem afetar os demais")
+    void politicaDeFalha() {
+        ShardedRedisTokenBlacklistStore aberta = criar("redis-a:6379,redis-b:6379", "", "open");
+        tokens(200).forEach(token -> aberta.adicionar(token, Duration.ofMinutes(5)));
+        ShardedRedisTokenBlacklistStore fechada = criar("redis-a:6379,redis-b:6379", "", "closed");
+        redis.get("redis-b:6379").foraDoAr = true;
+
+        ConsistentHashRing anel = new ConsistentHashRing(List.of("redis-a:6379", "redis-b:6379"), 160);
+        for (String token : tokens(200)) {
+            boolean noA = anel.no(token).equals("redis-a:6379");
+            assertThat(aberta.contem(token)).isEqualTo(noA);
+            assertThat(fechada.contem(token)).isTrue();
+            // Resposta da política de falha não pode ir para o cache local
+            assertThat(fechada.consultar(token).definitiva()).isEqualTo(noA);
+        }
+
+        // Depois da primeira falha o nó fica fora pelo intervalo de retentativa, sem novas chamadas
+        int chamadas = redis.get("redis-b:6379").chamadas.get();
+        tokens(200).forEach(aberta::contem);
+        assertThat(redis.get("redis-b:6379").chamadas.get()).isEqualTo(chamadas);
+    }
+
+    @Test
+    @DisplayName("Novo nó: consulta no dono anterior durante a migração e rebalanceamento move só as chaves do novo nó")
+    void rebalanceiaAoAdicionarNo() {
+        ShardedRedisTokenBlacklistStore antes = criar("redis-a:6379,redis-b:6379,redis-c:6379", "", "open");
+        tokens(4000).forEach(token -> antes.adicionar(token, Duration.ofMinutes(5)));
+
+        ShardedRedisTokenBlacklistStore depois = criar("redis-a:6379,redis-b:6379,redis-c:6379,redis-d:6379",
+                "redis-a:6379,redis-b:6379,redis-c:6379", "open");
+        assertThat(tokens(4000)).allMatch(depois::contem);
+
+        long movidas = depois.rebalancear();
+
+        assertThat(movidas).isEqualTo(redis.get("redis-d:6379").chaves.size()).isBetween(600L, 1400L);
+        assertThat(redis.get("redis-d:6379").chaves.values()).allMatch(expiraEm -> expiraEm > System.currentTimeMillis());
+        assertThat(depois.tamanho()).isEqualTo(4000);
+        assertThat(tokens(4000)).allMatch(depois::contem);
+        assertThat(depois.rebalancear()).isZero();
+    }
+}
@@ -0,0 +1,98 @@
+package com.selco.auth.service;
+
+import com.selco.auth.cache.CacheCoherenceService;
+import com.selco.auth.cache.LocalCache;
+import com.selco.auth.service.TokenBlacklistStore.Consulta;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da verificação pela sessão revogada, do tempo de vida da revogação e do cache das consultas
+ */
+@DisplayName("Blacklist de tokens e sessões")
+class TokenBlacklistServiceTest {
+
+    private final TokenBlacklistStore blacklistStore = mock(TokenBlacklistStore.class, CALLS_REAL_METHODS);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final CacheCoherenceService cacheCoherenceService = mock(CacheCoherenceService.class);
+    private final TokenBlacklistService service = new TokenBlacklistService();
+
+    @BeforeEach
+    void setUp() {
+        AuthMetrics authMetrics = new AuthMetrics();
+        ReflectionTestUtils.setField(authMetrics, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(authMetrics, "percentis", new double[0]);
+        when(cacheCoherenceService.getBlacklist()).thenReturn(new LocalCache<>("blacklist", false, 0, 0, 0));
+
+        ReflectionTestUtils.setField(service, "blacklistStore", blacklistStore);
+        ReflectionTestUtils.setField(service, "jwtService", jwtService);
+        ReflectionTestUtils.setField(service, "authMetrics", authMetrics);
+        ReflectionTestUtils.setField(service, "cacheCoherenceService", cacheCoherenceService);
+    }
+
+    @Test
+    @DisplayName("Token de sessão revogada está na blacklist mesmo sem entrada própria")
+    void sessaoRevogada() {
+        when(jwtService.extractSessaoId("token")).thenReturn("sessao-1");
+        when(blacklistStore.contem("sessao:sessao-1")).thenReturn(true);
+
+        assertThat(service.isTokenBlacklisted("token")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Token expirado ou forjado não tem sessão consultada e não é tratado como erro")
+    void tokenSemSessaoLegivel() {
+        when(jwtService.extractSessaoId("expirado")).thenThrow(new ExpiredJwtException(null, null, "JWT expired"));
+        when(jwtService.extractSessaoId("forjado")).thenThrow(new SignatureException("assinatura inválida"));
+
+        assertThat(service.isTokenBlacklisted("expirado")).isFalse();
+        assertThat(service.isTokenBlacklisted("forjado")).isFalse();
+        verify(blacklistStore, never()).contem(startsWith("sessao:"));
+    }
+
+    @Test
+    @DisplayName("Revogação da sessão dura o tempo de vida do refresh token")
+    void revogacaoDuraORefreshToken() {
+        when(jwtService.getAccessTokenExpirationInSeconds()).thenReturn(8 * 3600L);
+        when(jwtService.getRefreshTokenExpirationInSeconds()).thenReturn(7 * 86400L);
+
+        service.revogarSessao("sessao-1");
+
+        verify(blacklistStore).adicionar("sessao:sessao-1", Duration.ofDays(7));
+        verify(cacheCoherenceService).invalidar(eq(CacheCoherenceService.BLACKLIST), anyString());
+    }
+
+    @Test
+    @DisplayName("Resposta da política de falha não fica no cache; a do armazenamento fica")
+    void politicaDeFalhaNaoVaiParaOCache() {
+        when(cacheCoherenceService.getBlacklist()).thenReturn(new LocalCache<>("blacklist", true, 10_000, 100, 0));
+        doReturn(new Consulta(false, false), new Consulta(true, true)).when(blacklistStore).consultar("revogado");
+        doReturn(new Consulta(false, true), new Consulta(true, true)).when(blacklistStore).consultar("valido");
+
+        assertThat(service.isTokenBlacklisted("revogado")).isFalse();
+        assertThat(service.isTokenBlacklisted("revogado")).isTrue();
+
+        assertThat(service.isTokenBlacklisted("valido")).isFalse();
+        assertThat(service.isTokenBlacklisted("valido")).isFalse();
+        verify(blacklistStore, times(1)).consultar("valido");
+    }
+}
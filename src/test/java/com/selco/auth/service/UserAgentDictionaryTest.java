@@ -0,0 +1,117 @@
+package com.selco.auth.service;
+
+import com.selco.auth.model.UserAgentDicionario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes da resolução em segundo plano e dos limites do dicionário de User-Agents
+ */
+@DisplayName("Dicionário de User-Agents")
+class UserAgentDictionaryTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final UserAgentDictionary dicionario = new UserAgentDictionary();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dicionario, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(dicionario, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dicionario, "habilitado", true);
+        ReflectionTestUtils.setField(dicionario, "maxEntradas", 100);
+        ReflectionTestUtils.setField(dicionario, "tamanhoMaximo", 512);
+        ReflectionTestUtils.setField(dicionario, "maxNovosPorMinuto", 60);
+        dicionario.init();
+
+        when(mongoTemplate.insert(any(UserAgentDicionario.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dicionario.encerrar();
+    }
+
+    private void contadorRetorna(int... valores) {
+        var chamada = when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("contadores")));
+        for (int valor : valores) {
+            chamada = chamada.thenReturn(new Document("_id", "user_agents").append("seq", valor));
+        }
+    }
+
+    @Test
+    @DisplayName("Valor ausente volta em texto sem acessar o MongoDB e é resolvido em segundo plano")
+    void resolveEmSegundoPlano() throws InterruptedException {
+        contadorRetorna(7);
+
+        assertThat(dicionario.obterId("Mozilla/5.0")).isNull();
+
+        ThreadPoolExecutor resolucao = (ThreadPoolExecutor) ReflectionTestUtils.getField(dicionario, "resolucao");
+        resolucao.shutdown();
+        assertThat(resolucao.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        verify(mongoTemplate).insert(any(UserAgentDicionario.class));
+        assertThat(dicionario.obterId("Mozilla/5.0")).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Contador no limite marca o dicionário como cheio e não é incrementado de novo")
+    void cheioNaoIncrementa() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("contadores"))).thenThrow(new DuplicateKeyException("E11000"));
+
+        dicionario.resolver("ua-1");
+        dicionario.resolver("ua-2");
+
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("contadores"));
+        verify(mongoTemplate, never()).insert(any(UserAgentDicionario.class));
+    }
+
+    @Test
+    @DisplayName("Contador já no limite em outra réplica ou subida: nenhuma tentativa de criação")
+    void cheioPersistido() {
+        when(mongoTemplate.findById("user_agents", Document.class, "contadores"))
+                .thenReturn(new Document("_id", "user_agents").append("seq", 100));
+
+        dicionario.resolver("ua-1");
+
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq("contadores"));
+    }
+
+    @Test
+    @DisplayName("Novas entradas acima de max-new-per-minute ficam em texto")
+    void limiteDeNovasEntradas() {
+        ReflectionTestUtils.setField(dicionario, "maxNovosPorMinuto", 2);
+        contadorRetorna(1, 2, 3);
+
+        dicionario.resolver("ua-1");
+        dicionario.resolver("ua-2");
+        dicionario.resolver("ua-3");
+
+        verify(mongoTemplate, times(2)).insert(any(UserAgentDicionario.class));
+        assertThat(dicionario.obterId("ua-2")).isEqualTo(2);
+    }
+}